@@ -33,8 +33,10 @@ android {
 
 dependencies {
 
+    implementation(project(":note-core"))
     implementation(libs.appcompat)
     implementation(libs.material)
+    implementation(libs.recyclerview)
     testImplementation(libs.junit)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
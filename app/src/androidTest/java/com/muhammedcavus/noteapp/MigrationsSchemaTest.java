@@ -0,0 +1,115 @@
+package com.muhammedcavus.noteapp;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+// Sürüm 1'den yükseltilen veritabanı yeni kurulanla aynı şemaya ulaşmalı (bkz. Migrations)
+@RunWith(AndroidJUnit4.class)
+public class MigrationsSchemaTest {
+
+    @Test
+    public void migratedSchemaMatchesFreshSchema() {
+        SQLiteDatabase migrated = SQLiteDatabase.create(null);
+        SQLiteDatabase fresh = SQLiteDatabase.create(null);
+        try {
+            // Sürüm 1'in tablosu; büyük not parçalara bölünme adımından da geçer
+            migrated.execSQL("CREATE TABLE notes (_id INTEGER PRIMARY KEY AUTOINCREMENT, title TEXT, content TEXT, "
+                    + "date TEXT );");
+            StringBuilder body = new StringBuilder();
+            while (body.length() < NoteChunks.CHUNK_SIZE * 2) {
+                body.append("uzun bir satır\n");
+            }
+            migrated.execSQL("INSERT INTO notes (title, content, date) VALUES ('Kısa', 'içerik', '2020-01-01 10:00')");
+            migrated.execSQL("INSERT INTO notes (title, content, date) VALUES (?, ?, '2020-01-02 10:00')",
+                    new Object[]{"Uzun", body + "sonda zürafa"});
+            Migrations.migrate(migrated, 1, NoteSchema.VERSION, null);
+            for (String sql : NoteSchema.createStatements()) {
+                fresh.execSQL(sql);
+            }
+
+            Map<String, String> expected = schema(fresh);
+            Map<String, String> actual = schema(migrated);
+            // Eski tarih sütunu silinmez (SQLite sütun silemiyordu); geçişte okunduktan sonra kullanılmaz
+            actual.put("table notes", actual.get("table notes").replace("date TEXT notnull=0 default=null pk=0, ", ""));
+            assertEquals(expected, actual);
+            assertEquals(1, Migrations.queryLong(migrated,
+                    "SELECT count(*) FROM notes_fts WHERE notes_fts MATCH 'zurafa'", null, 0));
+        } finally {
+            migrated.close();
+            fresh.close();
+        }
+    }
+
+    // Sürüm 8'in önizleme ve kelime sayısı doldurması değişiklik günlüğüne yazılmamalı; yoksa yükseltmeden
+    // sonraki ilk yenileme her notu değişmiş sayar
+    @Test
+    public void previewBackfillDoesNotLogChanges() {
+        SQLiteDatabase db = SQLiteDatabase.create(null);
+        try {
+            db.execSQL("CREATE TABLE notes (_id INTEGER PRIMARY KEY AUTOINCREMENT, title TEXT, content TEXT, "
+                    + "date TEXT );");
+            for (int i = 0; i < 5; i++) {
+                db.execSQL("INSERT INTO notes (title, content, date) VALUES (?, 'bir iki üç', '2020-01-01 10:00')",
+                        new Object[]{"Not " + i});
+            }
+            Migrations.migrate(db, 1, 7, null);
+            Migrations.migrate(db, 7, 8, null);
+            assertEquals(0, Migrations.queryLong(db, "SELECT count(*) FROM note_changes", null, -1));
+            assertEquals(5, Migrations.queryLong(db, "SELECT count(*) FROM notes WHERE word_count = 3", null, -1));
+        } finally {
+            db.close();
+        }
+    }
+
+    // Nesne adı -> tanımı. Tablolar sütunlarıyla karşılaştırılır (ALTER TABLE ile eklenen sütunlar
+    // CREATE metnini değiştirir), indeks ve tetikleyiciler boşlukları sadeleştirilmiş SQL'leriyle
+    private static Map<String, String> schema(SQLiteDatabase db) {
+        List<String[]> objects = new ArrayList<>();
+        Cursor cursor = db.rawQuery("SELECT type, name, sql FROM sqlite_master WHERE name NOT LIKE 'sqlite_%' "
+                + "AND name NOT LIKE 'android_%'", null);
+        try {
+            while (cursor.moveToNext()) {
+                objects.add(new String[]{cursor.getString(0), cursor.getString(1), cursor.getString(2)});
+            }
+        } finally {
+            cursor.close();
+        }
+        Map<String, String> schema = new TreeMap<>();
+        for (String[] object : objects) {
+            String sql = object[2] == null ? "" : object[2].replaceAll("\\s+", " ").trim();
+            if (object[0].equals("table") && !sql.startsWith("CREATE VIRTUAL")) {
+                schema.put("table " + object[1], columns(db, object[1]));
+            } else {
+                schema.put(object[0] + " " + object[1], sql);
+            }
+        }
+        return schema;
+    }
+
+    private static String columns(SQLiteDatabase db, String table) {
+        TreeSet<String> columns = new TreeSet<>();
+        Cursor cursor = db.rawQuery("PRAGMA table_info(" + table + ")", null);
+        try {
+            while (cursor.moveToNext()) {
+                columns.add(cursor.getString(1) + " " + cursor.getString(2) + " notnull=" + cursor.getInt(3)
+                        + " default=" + cursor.getString(4) + " pk=" + cursor.getInt(5));
+            }
+        } finally {
+            cursor.close();
+        }
+        return columns.toString();
+    }
+}
@@ -1,39 +1,1554 @@
 package com.muhammedcavus.noteapp;
 
 import android.content.Context;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.text.TextUtils;
+import android.util.Log;
 
-public class DBHelper extends SQLiteOpenHelper {
+import java.nio.charset.StandardCharsets;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
 
+// Şema ve ortak sorgular NoteSchema'da (note-core); burada Android bağlantısı, geçişler ve
+// uygulamaya özgü işlemler (toplu işlemler, sıkıştırma dönüşümü) bulunur.
+public class DBHelper extends SQLiteOpenHelper implements NoteStore, SyncStore, GramStore {
+
+    private static final String TAG = "DBHelper";
     private static final String DATABASE_NAME = "notesdb.db";
-    private static final int DATABASE_VERSION = 1;
+    private static final int DATABASE_VERSION = NoteSchema.VERSION;
+
+    // Her bağlantının derlenmiş sorgu önbelleği (rawQuery ile tekrar eden SQL yeniden derlenmez)
+    private static final int SQL_CACHE_SIZE = 50;
+
+    private static final String SQL_RECODE_CHUNK = "UPDATE " + NoteSchema.TABLE_NOTE_CHUNKS + " SET "
+            + NoteSchema.COLUMN_CODEC + "=?, " + NoteSchema.COLUMN_BODY + "=? WHERE " + NoteSchema.COLUMN_ID + "=?";
+    private static final String SQL_DUPLICATE_NOTE = "INSERT INTO " + NoteSchema.TABLE_NOTES + " ("
+            + NoteSchema.COLUMN_TITLE + ", " + NoteSchema.COLUMN_CONTENT + ", " + NoteSchema.COLUMN_TAIL_CHUNKS + ", "
+            + NoteSchema.COLUMN_CREATED_AT + ", " + NoteSchema.COLUMN_UPDATED_AT + ", " + NoteSchema.COLUMN_ARCHIVED
+            + ", " + NoteSchema.COLUMN_WORD_COUNT + ", " + NoteSchema.COLUMN_TITLE_KEY + ", " + NoteSchema.SYNC_COLUMNS
+            + ") SELECT " + NoteSchema.COLUMN_TITLE + ", " + NoteSchema.COLUMN_CONTENT + ", "
+            + NoteSchema.COLUMN_TAIL_CHUNKS + ", ?, ?, " + NoteSchema.COLUMN_ARCHIVED + ", "
+            + NoteSchema.COLUMN_WORD_COUNT + ", " + NoteSchema.COLUMN_TITLE_KEY + ", " + NoteSchema.NEW_SYNC_VALUES
+            + " FROM " + NoteSchema.TABLE_NOTES + " WHERE "
+            + NoteSchema.COLUMN_ID + "=?";
+    private static final String SQL_DUPLICATE_CHUNKS = "INSERT INTO " + NoteSchema.TABLE_NOTE_CHUNKS + " ("
+            + NoteSchema.COLUMN_NOTE_ID + ", " + NoteSchema.COLUMN_SEQ + ", " + NoteSchema.COLUMN_LENGTH + ", "
+            + NoteSchema.COLUMN_HASH + ", " + NoteSchema.COLUMN_CODEC + ", " + NoteSchema.COLUMN_BODY + ") SELECT ?, "
+            + NoteSchema.COLUMN_SEQ + ", " + NoteSchema.COLUMN_LENGTH + ", " + NoteSchema.COLUMN_HASH + ", "
+            + NoteSchema.COLUMN_CODEC + ", " + NoteSchema.COLUMN_BODY + " FROM " + NoteSchema.TABLE_NOTE_CHUNKS
+            + " WHERE " + NoteSchema.COLUMN_NOTE_ID + "=?";
+    private static final String SQL_SELECT_NOTE_IDS = "SELECT " + NoteSchema.COLUMN_ID + " FROM "
+            + NoteSchema.TABLE_NOTES + " WHERE " + NoteSchema.COLUMN_ARCHIVED + " = ?";
+    private static final String SQL_IMPORT_NOTE = "INSERT INTO " + NoteSchema.TABLE_NOTES + " ("
+            + NoteSchema.COLUMN_TITLE + ", " + NoteSchema.COLUMN_CONTENT + ", " + NoteSchema.COLUMN_TAIL_CHUNKS + ", "
+            + NoteSchema.COLUMN_CREATED_AT + ", " + NoteSchema.COLUMN_UPDATED_AT + ", " + NoteSchema.COLUMN_ARCHIVED
+            + ", " + NoteSchema.COLUMN_WORD_COUNT + ", " + NoteSchema.COLUMN_TITLE_KEY + ", " + NoteSchema.SYNC_COLUMNS
+            + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, " + NoteSchema.NEW_SYNC_VALUES + ")";
+    private static final String SQL_SELECT_EXPORT = "SELECT " + NoteSchema.COLUMN_ID + ", " + NoteSchema.COLUMN_TITLE
+            + ", " + NoteSchema.COLUMN_CONTENT + ", " + NoteSchema.COLUMN_CREATED_AT + ", "
+            + NoteSchema.COLUMN_UPDATED_AT + ", " + NoteSchema.COLUMN_ARCHIVED + ", " + NoteSchema.COLUMN_TAIL_CHUNKS
+            + " FROM " + NoteSchema.TABLE_NOTES + " WHERE " + NoteSchema.COLUMN_ID + " > ? ORDER BY "
+            + NoteSchema.COLUMN_ID + " LIMIT ?";
+    private static final String SQL_INSERT_REVISION = "INSERT INTO " + NoteSchema.TABLE_NOTE_REVISIONS + " ("
+            + NoteSchema.COLUMN_NOTE_ID + ", " + NoteSchema.COLUMN_CREATED_AT + ", " + NoteSchema.COLUMN_KIND + ", "
+            + NoteSchema.COLUMN_CODEC + ", " + NoteSchema.COLUMN_LENGTH + ", " + NoteSchema.COLUMN_TITLE + ", "
+            + NoteSchema.COLUMN_BODY + ", " + NoteSchema.COLUMN_HASH + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    // Notun en yeni sürümleri (yeniden eskiye): tür, uzunluk ve özet; yeni sürümün anlık görüntü olup olmayacağı
+    // buna bakar
+    private static final String SQL_SELECT_LATEST_REVISIONS = "SELECT " + NoteSchema.COLUMN_KIND + ", "
+            + NoteSchema.COLUMN_LENGTH + ", " + NoteSchema.COLUMN_HASH + " FROM " + NoteSchema.TABLE_NOTE_REVISIONS + " WHERE "
+            + NoteSchema.COLUMN_NOTE_ID + "=? ORDER BY " + NoteSchema.COLUMN_ID + " DESC LIMIT "
+            + NoteRevisions.SNAPSHOT_INTERVAL;
+    private static final String SQL_SELECT_REVISIONS = "SELECT " + NoteSchema.COLUMN_ID + ", "
+            + NoteSchema.COLUMN_CREATED_AT + ", " + NoteSchema.COLUMN_TITLE + ", " + NoteSchema.COLUMN_LENGTH
+            + " FROM " + NoteSchema.TABLE_NOTE_REVISIONS + " WHERE " + NoteSchema.COLUMN_NOTE_ID + "=? ORDER BY "
+            + NoteSchema.COLUMN_ID + " DESC";
+    // Bir sürümü geri getirmek için gereken satırlar: ondan önceki son anlık görüntü ve aradaki farklar
+    private static final String SQL_SELECT_REVISION_CHAIN = "SELECT " + NoteSchema.COLUMN_ID + ", "
+            + NoteSchema.COLUMN_KIND + ", " + NoteSchema.COLUMN_CODEC + ", " + NoteSchema.COLUMN_TITLE + ", "
+            + NoteSchema.COLUMN_BODY + " FROM " + NoteSchema.TABLE_NOTE_REVISIONS + " WHERE "
+            + NoteSchema.COLUMN_NOTE_ID + "=?1 AND " + NoteSchema.COLUMN_ID + " <= ?2 AND " + NoteSchema.COLUMN_ID
+            + " >= (SELECT MAX(" + NoteSchema.COLUMN_ID + ") FROM " + NoteSchema.TABLE_NOTE_REVISIONS + " WHERE "
+            + NoteSchema.COLUMN_NOTE_ID + "=?1 AND " + NoteSchema.COLUMN_ID + " <= ?2 AND " + NoteSchema.COLUMN_KIND
+            + "=" + NoteRevisions.KIND_SNAPSHOT + ") ORDER BY " + NoteSchema.COLUMN_ID;
+    private static final String SQL_SELECT_REVISION = "SELECT " + NoteSchema.COLUMN_KIND + ", "
+            + NoteSchema.COLUMN_CODEC + ", " + NoteSchema.COLUMN_BODY + " FROM " + NoteSchema.TABLE_NOTE_REVISIONS
+            + " WHERE " + NoteSchema.COLUMN_ID + "=?";
+    private static final String SQL_UPDATE_REVISION = "UPDATE " + NoteSchema.TABLE_NOTE_REVISIONS + " SET "
+            + NoteSchema.COLUMN_KIND + "=?, " + NoteSchema.COLUMN_CODEC + "=?, " + NoteSchema.COLUMN_BODY + "=? WHERE "
+            + NoteSchema.COLUMN_ID + "=?";
+    private static final String SQL_DELETE_REVISION = "DELETE FROM " + NoteSchema.TABLE_NOTE_REVISIONS + " WHERE "
+            + NoteSchema.COLUMN_ID + "=?";
+    private static final String SQL_UPDATE_TITLE_KEY = "UPDATE " + NoteSchema.TABLE_NOTES + " SET "
+            + NoteSchema.COLUMN_TITLE_KEY + "=? WHERE " + NoteSchema.COLUMN_ID + "=?";
+
+    // İşlem süreleri ve etkilenen satırlar (bkz. NoteMetrics); eşiği aşan sorgular planıyla günlüğe yazılır
+    private static final NoteMetrics.Timer SAVE_TIMER = NoteMetrics.timer("db.save");
+    private static final NoteMetrics.Timer DELETE_TIMER = NoteMetrics.timer("db.delete");
+    private static final NoteMetrics.Timer BULK_DELETE_TIMER = NoteMetrics.timer("db.bulkDelete");
+    private static final NoteMetrics.Timer DUPLICATE_TIMER = NoteMetrics.timer("db.duplicate");
+    private static final NoteMetrics.Timer ARCHIVE_TIMER = NoteMetrics.timer("db.archive");
+    private static final NoteMetrics.Timer RECODE_TIMER = NoteMetrics.timer("db.recode");
+    private static final NoteMetrics.Timer NOTE_TIMER = NoteMetrics.timer("db.note");
+    private static final NoteMetrics.Timer PAGE_TIMER = NoteMetrics.timer("db.page");
+    private static final NoteMetrics.Timer SEARCH_TIMER = NoteMetrics.timer("db.search");
+    private static final NoteMetrics.Timer NOTES_BY_IDS_TIMER = NoteMetrics.timer("db.notesByIds");
+    private static final NoteMetrics.Timer NOTE_IDS_TIMER = NoteMetrics.timer("db.noteIds");
+    private static final NoteMetrics.Timer IMPORT_TIMER = NoteMetrics.timer("db.import");
+    private static final NoteMetrics.Timer CAPTURE_TIMER = NoteMetrics.timer("db.saveCaptures");
+    private static final NoteMetrics.Timer CHANGES_TIMER = NoteMetrics.timer("db.changes");
+    private static final NoteMetrics.Timer TITLE_KEYS_TIMER = NoteMetrics.timer("db.titleKeys");
+    private static final NoteMetrics.Timer REVISIONS_TIMER = NoteMetrics.timer("db.revisions");
+    private static final NoteMetrics.Timer RESTORE_TIMER = NoteMetrics.timer("db.restore");
+    private static final NoteMetrics.Timer COMPACT_TIMER = NoteMetrics.timer("db.compact");
+    private static final NoteMetrics.Timer SYNC_CHANGES_TIMER = NoteMetrics.timer("db.syncChanges");
+    private static final NoteMetrics.Timer SYNC_RECORD_TIMER = NoteMetrics.timer("db.syncRecord");
+    private static final NoteMetrics.Timer FUZZY_SEARCH_TIMER = NoteMetrics.timer("db.fuzzySearch");
+    private static final NoteMetrics.Timer GRAM_INDEX_TIMER = NoteMetrics.timer("db.gramIndex");
+    private static final NoteMetrics.Timer TAGS_TIMER = NoteMetrics.timer("db.tags");
+    private static final NoteMetrics.Timer TAG_NOTES_TIMER = NoteMetrics.timer("db.tagNotes");
+    static final NoteMetrics.Timer TAIL_TIMER = NoteMetrics.timer("db.tail");
+    // Sıkıştırılmış tek bir parçanın çözülmesi (satır sayısı 1)
+    static final NoteMetrics.Timer DECODE_TIMER = NoteMetrics.timer("db.decode");
+    static final NoteMetrics.Timer EXPORT_TIMER = NoteMetrics.timer("db.export");
+
+    private static DBHelper instance;
+    // Geçiş ilerlemesini izlemek isteyen ekran için (geçişi başlatan arka plan thread'inde çağrılır)
+    private static volatile Migration.Progress migrationProgressListener;
+
+    // Yeni yazılan parçalar sıkıştırılsın mı (ayar; mevcut satırlar recodeChunks ile dönüştürülür)
+    private volatile boolean compressionEnabled;
+    // Başlık sıralama anahtarlarını üreten Collator; thread güvenli olmadığından sadece senkronize yazmalarda kullanılır
+    private Collator titleCollator = TitleKeys.collator(Locale.getDefault());
+
+    // Sık kullanılan yazma sorguları bir kez derlenip tekrar kullanılır (erişim senkronize)
+    private SQLiteStatement insertStatement;
+    private SQLiteStatement updateStatement;
+    private SQLiteStatement updateTailStatement;
+    private SQLiteStatement insertChunkStatement;
+    private SQLiteStatement deleteChunkStatement;
+    private SQLiteStatement searchContentStatement;
+    private SQLiteStatement duplicateChunksStatement;
+    private SQLiteStatement recodeChunkStatement;
+    private SQLiteStatement deleteStatement;
+    private SQLiteStatement duplicateStatement;
+    private SQLiteStatement archiveStatement;
+    private SQLiteStatement importStatement;
+    private SQLiteStatement captureStatement;
+    private SQLiteStatement insertRevisionStatement;
+    private SQLiteStatement syncMetaStatement;
+    private SQLiteStatement markSyncedStatement;
+    private SQLiteStatement markPushedStatement;
+    private SQLiteStatement tombstoneSyncedStatement;
+    private SQLiteStatement clearTombstoneStatement;
+    private SQLiteStatement replaceGramSetStatement;
+    private SQLiteStatement deleteGramSetStatement;
+    private SQLiteStatement replaceGramBlockStatement;
+    private SQLiteStatement deleteGramBlockStatement;
+    private SQLiteStatement insertTagStatement;
+    private SQLiteStatement insertNoteTagStatement;
+    private SQLiteStatement deleteNoteTagStatement;
+    private SQLiteStatement copyNoteTagsStatement;
+    private SQLiteStatement copySearchContentStatement;
+    // Son saveNote'un yazdığı satır sayısı (not + eklenen/silinen parçalar); sadece ölçüm için
+    private int savedRows;
+    // En son kaydedilen notun kayıtlı hali: bir sonraki kaydın geçmiş farkı buna göre hesaplanır. Editör aynı
+    // notu art arda kaydettiğinden gövde her kayıtta parçalardan yeniden okunmaz
+    private RevisionBase revisionBase;
+
+    private static final class RevisionBase {
+        final long noteId;
+        final String title;
+        final String text;
+        final long updatedAt;
+
+        RevisionBase(long noteId, String title, String text, long updatedAt) {
+            this.noteId = noteId;
+            this.title = title;
+            this.text = text;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    // Süreç boyunca tek bağlantı havuzu; açıp kapatma maliyeti her sorguda ödenmez
+    public static synchronized DBHelper getInstance(Context context) {
+        if (instance == null) {
+            instance = new DBHelper(context.getApplicationContext());
+        }
+        return instance;
+    }
 
-    public static final String TABLE_NOTES = "notes";
-    public static final String COLUMN_ID = "_id";
-    public static final String COLUMN_TITLE = "title";
-    public static final String COLUMN_CONTENT = "content";
-    public static final String COLUMN_DATE = "date";
+    public static void setMigrationProgressListener(Migration.Progress listener) {
+        migrationProgressListener = listener;
+    }
 
-    public DBHelper(Context context) {
+    private DBHelper(Context context) {
         super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        // WAL: okuyucular yazıcıyı, yazıcı okuyucuları beklemez
+        setWriteAheadLoggingEnabled(true);
     }
 
     @Override
     public void onCreate(SQLiteDatabase db) {
-        String createTableQuery = "CREATE TABLE " + TABLE_NOTES + " ("
-                + COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
-                + COLUMN_TITLE + " TEXT, "
-                + COLUMN_CONTENT + " TEXT, "
-                + COLUMN_DATE + " TEXT "
-                + ");";
-        db.execSQL(createTableQuery);
+        for (String sql : NoteSchema.createStatements()) {
+            db.execSQL(sql);
+        }
+    }
+
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        super.onOpen(db);
+        db.setMaxSqlCacheSize(SQL_CACHE_SIZE);
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        // Versiyon yükseltme durumunda tabloyu silip yeniden oluşturabilirsiniz
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_NOTES);
-        onCreate(db);
+        // Tablo silinmez; sürüm sürüm sıralı geçişler uygulanır (bkz. Migrations)
+        Migrations.migrate(db, oldVersion, newVersion, (toVersion, done, total) -> {
+            Migration.Progress listener = migrationProgressListener;
+            if (listener != null) {
+                listener.onProgress(toVersion, done, total);
+            }
+        });
+    }
+
+    public void setCompressionEnabled(boolean enabled) {
+        compressionEnabled = enabled;
+    }
+
+    // Bundan sonra yazılan başlık anahtarları bu yerel ayarla üretilir; mevcut satırlar rebuildTitleKeys ile yenilenir
+    public synchronized void setTitleLocale(Locale locale) {
+        titleCollator = TitleKeys.collator(locale);
+    }
+
+    // Açık bağlantı; çağıranlar kapatmamalı
+    public SQLiteDatabase database() {
+        return getWritableDatabase();
+    }
+
+    // Birden fazla işlemi tek transaction'da yapar (senkronizasyon grubu); saveNote gibi işlemler iç içe katılır
+    @Override
+    public synchronized void runInTransaction(Runnable work) {
+        SQLiteDatabase db = database();
+        db.beginTransaction();
+        try {
+            work.run();
+            db.setTransactionSuccessful();
+        } catch (RuntimeException e) {
+            // İçerideki kayıtlar da geri alınır; geçmiş farkının tabanı artık geçerli değil
+            revisionBase = null;
+            throw e;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // Notu kaydeder (id -1 ise ekler). Gövde parçalara bölünür; güncellemede sadece değişen parçalar yazılır.
+    // Dönen not gövdenin sadece ilk parçasını taşır (önbellek için); güncellenecek not yoksa null
+    @Override
+    public synchronized NoteModel saveNote(long id, String title, String content, long now) {
+        long start = NoteMetrics.start();
+        String body = content == null ? "" : content;
+        SQLiteDatabase db = database();
+        savedRows = 0;
+        db.beginTransaction();
+        try {
+            RevisionBase previous = id == -1 ? null : revisionBase(id);
+            NoteModel saved = id == -1 ? insertNote(title, body, now) : updateNote(id, title, body, now);
+            if (saved != null) {
+                recordRevision(saved.getId(), previous, title, body, now);
+                NoteGrams.update(this, new long[]{saved.getId()}, new long[][]{NoteGrams.noteGrams(title, body)});
+            }
+            db.setTransactionSuccessful();
+            return saved;
+        } catch (RuntimeException e) {
+            // Geri alınan kaydın metni sonraki farkın tabanı olamaz
+            revisionBase = null;
+            throw e;
+        } finally {
+            db.endTransaction();
+            // Birden fazla ifade çalıştığından plan yerine sadece süre ve satır sayısı yazılır
+            finish(SAVE_TIMER, start, savedRows, null, null);
+        }
+    }
+
+    private NoteModel insertNote(String title, String body, long now) {
+        if (insertStatement == null) {
+            insertStatement = database().compileStatement(NoteSchema.SQL_INSERT_NOTE);
+        }
+        NoteChunks.Plan plan = NoteChunks.plan(null, new ArrayList<NoteChunks.Info>(), body);
+        bindNote(insertStatement, title, plan.head);
+        insertStatement.bindLong(3, plan.tailChunks);
+        insertStatement.bindLong(4, now);
+        insertStatement.bindLong(5, now);
+        insertStatement.bindLong(6, NoteText.wordCount(body));
+        String titleKey = TitleKeys.key(titleCollator, title);
+        insertStatement.bindString(7, titleKey);
+        long id = insertStatement.executeInsert();
+        if (id == -1) {
+            return null;
+        }
+        writeChunks(id, plan, body, false);
+        return savedNote(id, title, titleKey, plan.head, plan.tailChunks, now);
+    }
+
+    private NoteModel updateNote(long id, String title, String body, long now) {
+        String oldTitle;
+        String oldHead;
+        String titleKey;
+        Cursor cursor = database().rawQuery(NoteSchema.SQL_SELECT_NOTE_HEAD, new String[]{String.valueOf(id)});
+        try {
+            if (!cursor.moveToFirst()) {
+                return null;
+            }
+            oldTitle = cursor.getString(0);
+            oldHead = cursor.isNull(1) ? "" : cursor.getString(1);
+            titleKey = cursor.getString(2);
+        } finally {
+            cursor.close();
+        }
+
+        NoteChunks.Plan plan = NoteChunks.plan(oldHead, queryChunkInfos(id), body);
+        String head = plan.head != null ? plan.head : oldHead;
+        boolean titleChanged = !TextUtils.equals(title, oldTitle);
+        if (plan.head != null || titleChanged) {
+            if (updateStatement == null) {
+                updateStatement = database().compileStatement(NoteSchema.SQL_UPDATE_NOTE);
+            }
+            bindNote(updateStatement, title, head);
+            updateStatement.bindLong(3, plan.tailChunks);
+            updateStatement.bindLong(4, now);
+            updateStatement.bindLong(5, NoteText.wordCount(body));
+            if (titleChanged) {
+                titleKey = TitleKeys.key(titleCollator, title);
+            }
+            updateStatement.bindString(6, titleKey);
+            updateStatement.bindLong(7, id);
+            updateStatement.executeUpdateDelete();
+        } else {
+            if (updateTailStatement == null) {
+                updateTailStatement = database().compileStatement(NoteSchema.SQL_UPDATE_NOTE_TAIL);
+            }
+            updateTailStatement.bindLong(1, plan.tailChunks);
+            updateTailStatement.bindLong(2, now);
+            updateTailStatement.bindLong(3, NoteText.wordCount(body));
+            updateTailStatement.bindLong(4, id);
+            updateTailStatement.executeUpdateDelete();
+        }
+        writeChunks(id, plan, body, titleChanged);
+        return savedNote(id, title, titleKey, head, plan.tailChunks, now);
+    }
+
+    // Notun şu an kayıtlı hali (başlık, tam gövde); not yoksa null
+    private RevisionBase revisionBase(long id) {
+        RevisionBase cached = revisionBase;
+        if (cached != null && cached.noteId == id) {
+            return cached;
+        }
+        NoteModel note = loadNote(id);
+        if (note == null) {
+            return null;
+        }
+        String head = note.getContent() != null ? note.getContent() : "";
+        String text = note.getTailChunks() > 0 ? head + loadTail(id) : head;
+        return new RevisionBase(id, note.getTitle(), text, note.getUpdatedAt());
+    }
+
+    // Kaydı notun geçmişine ekler: önceki sürüme göre fark, zincir SNAPSHOT_INTERVAL'e ulaştıysa tam metin.
+    // Geçmişi olmayan (bu özellikten önce yazılmış, içe aktarılmış, kopyalanmış) notun önceki hali önce
+    // anlık görüntü olarak yazılır; böylece ilk düzenleme de geri alınabilir
+    private void recordRevision(long id, RevisionBase previous, String title, String body, long now) {
+        int sinceSnapshot = NoteRevisions.SNAPSHOT_INTERVAL;
+        boolean hasRevisions = false;
+        boolean latestIsPrevious = false;
+        Cursor cursor = database().rawQuery(SQL_SELECT_LATEST_REVISIONS, new String[]{String.valueOf(id)});
+        try {
+            for (int i = 0; cursor.moveToNext(); i++) {
+                if (i == 0) {
+                    hasRevisions = true;
+                    // Özeti olmayan (sürüm 16'dan önce yazılmış) sürüm taban olarak kullanılmaz
+                    latestIsPrevious = previous != null && cursor.getInt(1) == previous.text.length()
+                            && !cursor.isNull(2) && cursor.getLong(2) == NoteRevisions.hash(previous.text);
+                }
+                if (cursor.getInt(0) == NoteRevisions.KIND_SNAPSHOT) {
+                    sinceSnapshot = i;
+                    break;
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+        String base = null;
+        if (previous != null) {
+            if (!hasRevisions) {
+                insertRevision(id, previous.updatedAt, previous.title, previous.text, null);
+                sinceSnapshot = 0;
+                base = previous.text;
+            } else if (latestIsPrevious) {
+                base = previous.text;
+            }
+        }
+        // Taban bilinmiyorsa (ilk kayıt veya geçmiş ya da gövde başka yoldan değiştiyse) anlık görüntü yazılır
+        boolean snapshot = base == null || sinceSnapshot + 1 >= NoteRevisions.SNAPSHOT_INTERVAL;
+        insertRevision(id, now, title, body, snapshot ? null : NoteRevisions.delta(base, body));
+        revisionBase = new RevisionBase(id, title, body, now);
+    }
+
+    // delta null ise text anlık görüntü olarak (sıkıştırma kazanç sağlıyorsa sıkıştırılmış) yazılır
+    private void insertRevision(long id, long createdAt, String title, String text, byte[] delta) {
+        if (insertRevisionStatement == null) {
+            insertRevisionStatement = database().compileStatement(SQL_INSERT_REVISION);
+        }
+        insertRevisionStatement.clearBindings();
+        insertRevisionStatement.bindLong(1, id);
+        insertRevisionStatement.bindLong(2, createdAt);
+        bindRevisionBody(insertRevisionStatement, 3, text, delta);
+        insertRevisionStatement.bindLong(6, text.length());
+        bindStringOrNull(insertRevisionStatement, 7, title);
+        insertRevisionStatement.bindLong(8, NoteRevisions.hash(text));
+        insertRevisionStatement.executeInsert();
+        savedRows++;
+    }
+
+    // tür, codec ve gövde index, index + 1, index + 2 konumlarına
+    private static void bindRevisionBody(SQLiteStatement statement, int index, String text, byte[] delta) {
+        if (delta != null) {
+            statement.bindLong(index, NoteRevisions.KIND_DELTA);
+            statement.bindLong(index + 1, BodyCodec.PLAIN);
+            statement.bindBlob(index + 2, delta);
+            return;
+        }
+        byte[] compressed = BodyCodec.compress(text);
+        statement.bindLong(index, NoteRevisions.KIND_SNAPSHOT);
+        statement.bindLong(index + 1, compressed != null ? BodyCodec.DEFLATE_V1 : BodyCodec.PLAIN);
+        statement.bindBlob(index + 2, compressed != null ? compressed : text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String snapshotText(int codec, byte[] body) {
+        return codec == BodyCodec.PLAIN ? new String(body, StandardCharsets.UTF_8) : BodyCodec.decompress(codec, body);
+    }
+
+    // Notun geçmişi, yeniden eskiye (gövdeler okunmaz)
+    public List<NoteRevisions.Info> loadRevisions(long noteId) {
+        long start = NoteMetrics.start();
+        String[] args = {String.valueOf(noteId)};
+        List<NoteRevisions.Info> revisions = new ArrayList<>();
+        Cursor cursor = database().rawQuery(SQL_SELECT_REVISIONS, args);
+        try {
+            while (cursor.moveToNext()) {
+                revisions.add(new NoteRevisions.Info(cursor.getLong(0), cursor.getLong(1), cursor.getString(2),
+                        cursor.getInt(3)));
+            }
+        } finally {
+            cursor.close();
+        }
+        finish(REVISIONS_TIMER, start, revisions.size(), SQL_SELECT_REVISIONS, args);
+        return revisions;
+    }
+
+    // Sürümün tam metni: önceki son anlık görüntüden başlayıp en fazla SNAPSHOT_INTERVAL - 1 fark uygulanır.
+    // Sürüm bulunamazsa null
+    public NoteRevisions.Version loadRevision(long noteId, long revisionId) {
+        long start = NoteMetrics.start();
+        String[] args = {String.valueOf(noteId), String.valueOf(revisionId)};
+        String text = null;
+        String title = null;
+        long lastId = -1;
+        int rows = 0;
+        Cursor cursor = database().rawQuery(SQL_SELECT_REVISION_CHAIN, args);
+        try {
+            while (cursor.moveToNext()) {
+                rows++;
+                lastId = cursor.getLong(0);
+                title = cursor.getString(3);
+                text = cursor.getInt(1) == NoteRevisions.KIND_SNAPSHOT
+                        ? snapshotText(cursor.getInt(2), cursor.getBlob(4))
+                        : NoteRevisions.apply(text, cursor.getBlob(4));
+            }
+        } finally {
+            cursor.close();
+        }
+        finish(RESTORE_TIMER, start, rows, SQL_SELECT_REVISION_CHAIN, args);
+        return lastId == revisionId ? new NoteRevisions.Version(revisionId, title, text) : null;
+    }
+
+    // Geçmişi olan notları not id sırasıyla en fazla limit notluk bir transaction'da saklama politikasına göre
+    // seyreltir: atılan sürümler silinir, kalanların farkları yeni öncüllerine göre yeniden yazılır.
+    // İşlenen son not id'si döner; işlenecek not kalmadıysa -1
+    public synchronized long compactRevisions(long afterNoteId, int limit, long now, NoteRevisions.Policy policy) {
+        SQLiteDatabase db = database();
+        long start = NoteMetrics.start();
+        String sql = "SELECT DISTINCT " + NoteSchema.COLUMN_NOTE_ID + " FROM " + NoteSchema.TABLE_NOTE_REVISIONS
+                + " WHERE " + NoteSchema.COLUMN_NOTE_ID + " > ? ORDER BY " + NoteSchema.COLUMN_NOTE_ID + " LIMIT ?";
+        String[] args = {String.valueOf(afterNoteId), String.valueOf(limit)};
+        long lastId = -1;
+        int rows = 0;
+        db.beginTransaction();
+        try {
+            Cursor cursor = db.rawQuery(sql, args);
+            List<Long> noteIds = new ArrayList<>();
+            try {
+                while (cursor.moveToNext()) {
+                    noteIds.add(cursor.getLong(0));
+                }
+            } finally {
+                cursor.close();
+            }
+            for (long noteId : noteIds) {
+                lastId = noteId;
+                rows += compactNoteRevisions(db, noteId, now, policy);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        finish(COMPACT_TIMER, start, rows, sql, args);
+        return lastId;
+    }
+
+    // Tek notun geçmişi; silinen ve yeniden yazılan satır sayısı döner
+    private static int compactNoteRevisions(SQLiteDatabase db, long noteId, long now, NoteRevisions.Policy policy) {
+        long[] ids;
+        long[] createdAt;
+        Cursor cursor = db.rawQuery("SELECT " + NoteSchema.COLUMN_ID + ", " + NoteSchema.COLUMN_CREATED_AT + " FROM "
+                + NoteSchema.TABLE_NOTE_REVISIONS + " WHERE " + NoteSchema.COLUMN_NOTE_ID + "=? ORDER BY "
+                + NoteSchema.COLUMN_ID, new String[]{String.valueOf(noteId)});
+        try {
+            ids = new long[cursor.getCount()];
+            createdAt = new long[ids.length];
+            for (int i = 0; cursor.moveToNext(); i++) {
+                ids[i] = cursor.getLong(0);
+                createdAt[i] = cursor.getLong(1);
+            }
+        } finally {
+            cursor.close();
+        }
+        if (!NoteRevisions.needsCompaction(createdAt, now, policy)) {
+            return 0;
+        }
+        boolean[] keep = NoteRevisions.retain(createdAt, now, policy);
+        SQLiteStatement update = db.compileStatement(SQL_UPDATE_REVISION);
+        SQLiteStatement delete = db.compileStatement(SQL_DELETE_REVISION);
+        int changed = 0;
+        try {
+            String text = null;
+            String keptText = null;
+            boolean previousKept = false;
+            int sinceSnapshot = 0;
+            for (int i = 0; i < ids.length; i++) {
+                // Satırlar tek tek okunur; aynı tablo güncellenirken açık bir sorgu üzerinde gezinilmez
+                int kind;
+                int codec;
+                byte[] body;
+                Cursor row = db.rawQuery(SQL_SELECT_REVISION, new String[]{String.valueOf(ids[i])});
+                try {
+                    row.moveToFirst();
+                    kind = row.getInt(0);
+                    codec = row.getInt(1);
+                    body = row.getBlob(2);
+                } finally {
+                    row.close();
+                }
+                text = kind == NoteRevisions.KIND_SNAPSHOT ? snapshotText(codec, body) : NoteRevisions.apply(text, body);
+                if (!keep[i]) {
+                    delete.bindLong(1, ids[i]);
+                    delete.executeUpdateDelete();
+                    changed++;
+                    previousKept = false;
+                    continue;
+                }
+                if (kind == NoteRevisions.KIND_SNAPSHOT) {
+                    sinceSnapshot = 0;
+                } else if (keptText == null || sinceSnapshot + 1 >= NoteRevisions.SNAPSHOT_INTERVAL) {
+                    update.clearBindings();
+                    bindRevisionBody(update, 1, text, null);
+                    update.bindLong(4, ids[i]);
+                    update.executeUpdateDelete();
+                    changed++;
+                    sinceSnapshot = 0;
+                } else {
+                    // Öncülü silindiyse fark kalan öncüle göre yeniden hesaplanır
+                    if (!previousKept) {
+                        update.clearBindings();
+                        bindRevisionBody(update, 1, text, NoteRevisions.delta(keptText, text));
+                        update.bindLong(4, ids[i]);
+                        update.executeUpdateDelete();
+                        changed++;
+                    }
+                    sinceSnapshot++;
+                }
+                keptText = text;
+                previousKept = true;
+            }
+        } finally {
+            update.close();
+            delete.close();
+        }
+        return changed;
+    }
+
+    private List<NoteChunks.Info> queryChunkInfos(long id) {
+        List<NoteChunks.Info> infos = new ArrayList<>();
+        Cursor cursor = database().rawQuery(NoteSchema.SQL_SELECT_CHUNK_INFO, new String[]{String.valueOf(id)});
+        try {
+            while (cursor.moveToNext()) {
+                infos.add(new NoteChunks.Info(cursor.getLong(0), cursor.getInt(1), cursor.getLong(2)));
+            }
+        } finally {
+            cursor.close();
+        }
+        return infos;
+    }
+
+    // body notun tam gövdesidir; parçalı notun FTS satırı ondan yazılır (bkz. NoteChunks.Plan.isSearchTextStale)
+    private void writeChunks(long id, NoteChunks.Plan plan, String body, boolean titleChanged) {
+        savedRows = 1 + plan.deletes.size() + plan.inserts.size();
+        if (!plan.deletes.isEmpty()) {
+            if (deleteChunkStatement == null) {
+                deleteChunkStatement = database().compileStatement(NoteSchema.SQL_DELETE_CHUNK);
+            }
+            for (long seq : plan.deletes) {
+                deleteChunkStatement.bindLong(1, id);
+                deleteChunkStatement.bindLong(2, seq);
+                deleteChunkStatement.executeUpdateDelete();
+            }
+        }
+        if (!plan.inserts.isEmpty()) {
+            if (insertChunkStatement == null) {
+                insertChunkStatement = database().compileStatement(NoteSchema.SQL_INSERT_CHUNK);
+            }
+            for (NoteChunks.Chunk chunk : plan.inserts) {
+                insertChunkStatement.bindLong(1, id);
+                insertChunkStatement.bindLong(2, chunk.seq);
+                insertChunkStatement.bindLong(3, chunk.body.length());
+                insertChunkStatement.bindLong(4, NoteChunks.hash(chunk.body, 0, chunk.body.length()));
+                bindBody(insertChunkStatement, 5, chunk.body, compressionEnabled);
+                insertChunkStatement.executeInsert();
+            }
+        }
+        if (plan.isSearchTextStale(titleChanged)) {
+            if (searchContentStatement == null) {
+                searchContentStatement = database().compileStatement(NoteSchema.SQL_UPDATE_SEARCH_CONTENT);
+            }
+            searchContentStatement.bindString(1, NoteSchema.foldForIndex(body));
+            searchContentStatement.bindLong(2, id);
+            searchContentStatement.executeUpdateDelete();
+        }
+    }
+
+    // codec ve gövde index, index + 1 konumlarına bağlanır; sıkıştırma kazanç sağlamazsa düz metin kalır
+    private static void bindBody(SQLiteStatement statement, int index, String body, boolean compress) {
+        byte[] compressed = compress ? BodyCodec.compress(body) : null;
+        if (compressed != null) {
+            statement.bindLong(index, BodyCodec.DEFLATE_V1);
+            statement.bindBlob(index + 1, compressed);
+        } else {
+            statement.bindLong(index, BodyCodec.PLAIN);
+            statement.bindString(index + 1, body);
+        }
+    }
+
+    // Mevcut parçaları anahtar sırasıyla en fazla limit satırlık bir transaction'da istenen biçime çevirir
+    // (çevrimiçi geçiş). İşlenen son _id döner; işlenecek satır kalmadıysa -1.
+    public synchronized long recodeChunks(boolean compress, long afterId, int limit) {
+        SQLiteDatabase db = database();
+        if (recodeChunkStatement == null) {
+            recodeChunkStatement = db.compileStatement(SQL_RECODE_CHUNK);
+        }
+        long start = NoteMetrics.start();
+        String sql = "SELECT " + NoteSchema.COLUMN_ID + ", " + NoteSchema.COLUMN_CODEC + ", "
+                + NoteSchema.COLUMN_BODY + " FROM " + NoteSchema.TABLE_NOTE_CHUNKS + " WHERE "
+                + NoteSchema.COLUMN_ID + " > ? ORDER BY " + NoteSchema.COLUMN_ID + " LIMIT ?";
+        String[] args = {String.valueOf(afterId), String.valueOf(limit)};
+        long lastId = -1;
+        int rows = 0;
+        db.beginTransaction();
+        try {
+            Cursor cursor = db.rawQuery(sql, args);
+            try {
+                while (cursor.moveToNext()) {
+                    lastId = cursor.getLong(0);
+                    rows++;
+                    int codec = cursor.getInt(1);
+                    if ((codec != BodyCodec.PLAIN) == compress) {
+                        continue;
+                    }
+                    String body = codec == BodyCodec.PLAIN ? cursor.getString(2)
+                            : BodyCodec.decompress(codec, cursor.getBlob(2));
+                    if (compress) {
+                        bindBody(recodeChunkStatement, 1, body, true);
+                    } else {
+                        recodeChunkStatement.bindLong(1, BodyCodec.PLAIN);
+                        recodeChunkStatement.bindString(2, body);
+                    }
+                    recodeChunkStatement.bindLong(3, lastId);
+                    recodeChunkStatement.executeUpdateDelete();
+                }
+            } finally {
+                cursor.close();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        finish(RECODE_TIMER, start, rows, sql, args);
+        return lastId;
+    }
+
+    // Parça tablosunun kodeklere göre dağılımı: codec, parça sayısı, diskteki bayt, düz metin karakteri
+    public Cursor queryChunkStorage() {
+        return database().rawQuery("SELECT " + NoteSchema.COLUMN_CODEC + ", count(*), sum(length(CAST("
+                + NoteSchema.COLUMN_BODY + " AS BLOB))), sum(" + NoteSchema.COLUMN_LENGTH + ") FROM "
+                + NoteSchema.TABLE_NOTE_CHUNKS + " GROUP BY " + NoteSchema.COLUMN_CODEC, null);
+    }
+
+    // Başlık anahtarlarını _id sırasıyla en fazla limit notluk bir transaction'da şimdiki yerel ayarla yeniden
+    // üretir (yerel ayar değişince çevrimiçi geçiş). İşlenen son _id döner; işlenecek not kalmadıysa -1.
+    public synchronized long rebuildTitleKeys(long afterId, int limit) {
+        SQLiteDatabase db = database();
+        long start = NoteMetrics.start();
+        String sql = "SELECT max(" + NoteSchema.COLUMN_ID + ") FROM (SELECT " + NoteSchema.COLUMN_ID + " FROM "
+                + NoteSchema.TABLE_NOTES + " WHERE " + NoteSchema.COLUMN_ID + " > ? ORDER BY " + NoteSchema.COLUMN_ID
+                + " LIMIT ?)";
+        String[] args = {String.valueOf(afterId), String.valueOf(limit)};
+        long lastId = -1;
+        int rows = 0;
+        db.beginTransaction();
+        try {
+            Cursor cursor = db.rawQuery(sql, args);
+            try {
+                if (cursor.moveToFirst() && !cursor.isNull(0)) {
+                    lastId = cursor.getLong(0);
+                }
+            } finally {
+                cursor.close();
+            }
+            if (lastId != -1) {
+                rows = updateTitleKeys(db, titleCollator, afterId, lastId);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        finish(TITLE_KEYS_TIMER, start, rows, sql, args);
+        return lastId;
+    }
+
+    // (fromExclusive, toInclusive] aralığındaki notların başlık anahtarlarını yazar; sadece değişenler güncellenir.
+    // SQLite Collator çalıştıramadığından anahtar Java'da üretilir (bkz. TitleKeys)
+    private static int updateTitleKeys(SQLiteDatabase db, Collator collator, long fromExclusive, long toInclusive) {
+        SQLiteStatement update = db.compileStatement(SQL_UPDATE_TITLE_KEY);
+        Cursor cursor = db.rawQuery("SELECT " + NoteSchema.COLUMN_ID + ", " + NoteSchema.COLUMN_TITLE + ", "
+                + NoteSchema.COLUMN_TITLE_KEY + " FROM " + NoteSchema.TABLE_NOTES + " WHERE " + NoteSchema.COLUMN_ID
+                + " > " + fromExclusive + " AND " + NoteSchema.COLUMN_ID + " <= " + toInclusive, null);
+        int updated = 0;
+        try {
+            while (cursor.moveToNext()) {
+                String key = TitleKeys.key(collator, cursor.getString(1));
+                if (key.equals(cursor.getString(2))) {
+                    continue;
+                }
+                update.bindString(1, key);
+                update.bindLong(2, cursor.getLong(0));
+                update.executeUpdateDelete();
+                updated++;
+            }
+        } finally {
+            cursor.close();
+            update.close();
+        }
+        return updated;
+    }
+
+    private static NoteModel savedNote(long id, String title, String titleKey, String head, int tailChunks, long now) {
+        NoteModel note = new NoteModel(id, title, head, now);
+        note.setTailChunks(tailChunks);
+        note.setTitleKey(titleKey);
+        return note;
+    }
+
+    @Override
+    public synchronized int deleteNote(long id) {
+        if (deleteStatement == null) {
+            deleteStatement = database().compileStatement(NoteSchema.SQL_DELETE_NOTE);
+        }
+        SQLiteDatabase db = database();
+        long start = NoteMetrics.start();
+        int deleted;
+        db.beginTransaction();
+        try {
+            // Üçlü listelerinden çıkarmak için notun kümesi silmeden önce okunur
+            NoteGrams.remove(this, new long[]{id});
+            deleteStatement.bindLong(1, id);
+            deleted = deleteStatement.executeUpdateDelete();
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        finish(DELETE_TIMER, start, deleted, NoteSchema.SQL_DELETE_NOTE, new String[]{String.valueOf(id)});
+        return deleted;
+    }
+
+    // Toplu işlemler: tek transaction, tek derlenmiş sorgu; binlerce not tek commit ile işlenir
+    public synchronized int deleteNotes(long[] ids) {
+        if (deleteStatement == null) {
+            deleteStatement = database().compileStatement(NoteSchema.SQL_DELETE_NOTE);
+        }
+        SQLiteDatabase db = database();
+        long start = NoteMetrics.start();
+        int deleted = 0;
+        db.beginTransaction();
+        try {
+            NoteGrams.remove(this, ids);
+            for (long id : ids) {
+                deleteStatement.bindLong(1, id);
+                deleted += deleteStatement.executeUpdateDelete();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        finish(BULK_DELETE_TIMER, start, deleted, NoteSchema.SQL_DELETE_NOTE, null);
+        return deleted;
+    }
+
+    public synchronized int duplicateNotes(long[] ids, long now) {
+        if (duplicateStatement == null) {
+            duplicateStatement = database().compileStatement(SQL_DUPLICATE_NOTE);
+            duplicateChunksStatement = database().compileStatement(SQL_DUPLICATE_CHUNKS);
+            copyNoteTagsStatement = database().compileStatement(NoteSchema.SQL_COPY_NOTE_TAGS);
+            copySearchContentStatement = database().compileStatement(NoteSchema.SQL_COPY_SEARCH_CONTENT);
+        }
+        SQLiteDatabase db = database();
+        long start = NoteMetrics.start();
+        int created = 0;
+        db.beginTransaction();
+        try {
+            for (long id : ids) {
+                duplicateStatement.bindLong(1, now);
+                duplicateStatement.bindLong(2, now);
+                duplicateStatement.bindLong(3, id);
+                long copyId = duplicateStatement.executeInsert();
+                if (copyId != -1) {
+                    duplicateChunksStatement.bindLong(1, copyId);
+                    duplicateChunksStatement.bindLong(2, id);
+                    duplicateChunksStatement.executeInsert();
+                    copyNoteTagsStatement.bindLong(1, id);
+                    copyNoteTagsStatement.bindLong(2, copyId);
+                    copyNoteTagsStatement.executeInsert();
+                    // Tetikleyici sadece baş parçayı indeksler; parçalı notun tam metni kaynağın FTS satırından
+                    copySearchContentStatement.bindLong(1, id);
+                    copySearchContentStatement.bindLong(2, copyId);
+                    copySearchContentStatement.executeUpdateDelete();
+                    // Kopyanın metni aynı; üçlü kümesi gövde okunmadan kaynaktan alınır
+                    NoteGrams.update(this, new long[]{copyId}, new long[][]{NoteGrams.gramSet(this, id)});
+                    created++;
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        finish(DUPLICATE_TIMER, start, created, SQL_DUPLICATE_NOTE, null);
+        return created;
+    }
+
+    public synchronized int setArchived(long[] ids, boolean archived) {
+        if (archiveStatement == null) {
+            archiveStatement = database().compileStatement(NoteSchema.SQL_SET_ARCHIVED);
+        }
+        SQLiteDatabase db = database();
+        long start = NoteMetrics.start();
+        int changed = 0;
+        db.beginTransaction();
+        try {
+            for (long id : ids) {
+                archiveStatement.bindLong(1, archived ? 1 : 0);
+                archiveStatement.bindLong(2, id);
+                changed += archiveStatement.executeUpdateDelete();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        finish(ARCHIVE_TIMER, start, changed, NoteSchema.SQL_SET_ARCHIVED, null);
+        return changed;
+    }
+
+    // Listedeki (arşivli veya değil, tagIds boş değilse bu etiketlerin hepsini taşıyan) tüm notların id'leri;
+    // sadece indeks okunur
+    public long[] loadNoteIds(boolean archived, long[] tagIds) {
+        long start = NoteMetrics.start();
+        String sql = tagIds.length == 0 ? SQL_SELECT_NOTE_IDS : NoteSchema.selectTaggedNoteIdsSql(tagIds);
+        String[] args = {archived ? "1" : "0"};
+        Cursor cursor = database().rawQuery(sql, args);
+        try {
+            long[] ids = new long[cursor.getCount()];
+            int i = 0;
+            while (cursor.moveToNext()) {
+                ids[i++] = cursor.getLong(0);
+            }
+            finish(NOTE_IDS_TIMER, start, ids.length, sql, args);
+            return ids;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // Dışa aktarım için notların bir dilimi, _id sırasıyla (afterId'den sonraki en fazla limit satır):
+    // _id, başlık, ilk parça, oluşturma, güncelleme, arşiv, parça sayısı. Kısa dilimler uzun süre açık imleç tutmaz
+    public Cursor queryNotesForExport(long afterId, int limit) {
+        return database().rawQuery(SQL_SELECT_EXPORT, new String[]{String.valueOf(afterId), String.valueOf(limit)});
+    }
+
+    // Gövdenin ilk parçadan sonraki kısmının tamamı, çözülmüş olarak (dışa aktarım; tek not bellekte tutulur)
+    public String loadTail(long noteId) {
+        StringBuilder text = new StringBuilder();
+        Cursor cursor = queryChunks(noteId, NoteChunks.HEAD_SEQ, Integer.MAX_VALUE);
+        try {
+            while (cursor.moveToNext()) {
+                int codec = cursor.getInt(1);
+                text.append(codec == BodyCodec.PLAIN ? cursor.getString(2)
+                        : BodyCodec.decompress(codec, cursor.getBlob(2)));
+            }
+        } finally {
+            cursor.close();
+        }
+        return text.toString();
+    }
+
+    // İçe aktarılan notların bir grubu tek transaction'da eklenir; tarihler ve arşiv durumu korunur
+    // (eksik tarih yerine now). Büyük gövdeler saveNote'taki gibi parçalara bölünür. Eklenen not sayısı döner
+    public synchronized int importNotes(List<NoteArchive.Entry> entries, long now) {
+        if (importStatement == null) {
+            importStatement = database().compileStatement(SQL_IMPORT_NOTE);
+        }
+        SQLiteDatabase db = database();
+        long start = NoteMetrics.start();
+        int imported = 0;
+        long[] ids = new long[entries.size()];
+        long[][] grams = new long[entries.size()][];
+        db.beginTransaction();
+        try {
+            for (NoteArchive.Entry entry : entries) {
+                String body = entry.content == null ? "" : entry.content;
+                NoteChunks.Plan plan = NoteChunks.plan(null, new ArrayList<NoteChunks.Info>(), body);
+                long updatedAt = entry.updatedAt > 0 ? entry.updatedAt : now;
+                bindNote(importStatement, entry.title, plan.head);
+                importStatement.bindLong(3, plan.tailChunks);
+                importStatement.bindLong(4, entry.createdAt > 0 ? entry.createdAt : updatedAt);
+                importStatement.bindLong(5, updatedAt);
+                importStatement.bindLong(6, entry.archived ? 1 : 0);
+                importStatement.bindLong(7, NoteText.wordCount(body));
+                importStatement.bindString(8, TitleKeys.key(titleCollator, entry.title));
+                long id = importStatement.executeInsert();
+                if (id != -1) {
+                    writeChunks(id, plan, body, false);
+                    ids[imported] = id;
+                    grams[imported] = NoteGrams.noteGrams(entry.title, body);
+                    imported++;
+                }
+            }
+            // Grubun üçlüleri birlikte yazılır: her (üçlü, blok) bir kez güncellenir
+            NoteGrams.update(this, Arrays.copyOf(ids, imported), Arrays.copyOf(grams, imported));
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        finish(IMPORT_TIMER, start, imported, SQL_IMPORT_NOTE, null);
+        return imported;
+    }
+
+    // Hızlı yakalama günlüğünden bir grup not tek transaction'da eklenir. Daha önce aktarılmış kayıtlar
+    // (günlük atılmadan çökülmüşse) SQL'deki kimlik kontrolüyle atlanır
+    @Override
+    public synchronized int saveCaptures(List<CaptureJournal.Entry> entries) {
+        if (captureStatement == null) {
+            captureStatement = database().compileStatement(NoteSchema.SQL_INSERT_CAPTURED_NOTE);
+        }
+        SQLiteDatabase db = database();
+        long start = NoteMetrics.start();
+        int saved = 0;
+        long[] ids = new long[entries.size()];
+        long[][] grams = new long[entries.size()][];
+        db.beginTransaction();
+        try {
+            for (CaptureJournal.Entry entry : entries) {
+                NoteChunks.Plan plan = NoteChunks.plan(null, new ArrayList<NoteChunks.Info>(), entry.content);
+                bindNote(captureStatement, entry.title, plan.head);
+                captureStatement.bindLong(3, plan.tailChunks);
+                captureStatement.bindLong(4, entry.createdAt);
+                captureStatement.bindLong(5, entry.createdAt);
+                captureStatement.bindLong(6, NoteText.wordCount(entry.content));
+                captureStatement.bindString(7, TitleKeys.key(titleCollator, entry.title));
+                captureStatement.bindString(8, entry.id);
+                long id = captureStatement.executeInsert();
+                if (id != -1) {
+                    writeChunks(id, plan, entry.content, false);
+                    ids[saved] = id;
+                    grams[saved] = NoteGrams.noteGrams(entry.title, entry.content);
+                    saved++;
+                }
+            }
+            NoteGrams.update(this, Arrays.copyOf(ids, saved), Arrays.copyOf(grams, saved));
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        finish(CAPTURE_TIMER, start, saved, NoteSchema.SQL_INSERT_CAPTURED_NOTE, null);
+        return saved;
+    }
+
+    // Satır döndüren sorgular SQLiteStatement ile yapılamaz; sabit SQL bağlantının önbelleğinden derlenmiş gelir
+    @Override
+    public NoteModel loadNote(long id) {
+        long start = NoteMetrics.start();
+        String[] args = {String.valueOf(id)};
+        List<NoteModel> notes = readNotes(database().rawQuery(NoteSchema.SQL_SELECT_NOTE, args));
+        finish(NOTE_TIMER, start, notes.size(), NoteSchema.SQL_SELECT_NOTE, args);
+        return notes.isEmpty() ? null : notes.get(0);
+    }
+
+    // Büyük notun ilk parçadan sonraki gövdesi, afterSeq'ten sonraki en fazla limit parça
+    public Cursor queryChunks(long noteId, long afterSeq, int limit) {
+        return database().rawQuery(NoteSchema.SQL_SELECT_CHUNKS, new String[]{String.valueOf(noteId),
+                String.valueOf(afterSeq), String.valueOf(limit)});
+    }
+
+    // Liste için sadece id, başlık, kısa önizleme ve tarih; sayfa anahtar (keyset) koşuluyla konumlanır, OFFSET yok
+    @Override
+    public List<NoteModel> loadNotePage(NoteQuery query) {
+        long start = NoteMetrics.start();
+        List<NoteModel> notes = readSummaries(database().rawQuery(query.sql, query.args));
+        finish(PAGE_TIMER, start, notes.size(), query.sql, query.args);
+        return notes;
+    }
+
+    @Override
+    public long changeGeneration() {
+        return Migrations.queryLong(database(), NoteSchema.SQL_SELECT_GENERATION, null, 0);
+    }
+
+    // Değişiklik günlüğünden afterGeneration sonrası; sınırı aşarsa eksik (complete=false) döner
+    @Override
+    public NoteChanges loadChanges(long afterGeneration, boolean archived, long[] tagIds, int limit) {
+        long start = NoteMetrics.start();
+        // Bir fazlası okunur: sınırın aşıldığı böyle anlaşılır
+        String[] args = {String.valueOf(afterGeneration), String.valueOf(limit + 1)};
+        long[] ids = new long[limit + 1];
+        int count = 0;
+        long generation = afterGeneration;
+        Cursor cursor = database().rawQuery(NoteSchema.SQL_SELECT_CHANGES, args);
+        try {
+            while (cursor.moveToNext()) {
+                ids[count++] = cursor.getLong(0);
+                generation = cursor.getLong(1);
+            }
+        } finally {
+            cursor.close();
+        }
+        NoteChanges changes;
+        if (count > limit) {
+            changes = new NoteChanges(afterGeneration, new long[0], new ArrayList<NoteModel>(), false);
+        } else {
+            long[] changed = Arrays.copyOf(ids, count);
+            List<NoteModel> notes = count == 0 ? new ArrayList<NoteModel>()
+                    : readSummaries(database().rawQuery(
+                            NoteSchema.selectSummariesByIdsSql(changed, archived, tagIds), null));
+            changes = new NoteChanges(generation, changed, notes, true);
+        }
+        finish(CHANGES_TIMER, start, count, NoteSchema.SQL_SELECT_CHANGES, args);
+        return changes;
+    }
+
+    // Gönderilmemiş değişiklikler; sınır aşılmadıysa nesil günlüğün sonu olur (sonrası sunucudan gelmiştir)
+    @Override
+    public NoteChanges loadUnsyncedChanges(long afterGeneration, int limit) {
+        long start = NoteMetrics.start();
+        String[] args = {String.valueOf(afterGeneration), String.valueOf(limit + 1)};
+        long[] ids = new long[limit];
+        int count = 0;
+        long generation = afterGeneration;
+        boolean complete = true;
+        Cursor cursor = database().rawQuery(NoteSchema.SQL_SELECT_UNSYNCED_CHANGES, args);
+        try {
+            while (cursor.moveToNext()) {
+                if (count == limit) {
+                    complete = false;
+                    break;
+                }
+                ids[count++] = cursor.getLong(0);
+                generation = cursor.getLong(1);
+            }
+        } finally {
+            cursor.close();
+        }
+        finish(SYNC_CHANGES_TIMER, start, count, NoteSchema.SQL_SELECT_UNSYNCED_CHANGES, args);
+        return new NoteChanges(complete ? changeGeneration() : generation, Arrays.copyOf(ids, count),
+                new ArrayList<NoteModel>(), complete);
+    }
+
+    @Override
+    public long[] loadSyncNoteIds(long afterId, int limit) {
+        String[] args = {String.valueOf(afterId), String.valueOf(limit)};
+        long[] ids = new long[limit];
+        int count = 0;
+        Cursor cursor = database().rawQuery(NoteSchema.SQL_SELECT_SYNC_NOTE_IDS, args);
+        try {
+            while (cursor.moveToNext()) {
+                ids[count++] = cursor.getLong(0);
+            }
+        } finally {
+            cursor.close();
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    @Override
+    public SyncRecord loadSyncRecord(long noteId) {
+        String[] args = {String.valueOf(noteId)};
+        SyncRecord record = readSyncNote(NoteSchema.SQL_SELECT_SYNC_NOTE, args);
+        return record != null ? record : readTombstone(NoteSchema.SQL_SELECT_TOMBSTONE, args);
+    }
+
+    @Override
+    public SyncRecord findSyncRecord(String syncId) {
+        String[] args = {syncId};
+        SyncRecord record = readSyncNote(NoteSchema.SQL_SELECT_SYNC_NOTE_BY_SYNC_ID, args);
+        return record != null ? record : readTombstone(NoteSchema.SQL_SELECT_TOMBSTONE_BY_SYNC_ID, args);
+    }
+
+    // Meta güncellemesi günlük satırını yeniden yazar; gönderilmemesi için işaret ondan sonra konur
+    @Override
+    public synchronized void markSynced(long noteId, SyncRecord record) {
+        if (syncMetaStatement == null) {
+            syncMetaStatement = database().compileStatement(NoteSchema.SQL_APPLY_SYNC_META);
+            markSyncedStatement = database().compileStatement(NoteSchema.SQL_MARK_SYNCED);
+            tombstoneSyncedStatement = database().compileStatement(NoteSchema.SQL_MARK_TOMBSTONE_SYNCED);
+            clearTombstoneStatement = database().compileStatement(NoteSchema.SQL_CLEAR_TOMBSTONE);
+        }
+        if (record.deleted) {
+            tombstoneSyncedStatement.bindString(1, record.syncId);
+            tombstoneSyncedStatement.bindLong(2, record.version);
+            tombstoneSyncedStatement.bindLong(3, record.updatedAt);
+            tombstoneSyncedStatement.bindLong(4, noteId);
+            tombstoneSyncedStatement.executeUpdateDelete();
+            return;
+        }
+        clearTombstoneStatement.bindString(1, record.syncId);
+        clearTombstoneStatement.executeUpdateDelete();
+        syncMetaStatement.bindString(1, record.syncId);
+        syncMetaStatement.bindLong(2, record.version);
+        syncMetaStatement.bindLong(3, record.createdAt);
+        syncMetaStatement.bindLong(4, record.archived ? 1 : 0);
+        syncMetaStatement.bindLong(5, noteId);
+        syncMetaStatement.executeUpdateDelete();
+        markSyncedStatement.bindLong(1, noteId);
+        markSyncedStatement.executeUpdateDelete();
+    }
+
+    @Override
+    public synchronized void markPushed(long[] noteIds, long maxGeneration) {
+        if (markPushedStatement == null) {
+            markPushedStatement = database().compileStatement(NoteSchema.SQL_MARK_PUSHED);
+        }
+        SQLiteDatabase db = database();
+        db.beginTransaction();
+        try {
+            for (long id : noteIds) {
+                markPushedStatement.bindLong(1, id);
+                markPushedStatement.bindLong(2, maxGeneration);
+                markPushedStatement.executeUpdateDelete();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // Yazım hatalarına dayanıklı arama (bkz. NoteGrams); benzerliğe göre azalan sırada en fazla limit id.
+    // Gövdeler okunmaz, sadece sorgu üçlülerinin listeleri
+    // tagIds boş değilse sadece etiketli notlar (indeksten okunan arşivlenmemiş id'ler) puanlanıp sıralanır
+    public long[] fuzzySearchNoteIds(List<String> terms, long[] tagIds, int limit) {
+        long start = NoteMetrics.start();
+        long[] ids;
+        if (tagIds.length == 0) {
+            ids = NoteGrams.search(this, terms, limit);
+        } else {
+            long[] tagged = loadNoteIds(false, tagIds);
+            Arrays.sort(tagged);
+            ids = NoteGrams.search(this, terms, tagged, limit);
+        }
+        finish(FUZZY_SEARCH_TIMER, start, ids.length, null, null);
+        return ids;
+    }
+
+    @Override
+    public List<NoteTag> loadTags() {
+        long start = NoteMetrics.start();
+        List<NoteTag> tags = readTags(database().rawQuery(NoteSchema.SQL_SELECT_TAGS, null));
+        finish(TAGS_TIMER, start, tags.size(), NoteSchema.SQL_SELECT_TAGS, null);
+        return tags;
+    }
+
+    @Override
+    public List<NoteTag> loadNoteTags(long noteId) {
+        return readTags(database().rawQuery(NoteSchema.SQL_SELECT_NOTE_TAGS, new String[]{String.valueOf(noteId)}));
+    }
+
+    // Etiket yoksa oluşturulur; notların etiket satırları tek transaction'da eklenir, sayılar tetikleyicilerle artar
+    @Override
+    public synchronized long tagNotes(String name, long[] noteIds) {
+        if (insertTagStatement == null) {
+            insertTagStatement = database().compileStatement(NoteSchema.SQL_INSERT_TAG);
+            insertNoteTagStatement = database().compileStatement(NoteSchema.SQL_INSERT_NOTE_TAG);
+        }
+        SQLiteDatabase db = database();
+        long start = NoteMetrics.start();
+        db.beginTransaction();
+        try {
+            insertTagStatement.bindString(1, name);
+            insertTagStatement.executeInsert();
+            long tagId = Migrations.queryLong(db, NoteSchema.SQL_SELECT_TAG_ID, new String[]{name}, -1);
+            for (long noteId : noteIds) {
+                insertNoteTagStatement.bindLong(1, tagId);
+                insertNoteTagStatement.bindLong(2, noteId);
+                insertNoteTagStatement.executeInsert();
+            }
+            db.setTransactionSuccessful();
+            return tagId;
+        } finally {
+            db.endTransaction();
+            finish(TAG_NOTES_TIMER, start, noteIds.length, NoteSchema.SQL_INSERT_NOTE_TAG, null);
+        }
+    }
+
+    @Override
+    public synchronized int untagNotes(long tagId, long[] noteIds) {
+        if (deleteNoteTagStatement == null) {
+            deleteNoteTagStatement = database().compileStatement(NoteSchema.SQL_DELETE_NOTE_TAG);
+        }
+        SQLiteDatabase db = database();
+        long start = NoteMetrics.start();
+        int removed = 0;
+        db.beginTransaction();
+        try {
+            for (long noteId : noteIds) {
+                deleteNoteTagStatement.bindLong(1, tagId);
+                deleteNoteTagStatement.bindLong(2, noteId);
+                removed += deleteNoteTagStatement.executeUpdateDelete();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        finish(TAG_NOTES_TIMER, start, removed, NoteSchema.SQL_DELETE_NOTE_TAG, null);
+        return removed;
+    }
+
+    @Override
+    public synchronized boolean renameTag(long tagId, String name) {
+        SQLiteStatement rename = database().compileStatement(NoteSchema.SQL_RENAME_TAG);
+        try {
+            rename.bindString(1, name);
+            rename.bindLong(2, tagId);
+            return rename.executeUpdateDelete() > 0;
+        } finally {
+            rename.close();
+        }
+    }
+
+    // Etiketin not satırları ve sayıları tetikleyicilerle aynı ifadede silinir
+    @Override
+    public synchronized int deleteTag(long tagId) {
+        SQLiteStatement delete = database().compileStatement(NoteSchema.SQL_DELETE_TAG);
+        try {
+            delete.bindLong(1, tagId);
+            return delete.executeUpdateDelete();
+        } finally {
+            delete.close();
+        }
+    }
+
+    // Etiketler: id, ad, not sayısı, arşivlenmiş not sayısı
+    private static List<NoteTag> readTags(Cursor cursor) {
+        List<NoteTag> tags = new ArrayList<>();
+        try {
+            while (cursor.moveToNext()) {
+                tags.add(new NoteTag(cursor.getLong(0), cursor.getString(1), cursor.getInt(2), cursor.getInt(3)));
+            }
+        } finally {
+            cursor.close();
+        }
+        return tags;
+    }
+
+    // Üçlü indeksini var olan notlar için kurar: afterId'den sonraki en fazla limit not tek transaction'da.
+    // İndekslenmiş notun kümesi değişmediğinden tekrar işlemek zararsızdır. Son işlenen _id, bittiyse -1 döner
+    public synchronized long indexGrams(long afterId, int limit) {
+        SQLiteDatabase db = database();
+        long start = NoteMetrics.start();
+        long[] ids = new long[limit];
+        long[][] grams = new long[limit][];
+        int count = 0;
+        db.beginTransaction();
+        try {
+            Cursor cursor = queryNotesForExport(afterId, limit);
+            try {
+                while (cursor.moveToNext()) {
+                    long id = cursor.getLong(0);
+                    String body = cursor.isNull(2) ? "" : cursor.getString(2);
+                    if (cursor.getInt(6) > 0) {
+                        body += loadTail(id);
+                    }
+                    ids[count] = id;
+                    grams[count] = NoteGrams.noteGrams(cursor.getString(1), body);
+                    count++;
+                }
+            } finally {
+                cursor.close();
+            }
+            NoteGrams.update(this, Arrays.copyOf(ids, count), Arrays.copyOf(grams, count));
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        finish(GRAM_INDEX_TIMER, start, count, null, null);
+        return count < limit ? -1 : ids[count - 1];
+    }
+
+    @Override
+    public byte[] loadGramSet(long noteId) {
+        return queryBlob(NoteSchema.SQL_SELECT_GRAM_SET, new String[]{String.valueOf(noteId)});
+    }
+
+    @Override
+    public synchronized void saveGramSet(long noteId, byte[] grams) {
+        if (grams == null) {
+            if (deleteGramSetStatement == null) {
+                deleteGramSetStatement = database().compileStatement(NoteSchema.SQL_DELETE_GRAM_SET);
+            }
+            deleteGramSetStatement.bindLong(1, noteId);
+            deleteGramSetStatement.executeUpdateDelete();
+            return;
+        }
+        if (replaceGramSetStatement == null) {
+            replaceGramSetStatement = database().compileStatement(NoteSchema.SQL_REPLACE_GRAM_SET);
+        }
+        replaceGramSetStatement.bindLong(1, noteId);
+        replaceGramSetStatement.bindBlob(2, grams);
+        replaceGramSetStatement.executeInsert();
+    }
+
+    @Override
+    public byte[] loadGramBlock(long gram, long block) {
+        return queryBlob(NoteSchema.SQL_SELECT_GRAM_BLOCK, new String[]{String.valueOf(gram), String.valueOf(block)});
+    }
+
+    @Override
+    public synchronized void saveGramBlock(long gram, long block, int count, byte[] ids) {
+        if (count == 0) {
+            if (deleteGramBlockStatement == null) {
+                deleteGramBlockStatement = database().compileStatement(NoteSchema.SQL_DELETE_GRAM_BLOCK);
+            }
+            deleteGramBlockStatement.bindLong(1, gram);
+            deleteGramBlockStatement.bindLong(2, block);
+            deleteGramBlockStatement.executeUpdateDelete();
+            return;
+        }
+        if (replaceGramBlockStatement == null) {
+            replaceGramBlockStatement = database().compileStatement(NoteSchema.SQL_REPLACE_GRAM_BLOCK);
+        }
+        replaceGramBlockStatement.bindLong(1, gram);
+        replaceGramBlockStatement.bindLong(2, block);
+        replaceGramBlockStatement.bindLong(3, count);
+        replaceGramBlockStatement.bindBlob(4, ids);
+        replaceGramBlockStatement.executeInsert();
+    }
+
+    @Override
+    public List<byte[]> loadGramPostings(long gram) {
+        List<byte[]> blocks = new ArrayList<>();
+        Cursor cursor = database().rawQuery(NoteSchema.SQL_SELECT_GRAM_POSTINGS, new String[]{String.valueOf(gram)});
+        try {
+            while (cursor.moveToNext()) {
+                blocks.add(cursor.getBlob(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        return blocks;
+    }
+
+    @Override
+    public long maxNoteId() {
+        return Migrations.queryLong(database(), NoteSchema.SQL_SELECT_MAX_NOTE_ID, null, 0);
+    }
+
+    @Override
+    public long[] loadArchivedNoteIds() {
+        Cursor cursor = database().rawQuery(NoteSchema.SQL_SELECT_ARCHIVED_NOTE_IDS, null);
+        try {
+            long[] ids = new long[cursor.getCount()];
+            int i = 0;
+            while (cursor.moveToNext()) {
+                ids[i++] = cursor.getLong(0);
+            }
+            return ids;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private byte[] queryBlob(String sql, String[] args) {
+        Cursor cursor = database().rawQuery(sql, args);
+        try {
+            return cursor.moveToFirst() ? cursor.getBlob(0) : null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // Sütun sırası NoteSchema.SQL_SELECT_SYNC_NOTE ile aynı; gövde kalan parçalarıyla birleştirilir
+    private SyncRecord readSyncNote(String sql, String[] args) {
+        long start = NoteMetrics.start();
+        SyncRecord record = null;
+        Cursor cursor = database().rawQuery(sql, args);
+        try {
+            if (cursor.moveToFirst()) {
+                long id = cursor.getLong(0);
+                String content = cursor.isNull(7) ? "" : cursor.getString(7);
+                if (cursor.getInt(8) > 0) {
+                    content += loadTail(id);
+                }
+                record = new SyncRecord(cursor.getString(1), cursor.getLong(2), cursor.getLong(3), cursor.getLong(4),
+                        false, cursor.getInt(5) != 0, cursor.getString(6), content, id);
+            }
+        } finally {
+            cursor.close();
+        }
+        finish(SYNC_RECORD_TIMER, start, record == null ? 0 : 1, sql, args);
+        return record;
+    }
+
+    private SyncRecord readTombstone(String sql, String[] args) {
+        Cursor cursor = database().rawQuery(sql, args);
+        try {
+            return cursor.moveToFirst() ? SyncRecord.tombstone(cursor.getString(1), cursor.getLong(2),
+                    cursor.getLong(3), cursor.getLong(0)) : null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // Liste özetleri: id, başlık, önizleme, tarih, kelime sayısı, başlık anahtarı
+    private static List<NoteModel> readSummaries(Cursor cursor) {
+        List<NoteModel> notes = new ArrayList<>();
+        try {
+            while (cursor.moveToNext()) {
+                NoteModel note = new NoteModel(cursor.getLong(0), cursor.getString(1), null, cursor.getLong(3));
+                note.setPreview(cursor.getString(2));
+                note.setWordCount(cursor.getInt(4));
+                note.setTitleKey(cursor.getString(5));
+                notes.add(note);
+            }
+        } finally {
+            cursor.close();
+        }
+        return notes;
+    }
+
+    // FTS araması: eşleşenler sadece id + matchinfo ile okunur, sıralama Java'da yapılır
+    @Override
+    public long[] searchNoteIds(String matchExpression, long[] tagIds, int limit) {
+        long start = NoteMetrics.start();
+        String[] args = {matchExpression};
+        String sql = tagIds.length == 0 ? NoteSchema.SQL_SEARCH : NoteSchema.searchSql(tagIds);
+        SearchRanking ranking = new SearchRanking();
+        Cursor cursor = database().rawQuery(sql, args);
+        try {
+            while (cursor.moveToNext()) {
+                ranking.add(cursor.getLong(0), cursor.getBlob(1));
+            }
+        } finally {
+            cursor.close();
+        }
+        long[] top = ranking.top(limit);
+        finish(SEARCH_TIMER, start, ranking.size(), sql, args);
+        return top;
+    }
+
+    // Arama sonuçlarının içeriği; arşivlenmiş notlar aramada görünmez
+    @Override
+    public List<NoteModel> loadNotesByIds(long[] ids) {
+        long start = NoteMetrics.start();
+        String sql = NoteSchema.selectNotesByIdsSql(ids);
+        List<NoteModel> notes = readNotes(database().rawQuery(sql, null));
+        finish(NOTES_BY_IDS_TIMER, start, notes.size(), sql, null);
+        return notes;
+    }
+
+    // Sütun sırası NoteSchema'daki tek not okumalarıyla aynı
+    private static List<NoteModel> readNotes(Cursor cursor) {
+        List<NoteModel> notes = new ArrayList<>();
+        try {
+            while (cursor.moveToNext()) {
+                NoteModel note = new NoteModel(cursor.getLong(0), cursor.getString(1), cursor.getString(2),
+                        cursor.getLong(3));
+                note.setTailChunks(cursor.getInt(4));
+                notes.add(note);
+            }
+        } finally {
+            cursor.close();
+        }
+        return notes;
+    }
+
+    // Ölçümü kaydeder; eşiği aşan işlem SQL'i ve EXPLAIN QUERY PLAN çıktısıyla günlüğe yazılır.
+    // Plan eksik bağlanmış parametrelerle de alınabilir (NULL sayılır); toplu işlemlerde args null verilir.
+    void finish(NoteMetrics.Timer timer, long start, int rows, String sql, String[] args) {
+        long elapsed = timer.stop(start, rows);
+        if (elapsed == 0 || !NoteMetrics.isSlow(elapsed)) {
+            return;
+        }
+        StringBuilder message = new StringBuilder("Yavaş işlem ").append(timer.name).append(": ")
+                .append(elapsed / 1000000).append(" ms, ").append(rows).append(" satır");
+        if (sql != null) {
+            message.append('\n').append(sql);
+            try {
+                Cursor plan = database().rawQuery("EXPLAIN QUERY PLAN " + sql, args);
+                try {
+                    while (plan.moveToNext()) {
+                        // Son sütun (detail) planın okunur açıklaması, ör. "SCAN notes" / "SEARCH ... USING INDEX"
+                        message.append("\n  ").append(plan.getString(plan.getColumnCount() - 1));
+                    }
+                } finally {
+                    plan.close();
+                }
+            } catch (RuntimeException e) {
+                message.append("\n  (plan alınamadı: ").append(e.getMessage()).append(')');
+            }
+        }
+        Log.w(TAG, message.toString());
+    }
+
+    private static void bindNote(SQLiteStatement statement, String title, String content) {
+        statement.clearBindings();
+        bindStringOrNull(statement, 1, title);
+        bindStringOrNull(statement, 2, content);
+    }
+
+    static void bindStringOrNull(SQLiteStatement statement, int index, String value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else {
+            statement.bindString(index, value);
+        }
     }
 }
\ No newline at end of file
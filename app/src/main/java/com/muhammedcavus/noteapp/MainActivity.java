@@ -3,33 +3,66 @@ package com.muhammedcavus.noteapp;
 import android.content.Context;
 import android.content.DialogInterface;
 import android.content.Intent;
-import android.database.Cursor;
-import android.database.sqlite.SQLiteDatabase;
+import android.graphics.Typeface;
+import android.net.Uri;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.Gravity;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.*;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 public class MainActivity extends AppCompatActivity {
 
+    private static final int GRID_COLUMNS = 2;
+
     private LinearLayout rootLayout; // Programatik container
-    private DBHelper dbHelper;
+    private RecyclerView notesRecyclerView;
+    private NoteAdapter noteAdapter;
+    private TextView emptyView;
+    private NoteRepository noteRepository;
+    private NotePager notePager;
+    private EditText searchEditText;
+    private SearchSession searchSession;
 
     // Görünüm tipi: true=List, false=Grid
     private boolean isListView = true;
 
     // Seçim modu için bir adaptör veya liste tutabiliriz
     private List<NoteModel> notesList = new ArrayList<>();
-    private List<Long> selectedNotes = new ArrayList<>();
+    private Set<Long> selectedNotes = new HashSet<>();
+    // Seçim varken tıklama notu açmak yerine seçimi değiştirir
+    private boolean isSelectionMode = false;
+    // true iken liste arşivlenmiş notları gösterir
+    private boolean showArchived = false;
+    // Liste ve arama bu etiketlerin hepsini taşıyan notlarla sınırlanır; boşsa süzgeç yok
+    private List<NoteTag> filterTags = new ArrayList<>();
+    // Gösterilen arama sonuçlarının yansıttığı değişiklik nesli (bkz. refreshNotes)
+    private long searchGeneration = -1;
+
+    // Dışa/içe aktarım dosyası sistem dosya seçicisiyle seçilir (izin gerekmez); dosya türü biçime göre
+    private ActivityResultLauncher<String> jsonExportLauncher;
+    private ActivityResultLauncher<String> zipExportLauncher;
+    private ActivityResultLauncher<String[]> importLauncher;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -40,7 +73,16 @@ public class MainActivity extends AppCompatActivity {
         rootLayout.setOrientation(LinearLayout.VERTICAL);
         setContentView(rootLayout);
 
-        dbHelper = new DBHelper(this);
+        noteRepository = NoteRepository.getInstance(this);
+
+        // Sonuç çağrıları ekran yeniden oluşturulsa da teslim edilsin diye kayıt onCreate'te yapılır
+        jsonExportLauncher = registerForActivityResult(
+                new ActivityResultContracts.CreateDocument(NoteArchive.Format.JSON_LINES.mimeType),
+                uri -> exportNotes(uri, NoteArchive.Format.JSON_LINES));
+        zipExportLauncher = registerForActivityResult(
+                new ActivityResultContracts.CreateDocument(NoteArchive.Format.MARKDOWN_ZIP.mimeType),
+                uri -> exportNotes(uri, NoteArchive.Format.MARKDOWN_ZIP));
+        importLauncher = registerForActivityResult(new ActivityResultContracts.OpenDocument(), this::importNotes);
 
         // Üst menü görünümü kendi toolbar'ınızla veya ActionBar ile de yapabilirsiniz
         // Basit bir başlık ekleyelim
@@ -54,16 +96,52 @@ public class MainActivity extends AppCompatActivity {
         ));
         rootLayout.addView(titleText);
 
+        // Yazdıkça arama çubuğu ("Arama" menüsüyle açılır)
+        searchSession = new SearchSession(noteRepository, new SearchSession.Listener() {
+            @Override
+            public void onSearchResults(List<NoteModel> results) {
+                notePager.cancel();
+                showNotes(results);
+            }
+
+            @Override
+            public void onSearchCleared() {
+                displayNotes();
+            }
+        });
+        searchEditText = new EditText(this);
+        searchEditText.setHint("Notlarda ara...");
+        searchEditText.setSingleLine(true);
+        searchEditText.setVisibility(View.GONE);
+        searchEditText.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+                searchSession.onQueryChanged(s.toString());
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+            }
+        });
+        rootLayout.addView(searchEditText);
+
         // "Hepsini Seç" butonu
         Button selectAllButton = new Button(this);
         selectAllButton.setText("Hepsini Seç");
         selectAllButton.setOnClickListener(v -> {
-            selectedNotes.clear();
-            for (NoteModel nm : notesList) {
-                selectedNotes.add(nm.getId());
-            }
-            // Listeyi vs. güncelleyebilirsiniz
-            Toast.makeText(MainActivity.this, "Tüm notlar seçildi", Toast.LENGTH_SHORT).show();
+            // Liste sayfalı yüklendiğinden id'ler ekrandaki sayfalardan değil veritabanından alınır
+            noteRepository.loadNoteIds(showArchived, notePager.getTagIds(), ids -> {
+                selectedNotes.clear();
+                for (long id : ids) {
+                    selectedNotes.add(id);
+                }
+                updateSelection();
+                Toast.makeText(MainActivity.this, "Tüm notlar seçildi", Toast.LENGTH_SHORT).show();
+            });
         });
         rootLayout.addView(selectAllButton);
 
@@ -76,97 +154,115 @@ public class MainActivity extends AppCompatActivity {
         });
         rootLayout.addView(newNoteButton);
 
-        // Notları listele
-        displayNotes();
-    }
-
-    // Notları veritabanından çekip görüntüleme
-    private void displayNotes() {
-        // Önce var olan görsel listeyi silelim (rootLayout'ta alt kısımlarda dinamik eklemiş olabiliriz)
-        // başlık, butonlar gibi ilk 3 çocuğu korumak için removeViews() index kullanabiliriz
-        if(rootLayout.getChildCount() > 3) {
-            rootLayout.removeViews(3, rootLayout.getChildCount()-3);
-        }
+        // Boş liste mesajı
+        emptyView = new TextView(this);
+        emptyView.setText("Henüz not yok...");
+        emptyView.setGravity(Gravity.CENTER);
+        emptyView.setLayoutParams(new LinearLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT
+        ));
+        emptyView.setVisibility(View.GONE);
+        rootLayout.addView(emptyView);
+
+        // Not listesi: kalan alanı kaplayan, kaydırılabilir ve view'ları geri dönüştüren liste
+        noteAdapter = new NoteAdapter(new NoteAdapter.OnNoteClickListener() {
+            @Override
+            public void onNoteClick(NoteModel note) {
+                if (isSelectionMode) {
+                    toggleSelection(note.getId());
+                } else {
+                    // Tıklama ile notu düzenleme
+                    openNote(note);
+                }
+            }
 
-        loadNotesFromDB();
+            @Override
+            public void onNoteLongClick(NoteModel note) {
+                showDeleteButton(note.getId());
+            }
+        });
+        notesRecyclerView = new RecyclerView(this);
+        notesRecyclerView.setLayoutParams(new LinearLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT,
+                0,
+                1
+        ));
+        notesRecyclerView.setAdapter(noteAdapter);
+        applyLayoutManager();
+        rootLayout.addView(notesRecyclerView);
+
+        // Notlar sayfa sayfa yüklenir; listenin sonuna yaklaşınca sonraki sayfa önceden istenir
+        notePager = new NotePager(noteRepository, new NotePager.Listener() {
+            @Override
+            public void onFirstPage(List<NoteModel> page) {
+                showNotes(page);
+            }
 
-        if (notesList.isEmpty()) {
-            TextView emptyView = new TextView(this);
-            emptyView.setText("Henüz not yok...");
-            emptyView.setGravity(Gravity.CENTER);
-            emptyView.setLayoutParams(new LinearLayout.LayoutParams(
-                    ViewGroup.LayoutParams.MATCH_PARENT,
-                    ViewGroup.LayoutParams.WRAP_CONTENT
-            ));
-            rootLayout.addView(emptyView);
-            return;
-        }
+            @Override
+            public void onNextPage(List<NoteModel> page) {
+                notesList.addAll(page);
+                noteAdapter.appendNotes(page);
+            }
 
-        if (isListView) {
-            // Liste görünümü
-            for (NoteModel note : notesList) {
-                rootLayout.addView(createNoteItemView(note));
+            @Override
+            public void onChanges(NoteChanges changes) {
+                showNotes(notePager.merge(notesList, changes));
             }
-        } else {
-            // Izgara görünümü
-            // Basit bir TableLayout veya GridLayout programatik oluşturulabilir
-            TableLayout tableLayout = new TableLayout(this);
-            TableRow tableRow = null;
-            int columns = 2;
-            int index = 0;
-
-            for (NoteModel note : notesList) {
-                if (index % columns == 0) {
-                    tableRow = new TableRow(this);
-                    tableLayout.addView(tableRow);
-                }
-                if (tableRow != null) {
-                    tableRow.addView(createNoteItemView(note));
+        });
+        notesRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+                if (layoutManager != null) {
+                    notePager.onScrolled(layoutManager.findLastVisibleItemPosition(), noteAdapter.getItemCount());
                 }
-                index++;
             }
+        });
 
-            rootLayout.addView(tableLayout);
-        }
-    }
-
-    private View createNoteItemView(NoteModel note) {
-        // Tek notu gösteren basit bir layout
-        LinearLayout layout = new LinearLayout(this);
-        layout.setOrientation(LinearLayout.VERTICAL);
-        layout.setPadding(16, 16, 16, 16);
-        layout.setBackgroundColor(0xFFEFEFEF);
+        // Notları kayıtlı sırayla listele; hemen ardından gelen onResume sadece değişiklik olup olmadığına bakar
+        notePager.setSortOrder(noteRepository.getSortOrder());
+        displayNotes();
 
-        // Basılı tutma ile sil butonu aktifleşmesi
-        layout.setOnLongClickListener(v -> {
-            showDeleteButton(note.getId());
-            return true;
+        // Yerel ayar değiştiyse başlık anahtarları yenilenir; bitince başlık sırası yeniden yüklenir
+        noteRepository.checkTitleLocale((done, finished) -> {
+            if (finished && notePager.getSortOrder() == NoteQuery.SortOrder.TITLE && !isFinishing()) {
+                displayNotes();
+            }
         });
+    }
 
-        TextView titleView = new TextView(this);
-        titleView.setText("Başlık: " + note.getTitle());
-        titleView.setTextSize(18f);
-
-        TextView contentView = new TextView(this);
-        contentView.setText("Not: " + note.getContent());
-        contentView.setTextSize(16f);
+    // Notları veritabanından çekip görüntüleme (geçerli sıralamayla ilk sayfadan başlar)
+    private void displayNotes() {
+        notePager.reset(notePager.getSortOrder(), showArchived);
+    }
 
-        TextView dateView = new TextView(this);
-        dateView.setText("Tarih: " + note.getDate());
-        dateView.setTextSize(14f);
+    // notesList içeriğini RecyclerView'a aktarır; view'lar sadece görünen satırlar için bağlanır
+    private void renderNotes() {
+        noteAdapter.setNotes(notesList);
 
-        layout.addView(titleView);
-        layout.addView(contentView);
-        layout.addView(dateView);
+        if (notesList.isEmpty()) {
+            emptyView.setVisibility(View.VISIBLE);
+            notesRecyclerView.setVisibility(View.GONE);
+        } else {
+            emptyView.setVisibility(View.GONE);
+            notesRecyclerView.setVisibility(View.VISIBLE);
+        }
+    }
 
-        // Tıklama ile notu düzenleme
-        layout.setOnClickListener(v -> {
-            Intent intent = new Intent(MainActivity.this, NoteEditorActivity.class);
-            intent.putExtra("NOTE_ID", note.getId());
-            startActivity(intent);
-        });
+    // Görünüm moduna göre liste veya 2 sütunlu ızgara yerleşimi
+    private void applyLayoutManager() {
+        if (isListView) {
+            notesRecyclerView.setLayoutManager(new LinearLayoutManager(this));
+        } else {
+            notesRecyclerView.setLayoutManager(new GridLayoutManager(this, GRID_COLUMNS));
+        }
+    }
 
-        return layout;
+    private void openNote(NoteModel note) {
+        Intent intent = new Intent(MainActivity.this, NoteEditorActivity.class);
+        intent.putExtra("NOTE_ID", note.getId());
+        startActivity(intent);
     }
 
     // Alt kısımda sil butonu göstermek için basit bir yöntem
@@ -176,7 +272,6 @@ public class MainActivity extends AppCompatActivity {
         builder.setTitle("Notu silmek istiyor musunuz?");
         builder.setPositiveButton("Sil", (dialog, which) -> {
             deleteNote(noteId);
-            displayNotes(); // Listeyi yenile
         });
         builder.setNegativeButton("İptal", null);
         builder.show();
@@ -184,29 +279,142 @@ public class MainActivity extends AppCompatActivity {
 
     // Not silme
     private void deleteNote(long noteId) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
-        db.delete(DBHelper.TABLE_NOTES, DBHelper.COLUMN_ID + "=?", new String[]{String.valueOf(noteId)});
-        db.close();
+        noteRepository.deleteNote(noteId, NoteRepository.callback(result -> refreshNotes(), // Listeyi yenile
+                this::onBulkFailed));
     }
 
-    // DB'den notları çek
-    private void loadNotesFromDB() {
-        notesList.clear();
-        SQLiteDatabase db = dbHelper.getReadableDatabase();
-        Cursor cursor = db.query(DBHelper.TABLE_NOTES, null, null, null,
-                null, null, null);
-
-        if (cursor != null) {
-            while (cursor.moveToNext()) {
-                long id = cursor.getLong(cursor.getColumnIndexOrThrow(DBHelper.COLUMN_ID));
-                String title = cursor.getString(cursor.getColumnIndexOrThrow(DBHelper.COLUMN_TITLE));
-                String content = cursor.getString(cursor.getColumnIndexOrThrow(DBHelper.COLUMN_CONTENT));
-                String date = cursor.getString(cursor.getColumnIndexOrThrow(DBHelper.COLUMN_DATE));
-                notesList.add(new NoteModel(id, title, content, date));
-            }
-            cursor.close();
+    private void toggleSelection(long noteId) {
+        if (!selectedNotes.remove(noteId)) {
+            selectedNotes.add(noteId);
+        }
+        updateSelection();
+    }
+
+    private void clearSelection() {
+        selectedNotes.clear();
+        updateSelection();
+    }
+
+    private void updateSelection() {
+        isSelectionMode = !selectedNotes.isEmpty();
+        noteAdapter.setSelectedIds(selectedNotes);
+    }
+
+    private long[] selectedIds() {
+        long[] ids = new long[selectedNotes.size()];
+        int i = 0;
+        for (long id : selectedNotes) {
+            ids[i++] = id;
         }
-        db.close();
+        return ids;
+    }
+
+    // Seçilen notlar üzerinde toplu işlemler; her biri tek transaction, liste sonunda bir kez yenilenir
+    private void showSelectionDialog() {
+        if (selectedNotes.isEmpty()) {
+            Toast.makeText(this, "Seçili not yok. Notları seçmek için \"Hepsini Seç\" butonunu kullanın.",
+                    Toast.LENGTH_SHORT).show();
+            return;
+        }
+        AlertDialog.Builder builder = new AlertDialog.Builder(this);
+        builder.setTitle(selectedNotes.size() + " not seçildi");
+        String[] actions = {"Sil", "Çoğalt", showArchived ? "Arşivden çıkar" : "Arşivle", "Etiketle",
+                "Etiketten çıkar", "Seçimi temizle"};
+        builder.setItems(actions, (dialog, which) -> {
+            long[] ids = selectedIds();
+            switch (which) {
+                case 0:
+                    confirmDeleteSelected(ids);
+                    break;
+                case 1:
+                    noteRepository.duplicateNotes(ids, NoteRepository.callback(
+                            count -> onBulkDone(count + " not çoğaltıldı"), this::onBulkFailed));
+                    break;
+                case 2:
+                    noteRepository.setArchived(ids, !showArchived, NoteRepository.callback(count -> onBulkDone(
+                            count + (showArchived ? " not arşivden çıkarıldı" : " not arşivlendi")),
+                            this::onBulkFailed));
+                    break;
+                case 3:
+                    showTagNotesDialog(ids);
+                    break;
+                case 4:
+                    showUntagNotesDialog(ids);
+                    break;
+                default:
+                    clearSelection();
+                    break;
+            }
+        });
+        builder.show();
+    }
+
+    private void confirmDeleteSelected(long[] ids) {
+        AlertDialog.Builder builder = new AlertDialog.Builder(this);
+        builder.setTitle(ids.length + " not silinsin mi?");
+        builder.setPositiveButton("Sil", (dialog, which) ->
+                noteRepository.deleteNotes(ids, NoteRepository.callback(
+                        count -> onBulkDone(count + " not silindi"), this::onBulkFailed)));
+        builder.setNegativeButton("İptal", null);
+        builder.show();
+    }
+
+    // Etiket adı yazılır; yoksa oluşturulur
+    private void showTagNotesDialog(long[] ids) {
+        EditText nameEditText = new EditText(this);
+        nameEditText.setHint("Etiket adı");
+        nameEditText.setSingleLine(true);
+        new AlertDialog.Builder(this)
+                .setTitle(ids.length + " not etiketlensin")
+                .setView(nameEditText)
+                .setPositiveButton("Etiketle", (dialog, which) -> {
+                    String name = nameEditText.getText().toString().trim();
+                    if (!name.isEmpty()) {
+                        noteRepository.tagNotes(name, ids, NoteRepository.callback(
+                                tagId -> onBulkDone(ids.length + " not \"" + name + "\" ile etiketlendi"),
+                                this::onBulkFailed));
+                    }
+                })
+                .setNegativeButton("İptal", null)
+                .show();
+    }
+
+    private void showUntagNotesDialog(long[] ids) {
+        noteRepository.loadTags(tags -> {
+            if (tags.isEmpty()) {
+                Toast.makeText(MainActivity.this, "Etiket yok", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            new AlertDialog.Builder(MainActivity.this)
+                    .setTitle("Etiketten çıkar")
+                    .setItems(tagNames(tags, false), (dialog, which) -> noteRepository.untagNotes(
+                            tags.get(which).id, ids, NoteRepository.callback(
+                                    count -> onBulkDone(count + " not etiketten çıkarıldı"), this::onBulkFailed)))
+                    .show();
+        });
+    }
+
+    // Yazma başarısız oldu (ör. disk dolu); değişiklik geri alınmıştır, liste veritabanındaki hale göre yenilenir
+    private void onBulkFailed(RuntimeException error) {
+        Toast.makeText(this, "İşlem başarısız: " + errorMessage(error), Toast.LENGTH_LONG).show();
+        clearSelection();
+        refreshNotes();
+    }
+
+    private static String errorMessage(RuntimeException error) {
+        return error.getMessage() != null ? error.getMessage() : error.toString();
+    }
+
+    private void onBulkDone(String message) {
+        Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+        clearSelection();
+        refreshNotes();
+    }
+
+    private void showNotes(List<NoteModel> notes) {
+        notesList.clear();
+        notesList.addAll(notes);
+        renderNotes();
     }
 
     // Üst menü (Arama, Sıralama, Ayarlar)
@@ -215,6 +423,8 @@ public class MainActivity extends AppCompatActivity {
         menu.add(0, 1, 0, "Arama");
         menu.add(0, 2, 1, "Sıralama");
         menu.add(0, 3, 2, "Ayarlar");
+        menu.add(0, 4, 3, "Seçilenler");
+        menu.add(0, 5, 4, "Etiketler");
         return true;
     }
 
@@ -223,7 +433,7 @@ public class MainActivity extends AppCompatActivity {
         switch (item.getItemId()) {
             case 1:
                 // Arama
-                showSearchDialog();
+                toggleSearchBar();
                 return true;
             case 2:
                 // Sıralama
@@ -233,47 +443,50 @@ public class MainActivity extends AppCompatActivity {
                 // Ayarlar -> Görünümü değiştirme
                 showSettingsDialog();
                 return true;
+            case 4:
+                // Seçilen notlar için toplu işlemler
+                showSelectionDialog();
+                return true;
+            case 5:
+                // Etiket (klasör) süzgeci ve etiket yönetimi
+                showTagsDialog();
+                return true;
         }
         return super.onOptionsItemSelected(item);
     }
 
-    private void showSearchDialog() {
-        AlertDialog.Builder builder = new AlertDialog.Builder(this);
-        builder.setTitle("Not Ara");
-
-        final EditText input = new EditText(this);
-        builder.setView(input);
+    // Arama çubuğunu aç/kapat; kapatınca normal listeye dönülür
+    private void toggleSearchBar() {
+        if (searchEditText.getVisibility() == View.VISIBLE) {
+            searchEditText.setText("");
+            searchEditText.setVisibility(View.GONE);
+            searchSession.cancel();
+            displayNotes();
+        } else {
+            searchEditText.setVisibility(View.VISIBLE);
+            searchEditText.requestFocus();
+            // Sonuçlar en az bu nesildeki veriden gelir; refreshNotes sadece daha yeni değişiklikte tekrar sorgular
+            searchGeneration = notePager.getGeneration();
+        }
+    }
 
-        builder.setPositiveButton("Ara", (dialog, which) -> {
-            String query = input.getText().toString();
-            searchNotes(query);
-        });
-        builder.setNegativeButton("İptal", null);
-        builder.show();
+    private boolean isSearching() {
+        return searchEditText.getVisibility() == View.VISIBLE && searchEditText.length() > 0;
     }
 
-    // Basit arama (title veya content içinde)
-    private void searchNotes(String query) {
-        notesList.clear();
-        SQLiteDatabase db = dbHelper.getReadableDatabase();
-        // LIKE ifadesi ile arama
-        Cursor cursor = db.query(DBHelper.TABLE_NOTES, null,
-                DBHelper.COLUMN_TITLE + " LIKE ? OR " + DBHelper.COLUMN_CONTENT + " LIKE ?",
-                new String[]{"%" + query + "%", "%" + query + "%"},
-                null, null, null);
-
-        if (cursor != null) {
-            while (cursor.moveToNext()) {
-                long id = cursor.getLong(cursor.getColumnIndexOrThrow(DBHelper.COLUMN_ID));
-                String title = cursor.getString(cursor.getColumnIndexOrThrow(DBHelper.COLUMN_TITLE));
-                String content = cursor.getString(cursor.getColumnIndexOrThrow(DBHelper.COLUMN_CONTENT));
-                String date = cursor.getString(cursor.getColumnIndexOrThrow(DBHelper.COLUMN_DATE));
-                notesList.add(new NoteModel(id, title, content, date));
-            }
-            cursor.close();
+    // Veri değiştikten sonra o an görünen listeyi (arama sonucu veya tüm notlar) yenile
+    // Sadece değişen notlar yenilenir; hiçbir şey değişmediyse veritabanından liste okunmaz
+    private void refreshNotes() {
+        if (isSearching()) {
+            noteRepository.loadChangeGeneration(generation -> {
+                if (generation != searchGeneration) {
+                    searchGeneration = generation;
+                    searchSession.refresh();
+                }
+            });
+        } else {
+            notePager.refresh();
         }
-        db.close();
-        displayNotes();
     }
 
     private void showSortDialog() {
@@ -291,71 +504,339 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void sortNotesByDate() {
-        // DB üzerinde ORDER BY ile de yapabilirsiniz
-        SQLiteDatabase db = dbHelper.getReadableDatabase();
-        Cursor cursor = db.query(DBHelper.TABLE_NOTES, null, null, null, null, null,
-                DBHelper.COLUMN_DATE + " DESC");
-        notesList.clear();
-        if (cursor != null) {
-            while (cursor.moveToNext()) {
-                long id = cursor.getLong(cursor.getColumnIndexOrThrow(DBHelper.COLUMN_ID));
-                String title = cursor.getString(cursor.getColumnIndexOrThrow(DBHelper.COLUMN_TITLE));
-                String content = cursor.getString(cursor.getColumnIndexOrThrow(DBHelper.COLUMN_CONTENT));
-                String date = cursor.getString(cursor.getColumnIndexOrThrow(DBHelper.COLUMN_DATE));
-                notesList.add(new NoteModel(id, title, content, date));
+        setSortOrder(NoteQuery.SortOrder.DATE);
+    }
+
+    private void sortNotesByTitle() {
+        setSortOrder(NoteQuery.SortOrder.TITLE);
+    }
+
+    // Seçilen sıra saklanır (ekrana dönüşte ve yeniden açılışta korunur); yüklü liste bellekte yeniden sıralanır
+    private void setSortOrder(NoteQuery.SortOrder sortOrder) {
+        noteRepository.setSortOrder(sortOrder);
+        notePager.setSortOrder(sortOrder);
+    }
+
+    // Etiketler görünümdeki not sayılarıyla listelenir; seçilenlerin hepsini taşıyan notlar gösterilir
+    private void showTagsDialog() {
+        noteRepository.loadTags(tags -> {
+            if (tags.isEmpty()) {
+                Toast.makeText(MainActivity.this, "Henüz etiket yok. Notları \"Seçilenler\" menüsünden etiketleyin.",
+                        Toast.LENGTH_SHORT).show();
+                return;
+            }
+            Set<Long> filterIds = new HashSet<>();
+            for (NoteTag tag : filterTags) {
+                filterIds.add(tag.id);
+            }
+            boolean[] checked = new boolean[tags.size()];
+            for (int i = 0; i < checked.length; i++) {
+                checked[i] = filterIds.contains(tags.get(i).id);
             }
-            cursor.close();
+            new AlertDialog.Builder(MainActivity.this)
+                    .setTitle("Etiketler")
+                    .setMultiChoiceItems(tagNames(tags, true), checked, (dialog, which, isChecked) ->
+                            checked[which] = isChecked)
+                    .setPositiveButton("Süz", (dialog, which) -> {
+                        List<NoteTag> selected = new ArrayList<>();
+                        for (int i = 0; i < checked.length; i++) {
+                            if (checked[i]) {
+                                selected.add(tags.get(i));
+                            }
+                        }
+                        setTagFilter(selected);
+                    })
+                    .setNegativeButton("Süzgeci kaldır", (dialog, which) -> setTagFilter(new ArrayList<>()))
+                    .setNeutralButton("Düzenle", (dialog, which) -> showEditTagsDialog(tags))
+                    .show();
+        });
+    }
+
+    private String[] tagNames(List<NoteTag> tags, boolean withCounts) {
+        String[] names = new String[tags.size()];
+        for (int i = 0; i < names.length; i++) {
+            NoteTag tag = tags.get(i);
+            names[i] = withCounts ? tag.name + " (" + tag.count(showArchived) + ")" : tag.name;
         }
-        db.close();
-        displayNotes();
+        return names;
     }
 
-    private void sortNotesByTitle() {
-        SQLiteDatabase db = dbHelper.getReadableDatabase();
-        Cursor cursor = db.query(DBHelper.TABLE_NOTES, null, null, null, null, null,
-                DBHelper.COLUMN_TITLE + " ASC");
-        notesList.clear();
-        if (cursor != null) {
-            while (cursor.moveToNext()) {
-                long id = cursor.getLong(cursor.getColumnIndexOrThrow(DBHelper.COLUMN_ID));
-                String title = cursor.getString(cursor.getColumnIndexOrThrow(DBHelper.COLUMN_TITLE));
-                String content = cursor.getString(cursor.getColumnIndexOrThrow(DBHelper.COLUMN_CONTENT));
-                String date = cursor.getString(cursor.getColumnIndexOrThrow(DBHelper.COLUMN_DATE));
-                notesList.add(new NoteModel(id, title, content, date));
+    private void setTagFilter(List<NoteTag> tags) {
+        filterTags = tags;
+        clearSelection();
+        applyTagFilter();
+        if (isSearching()) {
+            searchSession.refresh();
+        } else {
+            displayNotes();
+        }
+    }
+
+    // Süzgeç sırası görünüme göre değişir (en az notu olan etiket önce), arşive geçişte tekrar hesaplanır
+    private void applyTagFilter() {
+        long[] tagIds = NoteTag.filterIds(filterTags, showArchived);
+        searchSession.setTagFilter(tagIds);
+        notePager.setTagFilter(tagIds);
+    }
+
+    private void showEditTagsDialog(List<NoteTag> tags) {
+        new AlertDialog.Builder(this)
+                .setTitle("Etiketi düzenle")
+                .setItems(tagNames(tags, false), (dialog, which) -> {
+                    NoteTag tag = tags.get(which);
+                    new AlertDialog.Builder(MainActivity.this)
+                            .setTitle(tag.name)
+                            .setItems(new String[]{"Yeniden adlandır", "Sil"}, (d, action) -> {
+                                if (action == 0) {
+                                    showRenameTagDialog(tag);
+                                } else {
+                                    noteRepository.deleteTag(tag.id, NoteRepository.callback(
+                                            count -> onTagRemoved(tag), this::onBulkFailed));
+                                }
+                            })
+                            .show();
+                })
+                .show();
+    }
+
+    private void showRenameTagDialog(NoteTag tag) {
+        EditText nameEditText = new EditText(this);
+        nameEditText.setText(tag.name);
+        nameEditText.setSingleLine(true);
+        new AlertDialog.Builder(this)
+                .setTitle("Yeniden adlandır")
+                .setView(nameEditText)
+                .setPositiveButton("Kaydet", (dialog, which) -> {
+                    String name = nameEditText.getText().toString().trim();
+                    if (name.isEmpty()) {
+                        return;
+                    }
+                    noteRepository.renameTag(tag.id, name, NoteRepository.callback(renamed -> {
+                        if (!renamed) {
+                            Toast.makeText(MainActivity.this, "Bu adda bir etiket zaten var",
+                                    Toast.LENGTH_SHORT).show();
+                        }
+                    }, this::onBulkFailed));
+                })
+                .setNegativeButton("İptal", null)
+                .show();
+    }
+
+    // Silinen etiket süzgeçteyse süzgeçten çıkarılır; notlar silinmez
+    private void onTagRemoved(NoteTag removed) {
+        List<NoteTag> remaining = new ArrayList<>();
+        for (NoteTag tag : filterTags) {
+            if (tag.id != removed.id) {
+                remaining.add(tag);
             }
-            cursor.close();
         }
-        db.close();
-        displayNotes();
+        if (remaining.size() != filterTags.size()) {
+            setTagFilter(remaining);
+        }
     }
 
     private void showSettingsDialog() {
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
         builder.setTitle("Ayarlar");
 
-        String[] options;
-        if (isListView) {
-            options = new String[] {"Izgara görünümü seç", "Genel ayarlar"};
-        } else {
-            options = new String[] {"Liste görünümü seç", "Genel ayarlar"};
-        }
+        String[] options = {
+                isListView ? "Izgara görünümü seç" : "Liste görünümü seç",
+                showArchived ? "Notlara dön" : "Arşivi göster",
+                noteRepository.isCompressionEnabled() ? "Not sıkıştırmayı kapat" : "Not sıkıştırmayı aç",
+                "Depolama bilgisi",
+                "Performans ölçümleri",
+                "Dışa aktar",
+                "İçe aktar",
+                "Genel ayarlar"
+        };
 
         builder.setItems(options, (dialog, which) -> {
-            if (which == 0) {
-                // Görünüm modunu değiştir
-                isListView = !isListView;
-                displayNotes();
-            } else {
-                Toast.makeText(MainActivity.this, "Genel ayarlar tıklandı.", Toast.LENGTH_SHORT).show();
-                // Gerçek ayarlar işlemlerinizi burada yapabilirsiniz
+            switch (which) {
+                case 0:
+                    // Görünüm modunu değiştir
+                    isListView = !isListView;
+                    applyLayoutManager();
+                    break;
+                case 1:
+                    // Arşiv ve notlar arasında geçiş; seçim görünüme özeldir
+                    showArchived = !showArchived;
+                    clearSelection();
+                    applyTagFilter();
+                    displayNotes();
+                    break;
+                case 2:
+                    toggleCompression();
+                    break;
+                case 3:
+                    noteRepository.loadStorageStats(stats -> new AlertDialog.Builder(MainActivity.this)
+                            .setTitle("Depolama bilgisi")
+                            .setMessage(stats)
+                            .setPositiveButton("Tamam", null)
+                            .show());
+                    break;
+                case 4:
+                    showMetricsDialog();
+                    break;
+                case 5:
+                    showExportDialog();
+                    break;
+                case 6:
+                    // Biçim dosya içeriğinden anlaşılır; .jsonl, .zip ve tek .md/.txt dosyası seçilebilir
+                    importLauncher.launch(new String[]{"*/*"});
+                    break;
+                default:
+                    Toast.makeText(MainActivity.this, "Genel ayarlar tıklandı.", Toast.LENGTH_SHORT).show();
+                    // Gerçek ayarlar işlemlerinizi burada yapabilirsiniz
+                    break;
             }
         });
         builder.show();
     }
 
+    // Hata ayıklama: işlem süreleri tablosu; dosyaya yazılabilir, sıfırlanabilir, ölçüm açılıp kapatılabilir
+    private void showMetricsDialog() {
+        TextView reportView = new TextView(this);
+        reportView.setTypeface(Typeface.MONOSPACE);
+        reportView.setTextSize(11f);
+        reportView.setPadding(32, 16, 32, 16);
+        reportView.setText(NoteRepository.metricsReport(noteRepository.getNoteCache()));
+        HorizontalScrollView horizontal = new HorizontalScrollView(this);
+        horizontal.addView(reportView);
+        ScrollView scroll = new ScrollView(this);
+        scroll.addView(horizontal);
+
+        Context appContext = getApplicationContext();
+        new AlertDialog.Builder(this)
+                .setTitle("Performans ölçümleri")
+                .setView(scroll)
+                .setPositiveButton("Dosyaya yaz", (dialog, which) -> noteRepository.dumpMetrics(file ->
+                        Toast.makeText(appContext, file != null ? "Yazıldı: " + file.getAbsolutePath()
+                                : "Dosya yazılamadı", Toast.LENGTH_LONG).show()))
+                .setNegativeButton("Sıfırla", (dialog, which) -> NoteMetrics.reset())
+                .setNeutralButton(noteRepository.isMetricsEnabled() ? "Ölçümü kapat" : "Ölçümü aç",
+                        (dialog, which) -> noteRepository.setMetricsEnabled(!noteRepository.isMetricsEnabled()))
+                .show();
+    }
+
+    private void showExportDialog() {
+        String name = "notlar-" + new SimpleDateFormat("yyyyMMdd-HHmm", Locale.ROOT).format(new Date());
+        new AlertDialog.Builder(this)
+                .setTitle("Dışa aktar")
+                .setItems(new String[]{"JSON satırları (.jsonl)", "Markdown (.zip)"}, (dialog, which) -> {
+                    if (which == 0) {
+                        jsonExportLauncher.launch(name + NoteArchive.Format.JSON_LINES.extension);
+                    } else {
+                        zipExportLauncher.launch(name + NoteArchive.Format.MARKDOWN_ZIP.extension);
+                    }
+                })
+                .show();
+    }
+
+    // Tüm notlar (arşivliler dahil) arka planda dosyaya akıtılır; iptal edilirse yarım dosya silinir
+    private void exportNotes(Uri uri, NoteArchive.Format format) {
+        if (uri == null) {
+            return; // Dosya seçilmedi
+        }
+        TextView progressView = transferProgressView("Notlar yazılıyor...");
+        AlertDialog[] dialog = new AlertDialog[1];
+        Context appContext = getApplicationContext();
+        NoteRepository.Request request = noteRepository.exportNotes(uri, format,
+                (done, finished) -> progressView.setText(done + " not yazıldı..."),
+                transfer -> {
+                    dialog[0].dismiss();
+                    Toast.makeText(appContext, transfer.error == null ? transfer.count + " not dışa aktarıldı"
+                            : "Dışa aktarım başarısız: " + transfer.error, Toast.LENGTH_LONG).show();
+                });
+        dialog[0] = showTransferDialog("Dışa aktar", progressView, () -> {
+            request.cancel();
+            Toast.makeText(appContext, "Dışa aktarım iptal edildi", Toast.LENGTH_SHORT).show();
+        });
+    }
+
+    // Arşivdeki notlar yeni not olarak eklenir; iptal edilirse o ana kadar eklenenler kalır
+    private void importNotes(Uri uri) {
+        if (uri == null) {
+            return;
+        }
+        TextView progressView = transferProgressView("Dosya okunuyor...");
+        AlertDialog[] dialog = new AlertDialog[1];
+        Context appContext = getApplicationContext();
+        NoteRepository.Request request = noteRepository.importNotes(uri,
+                (done, finished) -> progressView.setText(done + " not eklendi..."),
+                transfer -> {
+                    dialog[0].dismiss();
+                    Toast.makeText(appContext, transfer.error == null ? transfer.count + " not içe aktarıldı"
+                            : transfer.count + " not eklendi, içe aktarım yarıda kaldı: " + transfer.error,
+                            Toast.LENGTH_LONG).show();
+                    refreshNotes();
+                });
+        dialog[0] = showTransferDialog("İçe aktar", progressView, () -> {
+            request.cancel();
+            Toast.makeText(appContext, "İçe aktarım iptal edildi", Toast.LENGTH_SHORT).show();
+            refreshNotes();
+        });
+    }
+
+    private TextView transferProgressView(String initialText) {
+        TextView progressView = new TextView(this);
+        progressView.setPadding(48, 32, 48, 16);
+        progressView.setText(initialText);
+        return progressView;
+    }
+
+    // Aktarım sürerken ekranda kalan, sadece "İptal" ile kapanan ilerleme penceresi
+    private AlertDialog showTransferDialog(String title, TextView progressView, Runnable onCancel) {
+        AlertDialog dialog = new AlertDialog.Builder(this)
+                .setTitle(title)
+                .setView(progressView)
+                .setCancelable(false)
+                .setNegativeButton("İptal", (d, which) -> onCancel.run())
+                .create();
+        dialog.show();
+        return dialog;
+    }
+
+    // Büyük notların parçaları arka planda dönüştürülür; ekran kapansa da dönüşüm sürer
+    private void toggleCompression() {
+        boolean enable = !noteRepository.isCompressionEnabled();
+        Context appContext = getApplicationContext();
+        noteRepository.setCompressionEnabled(enable, new NoteRepository.Progress() {
+            @Override
+            public void onProgress(long done, boolean finished) {
+                if (finished) {
+                    Toast.makeText(appContext, enable ? "Notlar sıkıştırıldı" : "Not sıkıştırma kapatıldı",
+                            Toast.LENGTH_SHORT).show();
+                }
+            }
+
+            @Override
+            public void onError(RuntimeException error) {
+                // Ayar kaydedildi; kalan parçalar sonraki açılışta dönüştürülür
+                Toast.makeText(appContext, "Dönüşüm yarıda kaldı: " + errorMessage(error),
+                        Toast.LENGTH_LONG).show();
+            }
+        });
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
-        displayNotes();
+        refreshNotes();
+        // Hızlı yakalanan notlar arka planda tabloya aktarılınca liste güncellensin
+        noteRepository.setCapturesSavedListener(this::refreshNotes);
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        noteRepository.setCapturesSavedListener(null);
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // Bekleyen sorgunun sonucu kapanmış ekrana teslim edilmesin
+        notePager.cancel();
+        searchSession.cancel();
     }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.muhammedcavus.noteapp;
+
+import android.database.sqlite.SQLiteDatabase;
+
+// Şemayı bir sürüm ileri taşıyan tek adım (toVersion - 1 -> toVersion). Adımlar veriyi asla silmez.
+public abstract class Migration {
+
+    public interface Progress {
+        void onProgress(int toVersion, long done, long total);
+    }
+
+    public final int toVersion;
+    public final String description;
+
+    protected Migration(int toVersion, String description) {
+        this.toVersion = toVersion;
+        this.description = description;
+    }
+
+    // Kendi transaction'ı içinde çağrılır; büyük tablolar Migrations.forEachIdRange ile parça parça işlenmeli
+    public abstract void migrate(SQLiteDatabase db, Progress progress);
+}
@@ -0,0 +1,605 @@
+package com.muhammedcavus.noteapp;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.os.SystemClock;
+import android.util.Log;
+import android.util.LongSparseArray;
+
+import java.text.Collator;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// Sıralı şema geçişleri: DATABASE_VERSION'a kadar her sürüm için tam olarak bir adım bulunur
+public final class Migrations {
+
+    private static final String TAG = "Migrations";
+    private static final String LEGACY_DATE_PATTERN = "yyyy-MM-dd HH:mm";
+
+    // Büyük tablolar bu kadar satırlık parçalarla işlenir
+    public static final int BATCH_SIZE = 2000;
+    // Bir adımın bu süreyi aşması uyarı olarak loglanır (100k notta hedef)
+    private static final long STEP_TIME_BUDGET_MS = 10_000;
+    // Sürüm 5'te bölünen gövdelerin eşiği; okuma da bu boyda parçalarla yapılır
+    private static final int CHUNK_SIZE_V5 = 32 * 1024;
+    // Sürüm 8'deki önizleme: satır sonları boşluğa çevrilmiş ilk 150 karakter (doldurma ve tetikleyiciler)
+    private static final String PREVIEW_SQL_V8 = "trim(substr(replace(replace(replace(IFNULL(content, ''), "
+            + "char(13), ''), char(10), ' '), char(9), ' '), 1, 150))";
+
+    public interface IdRangeAction {
+        // (fromExclusive, toInclusive] aralığındaki satırları işler
+        void run(SQLiteDatabase db, long fromExclusive, long toInclusive);
+    }
+
+    // Adımlar yazıldıkları andaki şemayı kurar: tablo, indeks ve tetikleyici SQL'i ile doldurmaların SQL'i ve
+    // eşikleri adımın içinde sabittir, NoteSchema'nın güncel yardımcıları kullanılmaz. Şema yardımcısı sonradan
+    // değişirse eski veritabanları o değişikliği kendi adımıyla alır; aksi halde aynı sürüme farklı şemalarla
+    // gelinirdi. Doldurulan değerler ise bilerek güncel yardımcılarla üretilir (parça düzeni ve hash'i, kodek
+    // çözme, kelime sayısı, başlık anahtarı): uygulama aynı değerleri kendisi de yazar ve okurken onlarla
+    // karşılaştırır. Bunlardan biri değişirse eski satırları yenilemek o değişikliğin kendi adımının işidir
+    private static final List<Migration> ALL = Arrays.<Migration>asList(
+            new Migration(2, "notes_fts tam metin indeksi") {
+                @Override
+                public void migrate(SQLiteDatabase db, Progress progress) {
+                    // Türkçe ı/İ -> i katlaması; tokenizer diğer harfleri kendisi katlar
+                    String insert = "INSERT INTO notes_fts(docid, title, content) VALUES (new._id, "
+                            + "replace(replace(new.title, 'ı', 'i'), 'İ', 'i'), "
+                            + "replace(replace(new.content, 'ı', 'i'), 'İ', 'i'));";
+                    String delete = "DELETE FROM notes_fts WHERE docid = old._id;";
+                    db.execSQL("CREATE VIRTUAL TABLE notes_fts USING fts4(title, content, tokenize=unicode61, "
+                            + "prefix=\"3\")");
+                    db.execSQL("CREATE TRIGGER notes_fts_ai AFTER INSERT ON notes BEGIN " + insert + " END");
+                    db.execSQL("CREATE TRIGGER notes_fts_ad AFTER DELETE ON notes BEGIN " + delete + " END");
+                    db.execSQL("CREATE TRIGGER notes_fts_au AFTER UPDATE OF title, content ON notes BEGIN " + delete
+                            + " " + insert + " END");
+                    forEachIdRange(db, NoteSchema.TABLE_NOTES, NoteSchema.COLUMN_ID, toVersion, progress,
+                            (database, from, to) -> database.execSQL("INSERT INTO notes_fts(docid, title, content) "
+                                    + "SELECT _id, replace(replace(title, 'ı', 'i'), 'İ', 'i'), "
+                                    + "replace(replace(content, 'ı', 'i'), 'İ', 'i') FROM notes WHERE _id > ? AND "
+                                    + "_id <= ?", new Object[]{from, to}));
+                }
+            },
+            new Migration(3, "epoch milisaniye zaman damgaları ve tarih indeksi") {
+                @Override
+                public void migrate(SQLiteDatabase db, Progress progress) {
+                    db.execSQL("ALTER TABLE " + NoteSchema.TABLE_NOTES + " ADD COLUMN "
+                            + NoteSchema.COLUMN_CREATED_AT + " INTEGER NOT NULL DEFAULT 0");
+                    db.execSQL("ALTER TABLE " + NoteSchema.TABLE_NOTES + " ADD COLUMN "
+                            + NoteSchema.COLUMN_UPDATED_AT + " INTEGER NOT NULL DEFAULT 0");
+                    backfillTimestamps(db, toVersion, progress);
+                    db.execSQL("CREATE INDEX idx_notes_updated_at ON " + NoteSchema.TABLE_NOTES
+                            + " (" + NoteSchema.COLUMN_UPDATED_AT + ")");
+                }
+            },
+            new Migration(4, "arşiv sütunu; liste indeksi arşiv durumunu da kapsar") {
+                @Override
+                public void migrate(SQLiteDatabase db, Progress progress) {
+                    db.execSQL("ALTER TABLE " + NoteSchema.TABLE_NOTES + " ADD COLUMN "
+                            + NoteSchema.COLUMN_ARCHIVED + " INTEGER NOT NULL DEFAULT 0");
+                    db.execSQL("DROP INDEX IF EXISTS idx_notes_updated_at");
+                    db.execSQL("CREATE INDEX idx_notes_archived_updated_at ON " + NoteSchema.TABLE_NOTES
+                            + " (" + NoteSchema.COLUMN_ARCHIVED + ", " + NoteSchema.COLUMN_UPDATED_AT + ")");
+                }
+            },
+            new Migration(5, "büyük not gövdeleri parçalara bölünür (note_chunks)") {
+                @Override
+                public void migrate(SQLiteDatabase db, Progress progress) {
+                    db.execSQL("ALTER TABLE notes ADD COLUMN tail_chunks INTEGER NOT NULL DEFAULT 0");
+                    db.execSQL("CREATE TABLE note_chunks (_id INTEGER PRIMARY KEY, note_id INTEGER NOT NULL, "
+                            + "seq INTEGER NOT NULL, length INTEGER NOT NULL, hash INTEGER NOT NULL, "
+                            + "body TEXT NOT NULL)");
+                    db.execSQL("CREATE INDEX idx_note_chunks_note_seq ON note_chunks (note_id, seq, length, hash)");
+                    db.execSQL("CREATE TRIGGER note_chunks_ad AFTER DELETE ON notes BEGIN DELETE FROM note_chunks "
+                            + "WHERE note_id = old._id; END");
+                    splitLargeNotes(db, toVersion, progress);
+                }
+            },
+            new Migration(6, "parça gövdeleri için kodek sütunu") {
+                @Override
+                public void migrate(SQLiteDatabase db, Progress progress) {
+                    // Satırlar düz metin olarak kalır; sıkıştırma ayarı açılınca çevrimiçi dönüştürülür
+                    db.execSQL("ALTER TABLE " + NoteSchema.TABLE_NOTE_CHUNKS + " ADD COLUMN "
+                            + NoteSchema.COLUMN_CODEC + " INTEGER NOT NULL DEFAULT 0");
+                }
+            },
+            new Migration(7, "değişiklik günlüğü (note_changes)") {
+                @Override
+                public void migrate(SQLiteDatabase db, Progress progress) {
+                    // Mevcut notlar günlüğe yazılmaz; açık ekranlar geçişten sonra zaten baştan yükler
+                    String nextGeneration = "(SELECT IFNULL(MAX(" + NoteSchema.COLUMN_GENERATION + "), 0) + 1 FROM "
+                            + NoteSchema.TABLE_NOTE_CHANGES + ")";
+                    String logNew = "INSERT OR REPLACE INTO " + NoteSchema.TABLE_NOTE_CHANGES + " ("
+                            + NoteSchema.COLUMN_NOTE_ID + ", " + NoteSchema.COLUMN_GENERATION + ", "
+                            + NoteSchema.COLUMN_DELETED + ") VALUES (new." + NoteSchema.COLUMN_ID + ", " + nextGeneration
+                            + ", 0);";
+                    String logDeleted = "INSERT OR REPLACE INTO " + NoteSchema.TABLE_NOTE_CHANGES + " ("
+                            + NoteSchema.COLUMN_NOTE_ID + ", " + NoteSchema.COLUMN_GENERATION + ", "
+                            + NoteSchema.COLUMN_DELETED + ") VALUES (old." + NoteSchema.COLUMN_ID + ", " + nextGeneration
+                            + ", 1);";
+                    db.execSQL("CREATE TABLE " + NoteSchema.TABLE_NOTE_CHANGES + " ("
+                            + NoteSchema.COLUMN_NOTE_ID + " INTEGER PRIMARY KEY, "
+                            + NoteSchema.COLUMN_GENERATION + " INTEGER NOT NULL, "
+                            + NoteSchema.COLUMN_DELETED + " INTEGER NOT NULL DEFAULT 0)");
+                    db.execSQL("CREATE UNIQUE INDEX idx_note_changes_generation ON " + NoteSchema.TABLE_NOTE_CHANGES
+                            + " (" + NoteSchema.COLUMN_GENERATION + ")");
+                    db.execSQL("CREATE TRIGGER note_changes_ai AFTER INSERT ON " + NoteSchema.TABLE_NOTES
+                            + " BEGIN " + logNew + " END");
+                    db.execSQL("CREATE TRIGGER note_changes_au AFTER UPDATE ON " + NoteSchema.TABLE_NOTES
+                            + " BEGIN " + logNew + " END");
+                    db.execSQL("CREATE TRIGGER note_changes_ad AFTER DELETE ON " + NoteSchema.TABLE_NOTES
+                            + " BEGIN " + logDeleted + " END");
+                }
+            },
+            new Migration(8, "saklanan önizleme, kelime sayısı ve kapsayan liste indeksi") {
+                @Override
+                public void migrate(SQLiteDatabase db, Progress progress) {
+                    db.execSQL("ALTER TABLE notes ADD COLUMN preview TEXT");
+                    db.execSQL("ALTER TABLE notes ADD COLUMN word_count INTEGER NOT NULL DEFAULT 0");
+                    // Doldurma değişiklik günlüğüne yazılmasın: günlük tetikleyicisi doldurmadan sonra sütun
+                    // listesiyle yeniden kurulur
+                    db.execSQL("DROP TRIGGER IF EXISTS note_changes_au");
+                    db.execSQL("DROP INDEX IF EXISTS idx_notes_archived_updated_at");
+                    backfillPreviews(db, toVersion, progress);
+                    // İndeks doldurmadan sonra tek seferde kurulur
+                    db.execSQL("CREATE INDEX idx_notes_list ON notes (archived, updated_at, _id, title, preview, "
+                            + "word_count)");
+                    String update = "UPDATE notes SET preview = " + PREVIEW_SQL_V8.replace("content", "new.content")
+                            + " WHERE _id = new._id;";
+                    db.execSQL("CREATE TRIGGER notes_preview_ai AFTER INSERT ON notes BEGIN " + update + " END");
+                    db.execSQL("CREATE TRIGGER notes_preview_au AFTER UPDATE OF content ON notes BEGIN " + update
+                            + " END");
+                    db.execSQL("CREATE TRIGGER note_changes_au AFTER UPDATE OF title, content, tail_chunks, "
+                            + "updated_at, archived, word_count ON notes BEGIN INSERT OR REPLACE INTO note_changes "
+                            + "(note_id, generation, deleted) VALUES (new._id, (SELECT IFNULL(MAX(generation), 0) + 1 "
+                            + "FROM note_changes), 0); END");
+                }
+            },
+            new Migration(9, "yerel ayara göre başlık sıralama anahtarı ve indeksi") {
+                @Override
+                public void migrate(SQLiteDatabase db, Progress progress) {
+                    db.execSQL("ALTER TABLE notes ADD COLUMN title_key TEXT NOT NULL DEFAULT ''");
+                    backfillTitleKeys(db, toVersion, progress);
+                    db.execSQL("DROP INDEX IF EXISTS idx_notes_list");
+                    db.execSQL("CREATE INDEX idx_notes_list ON notes (archived, updated_at, _id, title, preview, "
+                            + "word_count, title_key)");
+                    db.execSQL("CREATE INDEX idx_notes_title ON notes (archived, title_key, _id, title, preview, "
+                            + "updated_at, word_count)");
+                }
+            },
+            new Migration(10, "not geçmişi tablosu") {
+                @Override
+                public void migrate(SQLiteDatabase db, Progress progress) {
+                    // Mevcut notların geçmişi boş başlar; ilk düzenlemede önceki hali anlık görüntü olarak yazılır
+                    db.execSQL("CREATE TABLE note_revisions (_id INTEGER PRIMARY KEY, note_id INTEGER NOT NULL, "
+                            + "created_at INTEGER NOT NULL, kind INTEGER NOT NULL, codec INTEGER NOT NULL DEFAULT 0, "
+                            + "length INTEGER NOT NULL, title TEXT, body BLOB NOT NULL)");
+                    db.execSQL("CREATE INDEX idx_note_revisions_note ON note_revisions (note_id, _id, kind)");
+                    db.execSQL("CREATE TRIGGER note_revisions_ad AFTER DELETE ON notes BEGIN DELETE FROM "
+                            + "note_revisions WHERE note_id = old._id; END");
+                }
+            },
+            new Migration(11, "senkronizasyon kimliği, sürüm ve silme kayıtları") {
+                @Override
+                public void migrate(SQLiteDatabase db, Progress progress) {
+                    // sync_id ve version günlük tetikleyicisinin sütun listesinde değil; doldurma günlüğe yazılmaz
+                    db.execSQL("ALTER TABLE " + NoteSchema.TABLE_NOTES + " ADD COLUMN "
+                            + NoteSchema.COLUMN_SYNC_ID + " TEXT");
+                    db.execSQL("ALTER TABLE " + NoteSchema.TABLE_NOTES + " ADD COLUMN "
+                            + NoteSchema.COLUMN_VERSION + " INTEGER NOT NULL DEFAULT 1");
+                    db.execSQL("ALTER TABLE " + NoteSchema.TABLE_NOTE_CHANGES + " ADD COLUMN "
+                            + NoteSchema.COLUMN_SYNCED + " INTEGER NOT NULL DEFAULT 0");
+                    db.execSQL("ALTER TABLE " + NoteSchema.TABLE_NOTE_CHANGES + " ADD COLUMN "
+                            + NoteSchema.COLUMN_SYNC_ID + " TEXT");
+                    db.execSQL("ALTER TABLE " + NoteSchema.TABLE_NOTE_CHANGES + " ADD COLUMN "
+                            + NoteSchema.COLUMN_VERSION + " INTEGER");
+                    db.execSQL("ALTER TABLE " + NoteSchema.TABLE_NOTE_CHANGES + " ADD COLUMN "
+                            + NoteSchema.COLUMN_CHANGED_AT + " INTEGER");
+                    forEachIdRange(db, NoteSchema.TABLE_NOTES, NoteSchema.COLUMN_ID, toVersion, progress,
+                            (database, from, to) -> database.execSQL("UPDATE " + NoteSchema.TABLE_NOTES + " SET "
+                                    + NoteSchema.COLUMN_SYNC_ID + " = lower(hex(randomblob(16))) WHERE "
+                                    + NoteSchema.COLUMN_ID + " > ? AND " + NoteSchema.COLUMN_ID + " <= ?",
+                                    new Object[]{from, to}));
+                    db.execSQL("CREATE UNIQUE INDEX idx_notes_sync_id ON " + NoteSchema.TABLE_NOTES + " ("
+                            + NoteSchema.COLUMN_SYNC_ID + ")");
+                    db.execSQL("CREATE INDEX idx_note_changes_sync_id ON " + NoteSchema.TABLE_NOTE_CHANGES + " ("
+                            + NoteSchema.COLUMN_SYNC_ID + ")");
+                    // Daha önce silinmiş notların kimliği yoktu; bunlar sunucuya gönderilmez
+                    db.execSQL("DROP TRIGGER IF EXISTS note_changes_ad");
+                    db.execSQL("CREATE TRIGGER note_changes_ad AFTER DELETE ON notes BEGIN INSERT OR REPLACE INTO "
+                            + "note_changes (note_id, generation, deleted, sync_id, version, changed_at) VALUES "
+                            + "(old._id, (SELECT IFNULL(MAX(generation), 0) + 1 FROM note_changes), 1, old.sync_id, "
+                            + "old.version + 1, CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER)); END");
+                }
+            },
+            new Migration(12, "yazım hatalarına dayanıklı arama için üçlü indeksi") {
+                @Override
+                public void migrate(SQLiteDatabase db, Progress progress) {
+                    // Tablolar boş kurulur; mevcut notlar NoteRepository tarafından arka planda indekslenir
+                    db.execSQL("CREATE TABLE note_grams (gram INTEGER NOT NULL, block INTEGER NOT NULL, "
+                            + "count INTEGER NOT NULL, ids BLOB NOT NULL, PRIMARY KEY (gram, block))");
+                    db.execSQL("CREATE TABLE note_gram_sets (note_id INTEGER PRIMARY KEY, grams BLOB NOT NULL)");
+                }
+            },
+            new Migration(13, "etiketler (klasörler) ve tetikleyicilerle tutulan not sayıları") {
+                @Override
+                public void migrate(SQLiteDatabase db, Progress progress) {
+                    // Mevcut notların etiketi yok; tablolar boş, sayılar sıfırdan başlar
+                    String logChange = "INSERT OR REPLACE INTO note_changes (note_id, generation, deleted) SELECT _id, "
+                            + "(SELECT IFNULL(MAX(generation), 0) + 1 FROM note_changes), 0 FROM notes WHERE _id = ";
+                    db.execSQL("CREATE TABLE tags (_id INTEGER PRIMARY KEY, name TEXT NOT NULL UNIQUE, "
+                            + "note_count INTEGER NOT NULL DEFAULT 0, archived_count INTEGER NOT NULL DEFAULT 0)");
+                    db.execSQL("CREATE TABLE note_tags (tag_id INTEGER NOT NULL, note_id INTEGER NOT NULL, "
+                            + "archived INTEGER NOT NULL, updated_at INTEGER NOT NULL, title_key TEXT NOT NULL, "
+                            + "PRIMARY KEY (tag_id, note_id)) WITHOUT ROWID");
+                    db.execSQL("CREATE INDEX idx_note_tags_date ON note_tags (tag_id, archived, updated_at, note_id)");
+                    db.execSQL("CREATE INDEX idx_note_tags_title ON note_tags (tag_id, archived, title_key, note_id)");
+                    db.execSQL("CREATE INDEX idx_note_tags_note ON note_tags (note_id)");
+                    db.execSQL("CREATE TRIGGER note_tags_ai AFTER INSERT ON note_tags BEGIN UPDATE tags SET "
+                            + "note_count = note_count + (new.archived = 0), archived_count = archived_count + "
+                            + "(new.archived <> 0) WHERE _id = new.tag_id; " + logChange + "new.note_id; END");
+                    db.execSQL("CREATE TRIGGER note_tags_ad AFTER DELETE ON note_tags BEGIN UPDATE tags SET "
+                            + "note_count = note_count - (old.archived = 0), archived_count = archived_count - "
+                            + "(old.archived <> 0) WHERE _id = old.tag_id; " + logChange + "old.note_id; END");
+                    db.execSQL("CREATE TRIGGER note_tags_au AFTER UPDATE OF archived ON note_tags WHEN "
+                            + "old.archived <> new.archived BEGIN UPDATE tags SET note_count = note_count + "
+                            + "(new.archived = 0) - (old.archived = 0), archived_count = archived_count + "
+                            + "(new.archived <> 0) - (old.archived <> 0) WHERE _id = new.tag_id; END");
+                    db.execSQL("CREATE TRIGGER note_tags_notes_au AFTER UPDATE OF archived, updated_at, title_key ON "
+                            + "notes BEGIN UPDATE note_tags SET archived = new.archived, updated_at = new.updated_at, "
+                            + "title_key = new.title_key WHERE note_id = new._id; END");
+                    db.execSQL("CREATE TRIGGER note_tags_notes_ad AFTER DELETE ON notes BEGIN DELETE FROM note_tags "
+                            + "WHERE note_id = old._id; END");
+                    db.execSQL("CREATE TRIGGER note_tags_tags_ad AFTER DELETE ON tags BEGIN DELETE FROM note_tags "
+                            + "WHERE tag_id = old._id; END");
+                }
+            },
+            new Migration(14, "parçalı notların tam metni arama indeksine") {
+                @Override
+                public void migrate(SQLiteDatabase db, Progress progress) {
+                    // Tetikleyiciler sadece ilk parçayı indekslemişti; şema değişmez, kayıtlar artık tam metni yazar
+                    reindexChunkedNotes(db, toVersion, progress);
+                }
+            },
+            new Migration(15, "etiket değişiklikleri senkronizasyon işaretini korur") {
+                @Override
+                public void migrate(SQLiteDatabase db, Progress progress) {
+                    // Sadece günlüğe yazan iki tetikleyici değişir; sayılar ve satırlar aynen kalır
+                    String logChange = "INSERT OR REPLACE INTO note_changes (note_id, generation, deleted, synced) "
+                            + "SELECT _id, (SELECT IFNULL(MAX(generation), 0) + 1 FROM note_changes), 0, "
+                            + "IFNULL((SELECT synced FROM note_changes WHERE note_id = %1$s), 1) FROM notes "
+                            + "WHERE _id = %1$s;";
+                    db.execSQL("DROP TRIGGER IF EXISTS note_tags_ai");
+                    db.execSQL("DROP TRIGGER IF EXISTS note_tags_ad");
+                    db.execSQL("CREATE TRIGGER note_tags_ai AFTER INSERT ON note_tags BEGIN UPDATE tags SET "
+                            + "note_count = note_count + (new.archived = 0), archived_count = archived_count + "
+                            + "(new.archived <> 0) WHERE _id = new.tag_id; "
+                            + String.format(Locale.ROOT, logChange, "new.note_id") + " END");
+                    db.execSQL("CREATE TRIGGER note_tags_ad AFTER DELETE ON note_tags BEGIN UPDATE tags SET "
+                            + "note_count = note_count - (old.archived = 0), archived_count = archived_count - "
+                            + "(old.archived <> 0) WHERE _id = old.tag_id; "
+                            + String.format(Locale.ROOT, logChange, "old.note_id") + " END");
+                }
+            },
+            new Migration(16, "geçmiş sürümlerinin metin özeti") {
+                @Override
+                public void migrate(SQLiteDatabase db, Progress progress) {
+                    // Eski sürümlerin özeti boş kalır; notun sonraki kaydı fark yerine anlık görüntü yazar
+                    db.execSQL("ALTER TABLE note_revisions ADD COLUMN hash INTEGER");
+                }
+            }
+    );
+
+    private Migrations() {
+    }
+
+    // oldVersion'dan newVersion'a eksiksiz adım listesi; boşluk varsa veri kaybetmemek için hata verir
+    static List<Migration> path(List<Migration> migrations, int oldVersion, int newVersion) {
+        List<Migration> steps = new ArrayList<>();
+        for (int version = oldVersion + 1; version <= newVersion; version++) {
+            Migration step = null;
+            for (Migration migration : migrations) {
+                if (migration.toVersion == version) {
+                    if (step != null) {
+                        throw new IllegalStateException("Sürüm " + version + " için birden fazla geçiş var");
+                    }
+                    step = migration;
+                }
+            }
+            if (step == null) {
+                throw new IllegalStateException("Sürüm " + version + " için geçiş tanımlı değil");
+            }
+            steps.add(step);
+        }
+        return steps;
+    }
+
+    // Her adım kendi transaction'ında çalışır. SQLiteOpenHelper onUpgrade'i zaten bir transaction içinde
+    // çağırdığından bir adım başarısız olursa yükseltmenin tamamı geri alınır ve eski sürüm korunur.
+    public static void migrate(SQLiteDatabase db, int oldVersion, int newVersion, Migration.Progress progress) {
+        for (Migration step : path(ALL, oldVersion, newVersion)) {
+            long start = SystemClock.elapsedRealtime();
+            Log.i(TAG, "Geçiş " + (step.toVersion - 1) + " -> " + step.toVersion + ": " + step.description);
+            db.beginTransaction();
+            try {
+                step.migrate(db, progress);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            long elapsed = SystemClock.elapsedRealtime() - start;
+            if (elapsed > STEP_TIME_BUDGET_MS) {
+                Log.w(TAG, "Geçiş " + step.toVersion + " zaman bütçesini aştı: " + elapsed + " ms");
+            } else {
+                Log.i(TAG, "Geçiş " + step.toVersion + " tamamlandı: " + elapsed + " ms");
+            }
+        }
+    }
+
+    // Tabloyu anahtar sırasıyla BATCH_SIZE satırlık aralıklara bölerek işler ve ilerlemeyi bildirir.
+    // Aralık sınırları indeksli anahtar üzerinden bulunur; OFFSET taraması yapılmaz.
+    public static void forEachIdRange(SQLiteDatabase db, String table, String idColumn, int toVersion,
+                                      Migration.Progress progress, IdRangeAction action) {
+        long total = queryLong(db, "SELECT count(*) FROM " + table, null, 0);
+        long done = 0;
+        long lastId = Long.MIN_VALUE;
+        String boundarySql = "SELECT max(" + idColumn + "), count(*) FROM (SELECT " + idColumn + " FROM " + table
+                + " WHERE " + idColumn + " > ? ORDER BY " + idColumn + " LIMIT " + BATCH_SIZE + ")";
+        while (true) {
+            long upper;
+            long count;
+            Cursor cursor = db.rawQuery(boundarySql, new String[]{String.valueOf(lastId)});
+            try {
+                if (!cursor.moveToFirst() || cursor.isNull(0)) {
+                    break;
+                }
+                upper = cursor.getLong(0);
+                count = cursor.getLong(1);
+            } finally {
+                cursor.close();
+            }
+            action.run(db, lastId, upper);
+            lastId = upper;
+            done += count;
+            if (progress != null) {
+                progress.onProgress(toVersion, Math.min(done, total), total);
+            }
+        }
+    }
+
+    // Sürüm 5'in parça boyunu aşan gövdeler bölünür. Gövde tek satırda okunursa CursorWindow'a sığmayabilir,
+    // bu yüzden substr ile parça parça okunur.
+    private static void splitLargeNotes(SQLiteDatabase db, int toVersion, Migration.Progress progress) {
+        final SQLiteStatement updateHead = db.compileStatement(
+                "UPDATE notes SET content = ?, tail_chunks = ? WHERE _id = ?");
+        final SQLiteStatement insertChunk = db.compileStatement(
+                "INSERT INTO note_chunks (note_id, seq, length, hash, body) VALUES (?, ?, ?, ?, ?)");
+        try {
+            forEachIdRange(db, "notes", "_id", toVersion, progress, (database, from, to) -> {
+                List<Long> ids = new ArrayList<>();
+                Cursor cursor = database.rawQuery("SELECT _id FROM notes WHERE _id > " + from + " AND _id <= " + to
+                        + " AND length(content) > " + CHUNK_SIZE_V5, null);
+                try {
+                    while (cursor.moveToNext()) {
+                        ids.add(cursor.getLong(0));
+                    }
+                } finally {
+                    cursor.close();
+                }
+                for (long id : ids) {
+                    NoteChunks.Plan plan = NoteChunks.plan(null, new ArrayList<NoteChunks.Info>(),
+                            readContentInPieces(database, id));
+                    updateHead.bindString(1, plan.head);
+                    updateHead.bindLong(2, plan.tailChunks);
+                    updateHead.bindLong(3, id);
+                    updateHead.executeUpdateDelete();
+                    for (NoteChunks.Chunk chunk : plan.inserts) {
+                        insertChunk.bindLong(1, id);
+                        insertChunk.bindLong(2, chunk.seq);
+                        insertChunk.bindLong(3, chunk.body.length());
+                        insertChunk.bindLong(4, NoteChunks.hash(chunk.body, 0, chunk.body.length()));
+                        insertChunk.bindString(5, chunk.body);
+                        insertChunk.executeInsert();
+                    }
+                }
+            });
+        } finally {
+            updateHead.close();
+            insertChunk.close();
+        }
+    }
+
+    // Önizleme SQL'de, kelime sayısı Java'da (ilk parça + sıkıştırılmış olabilecek diğer parçalar) hesaplanır
+    private static void backfillPreviews(SQLiteDatabase db, int toVersion, Migration.Progress progress) {
+        final SQLiteStatement updateWordCount = db.compileStatement("UPDATE notes SET word_count = ? WHERE _id = ?");
+        try {
+            forEachIdRange(db, "notes", "_id", toVersion, progress, (database, from, to) -> {
+                String range = " > " + from + " AND ";
+                database.execSQL("UPDATE notes SET preview = " + PREVIEW_SQL_V8 + " WHERE _id" + range + "_id <= "
+                        + to);
+                LongSparseArray<NoteText.WordCounter> counters = new LongSparseArray<>();
+                Cursor cursor = database.rawQuery("SELECT _id, content FROM notes WHERE _id" + range + "_id <= " + to,
+                        null);
+                try {
+                    while (cursor.moveToNext()) {
+                        NoteText.WordCounter counter = new NoteText.WordCounter();
+                        counter.add(cursor.getString(1));
+                        counters.put(cursor.getLong(0), counter);
+                    }
+                } finally {
+                    cursor.close();
+                }
+                cursor = database.rawQuery("SELECT note_id, codec, body FROM note_chunks WHERE note_id" + range
+                        + "note_id <= " + to + " ORDER BY note_id, seq", null);
+                try {
+                    while (cursor.moveToNext()) {
+                        NoteText.WordCounter counter = counters.get(cursor.getLong(0));
+                        if (counter != null) {
+                            int codec = cursor.getInt(1);
+                            counter.add(codec == BodyCodec.PLAIN ? cursor.getString(2)
+                                    : BodyCodec.decompress(codec, cursor.getBlob(2)));
+                        }
+                    }
+                } finally {
+                    cursor.close();
+                }
+                for (int i = 0; i < counters.size(); i++) {
+                    updateWordCount.bindLong(1, counters.valueAt(i).count());
+                    updateWordCount.bindLong(2, counters.keyAt(i));
+                    updateWordCount.executeUpdateDelete();
+                }
+            });
+        } finally {
+            updateWordCount.close();
+        }
+    }
+
+    // Anahtarlar şimdiki yerel ayarla üretilir; ayar sonradan değişirse NoteRepository yeniler
+    private static void backfillTitleKeys(SQLiteDatabase db, int toVersion, Migration.Progress progress) {
+        final Collator collator = TitleKeys.collator(Locale.getDefault());
+        final SQLiteStatement update = db.compileStatement("UPDATE notes SET title_key = ? WHERE _id = ?");
+        try {
+            forEachIdRange(db, "notes", "_id", toVersion, progress, (database, from, to) -> {
+                Cursor cursor = database.rawQuery("SELECT _id, title FROM notes WHERE _id > " + from + " AND _id <= "
+                        + to, null);
+                try {
+                    while (cursor.moveToNext()) {
+                        String key = TitleKeys.key(collator, cursor.getString(1));
+                        if (key.isEmpty()) {
+                            continue;
+                        }
+                        update.bindString(1, key);
+                        update.bindLong(2, cursor.getLong(0));
+                        update.executeUpdateDelete();
+                    }
+                } finally {
+                    cursor.close();
+                }
+            });
+        } finally {
+            update.close();
+        }
+    }
+
+    // Kalan parçası olan notların FTS içeriği ilk parça + diğer parçalar (sıkıştırılmış olabilir) ile
+    // yeniden yazılır. Katlama FTS tetikleyicilerinin ı/İ -> i katlamasıyla aynıdır
+    private static void reindexChunkedNotes(SQLiteDatabase db, int toVersion, Migration.Progress progress) {
+        final SQLiteStatement updateContent = db.compileStatement("UPDATE notes_fts SET content = ? WHERE docid = ?");
+        try {
+            forEachIdRange(db, NoteSchema.TABLE_NOTES, NoteSchema.COLUMN_ID, toVersion, progress, (database, from, to) -> {
+                String range = " > " + from + " AND ";
+                LongSparseArray<StringBuilder> bodies = new LongSparseArray<>();
+                Cursor cursor = database.rawQuery("SELECT _id, content FROM notes WHERE _id" + range + "_id <= " + to
+                        + " AND tail_chunks > 0", null);
+                try {
+                    while (cursor.moveToNext()) {
+                        bodies.put(cursor.getLong(0), new StringBuilder(cursor.isNull(1) ? "" : cursor.getString(1)));
+                    }
+                } finally {
+                    cursor.close();
+                }
+                if (bodies.size() == 0) {
+                    return;
+                }
+                cursor = database.rawQuery("SELECT note_id, codec, body FROM note_chunks WHERE note_id" + range
+                        + "note_id <= " + to + " ORDER BY note_id, seq", null);
+                try {
+                    while (cursor.moveToNext()) {
+                        StringBuilder body = bodies.get(cursor.getLong(0));
+                        if (body != null) {
+                            int codec = cursor.getInt(1);
+                            body.append(codec == BodyCodec.PLAIN ? cursor.getString(2)
+                                    : BodyCodec.decompress(codec, cursor.getBlob(2)));
+                        }
+                    }
+                } finally {
+                    cursor.close();
+                }
+                for (int i = 0; i < bodies.size(); i++) {
+                    updateContent.bindString(1, bodies.valueAt(i).toString().replace('ı', 'i').replace('İ', 'i'));
+                    updateContent.bindLong(2, bodies.keyAt(i));
+                    updateContent.executeUpdateDelete();
+                }
+            });
+        } finally {
+            updateContent.close();
+        }
+    }
+
+    private static String readContentInPieces(SQLiteDatabase db, long id) {
+        StringBuilder content = new StringBuilder();
+        String[] args = new String[3];
+        args[2] = String.valueOf(id);
+        for (int start = 1; ; start += CHUNK_SIZE_V5) {
+            args[0] = String.valueOf(start);
+            args[1] = String.valueOf(CHUNK_SIZE_V5);
+            Cursor cursor = db.rawQuery("SELECT substr(content, ?, ?) FROM notes WHERE _id = ?", args);
+            try {
+                if (!cursor.moveToFirst() || cursor.isNull(0) || cursor.getString(0).isEmpty()) {
+                    return content.toString();
+                }
+                content.append(cursor.getString(0));
+            } finally {
+                cursor.close();
+            }
+        }
+    }
+
+    // Eski metin tarihleri yazıldıkları biçim ve yerel ayarla çözülüp epoch milisaniyeye çevrilir
+    private static void backfillTimestamps(SQLiteDatabase db, int toVersion, Migration.Progress progress) {
+        final SimpleDateFormat localFormat = new SimpleDateFormat(LEGACY_DATE_PATTERN, Locale.getDefault());
+        final SimpleDateFormat rootFormat = new SimpleDateFormat(LEGACY_DATE_PATTERN, Locale.ROOT);
+        final long fallback = System.currentTimeMillis();
+        final SQLiteStatement update = db.compileStatement("UPDATE " + NoteSchema.TABLE_NOTES + " SET "
+                + NoteSchema.COLUMN_CREATED_AT + " = ?, " + NoteSchema.COLUMN_UPDATED_AT + " = ? WHERE "
+                + NoteSchema.COLUMN_ID + " = ?");
+        try {
+            forEachIdRange(db, NoteSchema.TABLE_NOTES, NoteSchema.COLUMN_ID, toVersion, progress, (database, from, to) -> {
+                Cursor cursor = database.rawQuery("SELECT " + NoteSchema.COLUMN_ID + ", " + NoteSchema.COLUMN_DATE
+                        + " FROM " + NoteSchema.TABLE_NOTES + " WHERE " + NoteSchema.COLUMN_ID + " > " + from
+                        + " AND " + NoteSchema.COLUMN_ID + " <= " + to, null);
+                try {
+                    while (cursor.moveToNext()) {
+                        long millis = parseLegacyDate(cursor.getString(1), localFormat, rootFormat, fallback);
+                        update.bindLong(1, millis);
+                        update.bindLong(2, millis);
+                        update.bindLong(3, cursor.getLong(0));
+                        update.executeUpdateDelete();
+                    }
+                } finally {
+                    cursor.close();
+                }
+            });
+        } finally {
+            update.close();
+        }
+    }
+
+    private static long parseLegacyDate(String text, SimpleDateFormat localFormat, SimpleDateFormat rootFormat,
+                                        long fallback) {
+        if (text == null) {
+            return fallback;
+        }
+        for (SimpleDateFormat format : new SimpleDateFormat[]{localFormat, rootFormat}) {
+            try {
+                return format.parse(text).getTime();
+            } catch (ParseException ignored) {
+                // Diğer biçimi dene
+            }
+        }
+        return fallback;
+    }
+
+    static long queryLong(SQLiteDatabase db, String sql, String[] args, long defaultValue) {
+        Cursor cursor = db.rawQuery(sql, args);
+        try {
+            return cursor.moveToFirst() && !cursor.isNull(0) ? cursor.getLong(0) : defaultValue;
+        } finally {
+            cursor.close();
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.muhammedcavus.noteapp;
+
+import android.graphics.Typeface;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.TextUtils;
+import android.text.style.BackgroundColorSpan;
+import android.text.style.StyleSpan;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+import androidx.annotation.NonNull;
+import androidx.appcompat.widget.AppCompatTextView;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+// Notları RecyclerView ile gösteren adaptör: sadece ekranda görünen satırlar için view üretilir ve yeniden kullanılır
+public class NoteAdapter extends RecyclerView.Adapter<NoteAdapter.NoteViewHolder> {
+
+    private static final int HIGHLIGHT_COLOR = 0xFFFFE082;
+    private static final int ITEM_COLOR = 0xFFEFEFEF;
+    private static final int SELECTED_ITEM_COLOR = 0xFFBBDEFB;
+    private static final int PREVIEW_MAX_LINES = 3;
+    // Önizleme metinlerinin ölçümü (PrecomputedText) bu thread'de yapılır
+    private static final Executor TEXT_EXECUTOR = Executors.newSingleThreadExecutor();
+    // Satır bağlama süresi ve yeni verinin ekrana gelişi (veri verildikten sonraki ilk çizime kadar:
+    // ölçüm, yerleşim ve bağlama dahil)
+    private static final NoteMetrics.Timer BIND_TIMER = NoteMetrics.timer("ui.bind");
+    private static final NoteMetrics.Timer RENDER_TIMER = NoteMetrics.timer("ui.render");
+
+    public interface OnNoteClickListener {
+        void onNoteClick(NoteModel note);
+        void onNoteLongClick(NoteModel note);
+    }
+
+    private final List<NoteModel> notes = new ArrayList<>();
+    private final OnNoteClickListener listener;
+    private Set<Long> selectedIds = Collections.emptySet();
+    // Zaman damgaları sadece bağlama anında biçimlendirilir (adaptör ana thread'de çalışır)
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
+    private long renderStart;
+    private int renderRows;
+    // Kalıcı dinleyici; çizim sırasında dinleyici eklenip çıkarılmaz
+    private final ViewTreeObserver.OnDrawListener drawListener = () -> {
+        if (renderStart != 0) {
+            RENDER_TIMER.stop(renderStart, renderRows);
+            renderStart = 0;
+        }
+    };
+
+    public NoteAdapter(OnNoteClickListener listener) {
+        this.listener = listener;
+        setHasStableIds(true);
+    }
+
+    public void setNotes(List<NoteModel> newNotes) {
+        notes.clear();
+        notes.addAll(newNotes);
+        notifyDataSetChanged();
+        startRender(newNotes.size());
+    }
+
+    // Sonraki sayfa: sadece eklenen aralık bildirilir
+    public void appendNotes(List<NoteModel> page) {
+        int start = notes.size();
+        notes.addAll(page);
+        notifyItemRangeInserted(start, page.size());
+        startRender(page.size());
+    }
+
+    private void startRender(int rows) {
+        if (renderStart == 0) {
+            renderStart = NoteMetrics.start();
+        }
+        renderRows = rows;
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        recyclerView.getViewTreeObserver().addOnDrawListener(drawListener);
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        recyclerView.getViewTreeObserver().removeOnDrawListener(drawListener);
+    }
+
+    // Seçim değişince sadece arka plan rengi yeniden bağlanır
+    public void setSelectedIds(Set<Long> ids) {
+        selectedIds = ids;
+        notifyDataSetChanged();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return notes.get(position).getId();
+    }
+
+    @Override
+    public int getItemCount() {
+        return notes.size();
+    }
+
+    @NonNull
+    @Override
+    public NoteViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        // Tek notu gösteren basit bir layout (eskiden her not için createNoteItemView() ile kuruluyordu)
+        LinearLayout layout = new LinearLayout(parent.getContext());
+        layout.setOrientation(LinearLayout.VERTICAL);
+        layout.setPadding(16, 16, 16, 16);
+        layout.setBackgroundColor(ITEM_COLOR);
+
+        RecyclerView.LayoutParams params = new RecyclerView.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT
+        );
+        params.setMargins(4, 4, 4, 4);
+        layout.setLayoutParams(params);
+
+        TextView titleView = new TextView(parent.getContext());
+        titleView.setTextSize(18f);
+
+        // Satır yüksekliği not uzunluğundan bağımsız: sadece önizleme, en fazla birkaç satır
+        AppCompatTextView contentView = new AppCompatTextView(parent.getContext());
+        contentView.setTextSize(16f);
+        contentView.setMaxLines(PREVIEW_MAX_LINES);
+        contentView.setEllipsize(TextUtils.TruncateAt.END);
+
+        TextView dateView = new TextView(parent.getContext());
+        dateView.setTextSize(14f);
+
+        layout.addView(titleView);
+        layout.addView(contentView);
+        layout.addView(dateView);
+
+        NoteViewHolder holder = new NoteViewHolder(layout, titleView, contentView, dateView);
+
+        // Dinleyiciler bir kez bağlanır, pozisyon tıklama anında çözülür
+        layout.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (position != RecyclerView.NO_POSITION) {
+                listener.onNoteClick(notes.get(position));
+            }
+        });
+        // Basılı tutma ile sil butonu aktifleşmesi
+        layout.setOnLongClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (position == RecyclerView.NO_POSITION) {
+                return false;
+            }
+            listener.onNoteLongClick(notes.get(position));
+            return true;
+        });
+
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull NoteViewHolder holder, int position) {
+        long start = NoteMetrics.start();
+        NoteModel note = notes.get(position);
+        holder.itemView.setBackgroundColor(selectedIds.contains(note.getId()) ? SELECTED_ITEM_COLOR : ITEM_COLOR);
+        holder.titleView.setText("Başlık: " + note.getTitle());
+        CharSequence content;
+        if (note.getSnippet() != null) {
+            content = highlight("Not: " + note.getSnippet());
+        } else {
+            // Özetlerde önizleme veritabanından gelir; tam içerikli notta aynı kuralla burada kısaltılır
+            content = "Not: " + (note.getPreview() != null ? note.getPreview() : NoteText.preview(note.getContent()));
+        }
+        // Metnin ölçümü arka planda yapılır; RecyclerView satırı ekrana gelmeden önce bağladığından (prefetch)
+        // yerleşim anında sonuç genelde hazırdır, ana thread sadece hazır ölçümlerle satır kırar
+        holder.contentView.setTextFuture(PrecomputedTextCompat.getTextFuture(content,
+                TextViewCompat.getTextMetricsParams(holder.contentView), TEXT_EXECUTOR));
+        String date = "Tarih: " + dateFormat.format(new Date(note.getUpdatedAt()));
+        holder.dateView.setText(note.getWordCount() > 0 ? date + " · " + note.getWordCount() + " kelime" : date);
+        BIND_TIMER.stop(start, 1);
+    }
+
+    // SearchText işaretlerini kaldırıp aradaki metni kalın ve vurgulu yapar
+    private static CharSequence highlight(String marked) {
+        SpannableStringBuilder sb = new SpannableStringBuilder();
+        int start = -1;
+        for (int i = 0; i < marked.length(); i++) {
+            char c = marked.charAt(i);
+            if (c == SearchText.HIGHLIGHT_START) {
+                start = sb.length();
+            } else if (c == SearchText.HIGHLIGHT_END) {
+                if (start >= 0) {
+                    sb.setSpan(new StyleSpan(Typeface.BOLD), start, sb.length(), Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+                    sb.setSpan(new BackgroundColorSpan(HIGHLIGHT_COLOR), start, sb.length(),
+                            Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+                }
+                start = -1;
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb;
+    }
+
+    static class NoteViewHolder extends RecyclerView.ViewHolder {
+        final TextView titleView;
+        final AppCompatTextView contentView;
+        final TextView dateView;
+
+        NoteViewHolder(LinearLayout itemView, TextView titleView, AppCompatTextView contentView, TextView dateView) {
+            super(itemView);
+            this.titleView = titleView;
+            this.contentView = contentView;
+            this.dateView = dateView;
+        }
+    }
+}
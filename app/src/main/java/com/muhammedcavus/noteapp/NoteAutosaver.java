@@ -0,0 +1,146 @@
+package com.muhammedcavus.noteapp;
+
+import android.os.Handler;
+import android.os.Looper;
+
+// Editör için arka planda otomatik kayıt. Her düzenleme sadece bir sayaç artırır ve zamanlayıcıyı
+// yeniden kurar; yazma, düzenlemeler QUIET_MS boyunca durunca tek seferde yapılır. İçerik son
+// kayıttan beri gerçekten değişmediyse (nesil veya özet aynıysa) hiç yazılmaz.
+public class NoteAutosaver {
+
+    private static final long QUIET_MS = 1500;
+    // Yazma başarısız olduysa (disk dolu, veritabanı kilitli...) değişiklik bu kadar sonra tekrar yazılır
+    private static final long RETRY_MS = 5000;
+
+    public interface Source {
+        String getTitle();
+        String getContent();
+        // Yazma başarısız oldu, RETRY_MS sonra tekrar denenecek; art arda hatalarda sadece ilki bildirilir
+        void onSaveFailed(RuntimeException error);
+    }
+
+    private final NoteRepository repository;
+    private final Source source;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable saveRunnable = this::saveIfDirty;
+
+    private long noteId;
+    // Her düzenlemede artar; savedGeneration'a eşitse kaydedilmemiş değişiklik yoktur
+    private long generation;
+    private long savedGeneration;
+    private long savedHash;
+    private boolean saving;
+    // Son yazma başarısız oldu; başarılı bir yazmaya kadar yeni hata bildirilmez
+    private boolean failing;
+    private boolean stopped;
+    // Büyük not parça parça yüklenirken kayıt yapılmaz; yarım gövde yazılmasın
+    private boolean loading;
+
+    public NoteAutosaver(NoteRepository repository, long noteId, Source source) {
+        this.repository = repository;
+        this.noteId = noteId;
+        this.source = source;
+        this.savedHash = hash("", "");
+    }
+
+    public long getNoteId() {
+        return noteId;
+    }
+
+    // Yükleme markSaved'e kadar sürer; aradaki metin değişiklikleri düzenleme sayılmaz
+    public void beginLoading() {
+        loading = true;
+        handler.removeCallbacks(saveRunnable);
+    }
+
+    // Veritabanından yüklenen içerik kaydedilmiş sayılır
+    public void markSaved(String title, String content) {
+        loading = false;
+        savedGeneration = generation;
+        savedHash = hash(title.trim(), content.trim());
+    }
+
+    public void onEdited() {
+        if (stopped || loading) {
+            return;
+        }
+        generation++;
+        handler.removeCallbacks(saveRunnable);
+        handler.postDelayed(saveRunnable, QUIET_MS);
+    }
+
+    // Bekleyen değişikliği hemen yaz (onPause, geri ve ✓ butonları)
+    public void flush() {
+        handler.removeCallbacks(saveRunnable);
+        saveIfDirty();
+    }
+
+    // Not silindiğinde bir daha yazılmasın
+    public void stop() {
+        stopped = true;
+        handler.removeCallbacks(saveRunnable);
+    }
+
+    private void saveIfDirty() {
+        if (stopped || loading || generation == savedGeneration) {
+            return;
+        }
+        if (saving) {
+            // Önceki yazma bitince (yeni not id'si alınmış olarak) tekrar denenir
+            return;
+        }
+        final String title = source.getTitle().trim();
+        final String content = source.getContent().trim();
+        final long saveGeneration = generation;
+        final long contentHash = hash(title, content);
+
+        // Boş not kaydetmiyoruz; yazılan geri alındıysa da yazmaya gerek yok
+        if ((title.isEmpty() && content.isEmpty()) || contentHash == savedHash) {
+            savedGeneration = saveGeneration;
+            return;
+        }
+
+        saving = true;
+        repository.saveNote(noteId, title, content, NoteRepository.callback(savedId -> {
+            saving = false;
+            failing = false;
+            if (savedId != -1) {
+                noteId = savedId;
+                savedGeneration = saveGeneration;
+                savedHash = contentHash;
+            }
+            // Yazma sürerken gelen düzenlemeler varsa onlar da yazılsın
+            if (!stopped && generation != savedGeneration) {
+                handler.removeCallbacks(saveRunnable);
+                handler.postDelayed(saveRunnable, QUIET_MS);
+            }
+        }, error -> {
+            // Değişiklik kaydedilmemiş sayılır (savedGeneration değişmez) ve tekrar denenir
+            saving = false;
+            if (!failing) {
+                failing = true;
+                source.onSaveFailed(error);
+            }
+            if (!stopped) {
+                handler.removeCallbacks(saveRunnable);
+                handler.postDelayed(saveRunnable, RETRY_MS);
+            }
+        }));
+    }
+
+    // 64 bit FNV-1a; içerik karşılaştırması için iki metnin kopyasını tutmaya gerek kalmaz
+    static long hash(String title, String content) {
+        long h = 0xcbf29ce484222325L;
+        h = mix(h, title);
+        h = (h ^ 0) * 0x100000001b3L;
+        return mix(h, content);
+    }
+
+    private static long mix(long h, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            h ^= text.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,90 @@
+package com.muhammedcavus.noteapp;
+
+import android.util.LruCache;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Süreç genelinde, boyutu sınırlı LRU not önbelleği (id -> not). Liste yüklemeleri özetleri,
+// editör ve arama tam içerikli notları koyar; kayıt ve silmede güncellenir. Girdiler kopya olarak
+// tutulur ve dışarı kopya olarak verilir, böylece çağıranların değişiklikleri önbelleğe sızmaz.
+public class NoteCache {
+
+    // Toplam karakter bütçesi (yaklaşık 4 MB)
+    private static final int MAX_CHARS = 2 * 1024 * 1024;
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final LruCache<Long, NoteModel> cache = new LruCache<Long, NoteModel>(MAX_CHARS) {
+        @Override
+        protected int sizeOf(Long key, NoteModel note) {
+            return ENTRY_OVERHEAD + length(note.getTitle()) + length(note.getContent()) + length(note.getPreview());
+        }
+    };
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // Tam içerikli not; önbellekte yoksa veya sadece özeti varsa null (miss)
+    public NoteModel getFull(long id) {
+        NoteModel note = cache.get(id);
+        if (note != null && note.getContent() != null) {
+            hits.incrementAndGet();
+            return copy(note);
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    // Yazmadan önce başlamış bir okumanın eski sonucu daha yeni girdiyi ezmesin: zaman damgası geri gitmez
+    public synchronized void putFull(NoteModel note) {
+        NoteModel existing = cache.get(note.getId());
+        if (existing == null || existing.getUpdatedAt() <= note.getUpdatedAt()) {
+            cache.put(note.getId(), copy(note));
+        }
+    }
+
+    // Özetler aynı sürümün tam içerikli girdisini ezmez
+    public synchronized void putSummaries(List<NoteModel> summaries) {
+        for (NoteModel summary : summaries) {
+            NoteModel existing = cache.get(summary.getId());
+            if (existing == null || existing.getUpdatedAt() < summary.getUpdatedAt()
+                    || (existing.getUpdatedAt() == summary.getUpdatedAt() && existing.getContent() == null)) {
+                cache.put(summary.getId(), copy(summary));
+            }
+        }
+    }
+
+    public synchronized void remove(long id) {
+        cache.remove(id);
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    public String stats() {
+        long h = hits.get();
+        long m = misses.get();
+        long total = h + m;
+        return "hit=" + h + " miss=" + m
+                + " oran=" + (total == 0 ? 0 : (100 * h / total)) + "%"
+                + " girdi=" + cache.snapshot().size() + " boyut=" + cache.size() + "/" + cache.maxSize();
+    }
+
+    private static NoteModel copy(NoteModel note) {
+        NoteModel copy = new NoteModel(note.getId(), note.getTitle(), note.getContent(), note.getUpdatedAt());
+        copy.setPreview(note.getPreview());
+        copy.setTailChunks(note.getTailChunks());
+        copy.setWordCount(note.getWordCount());
+        copy.setTitleKey(note.getTitleKey());
+        return copy;
+    }
+
+    private static int length(String text) {
+        return text == null ? 0 : text.length();
+    }
+}
@@ -1,10 +1,9 @@
 package com.muhammedcavus.noteapp;
 
-import android.content.ContentValues;
 import android.content.Intent;
-import android.database.Cursor;
-import android.database.sqlite.SQLiteDatabase;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.Gravity;
 import android.view.Menu;
 import android.view.MenuItem;
@@ -20,16 +19,22 @@ import java.util.Locale;
 
 public class NoteEditorActivity extends AppCompatActivity {
 
+    // Sürüm önizlemesinde gösterilen en fazla karakter; geri yüklemede metnin tamamı kullanılır
+    private static final int REVISION_PREVIEW_CHARS = 4000;
+
     private EditText titleEditText;
     private EditText contentEditText;
-    private DBHelper dbHelper;
-    private long noteId = -1; // Yeni not için -1
+    private NoteRepository noteRepository;
+    private NoteRepository.Request loadRequest;
+    private NoteRepository.Request historyRequest;
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
+    private NoteAutosaver autosaver;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
 
-        dbHelper = new DBHelper(this);
+        noteRepository = NoteRepository.getInstance(this);
 
         // Programatik layout
         LinearLayout rootLayout = new LinearLayout(this);
@@ -84,17 +89,61 @@ public class NoteEditorActivity extends AppCompatActivity {
         rootLayout.addView(contentEditText);
 
         // Not ID varsa yükle
-        noteId = getIntent().getLongExtra("NOTE_ID", -1);
+        long noteId = getIntent().getLongExtra("NOTE_ID", -1);
+        autosaver = new NoteAutosaver(noteRepository, noteId, new NoteAutosaver.Source() {
+            @Override
+            public String getTitle() {
+                return titleEditText.getText().toString();
+            }
+
+            @Override
+            public String getContent() {
+                return contentEditText.getText().toString();
+            }
+
+            @Override
+            public void onSaveFailed(RuntimeException error) {
+                // Ekran kapanırken de gösterilsin diye uygulama bağlamıyla
+                Toast.makeText(getApplicationContext(), "Not kaydedilemedi, tekrar denenecek", Toast.LENGTH_LONG)
+                        .show();
+            }
+        });
         if (noteId != -1) {
             loadNoteData(noteId);
         }
+
+        // Tuş vuruşunda sadece sayaç artar ve zamanlayıcı kurulur; yazma arka planda, yazım durunca yapılır
+        TextWatcher editWatcher = new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+                autosaver.onEdited();
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+            }
+        };
+        titleEditText.addTextChangedListener(editWatcher);
+        contentEditText.addTextChangedListener(editWatcher);
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        // Ekrandan çıkarken bekleyen değişiklik hemen yazılır
+        saveNote();
     }
 
-    // Üç nokta menüsü: Paylaş, Sil
+    // Üç nokta menüsü: Paylaş, Sil, Geçmiş
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         menu.add(0, 1, 0, "Paylaş");
         menu.add(0, 2, 1, "Sil");
+        menu.add(0, 3, 2, "Geçmiş");
         return true;
     }
 
@@ -107,6 +156,9 @@ public class NoteEditorActivity extends AppCompatActivity {
             case 2:
                 deleteCurrentNote();
                 return true;
+            case 3:
+                showHistory();
+                return true;
         }
         return super.onOptionsItemSelected(item);
     }
@@ -123,7 +175,9 @@ public class NoteEditorActivity extends AppCompatActivity {
     }
 
     private void deleteCurrentNote() {
+        long noteId = autosaver.getNoteId();
         if (noteId == -1) {
+            autosaver.stop();
             Toast.makeText(this, "Kaydedilmemiş not silindi.", Toast.LENGTH_SHORT).show();
             finish();
             return;
@@ -133,10 +187,8 @@ public class NoteEditorActivity extends AppCompatActivity {
         builder.setTitle("Notu Sil");
         builder.setMessage("Bu notu silmek istediğinize emin misiniz?");
         builder.setPositiveButton("Evet", (dialog, which) -> {
-            SQLiteDatabase db = dbHelper.getWritableDatabase();
-            db.delete(DBHelper.TABLE_NOTES, DBHelper.COLUMN_ID + "=?",
-                    new String[]{String.valueOf(noteId)});
-            db.close();
+            autosaver.stop();
+            noteRepository.deleteNote(noteId, null);
             Toast.makeText(NoteEditorActivity.this, "Not silindi.", Toast.LENGTH_SHORT).show();
             finish();
         });
@@ -144,53 +196,125 @@ public class NoteEditorActivity extends AppCompatActivity {
         builder.show();
     }
 
-    // Notu yüklemek (varsa)
-    private void loadNoteData(long id) {
-        SQLiteDatabase db = dbHelper.getReadableDatabase();
-        Cursor cursor = db.query(DBHelper.TABLE_NOTES, null,
-                DBHelper.COLUMN_ID + "=?",
-                new String[]{String.valueOf(id)},
-                null, null, null);
-
-        if (cursor != null && cursor.moveToFirst()) {
-            String title = cursor.getString(cursor.getColumnIndexOrThrow(DBHelper.COLUMN_TITLE));
-            String content = cursor.getString(cursor.getColumnIndexOrThrow(DBHelper.COLUMN_CONTENT));
-            titleEditText.setText(title);
-            contentEditText.setText(content);
-            cursor.close();
+    // Notun kayıtlı sürümleri; önce bekleyen değişiklik yazılır ki şimdiki hal de listede olsun
+    private void showHistory() {
+        saveNote();
+        long noteId = autosaver.getNoteId();
+        if (noteId == -1 || !contentEditText.isEnabled()) {
+            Toast.makeText(this, "Bu notun henüz geçmişi yok.", Toast.LENGTH_SHORT).show();
+            return;
         }
-        db.close();
+        cancelHistoryRequest();
+        historyRequest = noteRepository.loadRevisions(noteId, revisions -> {
+            historyRequest = null;
+            if (revisions.isEmpty()) {
+                Toast.makeText(this, "Bu notun henüz geçmişi yok.", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            String[] items = new String[revisions.size()];
+            for (int i = 0; i < items.length; i++) {
+                NoteRevisions.Info revision = revisions.get(i);
+                items[i] = dateFormat.format(new Date(revision.createdAt)) + " · " + revision.length + " karakter"
+                        + (i == 0 ? " (şimdiki)" : "");
+            }
+            AlertDialog.Builder builder = new AlertDialog.Builder(this);
+            builder.setTitle("Geçmiş");
+            builder.setItems(items, (dialog, which) -> showRevision(noteId, revisions.get(which)));
+            builder.setNegativeButton("Kapat", null);
+            builder.show();
+        });
     }
 
-    // Notu kaydetmek (varsa güncelle, yoksa ekle)
-    private void saveNote() {
-        String title = titleEditText.getText().toString().trim();
-        String content = contentEditText.getText().toString().trim();
-        String currentDate = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault()).format(new Date());
+    // Sürümün önizlemesi; geri yükleme sürümü editöre koyar, otomatik kayıt onu yeni sürüm olarak yazar
+    // (geri yükleme de geçmişte kalır, geri alınabilir)
+    private void showRevision(long noteId, NoteRevisions.Info revision) {
+        cancelHistoryRequest();
+        historyRequest = noteRepository.loadRevision(noteId, revision.id, version -> {
+            historyRequest = null;
+            if (version == null) {
+                Toast.makeText(this, "Sürüm bulunamadı.", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            String content = version.content;
+            String preview = content.length() > REVISION_PREVIEW_CHARS
+                    ? content.substring(0, REVISION_PREVIEW_CHARS) + "…" : content;
+            AlertDialog.Builder builder = new AlertDialog.Builder(this);
+            builder.setTitle(version.title == null || version.title.isEmpty() ? "(Başlıksız)" : version.title);
+            builder.setMessage(preview);
+            builder.setPositiveButton("Geri yükle", (dialog, which) -> {
+                titleEditText.setText(version.title);
+                contentEditText.setText(content);
+                Toast.makeText(this, "Sürüm geri yüklendi.", Toast.LENGTH_SHORT).show();
+            });
+            builder.setNegativeButton("Kapat", null);
+            builder.show();
+        });
+    }
 
-        // Boşsa kaydetmeyebilirsiniz veya varsayılan bir metin kullanabilirsiniz
-        if (title.isEmpty() && content.isEmpty()) {
-            return; // Boş not kaydetmiyoruz veya kendinize göre işlem yapın
+    private void cancelHistoryRequest() {
+        if (historyRequest != null) {
+            historyRequest.cancel();
+            historyRequest = null;
         }
+    }
 
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
-
-        ContentValues values = new ContentValues();
-        values.put(DBHelper.COLUMN_TITLE, title);
-        values.put(DBHelper.COLUMN_CONTENT, content);
-        values.put(DBHelper.COLUMN_DATE, currentDate);
+    // Notu yüklemek (varsa); yüklenene kadar düzenleme kapalı, yoksa yazılanlar yüklenen metinle ezilirdi.
+    // Büyük notlarda ilk parça hemen gösterilir, kalan gövde dilim dilim arkasına eklenir; bu sürede
+    // otomatik kayıt da kapalıdır.
+    private void loadNoteData(long id) {
+        titleEditText.setEnabled(false);
+        contentEditText.setEnabled(false);
+        autosaver.beginLoading();
+        loadRequest = noteRepository.getNote(id, NoteRepository.callback(note -> {
+            if (note == null) {
+                finishLoading("", "");
+                return;
+            }
+            titleEditText.setText(note.getTitle());
+            contentEditText.setText(note.getContent());
+            if (note.getTailChunks() > 0) {
+                loadNoteTail(id, NoteChunks.HEAD_SEQ);
+            } else {
+                finishLoading(note.getTitle(), note.getContent());
+            }
+        }, this::onLoadFailed));
+    }
 
-        if (noteId == -1) {
-            // Yeni not
-            long insertId = db.insert(DBHelper.TABLE_NOTES, null, values);
-            if (insertId != -1) {
-                noteId = insertId;
+    private void loadNoteTail(long id, long afterSeq) {
+        loadRequest = noteRepository.loadNoteTail(id, afterSeq, NoteRepository.callback(batch -> {
+            contentEditText.append(batch.text);
+            if (batch.last) {
+                finishLoading(titleEditText.getText().toString(), contentEditText.getText().toString());
+            } else {
+                loadNoteTail(id, batch.lastSeq);
             }
-        } else {
-            // Güncelle
-            db.update(DBHelper.TABLE_NOTES, values, DBHelper.COLUMN_ID + "=?",
-                    new String[]{String.valueOf(noteId)});
+        }, this::onLoadFailed));
+    }
+
+    // Not (veya gövdesinin bir kısmı) okunamadı; yarım metin düzenlenip kaydedilirse notun kalanı kaybolurdu
+    private void onLoadFailed(RuntimeException error) {
+        Toast.makeText(getApplicationContext(), "Not açılamadı", Toast.LENGTH_SHORT).show();
+        autosaver.stop();
+        finish();
+    }
+
+    private void finishLoading(String title, String content) {
+        autosaver.markSaved(title, content);
+        titleEditText.setEnabled(true);
+        contentEditText.setEnabled(true);
+    }
+
+    // Bekleyen değişikliği kaydet; içerik değişmediyse yazma yapılmaz (zaman damgası da değişmez)
+    private void saveNote() {
+        autosaver.flush();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (loadRequest != null) {
+            loadRequest.cancel();
         }
-        db.close();
+        cancelHistoryRequest();
     }
 }
\ No newline at end of file
@@ -1,28 +0,0 @@
-package com.muhammedcavus.noteapp;
-
-public class NoteModel {
-    private long id;
-    private String title;
-    private String content;
-    private String date;
-
-    public NoteModel(long id, String title, String content, String date) {
-        this.id = id;
-        this.title = title;
-        this.content = content;
-        this.date = date;
-    }
-
-    // Getters ve Setters
-    public long getId() { return id; }
-    public void setId(long id) { this.id = id; }
-
-    public String getTitle() { return title; }
-    public void setTitle(String title) { this.title = title; }
-
-    public String getContent() { return content; }
-    public void setContent(String content) { this.content = content; }
-
-    public String getDate() { return date; }
-    public void setDate(String date) { this.date = date; }
-}
\ No newline at end of file
@@ -0,0 +1,229 @@
+package com.muhammedcavus.noteapp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Not listesini sayfa sayfa yükler: kullanıcı listenin sonuna yaklaştıkça bir sonraki sayfa önceden istenir.
+// Her sayfa bir önceki sayfanın son satırının (sıralama değeri, _id) anahtarından devam eder.
+// Liste yüklendikten sonraki değişiklikler değişiklik günlüğünden okunur; sadece değişen notlar yenilenir.
+// Liste tamamen yüklendiyse sıra değiştirmek veritabanına gitmez, bellekteki SortIndex'ten yapılır.
+public class NotePager {
+
+    public static final int PAGE_SIZE = 50;
+    // Son görünen satır listenin sonuna bu kadar yaklaşınca sonraki sayfa istenir
+    private static final int PREFETCH_DISTANCE = 20;
+    // Bundan fazla not değiştiyse (ör. toplu işlem) liste baştan yüklenir
+    private static final int MAX_CHANGES = 100;
+    // İstekten sayfanın ana thread'e gelişine kadar (kuyrukta bekleme dahil)
+    private static final NoteMetrics.Timer PAGE_TIMER = NoteMetrics.timer("ui.page");
+    private static final NoteMetrics.Timer CHANGES_TIMER = NoteMetrics.timer("ui.changes");
+    private static final NoteMetrics.Timer SORT_TIMER = NoteMetrics.timer("ui.sort");
+
+    public interface Listener {
+        // Liste baştan değişti: ilk sayfa geldi veya sıra bellekte değiştirildi
+        void onFirstPage(List<NoteModel> page);
+        void onNextPage(List<NoteModel> page);
+        // Liste yüklendikten sonraki değişiklikler; gösterilen liste merge ile güncellenir
+        void onChanges(NoteChanges changes);
+    }
+
+    private final NoteRepository repository;
+    private final Listener listener;
+
+    private NoteQuery.SortOrder sortOrder = NoteQuery.SortOrder.NONE;
+    private boolean archived;
+    // Boş değilse sadece bu etiketlerin hepsini taşıyan notlar gösterilir
+    private long[] tagIds = new long[0];
+    private NoteQuery.PageKey nextKey;
+    // Yüklenmiş son satır: sayfalama bundan sonrasını getirir, değişen not bundan sonraya düşüyorsa eklenmez
+    private NoteModel lastLoaded;
+    private NoteRepository.Request request;
+    private boolean active;
+    private boolean endReached;
+    private boolean loadingFirst;
+    // Gösterilen listenin yansıttığı değişiklik nesli; -1 ise henüz yüklenmedi
+    private long generation = -1;
+    // İlk sayfa gelmeden istenen yenileme, sayfa gelince yapılır
+    private boolean refreshPending;
+    // Gösterilen görünümün yüklenmiş notları (yükleme/birleştirme sırasıyla) ve bunlar üzerindeki sıralama
+    // indeksi; indeks ilk sıra değişikliğinde kurulur, liste değişene kadar her sıra için tekrar kullanılır
+    private List<NoteModel> loaded = new ArrayList<>();
+    private SortIndex sortIndex;
+
+    public NotePager(NoteRepository repository, Listener listener) {
+        this.repository = repository;
+        this.listener = listener;
+    }
+
+    public NoteQuery.SortOrder getSortOrder() {
+        return sortOrder;
+    }
+
+    public boolean isArchived() {
+        return archived;
+    }
+
+    public long[] getTagIds() {
+        return tagIds;
+    }
+
+    // Etiket süzgeci sonraki reset'ten itibaren geçerli olur; süzgeçli görünüm de sayfa sayfa, note_tags
+    // indeksinden okunur
+    public void setTagFilter(long[] tagIds) {
+        this.tagIds = tagIds;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    // Sırayı değiştirir. Görünümün tüm notları yüklüyse yeni sıra bellekteki indeksten hemen verilir
+    // (sorgu yok); değilse o sıranın ilk sayfası yüklenir. Liste başka kaynağı gösterirken sadece sıra saklanır
+    public void setSortOrder(NoteQuery.SortOrder order) {
+        if (!active) {
+            sortOrder = order;
+            return;
+        }
+        if (order == sortOrder) {
+            return;
+        }
+        if (loadingFirst || !endReached) {
+            reset(order, archived);
+            return;
+        }
+        long start = NoteMetrics.start();
+        if (sortIndex == null) {
+            sortIndex = new SortIndex(loaded, sortOrder);
+        }
+        sortOrder = order;
+        List<NoteModel> sorted = sortIndex.view(order);
+        lastLoaded = sorted.isEmpty() ? null : sorted.get(sorted.size() - 1);
+        nextKey = lastLoaded != null ? NoteQuery.PageKey.after(order, lastLoaded) : null;
+        listener.onFirstPage(sorted);
+        SORT_TIMER.stop(start, sorted.size());
+    }
+
+    // Baştan, verilen sıraya ve görünüme (arşiv veya notlar) göre yükle
+    public void reset(NoteQuery.SortOrder sortOrder, boolean archived) {
+        cancel();
+        this.sortOrder = sortOrder;
+        this.archived = archived;
+        nextKey = null;
+        lastLoaded = null;
+        loaded = new ArrayList<>();
+        sortIndex = null;
+        endReached = false;
+        generation = -1;
+        active = true;
+        loadPage(true);
+    }
+
+    // Liste başka bir kaynağı (ör. arama sonuçlarını) gösterirken sayfalama durur
+    public void cancel() {
+        active = false;
+        refreshPending = false;
+        if (request != null) {
+            request.cancel();
+            request = null;
+        }
+    }
+
+    // Veri değişmiş olabilir (ekrana dönüş, kayıt, silme): nesil aynıysa hiçbir şey yapılmaz, az sayıda not
+    // değiştiyse sadece onlar okunup onChanges ile bildirilir, çok değişiklik varsa baştan yüklenir
+    public void refresh() {
+        if (!active) {
+            reset(sortOrder, archived);
+            return;
+        }
+        if (loadingFirst) {
+            refreshPending = true;
+            return;
+        }
+        if (request != null) {
+            // Yolda olan sonraki sayfa bırakılır; anahtar değişmediğinden kaydırınca tekrar istenir
+            request.cancel();
+        }
+        final long start = NoteMetrics.start();
+        request = repository.loadChanges(generation, archived, tagIds, MAX_CHANGES,
+                NoteRepository.callback(changes -> {
+                    CHANGES_TIMER.stop(start, changes.ids.length);
+                    request = null;
+                    if (!changes.complete) {
+                        reset(sortOrder, archived);
+                    } else if (changes.generation != generation) {
+                        generation = changes.generation;
+                        listener.onChanges(changes);
+                    }
+                }, error -> request = null));
+    }
+
+    // Değişen notları gösterilen listeden çıkarır, görünümde kalanları sıradaki yerlerine koyar.
+    // Yüklenmiş aralığın dışına düşen not eklenmez; sayfalama sırası gelince getirir.
+    public List<NoteModel> merge(List<NoteModel> shown, NoteChanges changes) {
+        Set<Long> changedIds = new HashSet<>();
+        for (long id : changes.ids) {
+            changedIds.add(id);
+        }
+        List<NoteModel> merged = new ArrayList<>(shown.size() + changes.notes.size());
+        for (NoteModel note : shown) {
+            if (!changedIds.contains(note.getId())) {
+                merged.add(note);
+            }
+        }
+        Comparator<NoteModel> order = NoteQuery.comparator(sortOrder);
+        for (NoteModel note : changes.notes) {
+            if (!endReached && lastLoaded != null && order.compare(note, lastLoaded) > 0) {
+                continue;
+            }
+            int position = Collections.binarySearch(merged, note, order);
+            merged.add(position < 0 ? -position - 1 : position, note);
+        }
+        loaded = new ArrayList<>(merged);
+        sortIndex = null;
+        return merged;
+    }
+
+    public void onScrolled(int lastVisiblePosition, int itemCount) {
+        if (active && request == null && !endReached && lastVisiblePosition >= itemCount - PREFETCH_DISTANCE) {
+            loadPage(false);
+        }
+    }
+
+    private void loadPage(boolean first) {
+        final NoteQuery.SortOrder order = sortOrder;
+        final long start = NoteMetrics.start();
+        loadingFirst = first;
+        request = repository.loadNotePage(order, archived, tagIds, nextKey, PAGE_SIZE,
+                NoteRepository.callback(result -> {
+                    List<NoteModel> page = result.notes;
+                    PAGE_TIMER.stop(start, page.size());
+                    request = null;
+                    loadingFirst = false;
+                    if (!page.isEmpty()) {
+                        lastLoaded = page.get(page.size() - 1);
+                        nextKey = NoteQuery.PageKey.after(order, lastLoaded);
+                    }
+                    endReached = page.size() < PAGE_SIZE;
+                    loaded.addAll(page);
+                    sortIndex = null;
+                    if (first) {
+                        generation = result.generation;
+                        listener.onFirstPage(page);
+                        if (refreshPending) {
+                            refreshPending = false;
+                            refresh();
+                        }
+                    } else {
+                        listener.onNextPage(page);
+                    }
+                }, error -> {
+                    // Sayfa okunamadı; kaydırınca (veya sonraki yenilemede) tekrar istenir
+                    request = null;
+                    loadingFirst = false;
+                }));
+    }
+}
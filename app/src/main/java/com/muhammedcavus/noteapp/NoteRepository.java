@@ -0,0 +1,1032 @@
+package com.muhammedcavus.noteapp;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.pm.ApplicationInfo;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.provider.DocumentsContract;
+import android.util.Log;
+import android.util.LongSparseArray;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Tüm SQLite işlemlerini UI thread'i dışında çalıştıran depo katmanı.
+// Yazmalar tek bir thread'de sırayla, okumalar küçük bir havuzda paralel çalışır; sonuçlar ana thread'e döner.
+public class NoteRepository {
+
+    private static final String TAG = "NoteRepository";
+    private static final int READER_THREADS = 2;
+    private static final int SEARCH_LIMIT = 200;
+    private static final int SNIPPET_LENGTH = 120;
+    // Büyük notun gövdesi editöre bu kadar parçalık dilimlerle gelir
+    private static final int TAIL_BATCH_CHUNKS = 4;
+    // Çevrimiçi sıkıştırma dönüşümünün her adımı (tek kısa transaction); araya kullanıcı yazmaları girebilir
+    private static final int RECODE_BATCH_CHUNKS = 64;
+    // Dışa/içe aktarımda bir adımda okunan/eklenen not sayısı; bellekte en fazla bu kadar not tutulur
+    private static final int TRANSFER_BATCH_NOTES = 500;
+    private static final int TRANSFER_BUFFER_BYTES = 64 * 1024;
+    // Yerel ayar değişince başlık anahtarları bu kadar notluk adımlarla yenilenir
+    private static final int TITLE_KEY_BATCH_NOTES = 500;
+    // Geçmiş seyreltmesinin her adımında işlenen not sayısı
+    private static final int REVISION_COMPACT_BATCH_NOTES = 50;
+    private static final long REVISION_COMPACT_INTERVAL_MS = 24 * 60 * 60 * 1000L;
+    // Üçlü indeksi kurulurken her adımda indekslenen not sayısı
+    private static final int GRAM_INDEX_BATCH_NOTES = 200;
+    // Hızlı yakalama günlüğünden bir transaction'da aktarılan en fazla not
+    private static final int CAPTURE_BATCH_NOTES = 100;
+    private static final String CAPTURE_JOURNAL_FILE = "capture.journal";
+
+    private static final String PREFS_NAME = "note_settings";
+    private static final String KEY_COMPRESS_BODIES = "compress_bodies";
+    // Yarım kalan dönüşüm bir sonraki açılışta kaldığı _id'den devam eder
+    private static final String KEY_RECODE_AFTER_ID = "recode_after_id";
+    // Süre ölçümleri (NoteMetrics); varsayılan olarak sadece hata ayıklanabilir derlemede açık
+    private static final String KEY_METRICS_ENABLED = "metrics_enabled";
+    // Kayıtlı başlık anahtarlarının üretildiği yerel ayar; yarım kalan yenileme kaldığı _id'den devam eder
+    private static final String KEY_TITLE_LOCALE = "title_locale";
+    private static final String KEY_TITLE_KEYS_AFTER_ID = "title_keys_after_id";
+    // Liste sırası (SortOrder adı); seçilmediyse eklenme sırası
+    private static final String KEY_SORT_ORDER = "sort_order";
+    // Geçmiş en son ne zaman seyreltildi; günde bir kez, açılışta arka planda yapılır
+    private static final String KEY_REVISIONS_COMPACTED_AT = "revisions_compacted_at";
+    // Senkronizasyon konumları (bkz. SyncEngine.State): sunucuya gönderilen son nesil (-1: hiç) ve sunucu konumu
+    private static final String KEY_SYNC_PUSHED_GENERATION = "sync_pushed_generation";
+    private static final String KEY_SYNC_PULL_CURSOR = "sync_pull_cursor";
+    // Üçlü indeksi var olan notlar için kuruldu mu; yarım kalan kurulum kaldığı _id'den devam eder
+    private static final String KEY_GRAM_INDEX_BUILT = "gram_index_built";
+    private static final String KEY_GRAM_INDEX_AFTER_ID = "gram_index_after_id";
+
+    public interface Callback<T> {
+        void onResult(T result);
+
+        // İş hata verdiyse (disk dolu, veritabanı kilitli...) onResult yerine çağrılır; hata loglanmıştır.
+        // Sonucu bekleyen ekran veya zincir bunu ele almalı, yoksa sonuç hiç gelmemiş gibi kalır
+        default void onError(RuntimeException error) {
+        }
+    }
+
+    public interface ErrorHandler {
+        void onError(RuntimeException error);
+    }
+
+    // Sonuç ve hata için ayrı lambda'larla callback
+    public static <T> Callback<T> callback(Callback<T> onResult, ErrorHandler onError) {
+        return new Callback<T>() {
+            @Override
+            public void onResult(T result) {
+                onResult.onResult(result);
+            }
+
+            @Override
+            public void onError(RuntimeException error) {
+                onError.onError(error);
+            }
+        };
+    }
+
+    // İptal edilebilir istek: iptal edildikten sonra sonucu asla teslim edilmez
+    public static final class Request {
+        private final AtomicBoolean cancelled = new AtomicBoolean(false);
+        private volatile Future<?> future;
+
+        public void cancel() {
+            cancelled.set(true);
+            Future<?> f = future;
+            if (f != null) {
+                f.cancel(false);
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+    }
+
+    // Büyük notun ilk parçadan sonraki gövdesinden bir dilim; last ise gövdenin sonuna gelinmiştir
+    public static final class ChunkBatch {
+        public final String text;
+        public final long lastSeq;
+        public final boolean last;
+
+        ChunkBatch(String text, long lastSeq, boolean last) {
+            this.text = text;
+            this.lastSeq = lastSeq;
+            this.last = last;
+        }
+    }
+
+    // Liste sayfası; ilk sayfada sorgudan hemen önceki değişiklik nesli de döner (sonraki sayfalarda -1)
+    public static final class Page {
+        public final List<NoteModel> notes;
+        public final long generation;
+
+        Page(List<NoteModel> notes, long generation) {
+            this.notes = notes;
+            this.generation = generation;
+        }
+    }
+
+    // Arama sonucu; complete ise eşleşen notların hepsi döndürülmüştür (sorgu sınıra ulaşmadı) ve daha dar
+    // sorgular bu küme süzülerek yanıtlanabilir
+    public static final class SearchResults {
+        public final List<NoteModel> notes;
+        public final boolean complete;
+
+        SearchResults(List<NoteModel> notes, boolean complete) {
+            this.notes = notes;
+            this.complete = complete;
+        }
+    }
+
+    public interface Progress {
+        void onProgress(long done, boolean finished);
+
+        // İş yarıda kaldı; bundan sonra onProgress çağrılmaz
+        default void onError(RuntimeException error) {
+        }
+    }
+
+    // Dışa/içe aktarım sonucu: işlenen not sayısı; error null değilse yarıda kalmıştır
+    // (içe aktarımda o ana kadar eklenen gruplar veritabanında kalır)
+    public static final class Transfer {
+        public final int count;
+        public final String error;
+
+        Transfer(int count, String error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    // İçe aktarımın adımlar arasında taşınan durumu; sadece yazma thread'inde kullanılır
+    private static final class ImportJob {
+        final Request request;
+        final Uri uri;
+        final Progress progress;
+        NoteArchive.Source source;
+        int imported;
+
+        ImportJob(Request request, Uri uri, Progress progress) {
+            this.request = request;
+            this.uri = uri;
+            this.progress = progress;
+        }
+    }
+
+    private interface Work<T> {
+        T run(DBHelper db);
+    }
+
+    private static NoteRepository instance;
+
+    private final DBHelper dbHelper;
+    private final NoteCache noteCache = new NoteCache();
+    private final ExecutorService writeExecutor = Executors.newSingleThreadExecutor();
+    private final ExecutorService readExecutor = Executors.newFixedThreadPool(READER_THREADS);
+    // Ağ beklemesi yazma thread'ini tutmasın diye senkronizasyon kendi thread'inde sırayla çalışır
+    private final ExecutorService syncExecutor = Executors.newSingleThreadExecutor();
+    // Hızlı yakalama günlüğüne eklemeler; veritabanı işleriyle aynı kuyrukta beklemezler
+    private final ExecutorService captureExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final SharedPreferences preferences;
+    private final Context appContext;
+
+    // Son kuyruğa alınan yazma; okumalar bundan önce gönderilmiş yazmaları bekler (kendi yazdığını okuma)
+    private volatile Future<?> lastWrite;
+    // Şu an yenilenen başlık anahtarlarının yerel ayarı (sadece ana thread); aynı yenileme iki kez başlamaz
+    private String rebuildingTitleLocale;
+    // Yenilemeyi izleyen son ekran (yapılandırma değişince yeniden oluşan aktivite eskisinin yerini alır)
+    private Progress titleKeysProgress;
+    // Senkronizasyon uç noktası; ayarlanmadıysa sync bir şey yapmaz
+    private volatile SyncTransport syncTransport;
+    // İlk kullanımda açılır (açılışta yarım kalmış son kayıt atılır)
+    private CaptureJournal captureJournal;
+    // Kuyrukta bekleyen bir aktarım varken yeni yakalama ikinci bir aktarım kuyruğa koymaz
+    private final AtomicBoolean drainQueued = new AtomicBoolean();
+    // Yakalanan notlar tabloya aktarılınca haber verilecek ekran (sadece ana thread)
+    private Runnable capturesSavedListener;
+
+    // Senkronizasyonun depo adımları yazma kuyruğuna girer ve sonucu beklenir; böylece kullanıcı kayıtlarıyla
+    // araya girerek sırayla çalışırlar. lastWrite değişmez: okumalar sadece kullanıcının kendi yazmalarını bekler
+    private final SyncEngine.Access syncAccess = new SyncEngine.Access() {
+        @Override
+        public <T> T run(SyncEngine.Work<T> work) {
+            Future<T> future = writeExecutor.submit(() -> work.run(dbHelper));
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                        : new IllegalStateException(e.getCause());
+            }
+        }
+    };
+
+    public static synchronized NoteRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new NoteRepository(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private NoteRepository(Context context) {
+        appContext = context;
+        dbHelper = DBHelper.getInstance(context);
+        preferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        dbHelper.setCompressionEnabled(isCompressionEnabled());
+        boolean debuggable = (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+        NoteMetrics.setEnabled(preferences.getBoolean(KEY_METRICS_ENABLED, debuggable));
+        if (preferences.contains(KEY_RECODE_AFTER_ID)) {
+            recodeStoredBodies(isCompressionEnabled(), preferences.getLong(KEY_RECODE_AFTER_ID, -1), 0, null);
+        }
+        long now = System.currentTimeMillis();
+        if (now - preferences.getLong(KEY_REVISIONS_COMPACTED_AT, 0) >= REVISION_COMPACT_INTERVAL_MS) {
+            compactRevisions(-1, now);
+        }
+        if (!preferences.getBoolean(KEY_GRAM_INDEX_BUILT, false)) {
+            buildGramIndex(preferences.getLong(KEY_GRAM_INDEX_AFTER_ID, 0));
+        }
+        // Önceki çalışmada aktarılamadan kalmış yakalamalar
+        drainCaptures();
+    }
+
+    // Hızlı not yakalama: not sadece günlüğe eklenip diske yazılır (fsync), veritabanı beklenmez; tabloya
+    // aktarım arka planda gruplar halinde yapılır. Sonuç (günlüğe yazıldı mı) ana thread'de döner
+    public void capture(String title, String content, Callback<Boolean> callback) {
+        final long now = System.currentTimeMillis();
+        captureExecutor.execute(() -> {
+            boolean captured;
+            try {
+                captureJournal().append(title, content, now);
+                captured = true;
+            } catch (IOException e) {
+                Log.e(TAG, "Not yakalanamadı", e);
+                captured = false;
+            }
+            deliver(new Request(), callback, captured);
+            if (captured) {
+                drainCaptures();
+            }
+        });
+    }
+
+    public void setCapturesSavedListener(Runnable listener) {
+        capturesSavedListener = listener;
+    }
+
+    private synchronized CaptureJournal captureJournal() throws IOException {
+        if (captureJournal == null) {
+            captureJournal = CaptureJournal.open(new File(appContext.getFilesDir(), CAPTURE_JOURNAL_FILE));
+        }
+        return captureJournal;
+    }
+
+    // Günlük yazma kuyruğunda boşaltılır; grup dolu geldiyse kalanlar için devam edilir. Aktarım tamamlanmadan
+    // çökülürse kayıtlar günlükte kalır ve sonraki açılışta tekrar aktarılır (zaten eklenmiş olanlar atlanır).
+    // Aktarım hata verirse kayıtlar yine günlükte kalır; sonraki yakalamada veya açılışta tekrar denenir
+    private void drainCaptures() {
+        if (!drainQueued.compareAndSet(false, true)) {
+            return;
+        }
+        write(db -> {
+            // Bundan sonra eklenen yakalama yeni bir aktarım kuyruğa koyabilsin
+            drainQueued.set(false);
+            try {
+                return captureJournal().drainTo(db, CAPTURE_BATCH_NOTES);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }, drained -> {
+            if (drained == CAPTURE_BATCH_NOTES) {
+                drainCaptures();
+            }
+            if (drained > 0 && capturesSavedListener != null) {
+                capturesSavedListener.run();
+            }
+        });
+    }
+
+    // Not özetlerinin bir sayfası; after null ise ilk sayfa. Her sayfa indeks/anahtar üzerinden
+    // doğrudan konumlanır, önceki sayfalar tekrar taranmaz. archived: arşiv görünümü mü; tagIds boş değilse
+    // sadece bu etiketlerin hepsini taşıyan notlar (bkz. NoteTag.filterIds)
+    public Request loadNotePage(NoteQuery.SortOrder sortOrder, boolean archived, long[] tagIds,
+                                NoteQuery.PageKey after, int limit, Callback<Page> callback) {
+        NoteQuery query = NoteQuery.page(sortOrder, archived, tagIds, after, limit);
+        return read(db -> {
+            // Nesil sorgudan önce okunur: arada yapılan değişiklik sonraki loadChanges'te yine gelir
+            long generation = after == null ? db.changeGeneration() : -1;
+            List<NoteModel> notes = db.loadNotePage(query);
+            noteCache.putSummaries(notes);
+            return new Page(notes, generation);
+        }, callback);
+    }
+
+    // Liste yüklendiği nesilden sonra değişen notlar; listeyi baştan yüklemeden güncellemek için (bkz. NotePager)
+    public Request loadChanges(long afterGeneration, boolean archived, long[] tagIds, int limit,
+                               Callback<NoteChanges> callback) {
+        return read(db -> {
+            NoteChanges changes = db.loadChanges(afterGeneration, archived, tagIds, limit);
+            noteCache.putSummaries(changes.notes);
+            return changes;
+        }, callback);
+    }
+
+    // Notun geçmişi, yeniden eskiye; ilk öğe notun şimdiki hali
+    public Request loadRevisions(long noteId, Callback<List<NoteRevisions.Info>> callback) {
+        return read(db -> db.loadRevisions(noteId), callback);
+    }
+
+    // Sürümün tam metni (bulunamazsa null); en yakın anlık görüntüden sınırlı sayıda fark uygulanır
+    public Request loadRevision(long noteId, long revisionId, Callback<NoteRevisions.Version> callback) {
+        return read(db -> db.loadRevision(noteId, revisionId), callback);
+    }
+
+    // Saklama politikası dışında kalan sürümler küçük adımlarla silinir; araya kullanıcı yazmaları girebilir.
+    // Bir adım hata verirse zincir durur; tamamlanma zamanı yazılmadığından sonraki açılışta tekrar başlar
+    private void compactRevisions(long afterNoteId, long now) {
+        write(db -> db.compactRevisions(afterNoteId, REVISION_COMPACT_BATCH_NOTES, now,
+                NoteRevisions.DEFAULT_POLICY), lastId -> {
+            if (lastId == -1) {
+                preferences.edit().putLong(KEY_REVISIONS_COMPACTED_AT, now).apply();
+            } else {
+                compactRevisions(lastId, now);
+            }
+        });
+    }
+
+    public Request loadChangeGeneration(Callback<Long> callback) {
+        return read(db -> db.changeGeneration(), callback);
+    }
+
+    // "Hepsini Seç" için görünümdeki tüm notların id'leri (yüklenmiş sayfalarla sınırlı değil)
+    public Request loadNoteIds(boolean archived, long[] tagIds, Callback<long[]> callback) {
+        return read(db -> db.loadNoteIds(archived, tagIds), callback);
+    }
+
+    // Toplu işlemler tek transaction'da yapılır; sonuç etkilenen not sayısıdır
+    public Request deleteNotes(long[] ids, Callback<Integer> callback) {
+        for (long id : ids) {
+            noteCache.remove(id);
+        }
+        return write(db -> db.deleteNotes(ids), callback);
+    }
+
+    public Request duplicateNotes(long[] ids, Callback<Integer> callback) {
+        final long now = System.currentTimeMillis();
+        return write(db -> db.duplicateNotes(ids, now), callback);
+    }
+
+    public Request setArchived(long[] ids, boolean archived, Callback<Integer> callback) {
+        return write(db -> db.setArchived(ids, archived), callback);
+    }
+
+    // Etiketler adlarına göre, her görünümdeki not sayılarıyla (sayılar tetikleyicilerle tutulur, sayılmaz)
+    public Request loadTags(Callback<List<NoteTag>> callback) {
+        return read(db -> db.loadTags(), callback);
+    }
+
+    public Request loadNoteTags(long noteId, Callback<List<NoteTag>> callback) {
+        return read(db -> db.loadNoteTags(noteId), callback);
+    }
+
+    // Notları adı verilen etikete ekler, etiket yoksa oluşturulur; sonuç etiketin id'si
+    public Request tagNotes(String name, long[] ids, Callback<Long> callback) {
+        return write(db -> db.tagNotes(name, ids), callback);
+    }
+
+    public Request untagNotes(long tagId, long[] ids, Callback<Integer> callback) {
+        return write(db -> db.untagNotes(tagId, ids), callback);
+    }
+
+    // Aynı adda başka bir etiket varsa false
+    public Request renameTag(long tagId, String name, Callback<Boolean> callback) {
+        return write(db -> db.renameTag(tagId, name), callback);
+    }
+
+    // Etiket silinir, notlar kalır; etiket zaten yoksa sonuç 0
+    public Request deleteTag(long tagId, Callback<Integer> callback) {
+        return write(db -> db.deleteTag(tagId), callback);
+    }
+
+    // FTS araması: önek eşleşmesi, BM25 sıralaması ve vurgulu özetler
+    public Request searchNotes(String query, long[] tagIds, Callback<SearchResults> callback) {
+        return read(db -> search(db, query, tagIds), callback);
+    }
+
+    // Yazım hatalarına ve eksik Türkçe harflere dayanıklı arama (üçlü indeksi, bkz. NoteGrams); benzerliğe göre
+    public Request fuzzySearchNotes(String query, long[] tagIds, Callback<SearchResults> callback) {
+        return read(db -> {
+            List<String> terms = SearchText.terms(query);
+            return terms.isEmpty() ? new SearchResults(new ArrayList<>(), true)
+                    : loadResults(db, db.fuzzySearchNoteIds(terms, tagIds, SEARCH_LIMIT), terms);
+        }, callback);
+    }
+
+    // Bir önceki tam sonuç kümesini yeni (daha dar) sorguya göre süzer; veritabanına gidilmez. Adaylarda
+    // parçalı not olmamalı: süzme sadece ilk parçaya bakar (bkz. SearchSession)
+    public Request refineSearch(List<NoteModel> candidates, String query, Callback<SearchResults> callback) {
+        final List<NoteModel> snapshot = new ArrayList<>(candidates);
+        return read(db -> {
+            List<String> terms = SearchText.terms(query);
+            List<NoteModel> results = new ArrayList<>();
+            for (NoteModel candidate : snapshot) {
+                if (SearchText.matchesAll(terms, candidate.getTitle(), candidate.getContent())) {
+                    NoteModel note = new NoteModel(candidate.getId(), candidate.getTitle(),
+                            candidate.getContent(), candidate.getUpdatedAt());
+                    note.setTailChunks(candidate.getTailChunks());
+                    note.setSnippet(SearchText.snippet(note.getContent(), terms, SNIPPET_LENGTH));
+                    results.add(note);
+                }
+            }
+            // Eksiksiz kümenin süzülmüşü de eksiksizdir
+            return new SearchResults(results, true);
+        }, callback);
+    }
+
+    private SearchResults search(DBHelper db, String query, long[] tagIds) {
+        List<String> terms = SearchText.terms(query);
+        if (terms.isEmpty()) {
+            return new SearchResults(new ArrayList<>(), true);
+        }
+
+        // Eşleşenler BM25 puanına göre sıralanmış gelir; sadece ilk SEARCH_LIMIT id okunur
+        return loadResults(db, db.searchNoteIds(SearchText.matchExpression(terms), tagIds, SEARCH_LIMIT), terms);
+    }
+
+    // Eksiksizlik sorgunun döndürdüğü id sayısına göre belirlenir: okuma sırasında silinen ya da arşivlenen
+    // notlar atılınca sonuç sınırın altına inse bile küme sınırda kesilmiş olabilir
+    private SearchResults loadResults(DBHelper db, long[] ids, List<String> terms) {
+        boolean complete = ids.length < SEARCH_LIMIT;
+        if (ids.length == 0) {
+            return new SearchResults(new ArrayList<>(), complete);
+        }
+
+        // Sadece gösterilecek satırların içeriği okunur, sonra puan sırasına dizilir
+        LongSparseArray<NoteModel> byId = new LongSparseArray<>();
+        for (NoteModel note : db.loadNotesByIds(ids)) {
+            noteCache.putFull(note);
+            byId.put(note.getId(), note);
+        }
+        List<NoteModel> results = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            NoteModel note = byId.get(id);
+            if (note != null) {
+                note.setSnippet(SearchText.snippet(note.getContent(), terms, SNIPPET_LENGTH));
+                results.add(note);
+            }
+        }
+        return new SearchResults(results, complete);
+    }
+
+    // Üçlü indeksinin kurulumu kısa adımlar halinde yazma kuyruğunda; bitene kadar benzer arama sadece
+    // indekslenmiş notları bulur. Kaydedilen notlar kurulumdan bağımsız olarak hemen indekslenir.
+    // Bir adım hata verirse zincir durur; sonraki açılışta kaydedilen yerden devam edilir
+    private void buildGramIndex(long afterId) {
+        write(db -> db.indexGrams(afterId, GRAM_INDEX_BATCH_NOTES), lastId -> {
+            if (lastId < 0) {
+                preferences.edit().putBoolean(KEY_GRAM_INDEX_BUILT, true).remove(KEY_GRAM_INDEX_AFTER_ID).apply();
+            } else {
+                preferences.edit().putLong(KEY_GRAM_INDEX_AFTER_ID, lastId).apply();
+                buildGramIndex(lastId);
+            }
+        });
+    }
+
+    // Tek notu yükle, bulunamazsa null döner
+    // Önbellekte tam içerik varsa diske hiç gidilmez
+    public Request getNote(long id, Callback<NoteModel> callback) {
+        NoteModel cached = noteCache.getFull(id);
+        if (cached != null) {
+            Request request = new Request();
+            deliver(request, callback, cached);
+            return request;
+        }
+        return read(db -> {
+            NoteModel note = db.loadNote(id);
+            if (note != null) {
+                noteCache.putFull(note);
+            }
+            return note;
+        }, callback);
+    }
+
+    // getNote ilk parçayı verir; tailChunks > 0 ise gövdenin kalanı buradan sırayla istenir
+    // (ilk çağrıda afterSeq = NoteChunks.HEAD_SEQ, sonrakilerde bir önceki dilimin lastSeq'i)
+    public Request loadNoteTail(long id, long afterSeq, Callback<ChunkBatch> callback) {
+        return read(db -> {
+            long begin = NoteMetrics.start();
+            StringBuilder text = new StringBuilder();
+            long lastSeq = afterSeq;
+            int count = 0;
+            Cursor cursor = db.queryChunks(id, afterSeq, TAIL_BATCH_CHUNKS);
+            try {
+                while (cursor.moveToNext()) {
+                    lastSeq = cursor.getLong(0);
+                    int codec = cursor.getInt(1);
+                    if (codec == BodyCodec.PLAIN) {
+                        text.append(cursor.getString(2));
+                    } else {
+                        long start = NoteMetrics.start();
+                        text.append(BodyCodec.decompress(codec, cursor.getBlob(2)));
+                        DBHelper.DECODE_TIMER.stop(start, 1);
+                    }
+                    count++;
+                }
+            } finally {
+                cursor.close();
+            }
+            db.finish(DBHelper.TAIL_TIMER, begin, count, NoteSchema.SQL_SELECT_CHUNKS,
+                    new String[]{String.valueOf(id), String.valueOf(afterSeq), String.valueOf(TAIL_BATCH_CHUNKS)});
+            return new ChunkBatch(text.toString(), lastSeq, count < TAIL_BATCH_CHUNKS);
+        }, callback);
+    }
+
+    public boolean isCompressionEnabled() {
+        return preferences.getBoolean(KEY_COMPRESS_BODIES, false);
+    }
+
+    // Ayar hemen yeni yazmalara uygulanır; mevcut parçalar arka planda, küçük transaction'larla dönüştürülür
+    public void setCompressionEnabled(boolean enabled, Progress progress) {
+        preferences.edit()
+                .putBoolean(KEY_COMPRESS_BODIES, enabled)
+                .putLong(KEY_RECODE_AFTER_ID, -1)
+                .apply();
+        dbHelper.setCompressionEnabled(enabled);
+        recodeStoredBodies(enabled, -1, 0, progress);
+    }
+
+    // Başlık sırası kayıtlı anahtarlardan okunur; yerel ayar anahtarların üretildiği ayardan farklıysa (veya
+    // önceki yenileme yarım kaldıysa) anahtarlar arka planda yenilenir. Sadece ana thread'den çağrılır;
+    // progress yenileme sürerken ve bitince çağrılır (başlığa göre sıralı liste o zaman yeniden yüklenmeli)
+    public void checkTitleLocale(Progress progress) {
+        titleKeysProgress = progress;
+        Locale locale = Locale.getDefault();
+        String tag = locale.toLanguageTag();
+        String stored = preferences.getString(KEY_TITLE_LOCALE, null);
+        if (stored == null) {
+            // Yeni kurulum veya geçiş 9: anahtarlar zaten bu yerel ayarla üretildi
+            preferences.edit().putString(KEY_TITLE_LOCALE, tag).apply();
+            return;
+        }
+        boolean resume = tag.equals(stored);
+        if ((resume && !preferences.contains(KEY_TITLE_KEYS_AFTER_ID)) || tag.equals(rebuildingTitleLocale)) {
+            return;
+        }
+        long afterId = resume ? preferences.getLong(KEY_TITLE_KEYS_AFTER_ID, -1) : -1;
+        preferences.edit()
+                .putString(KEY_TITLE_LOCALE, tag)
+                .putLong(KEY_TITLE_KEYS_AFTER_ID, afterId)
+                .apply();
+        rebuildingTitleLocale = tag;
+        dbHelper.setTitleLocale(locale);
+        rebuildTitleKeys(tag, afterId, 0);
+    }
+
+    // Bir adım hata verirse yenileme durur ve bitmiş gibi bildirilir (liste mevcut anahtarlarla yüklenir);
+    // kalınan yer saklandığından sonraki checkTitleLocale kaldığı yerden devam eder
+    private void rebuildTitleKeys(String tag, long afterId, long done) {
+        write(db -> db.rebuildTitleKeys(afterId, TITLE_KEY_BATCH_NOTES), callback(lastId -> {
+            // Bu arada yerel ayar yine değiştiyse eski yenileme durur (yenisi baştan başlar)
+            if (!tag.equals(rebuildingTitleLocale)) {
+                return;
+            }
+            boolean finished = lastId == -1;
+            long processed = finished ? done : done + TITLE_KEY_BATCH_NOTES;
+            if (finished) {
+                rebuildingTitleLocale = null;
+                preferences.edit().remove(KEY_TITLE_KEYS_AFTER_ID).apply();
+            } else {
+                preferences.edit().putLong(KEY_TITLE_KEYS_AFTER_ID, lastId).apply();
+                rebuildTitleKeys(tag, lastId, processed);
+            }
+            Progress progress = titleKeysProgress;
+            if (progress != null) {
+                progress.onProgress(processed, finished);
+            }
+        }, error -> {
+            if (!tag.equals(rebuildingTitleLocale)) {
+                return;
+            }
+            rebuildingTitleLocale = null;
+            Progress progress = titleKeysProgress;
+            if (progress != null) {
+                progress.onProgress(done, true);
+            }
+        }));
+    }
+
+    // Her adım yazma kuyruğunun sonuna eklenir; böylece uzun dönüşüm kullanıcı kayıtlarını bekletmez.
+    // Bir adım hata verirse dönüşüm durur ve progress.onError çağrılır; sonraki açılışta kaldığı yerden sürer
+    private void recodeStoredBodies(boolean compress, long afterId, long done, Progress progress) {
+        write(db -> db.recodeChunks(compress, afterId, RECODE_BATCH_CHUNKS), callback(lastId -> {
+            // Bu arada ayar tekrar değiştiyse eski dönüşüm durur (yenisi kendi baştan başlar)
+            if (compress != isCompressionEnabled()) {
+                return;
+            }
+            boolean finished = lastId == -1;
+            long processed = finished ? done : done + RECODE_BATCH_CHUNKS;
+            if (finished) {
+                preferences.edit().remove(KEY_RECODE_AFTER_ID).apply();
+            } else {
+                preferences.edit().putLong(KEY_RECODE_AFTER_ID, lastId).apply();
+                recodeStoredBodies(compress, lastId, processed, progress);
+            }
+            if (progress != null) {
+                progress.onProgress(processed, finished);
+            }
+        }, error -> {
+            if (progress != null && compress == isCompressionEnabled()) {
+                progress.onError(error);
+            }
+        }));
+    }
+
+    // Ayarlar ekranı için depolama özeti: kodeklere göre parça sayısı ve boyutu, süreçteki kodek ölçümleri
+    public Request loadStorageStats(Callback<String> callback) {
+        return read(db -> {
+            StringBuilder sb = new StringBuilder();
+            Cursor cursor = db.queryChunkStorage();
+            try {
+                while (cursor.moveToNext()) {
+                    sb.append(cursor.getInt(0) == BodyCodec.PLAIN ? "Düz" : "Sıkıştırılmış")
+                            .append(": ").append(cursor.getLong(1)).append(" parça, ")
+                            .append(cursor.getLong(2) / 1024).append(" KB diskte, ")
+                            .append(cursor.getLong(3) / 1024).append(" K karakter\n");
+                }
+            } finally {
+                cursor.close();
+            }
+            if (sb.length() == 0) {
+                sb.append("Parçalı (büyük) not yok\n");
+            }
+            return sb.append(BodyCodec.stats()).toString();
+        }, callback);
+    }
+
+    public NoteQuery.SortOrder getSortOrder() {
+        String name = preferences.getString(KEY_SORT_ORDER, null);
+        if (name != null) {
+            for (NoteQuery.SortOrder order : NoteQuery.SortOrder.values()) {
+                if (order.name().equals(name)) {
+                    return order;
+                }
+            }
+        }
+        return NoteQuery.SortOrder.NONE;
+    }
+
+    public void setSortOrder(NoteQuery.SortOrder sortOrder) {
+        preferences.edit().putString(KEY_SORT_ORDER, sortOrder.name()).apply();
+    }
+
+    public boolean isMetricsEnabled() {
+        return NoteMetrics.isEnabled();
+    }
+
+    public void setMetricsEnabled(boolean enabled) {
+        preferences.edit().putBoolean(KEY_METRICS_ENABLED, enabled).apply();
+        NoteMetrics.setEnabled(enabled);
+    }
+
+    // Ölçüm tablosu + önbellek ve kodek sayaçları; metin ekranda da gösterilir
+    public static String metricsReport(NoteCache cache) {
+        return "Ölçüm " + (NoteMetrics.isEnabled() ? "açık" : "kapalı") + "\n\n"
+                + NoteMetrics.dump() + "\nNot önbelleği: " + cache.stats() + "\n" + BodyCodec.stats() + "\n";
+    }
+
+    // Ölçüm raporunu zaman damgalı bir dosyaya yazar; sonuç dosya, yazılamazsa null
+    public Request dumpMetrics(Callback<File> callback) {
+        return read(db -> {
+            String name = "metrics-" + new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.ROOT).format(new Date()) + ".txt";
+            // Mümkünse adb/dosya yöneticisiyle erişilebilen uygulama klasörü (klasör çözümü diske dokunur)
+            File dir = appContext.getExternalFilesDir(null);
+            File file = new File(dir != null ? dir : appContext.getFilesDir(), name);
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8")) {
+                writer.write(metricsReport(noteCache));
+                return file;
+            } catch (IOException e) {
+                Log.e(TAG, "Ölçüm dökümü yazılamadı", e);
+                return null;
+            }
+        }, callback);
+    }
+
+    // Tüm notları (arşivliler dahil) seçilen biçimde uri'ye yazar. Notlar _id sırasıyla küçük dilimler halinde
+    // okunup akışa yazılır; bellek kullanımı not sayısından bağımsızdır. İptal edilirse yarım dosya silinir.
+    // Dilimler ayrı sorgulardır: dışa aktarım sürerken kaydedilen not yeni haliyle de yazılabilir.
+    public Request exportNotes(Uri uri, NoteArchive.Format format, Progress progress, Callback<Transfer> callback) {
+        Request request = new Request();
+        return read(request, db -> {
+            long start = NoteMetrics.start();
+            ContentResolver resolver = appContext.getContentResolver();
+            int exported = 0;
+            String error = null;
+            try {
+                OutputStream out = resolver.openOutputStream(uri);
+                if (out == null) {
+                    throw new FileNotFoundException(uri.toString());
+                }
+                NoteArchive.Sink sink = NoteArchive.openSink(format, new BufferedOutputStream(out, TRANSFER_BUFFER_BYTES));
+                try {
+                    long afterId = 0;
+                    int rows = TRANSFER_BATCH_NOTES;
+                    while (rows == TRANSFER_BATCH_NOTES && !request.isCancelled()) {
+                        rows = 0;
+                        Cursor cursor = db.queryNotesForExport(afterId, TRANSFER_BATCH_NOTES);
+                        try {
+                            while (cursor.moveToNext()) {
+                                afterId = cursor.getLong(0);
+                                String content = cursor.isNull(2) ? "" : cursor.getString(2);
+                                if (cursor.getInt(6) > 0) {
+                                    content += db.loadTail(afterId);
+                                }
+                                sink.write(new NoteArchive.Entry(cursor.getString(1), content, cursor.getLong(3),
+                                        cursor.getLong(4), cursor.getInt(5) != 0));
+                                rows++;
+                            }
+                        } finally {
+                            cursor.close();
+                        }
+                        exported += rows;
+                        postProgress(request, progress, exported, false);
+                    }
+                } finally {
+                    sink.close();
+                }
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Dışa aktarım başarısız", e);
+                error = e.getMessage() != null ? e.getMessage() : e.toString();
+            }
+            db.finish(DBHelper.EXPORT_TIMER, start, exported, null, null);
+            if (request.isCancelled()) {
+                deleteDocumentQuietly(resolver, uri);
+            }
+            return new Transfer(exported, error);
+        }, callback);
+    }
+
+    // uri'deki arşivi (JSON satırları veya Markdown zip; biçim içerikten anlaşılır) yeni notlar olarak ekler.
+    // Dosya akış halinde okunur; her adım en fazla TRANSFER_BATCH_NOTES notu tek transaction'da ekler ve
+    // sonraki adım yazma kuyruğunun sonuna girer, böylece uzun içe aktarım kullanıcı kayıtlarını bekletmez.
+    // İptal edilirse sıradaki adım dosyayı kapatıp durur; önceki adımların eklediği notlar kalır.
+    public Request importNotes(Uri uri, Progress progress, Callback<Transfer> callback) {
+        ImportJob job = new ImportJob(new Request(), uri, progress);
+        importStep(job, callback);
+        return job.request;
+    }
+
+    private void importStep(ImportJob job, Callback<Transfer> callback) {
+        write(job.request, db -> {
+            if (job.request.isCancelled()) {
+                closeQuietly(job.source);
+                return null;
+            }
+            try {
+                if (job.source == null) {
+                    InputStream in = appContext.getContentResolver().openInputStream(job.uri);
+                    if (in == null) {
+                        throw new FileNotFoundException(job.uri.toString());
+                    }
+                    // Biçim tespiti için mark/reset gerekir
+                    job.source = NoteArchive.openSource(new BufferedInputStream(in, TRANSFER_BUFFER_BYTES));
+                }
+                List<NoteArchive.Entry> batch = new ArrayList<>(TRANSFER_BATCH_NOTES);
+                NoteArchive.Entry entry;
+                while (batch.size() < TRANSFER_BATCH_NOTES && (entry = job.source.next()) != null) {
+                    batch.add(entry);
+                }
+                if (!batch.isEmpty()) {
+                    job.imported += db.importNotes(batch, System.currentTimeMillis());
+                }
+                if (batch.size() < TRANSFER_BATCH_NOTES) {
+                    closeQuietly(job.source);
+                    return new Transfer(job.imported, null);
+                }
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "İçe aktarım başarısız", e);
+                closeQuietly(job.source);
+                return new Transfer(job.imported, e.getMessage() != null ? e.getMessage() : e.toString());
+            }
+            postProgress(job.request, job.progress, job.imported, false);
+            importStep(job, callback);
+            return null;
+        }, callback(transfer -> {
+            // Ara adımlar null döner; sadece son adımın sonucu teslim edilir
+            if (transfer != null && callback != null) {
+                callback.onResult(transfer);
+            }
+        }, error -> {
+            closeQuietly(job.source);
+            if (callback != null) {
+                callback.onResult(new Transfer(job.imported,
+                        error.getMessage() != null ? error.getMessage() : error.toString()));
+            }
+        }));
+    }
+
+    private void postProgress(Request request, Progress progress, long done, boolean finished) {
+        if (progress == null) {
+            return;
+        }
+        mainHandler.post(() -> {
+            if (!request.isCancelled()) {
+                progress.onProgress(done, finished);
+            }
+        });
+    }
+
+    private static void deleteDocumentQuietly(ContentResolver resolver, Uri uri) {
+        try {
+            DocumentsContract.deleteDocument(resolver, uri);
+        } catch (FileNotFoundException | RuntimeException e) {
+            Log.w(TAG, "Yarım kalan dışa aktarım dosyası silinemedi: " + uri, e);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+            // Okuma bitti; kapatma hatası sonucu değiştirmez
+        }
+    }
+
+    public void setSyncTransport(SyncTransport transport) {
+        syncTransport = transport;
+    }
+
+    // Konumlar uç noktaya aittir; başka bir sunucuya geçilince sıfırlanır ve ilk senkronizasyon bütün notları gönderir
+    public void resetSyncState() {
+        preferences.edit().remove(KEY_SYNC_PUSHED_GENERATION).remove(KEY_SYNC_PULL_CURSOR).apply();
+    }
+
+    // Değişiklikleri sunucuyla karşılıklı aktarır (bkz. SyncEngine). Konumlar her gruptan sonra kaydedilir;
+    // ağ hatasında sonraki çağrı kaldığı yerden sürer. Sonuç null ise uç nokta yok ya da senkronizasyon başarısız.
+    // Uygulanan notlar değişiklik günlüğüne yazıldığından açık liste bir sonraki loadChanges ile yenilenir.
+    public Request sync(Callback<SyncEngine.Result> callback) {
+        Request request = new Request();
+        request.future = syncExecutor.submit(() -> {
+            SyncTransport transport = syncTransport;
+            SyncEngine.Result result = null;
+            if (transport != null && !request.isCancelled()) {
+                SyncEngine.State state = new SyncEngine.State(
+                        preferences.getLong(KEY_SYNC_PUSHED_GENERATION, -1),
+                        preferences.getLong(KEY_SYNC_PULL_CURSOR, 0));
+                try {
+                    result = new SyncEngine(syncAccess, transport, SyncEngine.DEFAULT_BATCH_SIZE).sync(state,
+                            saved -> preferences.edit()
+                                    .putLong(KEY_SYNC_PUSHED_GENERATION, saved.pushedGeneration)
+                                    .putLong(KEY_SYNC_PULL_CURSOR, saved.pullCursor)
+                                    .apply());
+                    for (long id : result.changedIds) {
+                        noteCache.remove(id);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    Log.e(TAG, "Senkronizasyon başarısız", e);
+                }
+            }
+            deliver(request, callback, result);
+        });
+        return request;
+    }
+
+    public NoteCache getNoteCache() {
+        return noteCache;
+    }
+
+    // Notu kaydet (id -1 ise ekle, değilse güncelle); sonuç olarak notun id'si döner
+    // Önbellekteki girdi (ilk parça) yazma kuyruğa alınırken düşürülür, yazma bitince veritabanındaki
+    // parça düzeniyle birebir aynı haliyle konur; arada not açılırsa okuma yazmayı bekler.
+    public Request saveNote(long id, String title, String content, Callback<Long> callback) {
+        final long now = System.currentTimeMillis();
+        if (id != -1) {
+            noteCache.remove(id);
+        }
+        return write(db -> {
+            NoteModel saved = db.saveNote(id, title, content, now);
+            if (saved == null) {
+                return id;
+            }
+            noteCache.putFull(saved);
+            return saved.getId();
+        }, callback);
+    }
+
+    public Request deleteNote(long id, Callback<Void> callback) {
+        noteCache.remove(id);
+        return write(db -> {
+            db.deleteNote(id);
+            return null;
+        }, callback);
+    }
+
+    private <T> Request read(Work<T> work, Callback<T> callback) {
+        return read(new Request(), work, callback);
+    }
+
+    // İptali iş sırasında da kontrol etmesi gereken uzun işler isteği kendisi oluşturur
+    private <T> Request read(Request request, Work<T> work, Callback<T> callback) {
+        final Future<?> barrier = lastWrite;
+        request.future = readExecutor.submit(() -> {
+            awaitQuietly(barrier);
+            if (request.isCancelled()) {
+                return;
+            }
+            T result;
+            try {
+                result = work.run(dbHelper);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Okuma başarısız", e);
+                deliverError(request, callback, e);
+                return;
+            }
+            deliver(request, callback, result);
+        });
+        return request;
+    }
+
+    private <T> Request write(Work<T> work, Callback<T> callback) {
+        return write(new Request(), work, callback);
+    }
+
+    private <T> Request write(Request request, Work<T> work, Callback<T> callback) {
+        Future<?> future = writeExecutor.submit(() -> {
+            T result;
+            try {
+                result = work.run(dbHelper);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Yazma başarısız", e);
+                deliverError(request, callback, e);
+                return;
+            }
+            deliver(request, callback, result);
+        });
+        // Yazmalar iptal edilse de çalışır; iptal sadece sonucun teslimini engeller
+        lastWrite = future;
+        return request;
+    }
+
+    private <T> void deliver(Request request, Callback<T> callback, T result) {
+        if (callback == null) {
+            return;
+        }
+        mainHandler.post(() -> {
+            if (!request.isCancelled()) {
+                callback.onResult(result);
+            }
+        });
+    }
+
+    private <T> void deliverError(Request request, Callback<T> callback, RuntimeException error) {
+        if (callback == null) {
+            return;
+        }
+        mainHandler.post(() -> {
+            if (!request.isCancelled()) {
+                callback.onError(error);
+            }
+        });
+    }
+
+    private static void awaitQuietly(Future<?> future) {
+        if (future == null) {
+            return;
+        }
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ignored) {
+            // Yazma hatası okumayı engellememeli
+        }
+    }
+}
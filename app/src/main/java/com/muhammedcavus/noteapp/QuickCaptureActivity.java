@@ -0,0 +1,86 @@
+package com.muhammedcavus.noteapp;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.widget.Button;
+import android.widget.EditText;
+import android.widget.LinearLayout;
+import android.widget.Toast;
+import androidx.appcompat.app.AppCompatActivity;
+
+// Hızlı not yakalama: paylaşım hedefi (metin) ve ana ekran kısayolu. Editör açılmaz, veritabanı beklenmez;
+// not NoteRepository.capture ile günlüğe yazılır ve ekran kapanır
+public class QuickCaptureActivity extends AppCompatActivity {
+
+    private NoteRepository noteRepository;
+    private EditText captureEditText;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+
+        noteRepository = NoteRepository.getInstance(this);
+
+        // Paylaşılan metin arayüz gösterilmeden yakalanır
+        Intent intent = getIntent();
+        if (Intent.ACTION_SEND.equals(intent.getAction())) {
+            CharSequence text = intent.getCharSequenceExtra(Intent.EXTRA_TEXT);
+            String subject = intent.getStringExtra(Intent.EXTRA_SUBJECT);
+            if (savedInstanceState == null && text != null) {
+                capture(subject, text.toString());
+            } else {
+                finish();
+            }
+            return;
+        }
+
+        // Kısayoldan açıldıysa tek bir yazı alanı: ilk satır başlık, kalanı içerik
+        LinearLayout rootLayout = new LinearLayout(this);
+        rootLayout.setOrientation(LinearLayout.VERTICAL);
+        setContentView(rootLayout);
+
+        captureEditText = new EditText(this);
+        captureEditText.setHint("Hızlı not...");
+        captureEditText.setMinLines(3);
+        rootLayout.addView(captureEditText);
+
+        Button saveButton = new Button(this);
+        saveButton.setText("✓");
+        saveButton.setOnClickListener(v -> captureTypedText());
+        rootLayout.addView(saveButton);
+
+        captureEditText.requestFocus();
+    }
+
+    private void captureTypedText() {
+        String text = captureEditText.getText().toString();
+        if (text.trim().isEmpty()) {
+            finish();
+            return;
+        }
+        capture(null, text);
+    }
+
+    // Başlık verilmediyse metnin ilk satırı başlık olur
+    private void capture(String subject, String text) {
+        String title = subject;
+        String content = text;
+        if (title == null || title.trim().isEmpty()) {
+            int lineEnd = text.indexOf('\n');
+            title = lineEnd < 0 ? text : text.substring(0, lineEnd);
+            content = lineEnd < 0 ? "" : text.substring(lineEnd + 1);
+        }
+        noteRepository.capture(title.trim(), content, captured -> {
+            if (!captured) {
+                Toast.makeText(getApplicationContext(), "Not kaydedilemedi", Toast.LENGTH_SHORT).show();
+                // Yazılan metin kaybolmasın; paylaşımda ise gösterilecek bir ekran yok
+                if (captureEditText == null) {
+                    finish();
+                }
+                return;
+            }
+            Toast.makeText(getApplicationContext(), "Not kaydedildi", Toast.LENGTH_SHORT).show();
+            finish();
+        });
+    }
+}
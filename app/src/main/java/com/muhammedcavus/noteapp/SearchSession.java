@@ -0,0 +1,124 @@
+package com.muhammedcavus.noteapp;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.List;
+
+// Yazdıkça arama: tuş vuruşları bekletilip birleştirilir, eskiyen sorgular iptal edilir,
+// sorgu sadece uzadıysa önceki sonuçlar bellekte süzülür. Tam eşleşme yoksa yazım hatalarına dayanıklı
+// (benzer) aramaya düşülür. UI thread'inde sadece zamanlayıcı kurulur.
+public class SearchSession {
+
+    private static final long DEBOUNCE_MS = 250;
+    // Sorgunun çalıştırılmasından sonuçların gelişine kadar (bekletme süresi hariç)
+    private static final NoteMetrics.Timer SEARCH_TIMER = NoteMetrics.timer("ui.search");
+
+    public interface Listener {
+        void onSearchResults(List<NoteModel> results);
+        void onSearchCleared();
+    }
+
+    private final NoteRepository repository;
+    private final Listener listener;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable runPending = this::runSearch;
+
+    private String pendingQuery = "";
+    private NoteRepository.Request inFlight;
+    private long[] tagIds = new long[0];
+
+    // Son tamamlanan sorgunun terimleri ve sonuçları (sadece eksiksiz ve süzülebilirse tutulur)
+    private List<String> lastTerms;
+    private List<NoteModel> lastResults;
+
+    public SearchSession(NoteRepository repository, Listener listener) {
+        this.repository = repository;
+        this.listener = listener;
+    }
+
+    public void onQueryChanged(String query) {
+        pendingQuery = query;
+        handler.removeCallbacks(runPending);
+        handler.postDelayed(runPending, DEBOUNCE_MS);
+    }
+
+    // Veri değiştiğinde (ör. not kaydedildi) önbelleğe güvenmeden tekrar sorgula
+    public void refresh() {
+        lastTerms = null;
+        lastResults = null;
+        handler.removeCallbacks(runPending);
+        runSearch();
+    }
+
+    // Aramayı etiketlerle sınırlar; önceki sonuçlar başka bir kümeye ait olduğundan süzmede kullanılmaz
+    public void setTagFilter(long[] tagIds) {
+        this.tagIds = tagIds;
+        lastTerms = null;
+        lastResults = null;
+    }
+
+    public void cancel() {
+        handler.removeCallbacks(runPending);
+        if (inFlight != null) {
+            inFlight.cancel();
+            inFlight = null;
+        }
+    }
+
+    private void runSearch() {
+        cancel();
+        final String query = pendingQuery;
+        final List<String> terms = SearchText.terms(query);
+        if (terms.isEmpty()) {
+            lastTerms = null;
+            lastResults = null;
+            listener.onSearchCleared();
+            return;
+        }
+
+        final long start = NoteMetrics.start();
+        // Benzer arama sonuçları süzme için saklanmaz: uzayan sorgunun benzerleri bu kümenin alt kümesi değildir
+        // Sorgu hata verirse gösterilen sonuçlar kalır; sonraki tuş vuruşu tekrar sorgular
+        final NoteRepository.ErrorHandler onError = error -> inFlight = null;
+        final NoteRepository.Callback<NoteRepository.SearchResults> fuzzyCallback = NoteRepository.callback(found -> {
+            SEARCH_TIMER.stop(start, found.notes.size());
+            inFlight = null;
+            listener.onSearchResults(found.notes);
+        }, onError);
+        NoteRepository.Callback<NoteRepository.SearchResults> callback = NoteRepository.callback(found -> {
+            List<NoteModel> results = found.notes;
+            if (found.complete && isRefinable(results)) {
+                lastTerms = terms;
+                lastResults = results;
+            } else {
+                lastTerms = null;
+                lastResults = null;
+            }
+            if (results.isEmpty()) {
+                inFlight = repository.fuzzySearchNotes(query, tagIds, fuzzyCallback);
+                return;
+            }
+            SEARCH_TIMER.stop(start, results.size());
+            inFlight = null;
+            listener.onSearchResults(results);
+        }, onError);
+
+        if (lastResults != null && SearchText.refines(lastTerms, terms)) {
+            inFlight = repository.refineSearch(lastResults, query, callback);
+        } else {
+            inFlight = repository.searchNotes(query, tagIds, callback);
+        }
+    }
+
+    // Parçalı notun bellekte sadece ilk parçası var; FTS tam gövdeyi indeksler, kalan parçalarda eşleşen not
+    // bellekte süzülürken düşerdi. Böyle bir küme süzülmez, uzayan sorgu indekse gider
+    private static boolean isRefinable(List<NoteModel> results) {
+        for (NoteModel note : results) {
+            if (note.getTailChunks() > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
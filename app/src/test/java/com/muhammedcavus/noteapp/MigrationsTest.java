@@ -0,0 +1,49 @@
+package com.muhammedcavus.noteapp;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MigrationsTest {
+
+    private static Migration step(int toVersion) {
+        return new Migration(toVersion, "test " + toVersion) {
+            @Override
+            public void migrate(SQLiteDatabase db, Progress progress) {
+            }
+        };
+    }
+
+    @Test
+    public void path_returnsStepsInVersionOrder() {
+        List<Migration> all = Arrays.asList(step(4), step(2), step(3));
+        List<Migration> path = Migrations.path(all, 1, 4);
+        assertEquals(3, path.size());
+        assertEquals(2, path.get(0).toVersion);
+        assertEquals(3, path.get(1).toVersion);
+        assertEquals(4, path.get(2).toVersion);
+    }
+
+    @Test
+    public void path_onlyIncludesPendingSteps() {
+        List<Migration> path = Migrations.path(Arrays.asList(step(2), step(3)), 2, 3);
+        assertEquals(1, path.size());
+        assertEquals(3, path.get(0).toVersion);
+        assertTrue(Migrations.path(Arrays.asList(step(2)), 2, 2).isEmpty());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void path_rejectsMissingStep() {
+        Migrations.path(Arrays.asList(step(2), step(4)), 1, 4);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void path_rejectsDuplicateStep() {
+        Migrations.path(Arrays.asList(step(2), step(2)), 1, 2);
+    }
+}
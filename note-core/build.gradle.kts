@@ -0,0 +1,30 @@
+// Android'e bağımlı olmayan çekirdek: model, şema/SQL, parçalama, sıkıştırma, arama puanlaması.
+// JVM'de test edilir ve JMH ile ölçülür (./gradlew :note-core:jmh)
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+// Kaynaklarda Türkçe yorumlar var; platform kodlamasına bırakılmaz (Android eklentisi zaten UTF-8 kullanır)
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    testImplementation(libs.junit)
+    testRuntimeOnly(libs.sqlite.jdbc)
+    jmh(libs.sqlite.jdbc)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    fork.set(1)
+    warmupIterations.set(2)
+    iterations.set(5)
+    resultFormat.set("JSON")
+}
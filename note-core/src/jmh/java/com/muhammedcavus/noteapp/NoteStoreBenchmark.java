@@ -0,0 +1,194 @@
+package com.muhammedcavus.noteapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Uygulamanın sıcak yollarını (kayıt, arama, sıralı liste sayfaları) aynı şema ve SQL ile ölçer.
+// Veri sabit tohumla üretilir; koşular arasında karşılaştırılabilir.
+// ./gradlew :note-core:jmh  (sonuçlar build/results/jmh/results.json)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NoteStoreBenchmark {
+
+    private static final String[] WORDS = {
+            "toplantı", "bütçe", "alışveriş", "ödev", "proje", "tatil", "doktor", "randevu", "kitap", "film",
+            "şirket", "müşteri", "fatura", "ışık", "çiçek", "göl", "ağaç", "yazılım", "sunucu", "veritabanı",
+            "İstanbul", "Ankara", "İzmir", "pazartesi", "cuma", "hafta", "plan", "liste", "fikir", "hatırlatma"
+    };
+    private static final int PAGE_SIZE = 30;
+    private static final long SEED = 42;
+    // Her not bir klasöre (az sayıda, büyük) ve bir etikete (çok sayıda, küçük) konur
+    private static final int FOLDERS = 20;
+    private static final int TAGS = 2000;
+
+    @Param({"1000", "10000", "100000"})
+    public int notes;
+
+    private File file;
+    private JdbcNoteStore store;
+    private Random random;
+    private long[] ids;
+    // Derin sayfa: listenin yaklaşık ortasından başlayan anahtar
+    private NoteQuery.PageKey middleKey;
+    // Tek klasör ve klasör + etiket süzgeçleri (küçük küme önce, bkz. NoteTag.filterIds)
+    private long[] folderFilter;
+    private long[] folderAndTagFilter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = File.createTempFile("note-bench", ".db");
+        file.delete();
+        store = JdbcNoteStore.open(file.getPath());
+        random = new Random(SEED);
+        ids = new long[notes];
+        store.runInTransaction(() -> {
+            for (int i = 0; i < notes; i++) {
+                ids[i] = store.saveNote(-1, sentence(3), paragraph(), i).getId();
+            }
+        });
+        NoteQuery.PageKey key = null;
+        for (int i = 0; i < notes / 2; i += PAGE_SIZE) {
+            List<NoteModel> page = store.loadNotePage(NoteQuery.page(NoteQuery.SortOrder.DATE, false, key, PAGE_SIZE));
+            key = NoteQuery.PageKey.after(NoteQuery.SortOrder.DATE, page.get(page.size() - 1));
+        }
+        middleKey = key;
+        setUpTags();
+    }
+
+    private void setUpTags() {
+        List<List<Long>> folders = new ArrayList<>();
+        List<List<Long>> tags = new ArrayList<>();
+        for (int i = 0; i < FOLDERS; i++) {
+            folders.add(new ArrayList<>());
+        }
+        for (int i = 0; i < TAGS; i++) {
+            tags.add(new ArrayList<>());
+        }
+        for (long id : ids) {
+            folders.get(random.nextInt(FOLDERS)).add(id);
+            tags.get(random.nextInt(TAGS)).add(id);
+        }
+        // Küçük etiketin notlarından bazıları ilk klasöre de konur; kesişim boş kalmasın
+        tags.get(0).addAll(folders.get(0).subList(0, Math.min(folders.get(0).size(), notes / TAGS + 1)));
+        long[] folderIds = new long[FOLDERS];
+        long[] tagIds = new long[TAGS];
+        store.runInTransaction(() -> {
+            for (int i = 0; i < FOLDERS; i++) {
+                folderIds[i] = store.tagNotes("klasör " + i, toArray(folders.get(i)));
+            }
+            for (int i = 0; i < TAGS; i++) {
+                tagIds[i] = store.tagNotes("etiket " + i, toArray(tags.get(i)));
+            }
+        });
+        folderFilter = new long[]{folderIds[0]};
+        folderAndTagFilter = new long[]{tagIds[0], folderIds[0]};
+    }
+
+    private static long[] toArray(List<Long> values) {
+        long[] array = new long[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.close();
+        for (String suffix : new String[]{"", "-wal", "-shm"}) {
+            new File(file.getPath() + suffix).delete();
+        }
+    }
+
+    @Benchmark
+    public long insert() {
+        return store.saveNote(-1, sentence(3), paragraph(), System.currentTimeMillis()).getId();
+    }
+
+    @Benchmark
+    public NoteModel update() {
+        long id = ids[random.nextInt(ids.length)];
+        return store.saveNote(id, sentence(3), paragraph(), System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public List<NoteModel> search() {
+        // Yazarken yapılan önek araması (prefix="3" indeksine denk gelir)
+        String word = WORDS[random.nextInt(WORDS.length)];
+        List<String> terms = SearchText.terms(word.substring(0, Math.min(4, word.length())));
+        return store.loadNotesByIds(store.searchNoteIds(SearchText.matchExpression(terms), new long[0], 200));
+    }
+
+    @Benchmark
+    public List<NoteModel> sortByTitle() {
+        return store.loadNotePage(NoteQuery.page(NoteQuery.SortOrder.TITLE, false, null, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<NoteModel> sortByDate() {
+        return store.loadNotePage(NoteQuery.page(NoteQuery.SortOrder.DATE, false, null, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<NoteModel> deepPage() {
+        return store.loadNotePage(NoteQuery.page(NoteQuery.SortOrder.DATE, false, middleKey, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<NoteModel> folderPage() {
+        return store.loadNotePage(NoteQuery.page(NoteQuery.SortOrder.DATE, false, folderFilter, null, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<NoteModel> folderAndTagPage() {
+        return store.loadNotePage(NoteQuery.page(NoteQuery.SortOrder.TITLE, false, folderAndTagFilter, null,
+                PAGE_SIZE));
+    }
+
+    // Etiket listesi sayılarıyla: binlerce etikette de sayım yapılmaz, saklanan sayılar okunur
+    @Benchmark
+    public List<NoteTag> loadTags() {
+        return store.loadTags();
+    }
+
+    @Benchmark
+    public long[] folderSearch() {
+        return store.searchNoteIds(SearchText.matchExpression(SearchText.terms("proj")), folderFilter, PAGE_SIZE);
+    }
+
+    private String sentence(int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private String paragraph() {
+        StringBuilder text = new StringBuilder();
+        int sentences = 3 + random.nextInt(20);
+        for (int i = 0; i < sentences; i++) {
+            text.append(sentence(6 + random.nextInt(10))).append(".\n");
+        }
+        return text.toString();
+    }
+}
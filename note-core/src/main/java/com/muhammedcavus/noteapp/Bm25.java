@@ -0,0 +1,56 @@
+package com.muhammedcavus.noteapp;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// FTS4 matchinfo(..., 'pcnalx') çıktısından BM25 puanı; FTS4'te yerleşik sıralama fonksiyonu yok
+public final class Bm25 {
+
+    public static final String MATCHINFO_FORMAT = "pcnalx";
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private Bm25() {
+    }
+
+    // matchinfo blob'u yerel bayt sırasında işaretsiz 32 bit tam sayılardır
+    public static int[] decode(byte[] blob) {
+        ByteBuffer buffer = ByteBuffer.wrap(blob).order(ByteOrder.nativeOrder());
+        int[] values = new int[blob.length / 4];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = buffer.getInt();
+        }
+        return values;
+    }
+
+    // weights: sütun ağırlıkları (ör. başlık eşleşmesi içerikten değerli); yüksek puan daha alakalı
+    public static double score(int[] matchinfo, double[] weights) {
+        int phraseCount = matchinfo[0];
+        int columnCount = matchinfo[1];
+        double totalDocs = matchinfo[2];
+        int avgOffset = 3;
+        int lengthOffset = avgOffset + columnCount;
+        int hitsOffset = lengthOffset + columnCount;
+
+        double score = 0;
+        for (int phrase = 0; phrase < phraseCount; phrase++) {
+            for (int column = 0; column < columnCount; column++) {
+                int base = hitsOffset + 3 * (phrase * columnCount + column);
+                double hitsInRow = matchinfo[base];
+                double docsWithHits = matchinfo[base + 2];
+                if (hitsInRow == 0) {
+                    continue;
+                }
+                double avgLength = Math.max(1, matchinfo[avgOffset + column]);
+                double length = matchinfo[lengthOffset + column];
+                double idf = Math.log(1 + (totalDocs - docsWithHits + 0.5) / (docsWithHits + 0.5));
+                double tf = hitsInRow * (K1 + 1)
+                        / (hitsInRow + K1 * (1 - B + B * length / avgLength));
+                double weight = column < weights.length ? weights[column] : 1.0;
+                score += weight * idf * tf;
+            }
+        }
+        return score;
+    }
+}
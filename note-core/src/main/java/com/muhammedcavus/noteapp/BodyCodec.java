@@ -0,0 +1,100 @@
+package com.muhammedcavus.noteapp;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Not parçalarının diskte isteğe bağlı sıkıştırılması: ham Deflate + küçük ortak sözlük. Sözlük kısa
+// parçalarda bile sık kelimelerin ilk geçişini geri referansa çevirir. Sözlük değişirse yeni bir kodek
+// numarası verilmeli; eski satırlar kendi numarasıyla çözülmeye devam eder.
+public final class BodyCodec {
+
+    public static final int PLAIN = 0;
+    public static final int DEFLATE_V1 = 1;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    // Deflate sözlüğü: en sık kullanılanlar sona yakın olmalı (daha kısa uzaklıkla kodlanır)
+    private static final byte[] DICTIONARY_V1 = (" the of and to in is that for with on as this are be"
+            + " http https www com .com .org .net\n- [ ] * 1. 2. 3. \n\n"
+            + " değil diye kadar sonra önce şimdi bugün yarın toplantı proje liste yapılacak not notlar"
+            + " gibi daha çok ama ancak veya ya da ise için ile olan olarak bir bu şu o ve de da ").getBytes(UTF_8);
+
+    private static final AtomicLong encodedChunks = new AtomicLong();
+    private static final AtomicLong plainBytes = new AtomicLong();
+    private static final AtomicLong storedBytes = new AtomicLong();
+    private static final AtomicLong decodedChunks = new AtomicLong();
+    private static final AtomicLong decodeNanos = new AtomicLong();
+
+    private BodyCodec() {
+    }
+
+    // Sıkıştırılmış bayt dizisi; kazanç yoksa null (parça düz metin olarak saklanmalı)
+    public static byte[] compress(String text) {
+        byte[] plain = text.getBytes(UTF_8);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setDictionary(DICTIONARY_V1);
+            deflater.setInput(plain);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(plain.length / 2 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+                if (out.size() >= plain.length) {
+                    return null;
+                }
+            }
+            byte[] compressed = out.toByteArray();
+            encodedChunks.incrementAndGet();
+            plainBytes.addAndGet(plain.length);
+            storedBytes.addAndGet(compressed.length);
+            return compressed;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static String decompress(int codec, byte[] data) {
+        if (codec != DEFLATE_V1) {
+            throw new IllegalArgumentException("Bilinmeyen kodek: " + codec);
+        }
+        long start = System.nanoTime();
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setDictionary(DICTIONARY_V1);
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 3);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Parça verisi eksik veya bozuk");
+                }
+                out.write(buffer, 0, count);
+            }
+            return new String(out.toByteArray(), UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Parça verisi bozuk", e);
+        } finally {
+            inflater.end();
+            decodedChunks.incrementAndGet();
+            decodeNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    // Süreç başından beri: sıkıştırılan parçalar, kazanılan bayt ve parça başına ortalama çözme süresi
+    public static String stats() {
+        long in = plainBytes.get();
+        long out = storedBytes.get();
+        long decoded = decodedChunks.get();
+        return "sıkıştırılan parça=" + encodedChunks.get()
+                + " düz=" + in + " B sıkışık=" + out + " B kazanç=" + (in - out) + " B"
+                + (in == 0 ? "" : " (%" + (100 * (in - out) / in) + ")")
+                + "\nçözülen parça=" + decoded
+                + " ortalama çözme=" + (decoded == 0 ? 0 : decodeNanos.get() / decoded / 1000) + " µs";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,256 @@
+package com.muhammedcavus.noteapp;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+// Hızlı not yakalama günlüğü: yakalanan not veritabanına değil, sadece sona eklenen küçük bir dosyaya
+// yazılır ve fsync edilir; veritabanı beklenmez. Notlar sonra arka planda gruplar halinde tabloya aktarılır
+// (read + discard). Kayıt biçimi: yük uzunluğu (int), yükün CRC32'si (int), yük. Yük: zaman (long),
+// kimlik, başlık, içerik (int uzunluklu UTF-8). Açılışta yarım yazılmış son kayıt atılır.
+public final class CaptureJournal implements Closeable {
+
+    // Paylaşımla gelen metin bile bundan büyük olmaz; bozuk uzunluk alanı dev bir ayırmaya yol açmasın
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+    private static final int HEADER_BYTES = 8;
+
+    // Yakalanan not. id notun senkronizasyon kimliği olur; aktarım bir çökme yüzünden tekrarlanırsa
+    // aynı not ikinci kez eklenmez
+    public static final class Entry {
+        public final String id;
+        public final String title;
+        public final String content;
+        public final long createdAt;
+
+        public Entry(String id, String title, String content, long createdAt) {
+            this.id = id;
+            this.title = title;
+            this.content = content;
+            this.createdAt = createdAt;
+        }
+    }
+
+    // Günlüğün başındaki kayıtlar; aktarıldıktan sonra discard(end) ile atılır
+    public static final class Batch {
+        public final List<Entry> entries;
+        public final long end;
+
+        Batch(List<Entry> entries, long end) {
+            this.entries = entries;
+            this.end = end;
+        }
+    }
+
+    private final File file;
+    private RandomAccessFile raf;
+    private FileChannel channel;
+    // Geçerli kayıtların bittiği yer; yeni kayıt buraya yazılır
+    private long size;
+
+    private CaptureJournal(File file) throws IOException {
+        this.file = file;
+        openFile();
+    }
+
+    // Günlüğü açar (yoksa oluşturur). Yarım kalmış kayıttan itibaren dosya kesilir: fsync'ten önce çöken
+    // yazma yakalanmış sayılmaz. Yarım kalmış bir discard'ın geçici dosyası silinir
+    public static CaptureJournal open(File file) throws IOException {
+        File temp = tempFile(file);
+        if (temp.exists() && !temp.delete()) {
+            throw new IOException("Geçici günlük silinemedi: " + temp);
+        }
+        CaptureJournal journal = new CaptureJournal(file);
+        long valid = journal.scan();
+        if (valid < journal.channel.size()) {
+            journal.channel.truncate(valid);
+            journal.channel.force(true);
+        }
+        journal.size = valid;
+        return journal;
+    }
+
+    // Notu günlüğe ekler ve diske yazılana kadar bekler (veritabanına dokunmaz)
+    public synchronized Entry append(String title, String content, long now) throws IOException {
+        Entry entry = new Entry(UUID.randomUUID().toString().replace("-", ""),
+                title == null ? "" : title, content == null ? "" : content, now);
+        ByteBuffer record = encode(entry);
+        long position = size;
+        while (record.hasRemaining()) {
+            position += channel.write(record, position);
+        }
+        channel.force(false);
+        size = position;
+        return entry;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Baştan en fazla maxEntries kayıt
+    public synchronized Batch read(int maxEntries) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        long position = 0;
+        while (position < size && entries.size() < maxEntries) {
+            ByteBuffer payload = readPayload(position);
+            if (payload == null) {
+                throw new IOException("Bozuk günlük kaydı: " + position);
+            }
+            entries.add(decode(payload));
+            position += HEADER_BYTES + payload.capacity();
+        }
+        return new Batch(entries, position);
+    }
+
+    // Başından end'e kadarki (aktarılmış) kayıtları atar. Arada eklenen kayıtlar varsa kalan kısım geçici
+    // dosyaya yazılıp yerine taşınır; çökme olursa ya eski ya yeni dosya kalır, eski kalırsa kayıtlar
+    // tekrar aktarılır ve kimlikleri sayesinde atlanır
+    public synchronized void discard(long end) throws IOException {
+        if (end <= 0) {
+            return;
+        }
+        if (end >= size) {
+            channel.truncate(0);
+            channel.force(true);
+            size = 0;
+            return;
+        }
+        File temp = tempFile(file);
+        try (RandomAccessFile out = new RandomAccessFile(temp, "rw")) {
+            FileChannel target = out.getChannel();
+            long position = end;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+            target.force(true);
+        }
+        long remaining = size - end;
+        close();
+        if (!temp.renameTo(file)) {
+            openFile();
+            throw new IOException("Günlük değiştirilemedi: " + file);
+        }
+        openFile();
+        size = remaining;
+    }
+
+    // Günlüğün başındaki en fazla maxEntries kaydı depoya aktarır ve atar; aktarılan kayıt sayısı döner.
+    // Veritabanı işi sırasında günlük kilitli değildir, yakalamalar beklemez. Aynı anda tek aktarım çalışmalı
+    // (NoteRepository'de yazma kuyruğu)
+    public int drainTo(NoteStore store, int maxEntries) throws IOException {
+        Batch batch = read(maxEntries);
+        if (batch.entries.isEmpty()) {
+            return 0;
+        }
+        store.saveCaptures(batch.entries);
+        discard(batch.end);
+        return batch.entries.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        raf.close();
+    }
+
+    private void openFile() throws IOException {
+        raf = new RandomAccessFile(file, "rw");
+        channel = raf.getChannel();
+    }
+
+    private static File tempFile(File file) {
+        return new File(file.getPath() + ".tmp");
+    }
+
+    // Baştan itibaren sağlam kayıtların bittiği yer
+    private long scan() throws IOException {
+        long length = channel.size();
+        long position = 0;
+        while (position < length) {
+            ByteBuffer payload = readPayload(position);
+            if (payload == null) {
+                break;
+            }
+            position += HEADER_BYTES + payload.capacity();
+        }
+        return position;
+    }
+
+    // Kaydın yükü; kayıt yarım ya da CRC tutmuyorsa null
+    private ByteBuffer readPayload(long position) throws IOException {
+        long length = channel.size();
+        if (length - position < HEADER_BYTES) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(header, position);
+        int payloadLength = header.getInt(0);
+        if (payloadLength < 0 || payloadLength > MAX_RECORD_BYTES
+                || length - position - HEADER_BYTES < payloadLength) {
+            return null;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(payloadLength);
+        readFully(payload, position + HEADER_BYTES);
+        CRC32 crc = new CRC32();
+        crc.update(payload.array(), 0, payloadLength);
+        if ((int) crc.getValue() != header.getInt(4)) {
+            return null;
+        }
+        payload.rewind();
+        return payload;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Günlük beklenenden kısa");
+            }
+        }
+    }
+
+    private static ByteBuffer encode(Entry entry) throws IOException {
+        byte[] id = entry.id.getBytes(StandardCharsets.UTF_8);
+        byte[] title = entry.title.getBytes(StandardCharsets.UTF_8);
+        byte[] content = entry.content.getBytes(StandardCharsets.UTF_8);
+        int payloadLength = 8 + 12 + id.length + title.length + content.length;
+        if (payloadLength > MAX_RECORD_BYTES) {
+            throw new IOException("Not günlük için çok büyük");
+        }
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + payloadLength);
+        record.putInt(payloadLength).putInt(0).putLong(entry.createdAt);
+        record.putInt(id.length).put(id);
+        record.putInt(title.length).put(title);
+        record.putInt(content.length).put(content);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), HEADER_BYTES, payloadLength);
+        record.putInt(4, (int) crc.getValue());
+        record.flip();
+        return record;
+    }
+
+    private static Entry decode(ByteBuffer payload) throws IOException {
+        long createdAt = payload.getLong();
+        String id = readString(payload);
+        String title = readString(payload);
+        String content = readString(payload);
+        return new Entry(id, title, content, createdAt);
+    }
+
+    private static String readString(ByteBuffer payload) throws IOException {
+        int length = payload.getInt();
+        if (length < 0 || length > payload.remaining()) {
+            throw new IOException("Bozuk günlük kaydı");
+        }
+        String value = new String(payload.array(), payload.position(), length, StandardCharsets.UTF_8);
+        payload.position(payload.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,29 @@
+package com.muhammedcavus.noteapp;
+
+import java.util.List;
+
+// Üçlü (trigram) indeksinin depodan istedikleri (bkz. NoteGrams). DBHelper ve JdbcNoteStore uygular;
+// tablolar NoteSchema.gramStatements'ta.
+public interface GramStore {
+
+    // Notun kodlanmış üçlü kümesi; not indekslenmemişse null
+    byte[] loadGramSet(long noteId);
+
+    // grams null ise notun kümesi silinir
+    void saveGramSet(long noteId, byte[] grams);
+
+    // Bir üçlünün bir id bloğundaki kodlanmış not id'leri; yoksa null
+    byte[] loadGramBlock(long gram, long block);
+
+    // count 0 ise blok silinir
+    void saveGramBlock(long gram, long block, int count, byte[] ids);
+
+    // Üçlünün bütün blokları, blok sırasıyla
+    List<byte[]> loadGramPostings(long gram);
+
+    // En büyük not id'si (not yoksa 0); puanlamada toplam not sayısı yerine
+    long maxNoteId();
+
+    // Arşivlenmiş notların id'leri artan sırada; arama bunları sıralamadan önce eler
+    long[] loadArchivedNoteIds();
+}
@@ -0,0 +1,888 @@
+package com.muhammedcavus.noteapp;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// JVM'de (testler, benchmark) SQLite'a JDBC ile erişen depo. Şema ve sorgular DBHelper ile aynıdır;
+// sürücü (ör. org.xerial:sqlite-jdbc) çalışma zamanında sınıf yolunda olmalı.
+// Geçişler sadece Android'de yapılır: boş dosyada güncel şema kurulur, eski sürüm açılmaz.
+// Parça gövdeleri her zaman düz metin yazılır (sıkıştırma ayarı uygulamaya aittir).
+public final class JdbcNoteStore implements NoteStore, SyncStore, GramStore, AutoCloseable {
+
+    private final Connection connection;
+    // Derlenmiş sorgular SQL metnine göre tekrar kullanılır
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+    // Başlık sıralama anahtarları için (bkz. TitleKeys)
+    private Collator titleCollator = TitleKeys.collator(Locale.getDefault());
+
+    private JdbcNoteStore(Connection connection) {
+        this.connection = connection;
+    }
+
+    public static JdbcNoteStore open(String path) {
+        try {
+            Connection connection = DriverManager.getConnection("jdbc:sqlite:" + path);
+            JdbcNoteStore store = new JdbcNoteStore(connection);
+            store.initialize();
+            return store;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Veritabanı açılamadı: " + path, e);
+        }
+    }
+
+    private void initialize() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            // Uygulamadaki gibi WAL; commit başına fsync yerine checkpoint'te
+            statement.execute("PRAGMA journal_mode=WAL");
+            statement.execute("PRAGMA synchronous=NORMAL");
+            int version;
+            try (ResultSet rs = statement.executeQuery("PRAGMA user_version")) {
+                version = rs.next() ? rs.getInt(1) : 0;
+            }
+            if (version == 0) {
+                connection.setAutoCommit(false);
+                try {
+                    for (String sql : NoteSchema.createStatements()) {
+                        statement.execute(sql);
+                    }
+                    statement.execute("PRAGMA user_version = " + NoteSchema.VERSION);
+                    connection.commit();
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            } else if (version != NoteSchema.VERSION) {
+                throw new IllegalStateException("Desteklenmeyen şema sürümü: " + version);
+            }
+        }
+    }
+
+    // Birden fazla işlemi tek commit'te yapar (toplu ekleme); hata olursa hepsi geri alınır.
+    // Açık bir transaction içinden çağrılırsa iş dıştaki transaction'a katılır.
+    @Override
+    public void runInTransaction(Runnable work) {
+        try {
+            if (!connection.getAutoCommit()) {
+                work.run();
+                return;
+            }
+            connection.setAutoCommit(false);
+            try {
+                work.run();
+                connection.commit();
+            } catch (RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Bundan sonra yazılan başlık anahtarları bu yerel ayarla üretilir
+    public void setTitleLocale(Locale locale) {
+        titleCollator = TitleKeys.collator(locale);
+    }
+
+    @Override
+    public NoteModel saveNote(long id, String title, String content, long now) {
+        String body = content == null ? "" : content;
+        final NoteModel[] saved = new NoteModel[1];
+        runInTransaction(() -> {
+            saved[0] = id == -1 ? insertNote(title, body, now) : updateNote(id, title, body, now);
+            if (saved[0] != null) {
+                NoteGrams.update(this, new long[]{saved[0].getId()}, new long[][]{NoteGrams.noteGrams(title, body)});
+            }
+        });
+        return saved[0];
+    }
+
+    private NoteModel insertNote(String title, String body, long now) {
+        NoteChunks.Plan plan = NoteChunks.plan(null, new ArrayList<NoteChunks.Info>(), body);
+        try {
+            PreparedStatement insert = statement(NoteSchema.SQL_INSERT_NOTE);
+            insert.setString(1, title);
+            insert.setString(2, plan.head);
+            insert.setInt(3, plan.tailChunks);
+            insert.setLong(4, now);
+            insert.setLong(5, now);
+            insert.setInt(6, NoteText.wordCount(body));
+            String titleKey = TitleKeys.key(titleCollator, title);
+            insert.setString(7, titleKey);
+            insert.executeUpdate();
+            long id;
+            try (ResultSet rs = statement("SELECT last_insert_rowid()").executeQuery()) {
+                rs.next();
+                id = rs.getLong(1);
+            }
+            writeChunks(id, plan, body, false);
+            return savedNote(id, title, titleKey, plan.head, plan.tailChunks, now);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int saveCaptures(List<CaptureJournal.Entry> entries) {
+        final int[] saved = new int[1];
+        long[] ids = new long[entries.size()];
+        long[][] grams = new long[entries.size()][];
+        runInTransaction(() -> {
+            try {
+                PreparedStatement insert = statement(NoteSchema.SQL_INSERT_CAPTURED_NOTE);
+                for (CaptureJournal.Entry entry : entries) {
+                    NoteChunks.Plan plan = NoteChunks.plan(null, new ArrayList<NoteChunks.Info>(), entry.content);
+                    insert.setString(1, entry.title);
+                    insert.setString(2, plan.head);
+                    insert.setInt(3, plan.tailChunks);
+                    insert.setLong(4, entry.createdAt);
+                    insert.setLong(5, entry.createdAt);
+                    insert.setInt(6, NoteText.wordCount(entry.content));
+                    insert.setString(7, TitleKeys.key(titleCollator, entry.title));
+                    insert.setString(8, entry.id);
+                    if (insert.executeUpdate() == 0) {
+                        continue;
+                    }
+                    long id;
+                    try (ResultSet rs = statement("SELECT last_insert_rowid()").executeQuery()) {
+                        rs.next();
+                        id = rs.getLong(1);
+                    }
+                    writeChunks(id, plan, entry.content, false);
+                    ids[saved[0]] = id;
+                    grams[saved[0]] = NoteGrams.noteGrams(entry.title, entry.content);
+                    saved[0]++;
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            NoteGrams.update(this, Arrays.copyOf(ids, saved[0]), Arrays.copyOf(grams, saved[0]));
+        });
+        return saved[0];
+    }
+
+    private NoteModel updateNote(long id, String title, String body, long now) {
+        try {
+            String oldTitle;
+            String oldHead;
+            String titleKey;
+            PreparedStatement select = statement(NoteSchema.SQL_SELECT_NOTE_HEAD);
+            select.setLong(1, id);
+            try (ResultSet rs = select.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                oldTitle = rs.getString(1);
+                oldHead = rs.getString(2);
+                if (oldHead == null) {
+                    oldHead = "";
+                }
+                titleKey = rs.getString(3);
+            }
+
+            NoteChunks.Plan plan = NoteChunks.plan(oldHead, queryChunkInfos(id), body);
+            String head = plan.head != null ? plan.head : oldHead;
+            PreparedStatement update;
+            boolean titleChanged = title == null ? oldTitle != null : !title.equals(oldTitle);
+            if (plan.head != null || titleChanged) {
+                if (titleChanged) {
+                    titleKey = TitleKeys.key(titleCollator, title);
+                }
+                update = statement(NoteSchema.SQL_UPDATE_NOTE);
+                update.setString(1, title);
+                update.setString(2, head);
+                update.setInt(3, plan.tailChunks);
+                update.setLong(4, now);
+                update.setInt(5, NoteText.wordCount(body));
+                update.setString(6, titleKey);
+                update.setLong(7, id);
+            } else {
+                update = statement(NoteSchema.SQL_UPDATE_NOTE_TAIL);
+                update.setInt(1, plan.tailChunks);
+                update.setLong(2, now);
+                update.setInt(3, NoteText.wordCount(body));
+                update.setLong(4, id);
+            }
+            update.executeUpdate();
+            writeChunks(id, plan, body, titleChanged);
+            return savedNote(id, title, titleKey, head, plan.tailChunks, now);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<NoteChunks.Info> queryChunkInfos(long id) throws SQLException {
+        List<NoteChunks.Info> infos = new ArrayList<>();
+        PreparedStatement select = statement(NoteSchema.SQL_SELECT_CHUNK_INFO);
+        select.setLong(1, id);
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                infos.add(new NoteChunks.Info(rs.getLong(1), rs.getInt(2), rs.getLong(3)));
+            }
+        }
+        return infos;
+    }
+
+    // body notun tam gövdesidir; parçalı notun FTS satırı ondan yazılır (bkz. NoteChunks.Plan.isSearchTextStale)
+    private void writeChunks(long id, NoteChunks.Plan plan, String body, boolean titleChanged) throws SQLException {
+        if (!plan.deletes.isEmpty()) {
+            PreparedStatement delete = statement(NoteSchema.SQL_DELETE_CHUNK);
+            for (long seq : plan.deletes) {
+                delete.setLong(1, id);
+                delete.setLong(2, seq);
+                delete.executeUpdate();
+            }
+        }
+        if (!plan.inserts.isEmpty()) {
+            PreparedStatement insert = statement(NoteSchema.SQL_INSERT_CHUNK);
+            for (NoteChunks.Chunk chunk : plan.inserts) {
+                insert.setLong(1, id);
+                insert.setLong(2, chunk.seq);
+                insert.setInt(3, chunk.body.length());
+                insert.setLong(4, NoteChunks.hash(chunk.body, 0, chunk.body.length()));
+                insert.setInt(5, BodyCodec.PLAIN);
+                insert.setString(6, chunk.body);
+                insert.executeUpdate();
+            }
+        }
+        if (plan.isSearchTextStale(titleChanged)) {
+            PreparedStatement update = statement(NoteSchema.SQL_UPDATE_SEARCH_CONTENT);
+            update.setString(1, NoteSchema.foldForIndex(body));
+            update.setLong(2, id);
+            update.executeUpdate();
+        }
+    }
+
+    private static NoteModel savedNote(long id, String title, String titleKey, String head, int tailChunks, long now) {
+        NoteModel note = new NoteModel(id, title, head, now);
+        note.setTailChunks(tailChunks);
+        note.setTitleKey(titleKey);
+        return note;
+    }
+
+    @Override
+    public int deleteNote(long id) {
+        final int[] deleted = new int[1];
+        runInTransaction(() -> {
+            NoteGrams.remove(this, new long[]{id});
+            try {
+                PreparedStatement delete = statement(NoteSchema.SQL_DELETE_NOTE);
+                delete.setLong(1, id);
+                deleted[0] = delete.executeUpdate();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return deleted[0];
+    }
+
+    @Override
+    public NoteModel loadNote(long id) {
+        try {
+            PreparedStatement select = statement(NoteSchema.SQL_SELECT_NOTE);
+            select.setLong(1, id);
+            List<NoteModel> notes = readNotes(select);
+            return notes.isEmpty() ? null : notes.get(0);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Büyük notun ilk parçadan sonraki gövdesi (afterSeq'ten sonraki en fazla limit parça), birleştirilmiş
+    public String loadTail(long noteId, long afterSeq, int limit) {
+        try {
+            PreparedStatement select = statement(NoteSchema.SQL_SELECT_CHUNKS);
+            select.setLong(1, noteId);
+            select.setLong(2, afterSeq);
+            select.setInt(3, limit);
+            StringBuilder text = new StringBuilder();
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    int codec = rs.getInt(2);
+                    text.append(codec == BodyCodec.PLAIN ? rs.getString(3)
+                            : BodyCodec.decompress(codec, rs.getBytes(3)));
+                }
+            }
+            return text.toString();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public List<NoteModel> loadNotePage(NoteQuery query) {
+        try {
+            PreparedStatement select = statement(query.sql);
+            for (int i = 0; i < query.args.length; i++) {
+                select.setString(i + 1, query.args[i]);
+            }
+            return readSummaries(select);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public long[] searchNoteIds(String matchExpression, long[] tagIds, int limit) {
+        try {
+            if (tagIds.length == 0) {
+                return search(statement(NoteSchema.SQL_SEARCH), matchExpression, limit);
+            }
+            // Etiket id'leri SQL'in içinde; önbelleğe alınmaz
+            try (PreparedStatement select = connection.prepareStatement(NoteSchema.searchSql(tagIds))) {
+                return search(select, matchExpression, limit);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long[] search(PreparedStatement select, String matchExpression, int limit) throws SQLException {
+        select.setString(1, matchExpression);
+        SearchRanking ranking = new SearchRanking();
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                ranking.add(rs.getLong(1), rs.getBytes(2));
+            }
+        }
+        return ranking.top(limit);
+    }
+
+    @Override
+    public List<NoteModel> loadNotesByIds(long[] ids) {
+        // IN listesi her seferinde farklı; önbelleğe alınmaz
+        try (PreparedStatement select = connection.prepareStatement(NoteSchema.selectNotesByIdsSql(ids))) {
+            return readNotes(select);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public long changeGeneration() {
+        try (ResultSet rs = statement(NoteSchema.SQL_SELECT_GENERATION).executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public NoteChanges loadChanges(long afterGeneration, boolean archived, long[] tagIds, int limit) {
+        try {
+            PreparedStatement select = statement(NoteSchema.SQL_SELECT_CHANGES);
+            select.setLong(1, afterGeneration);
+            // Bir fazlası okunur: sınırın aşıldığı böyle anlaşılır
+            select.setInt(2, limit + 1);
+            long[] ids = new long[limit + 1];
+            int count = 0;
+            long generation = afterGeneration;
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    ids[count++] = rs.getLong(1);
+                    generation = rs.getLong(2);
+                }
+            }
+            if (count > limit) {
+                return new NoteChanges(afterGeneration, new long[0], new ArrayList<NoteModel>(), false);
+            }
+            long[] changed = Arrays.copyOf(ids, count);
+            List<NoteModel> notes = new ArrayList<>();
+            if (count > 0) {
+                try (PreparedStatement summaries = connection.prepareStatement(
+                        NoteSchema.selectSummariesByIdsSql(changed, archived, tagIds))) {
+                    notes = readSummaries(summaries);
+                }
+            }
+            return new NoteChanges(generation, changed, notes, true);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public NoteChanges loadUnsyncedChanges(long afterGeneration, int limit) {
+        try {
+            PreparedStatement select = statement(NoteSchema.SQL_SELECT_UNSYNCED_CHANGES);
+            select.setLong(1, afterGeneration);
+            select.setInt(2, limit + 1);
+            long[] ids = new long[limit];
+            int count = 0;
+            long generation = afterGeneration;
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next() && count < limit) {
+                    ids[count++] = rs.getLong(1);
+                    generation = rs.getLong(2);
+                }
+                if (rs.next()) {
+                    return new NoteChanges(generation, ids, new ArrayList<NoteModel>(), false);
+                }
+            }
+            // Bu nesilden sonrası sunucudan gelmiş değişikliklerdir; bir dahaki okuma onları atlar
+            return new NoteChanges(changeGeneration(), Arrays.copyOf(ids, count), new ArrayList<NoteModel>(), true);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public long[] loadSyncNoteIds(long afterId, int limit) {
+        try {
+            PreparedStatement select = statement(NoteSchema.SQL_SELECT_SYNC_NOTE_IDS);
+            select.setLong(1, afterId);
+            select.setInt(2, limit);
+            long[] ids = new long[limit];
+            int count = 0;
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    ids[count++] = rs.getLong(1);
+                }
+            }
+            return Arrays.copyOf(ids, count);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public SyncRecord loadSyncRecord(long noteId) {
+        try {
+            PreparedStatement select = statement(NoteSchema.SQL_SELECT_SYNC_NOTE);
+            select.setLong(1, noteId);
+            SyncRecord record = readSyncNote(select);
+            if (record != null) {
+                return record;
+            }
+            PreparedStatement tombstone = statement(NoteSchema.SQL_SELECT_TOMBSTONE);
+            tombstone.setLong(1, noteId);
+            return readTombstone(tombstone);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public SyncRecord findSyncRecord(String syncId) {
+        try {
+            PreparedStatement select = statement(NoteSchema.SQL_SELECT_SYNC_NOTE_BY_SYNC_ID);
+            select.setString(1, syncId);
+            SyncRecord record = readSyncNote(select);
+            if (record != null) {
+                return record;
+            }
+            PreparedStatement tombstone = statement(NoteSchema.SQL_SELECT_TOMBSTONE_BY_SYNC_ID);
+            tombstone.setString(1, syncId);
+            return readTombstone(tombstone);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void markSynced(long noteId, SyncRecord record) {
+        try {
+            if (record.deleted) {
+                PreparedStatement update = statement(NoteSchema.SQL_MARK_TOMBSTONE_SYNCED);
+                update.setString(1, record.syncId);
+                update.setLong(2, record.version);
+                update.setLong(3, record.updatedAt);
+                update.setLong(4, noteId);
+                update.executeUpdate();
+                return;
+            }
+            PreparedStatement clear = statement(NoteSchema.SQL_CLEAR_TOMBSTONE);
+            clear.setString(1, record.syncId);
+            clear.executeUpdate();
+            PreparedStatement meta = statement(NoteSchema.SQL_APPLY_SYNC_META);
+            meta.setString(1, record.syncId);
+            meta.setLong(2, record.version);
+            meta.setLong(3, record.createdAt);
+            meta.setInt(4, record.archived ? 1 : 0);
+            meta.setLong(5, noteId);
+            meta.executeUpdate();
+            PreparedStatement mark = statement(NoteSchema.SQL_MARK_SYNCED);
+            mark.setLong(1, noteId);
+            mark.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void markPushed(long[] noteIds, long maxGeneration) {
+        runInTransaction(() -> {
+            try {
+                PreparedStatement mark = statement(NoteSchema.SQL_MARK_PUSHED);
+                for (long id : noteIds) {
+                    mark.setLong(1, id);
+                    mark.setLong(2, maxGeneration);
+                    mark.executeUpdate();
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    // Yazım hatalarına dayanıklı arama (bkz. NoteGrams); benzerliğe göre azalan sırada en fazla limit id
+    public long[] fuzzySearchNoteIds(String query, int limit) {
+        return NoteGrams.search(this, SearchText.terms(query), limit);
+    }
+
+    // Etiket süzgeciyle: sadece verilen etiketlerin hepsini taşıyan arşivlenmemiş notlar sıralanır
+    public long[] fuzzySearchNoteIds(String query, long[] tagIds, int limit) {
+        if (tagIds.length == 0) {
+            return fuzzySearchNoteIds(query, limit);
+        }
+        // Etiket id'leri SQL'in içinde; önbelleğe alınmaz
+        try (PreparedStatement select = connection.prepareStatement(NoteSchema.selectTaggedNoteIdsSql(tagIds))) {
+            select.setInt(1, 0);
+            long[] tagged = new long[16];
+            int count = 0;
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    if (count == tagged.length) {
+                        tagged = Arrays.copyOf(tagged, count * 2);
+                    }
+                    tagged[count++] = rs.getLong(1);
+                }
+            }
+            tagged = Arrays.copyOf(tagged, count);
+            Arrays.sort(tagged);
+            return NoteGrams.search(this, SearchText.terms(query), tagged, limit);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public List<NoteTag> loadTags() {
+        try {
+            return readTags(statement(NoteSchema.SQL_SELECT_TAGS));
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public List<NoteTag> loadNoteTags(long noteId) {
+        try {
+            PreparedStatement select = statement(NoteSchema.SQL_SELECT_NOTE_TAGS);
+            select.setLong(1, noteId);
+            return readTags(select);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public long tagNotes(String name, long[] noteIds) {
+        final long[] tagId = new long[1];
+        runInTransaction(() -> {
+            try {
+                PreparedStatement insert = statement(NoteSchema.SQL_INSERT_TAG);
+                insert.setString(1, name);
+                insert.executeUpdate();
+                PreparedStatement select = statement(NoteSchema.SQL_SELECT_TAG_ID);
+                select.setString(1, name);
+                try (ResultSet rs = select.executeQuery()) {
+                    rs.next();
+                    tagId[0] = rs.getLong(1);
+                }
+                PreparedStatement tag = statement(NoteSchema.SQL_INSERT_NOTE_TAG);
+                for (long noteId : noteIds) {
+                    tag.setLong(1, tagId[0]);
+                    tag.setLong(2, noteId);
+                    tag.executeUpdate();
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return tagId[0];
+    }
+
+    // Arşiv durumunu değiştirir (DBHelper.setArchived); etiket sayıları tetikleyicilerle görünüm değiştirir
+    public int setArchived(long[] ids, boolean archived) {
+        final int[] changed = new int[1];
+        runInTransaction(() -> {
+            try {
+                PreparedStatement update = statement(NoteSchema.SQL_SET_ARCHIVED);
+                for (long id : ids) {
+                    update.setInt(1, archived ? 1 : 0);
+                    update.setLong(2, id);
+                    changed[0] += update.executeUpdate();
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return changed[0];
+    }
+
+    @Override
+    public int untagNotes(long tagId, long[] noteIds) {
+        final int[] removed = new int[1];
+        runInTransaction(() -> {
+            try {
+                PreparedStatement delete = statement(NoteSchema.SQL_DELETE_NOTE_TAG);
+                for (long noteId : noteIds) {
+                    delete.setLong(1, tagId);
+                    delete.setLong(2, noteId);
+                    removed[0] += delete.executeUpdate();
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return removed[0];
+    }
+
+    @Override
+    public boolean renameTag(long tagId, String name) {
+        try {
+            PreparedStatement update = statement(NoteSchema.SQL_RENAME_TAG);
+            update.setString(1, name);
+            update.setLong(2, tagId);
+            return update.executeUpdate() > 0;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int deleteTag(long tagId) {
+        final int[] deleted = new int[1];
+        runInTransaction(() -> {
+            try {
+                PreparedStatement delete = statement(NoteSchema.SQL_DELETE_TAG);
+                delete.setLong(1, tagId);
+                deleted[0] = delete.executeUpdate();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return deleted[0];
+    }
+
+    @Override
+    public byte[] loadGramSet(long noteId) {
+        try {
+            PreparedStatement select = statement(NoteSchema.SQL_SELECT_GRAM_SET);
+            select.setLong(1, noteId);
+            try (ResultSet rs = select.executeQuery()) {
+                return rs.next() ? rs.getBytes(1) : null;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void saveGramSet(long noteId, byte[] grams) {
+        try {
+            PreparedStatement update;
+            if (grams == null) {
+                update = statement(NoteSchema.SQL_DELETE_GRAM_SET);
+                update.setLong(1, noteId);
+            } else {
+                update = statement(NoteSchema.SQL_REPLACE_GRAM_SET);
+                update.setLong(1, noteId);
+                update.setBytes(2, grams);
+            }
+            update.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public byte[] loadGramBlock(long gram, long block) {
+        try {
+            PreparedStatement select = statement(NoteSchema.SQL_SELECT_GRAM_BLOCK);
+            select.setLong(1, gram);
+            select.setLong(2, block);
+            try (ResultSet rs = select.executeQuery()) {
+                return rs.next() ? rs.getBytes(1) : null;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void saveGramBlock(long gram, long block, int count, byte[] ids) {
+        try {
+            PreparedStatement update;
+            if (count == 0) {
+                update = statement(NoteSchema.SQL_DELETE_GRAM_BLOCK);
+                update.setLong(1, gram);
+                update.setLong(2, block);
+            } else {
+                update = statement(NoteSchema.SQL_REPLACE_GRAM_BLOCK);
+                update.setLong(1, gram);
+                update.setLong(2, block);
+                update.setInt(3, count);
+                update.setBytes(4, ids);
+            }
+            update.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public List<byte[]> loadGramPostings(long gram) {
+        try {
+            PreparedStatement select = statement(NoteSchema.SQL_SELECT_GRAM_POSTINGS);
+            select.setLong(1, gram);
+            List<byte[]> blocks = new ArrayList<>();
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    blocks.add(rs.getBytes(1));
+                }
+            }
+            return blocks;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public long maxNoteId() {
+        try (ResultSet rs = statement(NoteSchema.SQL_SELECT_MAX_NOTE_ID).executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public long[] loadArchivedNoteIds() {
+        try (ResultSet rs = statement(NoteSchema.SQL_SELECT_ARCHIVED_NOTE_IDS).executeQuery()) {
+            long[] ids = new long[16];
+            int count = 0;
+            while (rs.next()) {
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count * 2);
+                }
+                ids[count++] = rs.getLong(1);
+            }
+            return Arrays.copyOf(ids, count);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Sütun sırası NoteSchema.SQL_SELECT_SYNC_NOTE ile aynı; gövde parçalarıyla birlikte
+    private SyncRecord readSyncNote(PreparedStatement select) throws SQLException {
+        long id;
+        String syncId;
+        long version;
+        long createdAt;
+        long updatedAt;
+        boolean archived;
+        String title;
+        String content;
+        int tailChunks;
+        try (ResultSet rs = select.executeQuery()) {
+            if (!rs.next()) {
+                return null;
+            }
+            id = rs.getLong(1);
+            syncId = rs.getString(2);
+            version = rs.getLong(3);
+            createdAt = rs.getLong(4);
+            updatedAt = rs.getLong(5);
+            archived = rs.getInt(6) != 0;
+            title = rs.getString(7);
+            content = rs.getString(8);
+            tailChunks = rs.getInt(9);
+        }
+        if (content == null) {
+            content = "";
+        }
+        if (tailChunks > 0) {
+            content += loadTail(id, NoteChunks.HEAD_SEQ, Integer.MAX_VALUE);
+        }
+        return new SyncRecord(syncId, version, createdAt, updatedAt, false, archived, title, content, id);
+    }
+
+    private static SyncRecord readTombstone(PreparedStatement select) throws SQLException {
+        try (ResultSet rs = select.executeQuery()) {
+            return rs.next() ? SyncRecord.tombstone(rs.getString(2), rs.getLong(3), rs.getLong(4), rs.getLong(1)) : null;
+        }
+    }
+
+    // Etiketler: id, ad, not sayısı, arşivlenmiş not sayısı
+    private static List<NoteTag> readTags(PreparedStatement select) throws SQLException {
+        List<NoteTag> tags = new ArrayList<>();
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                tags.add(new NoteTag(rs.getLong(1), rs.getString(2), rs.getInt(3), rs.getInt(4)));
+            }
+        }
+        return tags;
+    }
+
+    // Liste özetleri: id, başlık, önizleme, tarih, kelime sayısı, başlık anahtarı
+    private static List<NoteModel> readSummaries(PreparedStatement select) throws SQLException {
+        List<NoteModel> notes = new ArrayList<>();
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                NoteModel note = new NoteModel(rs.getLong(1), rs.getString(2), null, rs.getLong(4));
+                note.setPreview(rs.getString(3));
+                note.setWordCount(rs.getInt(5));
+                note.setTitleKey(rs.getString(6));
+                notes.add(note);
+            }
+        }
+        return notes;
+    }
+
+    private static List<NoteModel> readNotes(PreparedStatement select) throws SQLException {
+        List<NoteModel> notes = new ArrayList<>();
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                NoteModel note = new NoteModel(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getLong(4));
+                note.setTailChunks(rs.getInt(5));
+                notes.add(note);
+            }
+        }
+        return notes;
+    }
+
+    private PreparedStatement statement(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    @Override
+    public void close() {
+        try {
+            for (PreparedStatement statement : statements.values()) {
+                statement.close();
+            }
+            statements.clear();
+            connection.close();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,514 @@
+package com.muhammedcavus.noteapp;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Locale;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+// Notların toplu dışa/içe aktarım biçimleri. İkisi de akış halinde yazılır ve okunur: bellekte en fazla
+// tek not bulunur, arşivin boyutu önemli değildir.
+// - JSON satırları: her satırda bir not, {"title":..,"content":..,"created_at":..,"updated_at":..,"archived":..}
+// - Markdown zip: her not ayrı .md dosyası; başta "---" arasında başlık/tarih bilgisi, sonra not metni.
+//   Bilgi bloğu olmayan .md/.txt dosyaları da okunur (başlık dosya adından).
+public final class NoteArchive {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String FRONT_MATTER = "---";
+    private static final int SLUG_LENGTH = 40;
+
+    public enum Format {
+        JSON_LINES("application/x-ndjson", ".jsonl"),
+        MARKDOWN_ZIP("application/zip", ".zip");
+
+        public final String mimeType;
+        public final String extension;
+
+        Format(String mimeType, String extension) {
+            this.mimeType = mimeType;
+            this.extension = extension;
+        }
+    }
+
+    public static final class Entry {
+        public final String title;
+        public final String content;
+        public final long createdAt;
+        public final long updatedAt;
+        public final boolean archived;
+
+        public Entry(String title, String content, long createdAt, long updatedAt, boolean archived) {
+            this.title = title;
+            this.content = content;
+            this.createdAt = createdAt;
+            this.updatedAt = updatedAt;
+            this.archived = archived;
+        }
+    }
+
+    public interface Sink extends Closeable {
+        void write(Entry entry) throws IOException;
+    }
+
+    public interface Source extends Closeable {
+        // Sıradaki not; arşiv bittiyse null
+        Entry next() throws IOException;
+    }
+
+    private NoteArchive() {
+    }
+
+    public static Sink openSink(Format format, OutputStream out) {
+        return format == Format.JSON_LINES ? new JsonLinesSink(out) : new MarkdownZipSink(out);
+    }
+
+    // Biçim içerikten anlaşılır (zip imzası "PK"); in mark/reset desteklemeli
+    public static Source openSource(InputStream in) throws IOException {
+        in.mark(2);
+        int first = in.read();
+        int second = in.read();
+        in.reset();
+        if (first == 'P' && second == 'K') {
+            return new MarkdownZipSource(in);
+        }
+        return new JsonLinesSource(in);
+    }
+
+    private static final class JsonLinesSink implements Sink {
+        private final Writer writer;
+        private final StringBuilder line = new StringBuilder();
+
+        JsonLinesSink(OutputStream out) {
+            writer = new BufferedWriter(new OutputStreamWriter(out, UTF_8));
+        }
+
+        @Override
+        public void write(Entry entry) throws IOException {
+            line.setLength(0);
+            line.append("{\"title\":");
+            appendJsonString(line, entry.title);
+            line.append(",\"content\":");
+            appendJsonString(line, entry.content);
+            line.append(",\"created_at\":").append(entry.createdAt)
+                    .append(",\"updated_at\":").append(entry.updatedAt)
+                    .append(",\"archived\":").append(entry.archived)
+                    .append("}\n");
+            writer.append(line);
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    private static final class JsonLinesSource implements Source {
+        private final BufferedReader reader;
+        private int lineNumber;
+
+        JsonLinesSource(InputStream in) {
+            reader = new BufferedReader(new InputStreamReader(in, UTF_8));
+        }
+
+        @Override
+        public Entry next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber++;
+                if (line == null) {
+                    return null;
+                }
+            } while (line.trim().isEmpty());
+            try {
+                return new JsonObjectParser(line).parseEntry();
+            } catch (IOException e) {
+                throw new IOException("Satır " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static final class MarkdownZipSink implements Sink {
+        private final ZipOutputStream zip;
+        private final StringBuilder text = new StringBuilder();
+        private int count;
+
+        MarkdownZipSink(OutputStream out) {
+            zip = new ZipOutputStream(out, UTF_8);
+        }
+
+        @Override
+        public void write(Entry entry) throws IOException {
+            count++;
+            // Sıra numarası dosya adlarını tekil yapar ve arşiv içindeki sırayı korur
+            ZipEntry zipEntry = new ZipEntry(String.format(Locale.ROOT, "%06d-%s.md", count, slug(entry.title)));
+            zipEntry.setTime(entry.updatedAt);
+            zip.putNextEntry(zipEntry);
+            text.setLength(0);
+            text.append(FRONT_MATTER).append("\ntitle: ");
+            appendJsonString(text, entry.title);
+            text.append("\ncreated_at: ").append(entry.createdAt)
+                    .append("\nupdated_at: ").append(entry.updatedAt)
+                    .append("\narchived: ").append(entry.archived)
+                    .append('\n').append(FRONT_MATTER).append('\n');
+            zip.write(text.toString().getBytes(UTF_8));
+            if (entry.content != null) {
+                zip.write(entry.content.getBytes(UTF_8));
+            }
+            zip.closeEntry();
+        }
+
+        @Override
+        public void close() throws IOException {
+            zip.close();
+        }
+    }
+
+    private static final class MarkdownZipSource implements Source {
+        private final ZipInputStream zip;
+        private final byte[] buffer = new byte[8192];
+
+        MarkdownZipSource(InputStream in) {
+            zip = new ZipInputStream(in, UTF_8);
+        }
+
+        @Override
+        public Entry next() throws IOException {
+            ZipEntry zipEntry;
+            while ((zipEntry = zip.getNextEntry()) != null) {
+                String name = zipEntry.getName();
+                String lower = name.toLowerCase(Locale.ROOT);
+                if (zipEntry.isDirectory() || !(lower.endsWith(".md") || lower.endsWith(".txt"))) {
+                    continue;
+                }
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                int n;
+                while ((n = zip.read(buffer)) > 0) {
+                    bytes.write(buffer, 0, n);
+                }
+                try {
+                    return parseMarkdown(name, new String(bytes.toByteArray(), UTF_8), zipEntry.getTime());
+                } catch (IOException e) {
+                    throw new IOException(name + ": " + e.getMessage(), e);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            zip.close();
+        }
+    }
+
+    static Entry parseMarkdown(String fileName, String text, long fileTime) throws IOException {
+        String title = null;
+        long createdAt = Math.max(0, fileTime);
+        long updatedAt = createdAt;
+        boolean archived = false;
+        String content = text;
+        if (text.startsWith(FRONT_MATTER + "\n")) {
+            int end = text.indexOf("\n" + FRONT_MATTER + "\n", FRONT_MATTER.length());
+            if (end < 0) {
+                throw new IOException("Bilgi bloğu kapanmamış");
+            }
+            String header = end > FRONT_MATTER.length() ? text.substring(FRONT_MATTER.length() + 1, end) : "";
+            for (String line : header.split("\n")) {
+                int colon = line.indexOf(':');
+                if (colon < 0) {
+                    continue;
+                }
+                String key = line.substring(0, colon).trim();
+                String value = line.substring(colon + 1).trim();
+                switch (key) {
+                    case "title":
+                        title = value.startsWith("\"") ? new JsonObjectParser(value).parseString() : value;
+                        break;
+                    case "created_at":
+                        createdAt = parseLong(value);
+                        break;
+                    case "updated_at":
+                        updatedAt = parseLong(value);
+                        break;
+                    case "archived":
+                        archived = Boolean.parseBoolean(value);
+                        break;
+                    default:
+                        break;
+                }
+            }
+            content = text.substring(end + FRONT_MATTER.length() + 2);
+        }
+        if (title == null) {
+            String base = fileName.substring(fileName.lastIndexOf('/') + 1);
+            int dot = base.lastIndexOf('.');
+            title = dot > 0 ? base.substring(0, dot) : base;
+        }
+        return new Entry(title, content, createdAt, updatedAt, archived);
+    }
+
+    private static long parseLong(String value) throws IOException {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IOException("Sayı bekleniyordu: " + value);
+        }
+    }
+
+    // Dosya adı için başlığın sade hali (Türkçe harfler katlanır, diğerleri '-')
+    static String slug(String title) {
+        StringBuilder sb = new StringBuilder();
+        String folded = title == null ? "" : SearchText.fold(title);
+        for (int i = 0; i < folded.length() && sb.length() < SLUG_LENGTH; i++) {
+            char c = folded.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                sb.append(c);
+            } else if (sb.length() > 0 && sb.charAt(sb.length() - 1) != '-') {
+                sb.append('-');
+            }
+        }
+        while (sb.length() > 0 && sb.charAt(sb.length() - 1) == '-') {
+            sb.setLength(sb.length() - 1);
+        }
+        return sb.length() == 0 ? "not" : sb.toString();
+    }
+
+    static void appendJsonString(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                    break;
+            }
+        }
+        sb.append('"');
+    }
+
+    // Tek satırlık düz JSON nesnesi: değerler metin, sayı, true/false/null. Bilinmeyen alanlar atlanır.
+    private static final class JsonObjectParser {
+        private final String text;
+        private int pos;
+
+        JsonObjectParser(String text) {
+            this.text = text;
+        }
+
+        Entry parseEntry() throws IOException {
+            String title = null;
+            String content = null;
+            long createdAt = 0;
+            long updatedAt = 0;
+            boolean archived = false;
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+            } else {
+                while (true) {
+                    String key = parseString();
+                    expect(':');
+                    skipWhitespace();
+                    switch (key) {
+                        case "title":
+                            title = parseStringOrNull();
+                            break;
+                        case "content":
+                            content = parseStringOrNull();
+                            break;
+                        case "created_at":
+                            createdAt = parseNumber();
+                            break;
+                        case "updated_at":
+                            updatedAt = parseNumber();
+                            break;
+                        case "archived":
+                            archived = parseBoolean();
+                            break;
+                        default:
+                            skipValue();
+                            break;
+                    }
+                    skipWhitespace();
+                    char c = next();
+                    if (c == '}') {
+                        break;
+                    }
+                    if (c != ',') {
+                        throw error("',' veya '}' bekleniyordu");
+                    }
+                }
+            }
+            skipWhitespace();
+            if (pos != text.length()) {
+                throw error("Nesneden sonra fazla karakter");
+            }
+            return new Entry(title, content, createdAt, updatedAt == 0 ? createdAt : updatedAt, archived);
+        }
+
+        String parseString() throws IOException {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char escaped = next();
+                switch (escaped) {
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw error("Eksik \\u kaçışı");
+                        }
+                        try {
+                            sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Geçersiz \\u kaçışı");
+                        }
+                        pos += 4;
+                        break;
+                    default:
+                        sb.append(escaped);
+                        break;
+                }
+            }
+        }
+
+        private String parseStringOrNull() throws IOException {
+            if (text.startsWith("null", pos)) {
+                pos += 4;
+                return null;
+            }
+            return parseString();
+        }
+
+        private long parseNumber() throws IOException {
+            int start = pos;
+            while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+                pos++;
+            }
+            try {
+                return (long) Double.parseDouble(text.substring(start, pos));
+            } catch (NumberFormatException e) {
+                throw error("Sayı bekleniyordu");
+            }
+        }
+
+        private boolean parseBoolean() throws IOException {
+            if (text.startsWith("true", pos)) {
+                pos += 4;
+                return true;
+            }
+            if (text.startsWith("false", pos)) {
+                pos += 5;
+                return false;
+            }
+            if (text.startsWith("null", pos)) {
+                pos += 4;
+                return false;
+            }
+            throw error("true/false bekleniyordu");
+        }
+
+        private void skipValue() throws IOException {
+            char c = peek();
+            if (c == '"') {
+                parseString();
+            } else if (c == 't' || c == 'f' || c == 'n') {
+                parseBoolean();
+            } else if (c == '{' || c == '[') {
+                throw error("İç içe değerler desteklenmiyor");
+            } else {
+                parseNumber();
+            }
+        }
+
+        private void expect(char expected) throws IOException {
+            skipWhitespace();
+            if (next() != expected) {
+                throw error("'" + expected + "' bekleniyordu");
+            }
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private char peek() throws IOException {
+            if (pos >= text.length()) {
+                throw error("Beklenmeyen satır sonu");
+            }
+            return text.charAt(pos);
+        }
+
+        private char next() throws IOException {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private IOException error(String message) {
+            return new IOException(message + " (konum " + pos + ")");
+        }
+    }
+}
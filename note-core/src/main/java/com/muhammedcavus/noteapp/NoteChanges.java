@@ -0,0 +1,23 @@
+package com.muhammedcavus.noteapp;
+
+import java.util.List;
+
+// Bir nesilden sonraki değişiklikler (bkz. NoteSchema.TABLE_NOTE_CHANGES): eklenen, güncellenen veya silinen
+// notların id'leri ve bunlardan istenen görünümde (arşiv veya notlar) bulunanların liste özetleri.
+// ids'te olup notes'ta olmayan not silinmiş ya da görünümden çıkmıştır.
+public final class NoteChanges {
+
+    // Okunan son değişikliğin nesli; değişiklik yoksa istenen nesil
+    public final long generation;
+    public final long[] ids;
+    public final List<NoteModel> notes;
+    // false ise değişiklik sayısı sınırı aştı ve okunmadı; liste baştan yüklenmeli
+    public final boolean complete;
+
+    public NoteChanges(long generation, long[] ids, List<NoteModel> notes, boolean complete) {
+        this.generation = generation;
+        this.ids = ids;
+        this.notes = notes;
+        this.complete = complete;
+    }
+}
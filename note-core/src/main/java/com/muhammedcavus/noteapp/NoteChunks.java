@@ -0,0 +1,189 @@
+package com.muhammedcavus.noteapp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Büyük not gövdelerinin parçalara (chunk) bölünmesi. İlk parça (baş) notes.content'te durur; liste
+// önizlemesi ve önbellek sadece onu görür, arama indeksine tam metin yazılır (bkz. isSearchTextStale).
+// Kalan parçalar note_chunks'ta sıra anahtarıyla tutulur.
+// Kayıtta eski parçalar yeni metnin başı ve sonuyla karşılaştırılır, sadece aradaki değişen bölge yazılır.
+public final class NoteChunks {
+
+    // Parça boyu (karakter); CursorWindow sınırının çok altında kalır
+    public static final int CHUNK_SIZE = 32 * 1024;
+    // Bundan kısa bölgeler komşu parçayla birleştirilir; düzenlemelerle parça sayısı şişmez
+    static final int MIN_CHUNK = CHUNK_SIZE / 4;
+    // Bölünürken hedeflenen boy; parçalarda büyüme payı kalır, küçük eklemeler parçayı hemen bölmez
+    static final int TARGET_CHUNK = CHUNK_SIZE * 3 / 4;
+    // Parça sıra numaraları arasında bırakılan boşluk; araya parça eklenince sonrakiler yeniden numaralanmaz
+    static final long SEQ_STEP = 1L << 20;
+    public static final long HEAD_SEQ = 0;
+
+    // Kayıtlı bir parçanın özeti; karşılaştırma için gövdeyi okumak gerekmez
+    public static final class Info {
+        final long seq;
+        final int length;
+        final long hash;
+
+        public Info(long seq, int length, long hash) {
+            this.seq = seq;
+            this.length = length;
+            this.hash = hash;
+        }
+    }
+
+    public static final class Chunk {
+        public final long seq;
+        public final String body;
+
+        Chunk(long seq, String body) {
+            this.seq = seq;
+            this.body = body;
+        }
+    }
+
+    // Kayıt planı: head null ise baş parça değişmemiştir
+    public static final class Plan {
+        public final String head;
+        public final List<Long> deletes;
+        public final List<Chunk> inserts;
+        public final int tailChunks;
+
+        Plan(String head, List<Long> deletes, List<Chunk> inserts, int tailChunks) {
+            this.head = head;
+            this.deletes = deletes;
+            this.inserts = inserts;
+            this.tailChunks = tailChunks;
+        }
+
+        public boolean isBodyChanged() {
+            return head != null || !deletes.isEmpty() || !inserts.isEmpty();
+        }
+
+        // FTS tetikleyicileri sadece baş parçayı yazar: kalan parçası olan ya da kalan parçaları silinen notun
+        // metni (veya başlığı, tetikleyici satırı baştan yazdığından) değiştiyse FTS satırı tam metinle
+        // yeniden yazılmalıdır
+        public boolean isSearchTextStale(boolean titleChanged) {
+            return (tailChunks > 0 || !deletes.isEmpty()) && (isBodyChanged() || titleChanged);
+        }
+    }
+
+    private NoteChunks() {
+    }
+
+    // oldHead null ise yeni not: metnin tamamı bölünür. Aksi halde oldTail sıra numarasına göre sıralı olmalı.
+    public static Plan plan(String oldHead, List<Info> oldTail, String text) {
+        List<Info> old = new ArrayList<>(oldTail.size() + 1);
+        if (oldHead != null) {
+            old.add(new Info(HEAD_SEQ, oldHead.length(), hash(oldHead, 0, oldHead.length())));
+            old.addAll(oldTail);
+        }
+        int n = old.size();
+        int length = text.length();
+
+        // Değişmeyen baş ve son parçalar
+        int prefix = 0;
+        int prefixEnd = 0;
+        while (prefix < n && matches(old.get(prefix), text, prefixEnd)) {
+            prefixEnd += old.get(prefix).length;
+            prefix++;
+        }
+        if (n > 0 && prefix == n && prefixEnd == length) {
+            return new Plan(null, Collections.<Long>emptyList(), Collections.<Chunk>emptyList(), n - 1);
+        }
+        int suffix = 0;
+        int suffixStart = length;
+        // Baş parça (0) hiçbir zaman sondan eşleşmiş sayılmaz; yeni metnin ilk parçası hep sıra 0'dır
+        while (suffix < n - Math.max(prefix, 1)) {
+            Info info = old.get(n - 1 - suffix);
+            if (info.length > suffixStart - prefixEnd || !matches(info, text, suffixStart - info.length)) {
+                break;
+            }
+            suffixStart -= info.length;
+            suffix++;
+        }
+
+        // Çok kısa bölge komşusuna katılır (en sona yazarken sadece son parça yeniden yazılır)
+        while (suffixStart - prefixEnd < MIN_CHUNK && (suffix > 0 || prefix > 0)) {
+            if (suffix > 0) {
+                suffix--;
+                suffixStart += old.get(n - 1 - suffix).length;
+            } else {
+                prefix--;
+                prefixEnd -= old.get(prefix).length;
+            }
+        }
+
+        List<String> pieces = split(text, prefixEnd, suffixStart, prefix == 0);
+        int tailPieces = prefix == 0 ? pieces.size() - 1 : pieces.size();
+        long low = prefix > 0 ? old.get(prefix - 1).seq : HEAD_SEQ;
+        long high = suffix > 0 ? old.get(n - suffix).seq : low + (tailPieces + 1) * SEQ_STEP;
+        long gap = (high - low) / (tailPieces + 1);
+        if (gap == 0) {
+            // Araya sığmadı: sondaki parçalar da yeniden yazılır ve geniş aralıklarla numaralanır
+            suffix = 0;
+            suffixStart = length;
+            pieces = split(text, prefixEnd, suffixStart, prefix == 0);
+            tailPieces = prefix == 0 ? pieces.size() - 1 : pieces.size();
+            gap = SEQ_STEP;
+        }
+
+        List<Long> deletes = new ArrayList<>();
+        for (int i = Math.max(prefix, 1); i < n - suffix; i++) {
+            deletes.add(old.get(i).seq);
+        }
+        String head = null;
+        List<Chunk> inserts = new ArrayList<>(tailPieces);
+        int first = 0;
+        if (prefix == 0) {
+            head = pieces.get(0);
+            first = 1;
+        }
+        for (int i = first; i < pieces.size(); i++) {
+            inserts.add(new Chunk(low + gap * (i - first + 1), pieces.get(i)));
+        }
+        int oldTailCount = n > 0 ? n - 1 : 0;
+        return new Plan(head, deletes, inserts, oldTailCount - deletes.size() + inserts.size());
+    }
+
+    // [start, end) aralığı CHUNK_SIZE'a sığıyorsa tek parça, sığmıyorsa TARGET_CHUNK civarı eşit parçalar;
+    // vekil çiftleri bölünmez. Baş parça yazılacaksa aralık boş olsa da bir (boş) parça döner.
+    private static List<String> split(String text, int start, int end, boolean includesHead) {
+        int length = end - start;
+        int count;
+        if (length == 0) {
+            count = includesHead ? 1 : 0;
+        } else if (length <= CHUNK_SIZE) {
+            count = 1;
+        } else {
+            count = (length + TARGET_CHUNK - 1) / TARGET_CHUNK;
+        }
+        List<String> pieces = new ArrayList<>(count);
+        int from = start;
+        for (int i = 1; i <= count; i++) {
+            int to = i == count ? end : start + (int) ((long) length * i / count);
+            if (to > from && to < end && Character.isHighSurrogate(text.charAt(to - 1))) {
+                to++;
+            }
+            pieces.add(text.substring(from, to));
+            from = to;
+        }
+        return pieces;
+    }
+
+    private static boolean matches(Info info, String text, int offset) {
+        return info.length > 0 && offset >= 0 && offset + info.length <= text.length()
+                && hash(text, offset, offset + info.length) == info.hash;
+    }
+
+    // 64 bit FNV-1a; parçalar gövdeleri okunmadan uzunluk + özet ile karşılaştırılır
+    public static long hash(CharSequence text, int start, int end) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            h ^= text.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
\ No newline at end of file
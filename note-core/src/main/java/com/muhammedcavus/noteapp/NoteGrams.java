@@ -0,0 +1,421 @@
+package com.muhammedcavus.noteapp;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Yazım hatalarına dayanıklı arama için üçlü (trigram) ters indeksi. Metin SearchText gibi katlanır (ş -> s,
+// ı -> i), her kelime başına iki, sonuna bir boşluk eklenerek üçlülere bölünür; her üçlü üç 16 bitlik
+// karakterden tek bir sayıdır. Her üçlünün geçtiği notlar id aralığı bloklarında (BLOCK_BITS) sıralı ve
+// farkları varint olarak saklanır; not değişince sadece eklenen/çıkan üçlülerin blokları yeniden yazılır.
+// Notun kendi üçlü kümesi de saklanır, böylece fark eski metni okumadan bulunur. Arama gövdelere hiç
+// bakmaz: sorgu üçlülerinin listeleri birleştirilir ve not başına eşleşen üçlülerin nadirliğe göre
+// ağırlıklı oranı hesaplanır.
+public final class NoteGrams {
+
+    // Bir blok 1024 ardışık not id'sini kapsar: blok birkaç KB'ı geçmez, sık üçlü 100k notta ~100 satırdır
+    public static final int BLOCK_BITS = 10;
+    // Bir terimin üçlülerinin en az bu oranı notta bulunmalı (5 harfli kelimede tek harf değişimi 4/6, iki harfin
+    // yer değiştirmesi 7 harfte 4/8). Eşik sayıya bakar; nadirlik ağırlığı sadece sıralamada kullanılır, yoksa
+    // hatalı yazımın hiç geçmeyen (en nadir) üçlüleri eşleşmeyi gereğinden fazla düşürürdü
+    public static final double MIN_SIMILARITY = 0.45;
+
+    private static final char PAD = ' ';
+    // Katlama karakter başına Normalizer çağırır; büyük gövdelerde sonucu önbelleğe alınır (0: henüz yok)
+    private static final char[] FOLDED = new char[Character.MAX_VALUE + 1];
+
+    private NoteGrams() {
+    }
+
+    // Notun indekslenen metni: başlık ve gövdenin tamamı
+    public static long[] noteGrams(String title, String body) {
+        return grams(title == null ? body : title + "\n" + body);
+    }
+
+    // Metnin tekil üçlüleri, artan sırada
+    public static long[] grams(String text) {
+        long[] grams = new long[Math.max(16, text.length() + 8)];
+        int count = 0;
+        char first = PAD;
+        char second = PAD;
+        boolean inWord = false;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? fold(text.charAt(i)) : PAD;
+            boolean word = i < text.length() && SearchText.isWordChar(c);
+            if (!word && !inWord) {
+                continue;
+            }
+            if (word && !inWord) {
+                first = PAD;
+                second = PAD;
+            }
+            char third = word ? c : PAD;
+            if (count == grams.length) {
+                grams = Arrays.copyOf(grams, count * 2);
+            }
+            grams[count++] = gram(first, second, third);
+            first = second;
+            second = third;
+            inWord = word;
+        }
+        return unique(grams, count);
+    }
+
+    static long gram(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    private static char fold(char c) {
+        if (c < 0x80) {
+            return SearchText.foldChar(c);
+        }
+        char folded = FOLDED[c];
+        if (folded == 0) {
+            folded = SearchText.foldChar(c);
+            FOLDED[c] = folded;
+        }
+        return folded;
+    }
+
+    private static long[] unique(long[] values, int count) {
+        Arrays.sort(values, 0, count);
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (size == 0 || values[size - 1] != values[i]) {
+                values[size++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    // Notların yeni üçlü kümeleri (null: not silindi). Her not saklı kümesiyle karşılaştırılır; değişen
+    // üçlüler (üçlü, blok) çiftlerine göre gruplanır ve her blok bir kez okunup yazılır. Çağıran transaction açar.
+    public static void update(GramStore store, long[] ids, long[][] sets) {
+        List<Change> changes = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            long[] old = decodeSorted(store.loadGramSet(ids[i]));
+            long[] current = sets[i] != null ? sets[i] : new long[0];
+            if (Arrays.equals(old, current)) {
+                continue;
+            }
+            diff(ids[i], old, current, changes);
+            store.saveGramSet(ids[i], sets[i] != null ? encodeSorted(current, 0, current.length) : null);
+        }
+        Collections.sort(changes);
+        int start = 0;
+        while (start < changes.size()) {
+            Change first = changes.get(start);
+            long block = first.id >> BLOCK_BITS;
+            int end = start + 1;
+            while (end < changes.size() && changes.get(end).gram == first.gram
+                    && changes.get(end).id >> BLOCK_BITS == block) {
+                end++;
+            }
+            applyBlock(store, first.gram, block, changes.subList(start, end));
+            start = end;
+        }
+    }
+
+    // Silinen notlar için kısayol
+    public static void remove(GramStore store, long[] ids) {
+        update(store, ids, new long[ids.length][]);
+    }
+
+    public static long[] gramSet(GramStore store, long noteId) {
+        return decodeSorted(store.loadGramSet(noteId));
+    }
+
+    private static final class Change implements Comparable<Change> {
+        final long gram;
+        final long id;
+        final boolean add;
+
+        Change(long gram, long id, boolean add) {
+            this.gram = gram;
+            this.id = id;
+            this.add = add;
+        }
+
+        @Override
+        public int compareTo(Change other) {
+            int order = Long.compare(gram, other.gram);
+            return order != 0 ? order : Long.compare(id, other.id);
+        }
+    }
+
+    private static void diff(long id, long[] old, long[] current, List<Change> changes) {
+        int i = 0;
+        int j = 0;
+        while (i < old.length || j < current.length) {
+            if (j == current.length || (i < old.length && old[i] < current[j])) {
+                changes.add(new Change(old[i++], id, false));
+            } else if (i == old.length || current[j] < old[i]) {
+                changes.add(new Change(current[j++], id, true));
+            } else {
+                i++;
+                j++;
+            }
+        }
+    }
+
+    // Değişiklikler id sırasında; blok da id sırasında olduğundan birleştirme tek geçiştir
+    private static void applyBlock(GramStore store, long gram, long block, List<Change> changes) {
+        long[] ids = decodeSorted(store.loadGramBlock(gram, block));
+        long[] merged = new long[ids.length + changes.size()];
+        int count = 0;
+        int i = 0;
+        for (Change change : changes) {
+            while (i < ids.length && ids[i] < change.id) {
+                merged[count++] = ids[i++];
+            }
+            if (i < ids.length && ids[i] == change.id) {
+                i++;
+            }
+            if (change.add) {
+                merged[count++] = change.id;
+            }
+        }
+        while (i < ids.length) {
+            merged[count++] = ids[i++];
+        }
+        store.saveGramBlock(gram, block, count, count == 0 ? null : encodeSorted(merged, 0, count));
+    }
+
+    // Yazım hatalarına dayanıklı arama: her terim için eşleşen üçlülerin oranı MIN_SIMILARITY'yi geçmeli;
+    // notlar terimlerin ağırlıklı benzerliklerinin toplamına göre azalan sırada (eşitlikte yeni not önce)
+    public static long[] search(GramStore store, List<String> terms, int limit) {
+        return search(store, terms, null, limit);
+    }
+
+    // included null değilse (artan sırada id'ler, ör. etiket süzgecindeki arşivlenmemiş notlar) sadece bu
+    // notlar puanlanıp sıralanır; dışarıdakiler ilk terimin eşleşmelerinden hemen atılır
+    public static long[] search(GramStore store, List<String> terms, long[] included, int limit) {
+        double notes = Math.max(1, store.maxNoteId());
+        long[] ids = null;
+        double[] scores = null;
+        int size = 0;
+        for (String term : terms) {
+            long[] termGrams = grams(term);
+            if (termGrams.length == 0) {
+                continue;
+            }
+            long[][] postings = new long[termGrams.length][];
+            double[] weights = new double[termGrams.length];
+            double total = 0;
+            for (int g = 0; g < termGrams.length; g++) {
+                postings[g] = decodePostings(store.loadGramPostings(termGrams[g]));
+                // Hiç geçmeyen üçlü en nadir olandır; eşleşmese de benzerliği düşürür
+                weights[g] = Math.log(1 + notes / Math.max(1, postings[g].length));
+                total += weights[g];
+            }
+            TermMatches matches = matchTerm(postings, weights, total,
+                    (int) Math.ceil(termGrams.length * MIN_SIMILARITY));
+            if (ids == null) {
+                ids = matches.ids;
+                scores = matches.scores;
+                size = included == null ? matches.size : keep(ids, scores, matches.size, included);
+            } else {
+                size = intersect(ids, scores, size, matches);
+            }
+            if (size == 0) {
+                return new long[0];
+            }
+        }
+        if (ids == null) {
+            return new long[0];
+        }
+        if (included == null) {
+            // Arşivlenmiş notlar ilk limit'e girip sonra atılmasın
+            size = exclude(ids, scores, size, store.loadArchivedNoteIds());
+        }
+        return top(ids, scores, size, limit);
+    }
+
+    // Sadece included'daki (sıralı) id'leri bırakır; kalanlar ids/scores'un başına yazılır
+    private static int keep(long[] ids, double[] scores, int size, long[] included) {
+        int count = 0;
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < included.length && included[j] < ids[i]) {
+                j++;
+            }
+            if (j == included.length) {
+                break;
+            }
+            if (included[j] == ids[i]) {
+                ids[count] = ids[i];
+                scores[count] = scores[i];
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // excluded'daki (sıralı) id'leri çıkarır; kalanlar ids/scores'un başına yazılır
+    private static int exclude(long[] ids, double[] scores, int size, long[] excluded) {
+        int count = 0;
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < excluded.length && excluded[j] < ids[i]) {
+                j++;
+            }
+            if (j < excluded.length && excluded[j] == ids[i]) {
+                continue;
+            }
+            ids[count] = ids[i];
+            scores[count] = scores[i];
+            count++;
+        }
+        return count;
+    }
+
+    private static final class TermMatches {
+        final long[] ids;
+        final double[] scores;
+        final int size;
+
+        TermMatches(long[] ids, double[] scores, int size) {
+            this.ids = ids;
+            this.scores = scores;
+            this.size = size;
+        }
+    }
+
+    // Sıralı listelerin birleştirilmesi: her adımda en küçük id'yi taşıyan listeler ilerler
+    private static TermMatches matchTerm(long[][] postings, double[] weights, double total, int minShared) {
+        int[] positions = new int[postings.length];
+        int capacity = 16;
+        long[] ids = new long[capacity];
+        double[] scores = new double[capacity];
+        int size = 0;
+        while (true) {
+            long next = Long.MAX_VALUE;
+            for (int g = 0; g < postings.length; g++) {
+                if (positions[g] < postings[g].length && postings[g][positions[g]] < next) {
+                    next = postings[g][positions[g]];
+                }
+            }
+            if (next == Long.MAX_VALUE) {
+                break;
+            }
+            double weight = 0;
+            int shared = 0;
+            for (int g = 0; g < postings.length; g++) {
+                if (positions[g] < postings[g].length && postings[g][positions[g]] == next) {
+                    weight += weights[g];
+                    shared++;
+                    positions[g]++;
+                }
+            }
+            if (shared >= minShared) {
+                if (size == capacity) {
+                    capacity *= 2;
+                    ids = Arrays.copyOf(ids, capacity);
+                    scores = Arrays.copyOf(scores, capacity);
+                }
+                ids[size] = next;
+                scores[size] = weight / total;
+                size++;
+            }
+        }
+        return new TermMatches(ids, scores, size);
+    }
+
+    // Önceki terimlerin eşleşmeleriyle kesişim (ikisi de id sırasında); sonuç ids/scores'un başına yazılır
+    private static int intersect(long[] ids, double[] scores, int size, TermMatches matches) {
+        int count = 0;
+        int j = 0;
+        for (int i = 0; i < size && j < matches.size; i++) {
+            while (j < matches.size && matches.ids[j] < ids[i]) {
+                j++;
+            }
+            if (j < matches.size && matches.ids[j] == ids[i]) {
+                ids[count] = ids[i];
+                scores[count] = scores[i] + matches.scores[j];
+                count++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    private static long[] top(long[] ids, double[] scores, int size, int limit) {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int byScore = Double.compare(scores[b], scores[a]);
+            return byScore != 0 ? byScore : Long.compare(ids[b], ids[a]);
+        });
+        long[] top = new long[Math.min(limit, size)];
+        for (int i = 0; i < top.length; i++) {
+            top[i] = ids[order[i]];
+        }
+        return top;
+    }
+
+    private static long[] decodePostings(List<byte[]> blocks) {
+        List<long[]> decoded = new ArrayList<>(blocks.size());
+        int count = 0;
+        for (byte[] block : blocks) {
+            long[] ids = decodeSorted(block);
+            decoded.add(ids);
+            count += ids.length;
+        }
+        long[] ids = new long[count];
+        int position = 0;
+        for (long[] block : decoded) {
+            System.arraycopy(block, 0, ids, position, block.length);
+            position += block.length;
+        }
+        return ids;
+    }
+
+    // Artan sayılar: ilki olduğu gibi, sonrakiler bir öncekinden farkları olarak varint
+    static byte[] encodeSorted(long[] values, int from, int to) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream((to - from) * 2 + 8);
+        long previous = 0;
+        for (int i = from; i < to; i++) {
+            writeVarint(out, values[i] - previous);
+            previous = values[i];
+        }
+        return out.toByteArray();
+    }
+
+    static long[] decodeSorted(byte[] data) {
+        if (data == null) {
+            return new long[0];
+        }
+        long[] values = new long[data.length];
+        int count = 0;
+        long previous = 0;
+        int position = 0;
+        while (position < data.length) {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (position == data.length || shift > 63) {
+                    throw new IllegalStateException("Bozuk üçlü listesi");
+                }
+                b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            previous += value;
+            values[count++] = previous;
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
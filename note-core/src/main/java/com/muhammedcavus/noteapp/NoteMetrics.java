@@ -0,0 +1,185 @@
+package com.muhammedcavus.noteapp;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Süre ölçümleri: her işlem için sayı, etkilenen satır ve gecikme dağılımı (p50/p95/p99).
+// Kayıt kilitsizdir (LongAdder + AtomicLongArray). Kapalıyken start() 0 döner ve stop() hiçbir şey yapmaz;
+// ölçülen kodun ödediği tek bedel bir volatile okumadır.
+public final class NoteMetrics {
+
+    // Histogram kovaları: her ikinin kuvveti aralığı 4 alt kovaya bölünür (değerin ilk 2 biti);
+    // yüzdelikler en fazla %25 hatayla bulunur, bellek işlem başına 256 long
+    private static final int SUB_BITS = 2;
+    private static final int BUCKETS = 64 << SUB_BITS;
+
+    private static final long DEFAULT_SLOW_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static volatile boolean enabled;
+    private static volatile long slowNanos = DEFAULT_SLOW_NANOS;
+    private static final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public static final class Timer {
+        public final String name;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        private Timer(String name) {
+            this.name = name;
+        }
+
+        // Geçen süre (nanosaniye) döner; ölçüm kapalıysa (start 0) 0
+        public long stop(long start, int rowCount) {
+            if (start == 0) {
+                return 0;
+            }
+            long elapsed = System.nanoTime() - start;
+            record(elapsed, rowCount);
+            return elapsed;
+        }
+
+        void record(long nanos, int rowCount) {
+            count.increment();
+            rows.add(rowCount);
+            totalNanos.add(nanos);
+            buckets.incrementAndGet(bucket(nanos));
+            long max = maxNanos.get();
+            while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+                max = maxNanos.get();
+            }
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        // Dağılımın q (0-1) yüzdeliği; değerin düştüğü kovanın üst sınırı
+        public long percentileNanos(double q) {
+            long total = 0;
+            long[] snapshot = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = buckets.get(i);
+                total += snapshot[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(q * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= Math.max(1, rank)) {
+                    return Math.min(upperBound(i), maxNanos.get());
+                }
+            }
+            return maxNanos.get();
+        }
+
+        void reset() {
+            count.reset();
+            rows.reset();
+            totalNanos.reset();
+            maxNanos.set(0);
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets.set(i, 0);
+            }
+        }
+    }
+
+    private NoteMetrics() {
+    }
+
+    public static Timer timer(String name) {
+        Timer timer = timers.get(name);
+        if (timer == null) {
+            Timer created = new Timer(name);
+            timer = timers.putIfAbsent(name, created);
+            if (timer == null) {
+                timer = created;
+            }
+        }
+        return timer;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    // Ölçüm başlangıcı; kapalıysa 0 (Timer.stop bunu yok sayar)
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public static void setSlowThresholdMillis(long millis) {
+        slowNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    // Bu süre yavaş sorgu olarak günlüğe yazılmalı mı
+    public static boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= slowNanos;
+    }
+
+    public static void reset() {
+        for (Timer timer : timers.values()) {
+            timer.reset();
+        }
+    }
+
+    // İsme göre sıralı tablo: sayı, p50/p95/p99/maks (ms), toplam süre ve satır
+    public static String dump() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "%-20s %8s %9s %9s %9s %9s %10s %10s%n",
+                "işlem", "sayı", "p50 ms", "p95 ms", "p99 ms", "maks ms", "toplam ms", "satır"));
+        for (Map.Entry<String, Timer> entry : new TreeMap<>(timers).entrySet()) {
+            Timer timer = entry.getValue();
+            long count = timer.count();
+            if (count == 0) {
+                continue;
+            }
+            out.append(String.format(Locale.ROOT, "%-20s %8d %9.2f %9.2f %9.2f %9.2f %10.1f %10d%n",
+                    timer.name, count,
+                    millis(timer.percentileNanos(0.50)), millis(timer.percentileNanos(0.95)),
+                    millis(timer.percentileNanos(0.99)), millis(timer.maxNanos.get()),
+                    millis(timer.totalNanos.sum()), timer.rows.sum()));
+        }
+        return out.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    static int bucket(long nanos) {
+        if (nanos < (1 << SUB_BITS)) {
+            return (int) Math.max(0, nanos);
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (msb - SUB_BITS)) & ((1 << SUB_BITS) - 1);
+        return ((msb - SUB_BITS + 1) << SUB_BITS) + sub;
+    }
+
+    // Kovadaki en büyük değer
+    static long upperBound(int bucket) {
+        if (bucket < (1 << SUB_BITS)) {
+            return bucket;
+        }
+        int msb = (bucket >> SUB_BITS) + SUB_BITS - 1;
+        long sub = bucket & ((1 << SUB_BITS) - 1);
+        long lower = ((1L << SUB_BITS) | sub) << (msb - SUB_BITS);
+        return lower + (1L << (msb - SUB_BITS)) - 1;
+    }
+}
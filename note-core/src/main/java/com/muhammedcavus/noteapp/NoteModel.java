@@ -0,0 +1,55 @@
+package com.muhammedcavus.noteapp;
+
+public class NoteModel {
+    private long id;
+    private String title;
+    // Liste özetlerinde null; içerik sadece not açılınca okunur
+    private String content;
+    // Özetlerde içeriğin satır sonları boşluğa çevrilmiş ilk karakterleri (bkz. NoteText.preview)
+    private String preview;
+    // Son değişiklik zamanı (epoch milisaniye)
+    private long updatedAt;
+    // Arama sonucunda eşleşmeleri işaretlenmiş özet (SearchText.snippet); normal listede null
+    private String snippet;
+    // Büyük notlarda content sadece ilk parçadır; geri kalan parça sayısı (0 ise content notun tamamı)
+    private int tailChunks;
+    // Gövdenin tamamının kelime sayısı; sadece liste özetlerinde dolu
+    private int wordCount;
+    // Başlık sıralama anahtarı (TitleKeys); sadece liste özetlerinde dolu
+    private String titleKey;
+
+    public NoteModel(long id, String title, String content, long updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.content = content;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters ve Setters
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+
+    public String getPreview() { return preview; }
+    public void setPreview(String preview) { this.preview = preview; }
+
+    public long getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(long updatedAt) { this.updatedAt = updatedAt; }
+
+    public String getSnippet() { return snippet; }
+    public void setSnippet(String snippet) { this.snippet = snippet; }
+
+    public int getTailChunks() { return tailChunks; }
+    public void setTailChunks(int tailChunks) { this.tailChunks = tailChunks; }
+
+    public int getWordCount() { return wordCount; }
+    public void setWordCount(int wordCount) { this.wordCount = wordCount; }
+
+    public String getTitleKey() { return titleKey; }
+    public void setTitleKey(String titleKey) { this.titleKey = titleKey; }
+}
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.muhammedcavus.noteapp;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+// Not listesinin bir sayfasını okuyan sorgu: sıralama, görünüm (arşiv veya notlar), etiket süzgeci ve keyset
+// anahtarı. OFFSET kullanılmaz; her sayfa bir önceki sayfanın son satırından indeks üzerinden doğrudan başlar.
+public final class NoteQuery {
+
+    public enum SortOrder { NONE, DATE, TITLE }
+
+    // Sayfa anahtarı: bir önceki sayfanın son satırının sıralama değeri ve id'si
+    public static final class PageKey {
+        final String sortValue;
+        final long id;
+
+        private PageKey(String sortValue, long id) {
+            this.sortValue = sortValue;
+            this.id = id;
+        }
+
+        public static PageKey after(SortOrder sortOrder, NoteModel last) {
+            switch (sortOrder) {
+                case DATE:
+                    return new PageKey(String.valueOf(last.getUpdatedAt()), last.getId());
+                case TITLE:
+                    return new PageKey(last.getTitleKey(), last.getId());
+                default:
+                    return new PageKey(null, last.getId());
+            }
+        }
+    }
+
+    // Sütunlar: id, başlık, önizleme, tarih, kelime sayısı, başlık anahtarı
+    private static final String TAGGED_SUMMARY_COLUMNS = "n." + NoteSchema.COLUMN_ID + ", n." + NoteSchema.COLUMN_TITLE
+            + ", n." + NoteSchema.COLUMN_PREVIEW + ", n." + NoteSchema.COLUMN_UPDATED_AT + ", n."
+            + NoteSchema.COLUMN_WORD_COUNT + ", n." + NoteSchema.COLUMN_TITLE_KEY;
+
+    public final String sql;
+    public final String[] args;
+
+    private NoteQuery(String sql, String[] args) {
+        this.sql = sql;
+        this.args = args;
+    }
+
+    // after null ise ilk sayfa
+    public static NoteQuery page(SortOrder sortOrder, boolean archived, PageKey after, int limit) {
+        return page(sortOrder, archived, new long[0], after, limit);
+    }
+
+    // tagIds boş değilse sadece bu etiketlerin hepsini taşıyan notlar. Sayfa ilk etiketin note_tags görünüm
+    // indeksinden sırayla okunur (notun sıralama sütunları orada da tutulur), diğer etiketler birincil anahtardan
+    // kontrol edilir, özet sütunları notun satırından alınır; ilk etiket en az notu olan olmalı (NoteTag.filterIds)
+    public static NoteQuery page(SortOrder sortOrder, boolean archived, long[] tagIds, PageKey after, int limit) {
+        boolean tagged = tagIds.length > 0;
+        // Sıralama ve süzme sütunları etiketliyse note_tags'tan (t), değilse notes'tan
+        String prefix = tagged ? "t." : "";
+        String id = tagged ? "t." + NoteSchema.COLUMN_NOTE_ID : NoteSchema.COLUMN_ID;
+        String updatedAt = prefix + NoteSchema.COLUMN_UPDATED_AT;
+        String titleKey = prefix + NoteSchema.COLUMN_TITLE_KEY;
+        String orderBy;
+        String keyset = null;
+        String[] keysetArgs = new String[0];
+        switch (sortOrder) {
+            case DATE:
+                orderBy = updatedAt + " DESC, " + id + " DESC";
+                if (after != null) {
+                    // İlk koşul indeks aralığını belirler, ikincisi eşit zaman damgalarını id ile ayırır
+                    keyset = updatedAt + " <= ? AND (" + updatedAt + " < ? OR " + id + " < ?)";
+                    keysetArgs = new String[]{after.sortValue, after.sortValue, String.valueOf(after.id)};
+                }
+                break;
+            case TITLE:
+                // Yerel ayara göre sıralama anahtarı; Türkçe harfler doğru yerde, sıra indeksten gelir
+                orderBy = titleKey + " ASC, " + id + " ASC";
+                if (after != null) {
+                    keyset = titleKey + " >= ? AND (" + titleKey + " > ? OR " + id + " > ?)";
+                    keysetArgs = new String[]{after.sortValue, after.sortValue, String.valueOf(after.id)};
+                }
+                break;
+            default:
+                orderBy = id + " ASC";
+                if (after != null) {
+                    keyset = id + " > ?";
+                    keysetArgs = new String[]{String.valueOf(after.id)};
+                }
+                break;
+        }
+        String[] args = new String[keysetArgs.length + 1];
+        args[0] = archived ? "1" : "0";
+        System.arraycopy(keysetArgs, 0, args, 1, keysetArgs.length);
+
+        String from;
+        if (tagged) {
+            // CROSS JOIN birleştirme sırasını sabitler: dış döngü her zaman etiketin indeks aralığıdır
+            from = "SELECT " + TAGGED_SUMMARY_COLUMNS + " FROM " + NoteSchema.TABLE_NOTE_TAGS + " t CROSS JOIN "
+                    + NoteSchema.TABLE_NOTES + " n ON n." + NoteSchema.COLUMN_ID + " = " + id + " WHERE t."
+                    + NoteSchema.COLUMN_TAG_ID + " = " + tagIds[0] + " AND t." + NoteSchema.COLUMN_ARCHIVED + " = ?"
+                    + NoteSchema.tagFilterSql(id, Arrays.copyOfRange(tagIds, 1, tagIds.length));
+        } else {
+            from = "SELECT " + NoteSchema.SUMMARY_COLUMNS + " FROM " + NoteSchema.TABLE_NOTES
+                    + " WHERE " + NoteSchema.COLUMN_ARCHIVED + " = ?";
+        }
+        String sql = from
+                + (keyset != null ? " AND " + keyset : "")
+                + " ORDER BY " + orderBy + " LIMIT " + limit;
+        return new NoteQuery(sql, args);
+    }
+
+    // Sayfa sorgusunun ORDER BY'ı ile aynı sıra; değişen notlar liste yeniden sorgulanmadan yerine konur.
+    // Başlık anahtarları onaltılık (ASCII) metin olduğundan String sırası SQLite'ın BINARY sırasıyla aynıdır
+    public static Comparator<NoteModel> comparator(SortOrder sortOrder) {
+        switch (sortOrder) {
+            case DATE:
+                return (a, b) -> {
+                    int byDate = Long.compare(b.getUpdatedAt(), a.getUpdatedAt());
+                    return byDate != 0 ? byDate : Long.compare(b.getId(), a.getId());
+                };
+            case TITLE:
+                return (a, b) -> {
+                    int byTitle = titleKey(a).compareTo(titleKey(b));
+                    return byTitle != 0 ? byTitle : Long.compare(a.getId(), b.getId());
+                };
+            default:
+                return (a, b) -> Long.compare(a.getId(), b.getId());
+        }
+    }
+
+    private static String titleKey(NoteModel note) {
+        return note.getTitleKey() != null ? note.getTitleKey() : "";
+    }
+}
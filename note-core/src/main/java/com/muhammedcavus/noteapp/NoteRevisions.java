@@ -0,0 +1,172 @@
+package com.muhammedcavus.noteapp;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+// Not geçmişinin kodlaması ve saklama politikası. Her kayıt bir önceki sürüme göre fark (delta) olarak
+// saklanır, her SNAPSHOT_INTERVAL sürümde bir tam metin (anlık görüntü) yazılır; bir sürümü geri getirmek
+// en fazla bir anlık görüntü ve SNAPSHOT_INTERVAL - 1 delta okumaktır. Yer kaplama düzenlenen kısımla
+// orantılıdır, not boyutu çarpı kayıt sayısıyla değil.
+public final class NoteRevisions {
+
+    public static final int KIND_SNAPSHOT = 0;
+    public static final int KIND_DELTA = 1;
+    // Art arda en fazla bu kadar sürüm aynı anlık görüntüye dayanır
+    public static final int SNAPSHOT_INTERVAL = 16;
+
+    private static final long MINUTE = 60 * 1000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+
+    // Geçmiş listesindeki bir sürüm (gövdesi olmadan)
+    public static final class Info {
+        public final long id;
+        public final long createdAt;
+        public final String title;
+        // Sürümün tam metninin karakter sayısı
+        public final int length;
+
+        public Info(long id, long createdAt, String title, int length) {
+            this.id = id;
+            this.createdAt = createdAt;
+            this.title = title;
+            this.length = length;
+        }
+    }
+
+    // Geri getirilmiş bir sürüm
+    public static final class Version {
+        public final long id;
+        public final String title;
+        public final String content;
+
+        public Version(long id, String title, String content) {
+            this.id = id;
+            this.title = title;
+            this.content = content;
+        }
+    }
+
+    // Hangi sürümlerin tutulacağı: son recentMillis içindekilerin hepsi, sonra yaşa göre seyrelen kovalarda
+    // kova başına en yeni sürüm; toplamda en fazla maxRevisions. En yeni sürüm (notun şimdiki hali) hep kalır.
+    public static final class Policy {
+        public final long recentMillis;
+        public final int maxRevisions;
+
+        public Policy(long recentMillis, int maxRevisions) {
+            this.recentMillis = recentMillis;
+            this.maxRevisions = maxRevisions;
+        }
+    }
+
+    public static final Policy DEFAULT_POLICY = new Policy(HOUR, 100);
+
+    private NoteRevisions() {
+    }
+
+    // from'dan to'ya fark: ortak önek ve sonek dışındaki tek aralığın değişimi. Biçim: önek uzunluğu ve
+    // silinen karakter sayısı (varint), ardından eklenen metin (UTF-8). Editörde iki kayıt arasındaki
+    // değişiklik çoğunlukla tek yerde olduğundan fark düzenlenen kısım kadar yer tutar.
+    public static byte[] delta(String from, String to) {
+        int max = Math.min(from.length(), to.length());
+        int prefix = 0;
+        while (prefix < max && from.charAt(prefix) == to.charAt(prefix)) {
+            prefix++;
+        }
+        // Vekil çiftleri bölünmez; eklenen metin UTF-8'e kayıpsız çevrilebilmeli
+        if (prefix > 0 && Character.isHighSurrogate(to.charAt(prefix - 1))) {
+            prefix--;
+        }
+        int suffix = 0;
+        while (suffix < max - prefix
+                && from.charAt(from.length() - 1 - suffix) == to.charAt(to.length() - 1 - suffix)) {
+            suffix++;
+        }
+        if (suffix > 0 && Character.isLowSurrogate(to.charAt(to.length() - suffix))) {
+            suffix--;
+        }
+        byte[] inserted = to.substring(prefix, to.length() - suffix).getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(inserted.length + 10);
+        writeVarint(out, prefix);
+        writeVarint(out, from.length() - suffix - prefix);
+        out.write(inserted, 0, inserted.length);
+        return out.toByteArray();
+    }
+
+    // Sürüm metninin özeti (bkz. NoteChunks.hash); yeni fark ancak en yeni sürümün özeti tabanınkiyle
+    // aynıysa ona eklenir, yoksa zincir yanlış metne dayanır ve geri getirme bozuk metin verirdi
+    public static long hash(String text) {
+        return NoteChunks.hash(text, 0, text.length());
+    }
+
+    public static String apply(String base, byte[] delta) {
+        int[] position = {0};
+        int prefix = readVarint(delta, position);
+        int removed = readVarint(delta, position);
+        if (prefix + removed > base.length()) {
+            throw new IllegalArgumentException("Fark bu metne uygulanamaz");
+        }
+        String inserted = new String(delta, position[0], delta.length - position[0], StandardCharsets.UTF_8);
+        return base.substring(0, prefix) + inserted + base.substring(prefix + removed);
+    }
+
+    // Sürüm sayısı ve yaşa göre tutulacak sürümler. createdAt eskiden yeniye sıralı olmalı.
+    // Kovalar: recentMillis'e kadar hepsi, bir güne kadar 10 dakikada bir, 30 güne kadar günde bir, sonra haftada bir
+    public static boolean[] retain(long[] createdAt, long now, Policy policy) {
+        int count = createdAt.length;
+        boolean[] keep = new boolean[count];
+        long lastBucket = Long.MIN_VALUE;
+        int kept = 0;
+        for (int i = count - 1; i >= 0 && kept < policy.maxRevisions; i--) {
+            long age = Math.max(0, now - createdAt[i]);
+            long bucket;
+            if (i == count - 1 || age < policy.recentMillis) {
+                bucket = Long.MIN_VALUE;
+            } else if (age < DAY) {
+                bucket = 1_000_000_000L + createdAt[i] / (10 * MINUTE);
+            } else if (age < 30 * DAY) {
+                bucket = 2_000_000_000L + createdAt[i] / DAY;
+            } else {
+                bucket = 3_000_000_000L + createdAt[i] / (7 * DAY);
+            }
+            // Yeniden eskiye gidildiğinden kovanın ilk görülen sürümü en yenisidir
+            if (bucket == Long.MIN_VALUE || bucket != lastBucket) {
+                keep[i] = true;
+                kept++;
+            }
+            lastBucket = bucket;
+        }
+        return keep;
+    }
+
+    // retain bir şey atacak mı (atmayacaksa notun geçmişi yeniden yazılmaz)
+    public static boolean needsCompaction(long[] createdAt, long now, Policy policy) {
+        boolean[] keep = retain(createdAt, now, policy);
+        for (boolean k : keep) {
+            if (!k) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] data, int[] position) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = data[position[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Bozuk fark");
+    }
+}
@@ -0,0 +1,555 @@
+package com.muhammedcavus.noteapp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Veritabanı şeması ve depoların ortak SQL'i. Android (DBHelper) ve JVM (JdbcNoteStore) aynı tabloları
+// ve sorguları kullanır; böylece benchmark sonuçları cihazdaki sorguları ölçer.
+public final class NoteSchema {
+
+    // Güncel şema sürümü; Android'de eski sürümler Migrations ile buraya yükseltilir
+    public static final int VERSION = 16;
+
+    public static final String TABLE_NOTES = "notes";
+    public static final String COLUMN_ID = "_id";
+    public static final String COLUMN_TITLE = "title";
+    public static final String COLUMN_CONTENT = "content";
+    // Eski sürümlerde yerel ayara bağlı "yyyy-MM-dd HH:mm" metni; artık yazılmaz, sadece geçişte okunur
+    public static final String COLUMN_DATE = "date";
+    // Epoch milisaniye zaman damgaları; biçimlendirme sadece ekranda yapılır
+    public static final String COLUMN_CREATED_AT = "created_at";
+    public static final String COLUMN_UPDATED_AT = "updated_at";
+    // Arşivlenen notlar ana listede görünmez (0/1)
+    public static final String COLUMN_ARCHIVED = "archived";
+    // Liste özetlerinde içeriğin yerine okunan kısa önizleme: satır sonları boşluğa çevrilmiş ilk PREVIEW_LENGTH
+    // karakter. İçerik değişince tetikleyiciyle yeniden hesaplanır (bkz. previewStatements, NoteText.preview)
+    public static final String COLUMN_PREVIEW = "preview";
+    public static final int PREVIEW_LENGTH = 150;
+    // Gövdenin tamamının (parçalar dahil) kelime sayısı; kayıtta Java'da hesaplanır (NoteText.wordCount)
+    public static final String COLUMN_WORD_COUNT = "word_count";
+    // Başlığın yerel ayara göre sıralama anahtarı (TitleKeys); başlık sırası bu sütunun indeksinden okunur
+    public static final String COLUMN_TITLE_KEY = "title_key";
+    // content sadece gövdenin ilk parçasını tutar; kalan parça sayısı (bkz. NoteChunks)
+    public static final String COLUMN_TAIL_CHUNKS = "tail_chunks";
+    // Senkronizasyon: cihazlar arasında notu tanıtan kimlik ve her yerel değişiklikte artan sürüm (bkz. SyncEngine)
+    public static final String COLUMN_SYNC_ID = "sync_id";
+    public static final String COLUMN_VERSION = "version";
+    // Yeni notun senkronizasyon kimliği SQL'de üretilir (128 bit rastgele, onaltılık)
+    private static final String NEW_SYNC_ID_SQL = "lower(hex(randomblob(16)))";
+
+    // Büyük not gövdelerinin ilk parçadan sonraki kısmı. length/hash gövdeden önce durur ve indekste de
+    // bulunur; kayıtta parça düzeni gövdeler (taşma sayfaları) okunmadan karşılaştırılır.
+    public static final String TABLE_NOTE_CHUNKS = "note_chunks";
+    public static final String COLUMN_NOTE_ID = "note_id";
+    public static final String COLUMN_SEQ = "seq";
+    public static final String COLUMN_LENGTH = "length";
+    public static final String COLUMN_HASH = "hash";
+    // Gövdenin saklanma biçimi (bkz. BodyCodec); length ve hash her zaman düz metne aittir
+    public static final String COLUMN_CODEC = "codec";
+    public static final String COLUMN_BODY = "body";
+
+    // Tam metin arama indeksi (FTS4). Metin Türkçe ı/İ -> i katlanmış olarak saklanır,
+    // unicode61 tokenizer büyük/küçük harf ve diğer aksanları (ş, ç, ğ, ö, ü) kendisi katlar.
+    public static final String TABLE_NOTES_FTS = "notes_fts";
+
+    // Değişiklik günlüğü: her notun son değişikliği (ekleme, güncelleme veya silme) artan bir nesil numarasıyla.
+    // Tetikleyicilerle tutulur; not başına tek satır olduğundan boyutu not sayısıyla sınırlıdır. Ekranlar
+    // bildikleri nesilden sonraki satırları okuyup sadece değişen notları yeniler.
+    public static final String TABLE_NOTE_CHANGES = "note_changes";
+    public static final String COLUMN_GENERATION = "generation";
+    public static final String COLUMN_DELETED = "deleted";
+    // Satırdaki değişiklik sunucuda mı (sunucudan geldi ya da gönderildi: 1) yoksa gönderilmeyi mi bekliyor (0).
+    // Etiket değişiklikleri sunucuya gitmez, satırın bu işaretini korur. Silinen notun satırı
+    // aynı zamanda silme kaydıdır (tombstone): senkronizasyon kimliği, sürümü ve silinme zamanı burada kalır
+    public static final String COLUMN_SYNCED = "synced";
+    public static final String COLUMN_CHANGED_AT = "changed_at";
+
+    // Not geçmişi: her kayıt bir sürüm. Gövde ya tam metin (anlık görüntü, BodyCodec ile) ya da önceki sürüme
+    // göre fark (bkz. NoteRevisions); length sürümün tam metninin karakter sayısıdır. Sürüm sırası _id sırasıdır
+    public static final String TABLE_NOTE_REVISIONS = "note_revisions";
+    public static final String COLUMN_KIND = "kind";
+
+    // Üçlü (trigram) indeksi (bkz. NoteGrams): her (üçlü, id bloğu) için notların sıralı id listesi ve
+    // her notun kendi üçlü kümesi; ikisi de fark + varint kodlu BLOB
+    public static final String TABLE_NOTE_GRAMS = "note_grams";
+    public static final String TABLE_NOTE_GRAM_SETS = "note_gram_sets";
+    public static final String COLUMN_GRAM = "gram";
+    public static final String COLUMN_BLOCK = "block";
+    public static final String COLUMN_COUNT = "count";
+    public static final String COLUMN_IDS = "ids";
+    public static final String COLUMN_GRAMS = "grams";
+
+    // Etiketler (klasörler de birer etikettir) ve notlarla çoka çok ilişkisi. Etiket başına not sayıları
+    // (görünüm başına: notlar ve arşiv) tetikleyicilerle artırılıp azaltılır, COUNT(*) yapılmaz. note_tags
+    // notun sıralama sütunlarını ve arşiv durumunu da taşır (tetikleyiciyle güncel tutulur); etiketli liste
+    // sayfası böylece tek etiketin indeks aralığından sıralı okunur
+    public static final String TABLE_TAGS = "tags";
+    public static final String TABLE_NOTE_TAGS = "note_tags";
+    public static final String COLUMN_NAME = "name";
+    public static final String COLUMN_TAG_ID = "tag_id";
+    public static final String COLUMN_NOTE_COUNT = "note_count";
+    public static final String COLUMN_ARCHIVED_COUNT = "archived_count";
+
+    // Tek not okumalarının sütunları (sıra sabit: id, başlık, ilk parça, tarih, kalan parça sayısı)
+    private static final String NOTE_COLUMNS = COLUMN_ID + ", " + COLUMN_TITLE + ", " + COLUMN_CONTENT + ", "
+            + COLUMN_UPDATED_AT + ", " + COLUMN_TAIL_CHUNKS;
+    // Liste özetlerinin sütunları (id, başlık, önizleme, tarih, kelime sayısı, başlık anahtarı); hepsi liste
+    // indekslerinde bulunduğundan sayfalar tabloya (ve büyük içeriklerin taşma sayfalarına) hiç dokunmadan okunur
+    static final String SUMMARY_COLUMNS = COLUMN_ID + ", " + COLUMN_TITLE + ", " + COLUMN_PREVIEW + ", "
+            + COLUMN_UPDATED_AT + ", " + COLUMN_WORD_COUNT + ", " + COLUMN_TITLE_KEY;
+
+    public static final String SQL_INSERT_NOTE = "INSERT INTO " + TABLE_NOTES + " ("
+            + COLUMN_TITLE + ", " + COLUMN_CONTENT + ", " + COLUMN_TAIL_CHUNKS + ", " + COLUMN_CREATED_AT + ", "
+            + COLUMN_UPDATED_AT + ", " + COLUMN_WORD_COUNT + ", " + COLUMN_TITLE_KEY + ", " + COLUMN_SYNC_ID + ", "
+            + COLUMN_VERSION + ") VALUES (?, ?, ?, ?, ?, ?, ?, " + NEW_SYNC_ID_SQL + ", 1)";
+    public static final String SQL_UPDATE_NOTE = "UPDATE " + TABLE_NOTES + " SET "
+            + COLUMN_TITLE + "=?, " + COLUMN_CONTENT + "=?, " + COLUMN_TAIL_CHUNKS + "=?, " + COLUMN_UPDATED_AT
+            + "=?, " + COLUMN_WORD_COUNT + "=?, " + COLUMN_TITLE_KEY + "=?, " + COLUMN_VERSION + "=" + COLUMN_VERSION
+            + " + 1 WHERE " + COLUMN_ID + "=?";
+    // Başlık ve ilk parça değişmediyse FTS ve önizleme tetikleyicileri hiç çalışmaz
+    public static final String SQL_UPDATE_NOTE_TAIL = "UPDATE " + TABLE_NOTES + " SET "
+            + COLUMN_TAIL_CHUNKS + "=?, " + COLUMN_UPDATED_AT + "=?, " + COLUMN_WORD_COUNT + "=?, " + COLUMN_VERSION
+            + "=" + COLUMN_VERSION + " + 1 WHERE " + COLUMN_ID + "=?";
+    // Hızlı yakalama günlüğünden aktarım: senkronizasyon kimliği günlükteki kimliktir (?8). O kimlikle bir not
+    // ya da silme kaydı varsa (aktarım çökme sonrası tekrarlanıyor) satır eklenmez
+    public static final String SQL_INSERT_CAPTURED_NOTE = "INSERT INTO " + TABLE_NOTES + " ("
+            + COLUMN_TITLE + ", " + COLUMN_CONTENT + ", " + COLUMN_TAIL_CHUNKS + ", " + COLUMN_CREATED_AT + ", "
+            + COLUMN_UPDATED_AT + ", " + COLUMN_WORD_COUNT + ", " + COLUMN_TITLE_KEY + ", " + COLUMN_SYNC_ID + ", "
+            + COLUMN_VERSION + ") SELECT ?1, ?2, ?3, ?4, ?5, ?6, ?7, ?8, 1 WHERE NOT EXISTS (SELECT 1 FROM "
+            + TABLE_NOTES + " WHERE " + COLUMN_SYNC_ID + " = ?8) AND NOT EXISTS (SELECT 1 FROM " + TABLE_NOTE_CHANGES
+            + " WHERE " + COLUMN_SYNC_ID + " = ?8 AND " + COLUMN_DELETED + " = 1)";
+    // Toplu eklemelerde (içe aktarım, kopyalama) sütun listesine eklenir; yeni kimlik, sürüm 1
+    public static final String SYNC_COLUMNS = COLUMN_SYNC_ID + ", " + COLUMN_VERSION;
+    public static final String NEW_SYNC_VALUES = NEW_SYNC_ID_SQL + ", 1";
+    public static final String SQL_SET_ARCHIVED = "UPDATE " + TABLE_NOTES + " SET " + COLUMN_ARCHIVED + "=?, "
+            + COLUMN_VERSION + "=" + COLUMN_VERSION + " + 1 WHERE " + COLUMN_ID + "=?";
+    public static final String SQL_DELETE_NOTE = "DELETE FROM " + TABLE_NOTES + " WHERE " + COLUMN_ID + "=?";
+    public static final String SQL_SELECT_NOTE = "SELECT " + NOTE_COLUMNS + " FROM " + TABLE_NOTES
+            + " WHERE " + COLUMN_ID + "=?";
+    public static final String SQL_SELECT_NOTE_HEAD = "SELECT " + COLUMN_TITLE + ", " + COLUMN_CONTENT + ", "
+            + COLUMN_TITLE_KEY + " FROM " + TABLE_NOTES + " WHERE " + COLUMN_ID + "=?";
+
+    public static final String SQL_INSERT_CHUNK = "INSERT INTO " + TABLE_NOTE_CHUNKS + " ("
+            + COLUMN_NOTE_ID + ", " + COLUMN_SEQ + ", " + COLUMN_LENGTH + ", " + COLUMN_HASH + ", " + COLUMN_CODEC
+            + ", " + COLUMN_BODY + ") VALUES (?, ?, ?, ?, ?, ?)";
+    public static final String SQL_DELETE_CHUNK = "DELETE FROM " + TABLE_NOTE_CHUNKS + " WHERE "
+            + COLUMN_NOTE_ID + "=? AND " + COLUMN_SEQ + "=?";
+    public static final String SQL_SELECT_CHUNK_INFO = "SELECT " + COLUMN_SEQ + ", " + COLUMN_LENGTH + ", "
+            + COLUMN_HASH + " FROM " + TABLE_NOTE_CHUNKS + " WHERE " + COLUMN_NOTE_ID + "=? ORDER BY " + COLUMN_SEQ;
+    public static final String SQL_SELECT_CHUNKS = "SELECT " + COLUMN_SEQ + ", " + COLUMN_CODEC + ", "
+            + COLUMN_BODY + " FROM " + TABLE_NOTE_CHUNKS + " WHERE " + COLUMN_NOTE_ID + "=? AND " + COLUMN_SEQ
+            + ">? ORDER BY " + COLUMN_SEQ + " LIMIT ?";
+
+    // En son nesil (hiç değişiklik yoksa NULL); nesil indeksinin son girdisi okunur
+    public static final String SQL_SELECT_GENERATION = "SELECT MAX(" + COLUMN_GENERATION + ") FROM "
+            + TABLE_NOTE_CHANGES;
+    // Verilen nesilden sonra değişen notlar, nesil sırasıyla: not id'si, nesil, silindi mi
+    public static final String SQL_SELECT_CHANGES = "SELECT " + COLUMN_NOTE_ID + ", " + COLUMN_GENERATION + ", "
+            + COLUMN_DELETED + " FROM " + TABLE_NOTE_CHANGES + " WHERE " + COLUMN_GENERATION + " > ? ORDER BY "
+            + COLUMN_GENERATION + " LIMIT ?";
+
+    // Senkronizasyon: sunucuya gönderilmemiş değişiklikler (nesil sırasıyla not id'si ve nesil)
+    public static final String SQL_SELECT_UNSYNCED_CHANGES = "SELECT " + COLUMN_NOTE_ID + ", " + COLUMN_GENERATION
+            + " FROM " + TABLE_NOTE_CHANGES + " WHERE " + COLUMN_GENERATION + " > ? AND " + COLUMN_SYNCED
+            + " = 0 ORDER BY " + COLUMN_GENERATION + " LIMIT ?";
+    public static final String SQL_SELECT_SYNC_NOTE_IDS = "SELECT " + COLUMN_ID + " FROM " + TABLE_NOTES + " WHERE "
+            + COLUMN_ID + " > ? ORDER BY " + COLUMN_ID + " LIMIT ?";
+    // Senkronizasyon kaydı için not: id, kimlik, sürüm, oluşturma, değişiklik, arşiv, başlık, ilk parça, kalan parça
+    private static final String SYNC_NOTE_COLUMNS = COLUMN_ID + ", " + COLUMN_SYNC_ID + ", " + COLUMN_VERSION + ", "
+            + COLUMN_CREATED_AT + ", " + COLUMN_UPDATED_AT + ", " + COLUMN_ARCHIVED + ", " + COLUMN_TITLE + ", "
+            + COLUMN_CONTENT + ", " + COLUMN_TAIL_CHUNKS;
+    public static final String SQL_SELECT_SYNC_NOTE = "SELECT " + SYNC_NOTE_COLUMNS + " FROM " + TABLE_NOTES
+            + " WHERE " + COLUMN_ID + " = ?";
+    public static final String SQL_SELECT_SYNC_NOTE_BY_SYNC_ID = "SELECT " + SYNC_NOTE_COLUMNS + " FROM "
+            + TABLE_NOTES + " WHERE " + COLUMN_SYNC_ID + " = ?";
+    // Silme kaydı: not id'si, kimlik, sürüm, silinme zamanı
+    private static final String TOMBSTONE_COLUMNS = COLUMN_NOTE_ID + ", " + COLUMN_SYNC_ID + ", " + COLUMN_VERSION
+            + ", " + COLUMN_CHANGED_AT;
+    public static final String SQL_SELECT_TOMBSTONE = "SELECT " + TOMBSTONE_COLUMNS + " FROM " + TABLE_NOTE_CHANGES
+            + " WHERE " + COLUMN_NOTE_ID + " = ? AND " + COLUMN_DELETED + " = 1 AND " + COLUMN_SYNC_ID + " IS NOT NULL";
+    public static final String SQL_SELECT_TOMBSTONE_BY_SYNC_ID = "SELECT " + TOMBSTONE_COLUMNS + " FROM "
+            + TABLE_NOTE_CHANGES + " WHERE " + COLUMN_SYNC_ID + " = ? AND " + COLUMN_DELETED + " = 1";
+    // Sunucudan gelen sürüm yazıldıktan sonra: kimlik ve sürüm sunucununki olur, günlük satırı gönderilmez
+    public static final String SQL_APPLY_SYNC_META = "UPDATE " + TABLE_NOTES + " SET " + COLUMN_SYNC_ID + "=?, "
+            + COLUMN_VERSION + "=?, " + COLUMN_CREATED_AT + "=?, " + COLUMN_ARCHIVED + "=? WHERE " + COLUMN_ID + "=?";
+    public static final String SQL_MARK_SYNCED = "UPDATE " + TABLE_NOTE_CHANGES + " SET " + COLUMN_SYNCED + "=1 WHERE "
+            + COLUMN_NOTE_ID + "=?";
+    public static final String SQL_MARK_PUSHED = "UPDATE " + TABLE_NOTE_CHANGES + " SET " + COLUMN_SYNCED + "=1 WHERE "
+            + COLUMN_NOTE_ID + "=? AND " + COLUMN_GENERATION + "<=?";
+    public static final String SQL_MARK_TOMBSTONE_SYNCED = "UPDATE " + TABLE_NOTE_CHANGES + " SET " + COLUMN_SYNCED
+            + "=1, " + COLUMN_SYNC_ID + "=?, " + COLUMN_VERSION + "=?, " + COLUMN_CHANGED_AT + "=? WHERE "
+            + COLUMN_NOTE_ID + "=?";
+    // Silinmiş not sunucudan geri gelince eski silme kaydı kimliğini bırakır
+    public static final String SQL_CLEAR_TOMBSTONE = "UPDATE " + TABLE_NOTE_CHANGES + " SET " + COLUMN_SYNC_ID
+            + "=NULL WHERE " + COLUMN_SYNC_ID + "=? AND " + COLUMN_DELETED + "=1";
+
+    public static final String SQL_SELECT_GRAM_SET = "SELECT " + COLUMN_GRAMS + " FROM " + TABLE_NOTE_GRAM_SETS
+            + " WHERE " + COLUMN_NOTE_ID + " = ?";
+    public static final String SQL_REPLACE_GRAM_SET = "INSERT OR REPLACE INTO " + TABLE_NOTE_GRAM_SETS + " ("
+            + COLUMN_NOTE_ID + ", " + COLUMN_GRAMS + ") VALUES (?, ?)";
+    public static final String SQL_DELETE_GRAM_SET = "DELETE FROM " + TABLE_NOTE_GRAM_SETS + " WHERE "
+            + COLUMN_NOTE_ID + " = ?";
+    public static final String SQL_SELECT_GRAM_BLOCK = "SELECT " + COLUMN_IDS + " FROM " + TABLE_NOTE_GRAMS
+            + " WHERE " + COLUMN_GRAM + " = ? AND " + COLUMN_BLOCK + " = ?";
+    public static final String SQL_REPLACE_GRAM_BLOCK = "INSERT OR REPLACE INTO " + TABLE_NOTE_GRAMS + " ("
+            + COLUMN_GRAM + ", " + COLUMN_BLOCK + ", " + COLUMN_COUNT + ", " + COLUMN_IDS + ") VALUES (?, ?, ?, ?)";
+    public static final String SQL_DELETE_GRAM_BLOCK = "DELETE FROM " + TABLE_NOTE_GRAMS + " WHERE " + COLUMN_GRAM
+            + " = ? AND " + COLUMN_BLOCK + " = ?";
+    public static final String SQL_SELECT_GRAM_POSTINGS = "SELECT " + COLUMN_IDS + " FROM " + TABLE_NOTE_GRAMS
+            + " WHERE " + COLUMN_GRAM + " = ? ORDER BY " + COLUMN_BLOCK;
+    public static final String SQL_SELECT_MAX_NOTE_ID = "SELECT IFNULL(MAX(" + COLUMN_ID + "), 0) FROM " + TABLE_NOTES;
+    public static final String SQL_SELECT_ARCHIVED_NOTE_IDS = "SELECT " + COLUMN_ID + " FROM " + TABLE_NOTES
+            + " WHERE " + COLUMN_ARCHIVED + " = 1 ORDER BY " + COLUMN_ID;
+
+    // Parçalı notun FTS içeriği tam gövdeyle (foldForIndex) Java'dan yazılır; başlığı tetikleyici yazar
+    public static final String SQL_UPDATE_SEARCH_CONTENT = "UPDATE " + TABLE_NOTES_FTS + " SET " + COLUMN_CONTENT
+            + " = ? WHERE docid = ?";
+    // Kopyalanan parçalı notun FTS içeriği kaynağınkinden alınır (?1 kaynak, ?2 kopya); gövde okunmaz
+    public static final String SQL_COPY_SEARCH_CONTENT = "UPDATE " + TABLE_NOTES_FTS + " SET " + COLUMN_CONTENT
+            + " = (SELECT " + COLUMN_CONTENT + " FROM " + TABLE_NOTES_FTS + " WHERE docid = ?1) WHERE docid = ?2 AND "
+            + "EXISTS (SELECT 1 FROM " + TABLE_NOTES + " WHERE " + COLUMN_ID + " = ?2 AND " + COLUMN_TAIL_CHUNKS
+            + " > 0)";
+
+    // FTS araması: eşleşen notların id'si ve BM25 için matchinfo blob'u. Arşivlenmiş notlar sorguda (birincil
+    // anahtarla) elenir; yoksa sıralamada sınırdaki yerleri tutup sonra atılır ve sonuç eksik kalırdı
+    public static final String SQL_SEARCH = "SELECT docid, matchinfo(" + TABLE_NOTES_FTS + ", '"
+            + Bm25.MATCHINFO_FORMAT + "') FROM " + TABLE_NOTES_FTS + " WHERE " + TABLE_NOTES_FTS + " MATCH ? AND "
+            + "EXISTS (SELECT 1 FROM " + TABLE_NOTES + " WHERE " + COLUMN_ID + " = " + TABLE_NOTES_FTS + ".docid AND "
+            + COLUMN_ARCHIVED + " = 0)";
+
+    // Etiketler adlarıyla ve görünüm başına not sayılarıyla (sayılar tetikleyicilerin tuttuğu sütunlardır)
+    public static final String SQL_SELECT_TAGS = "SELECT " + COLUMN_ID + ", " + COLUMN_NAME + ", " + COLUMN_NOTE_COUNT
+            + ", " + COLUMN_ARCHIVED_COUNT + " FROM " + TABLE_TAGS + " ORDER BY " + COLUMN_NAME;
+    public static final String SQL_SELECT_NOTE_TAGS = "SELECT t." + COLUMN_ID + ", t." + COLUMN_NAME + ", t."
+            + COLUMN_NOTE_COUNT + ", t." + COLUMN_ARCHIVED_COUNT + " FROM " + TABLE_NOTE_TAGS + " nt JOIN "
+            + TABLE_TAGS + " t ON t." + COLUMN_ID + " = nt." + COLUMN_TAG_ID + " WHERE nt." + COLUMN_NOTE_ID
+            + " = ? ORDER BY t." + COLUMN_NAME;
+    public static final String SQL_INSERT_TAG = "INSERT OR IGNORE INTO " + TABLE_TAGS + " (" + COLUMN_NAME
+            + ") VALUES (?)";
+    public static final String SQL_SELECT_TAG_ID = "SELECT " + COLUMN_ID + " FROM " + TABLE_TAGS + " WHERE "
+            + COLUMN_NAME + " = ?";
+    public static final String SQL_RENAME_TAG = "UPDATE OR IGNORE " + TABLE_TAGS + " SET " + COLUMN_NAME + "=? WHERE "
+            + COLUMN_ID + "=?";
+    // Etiketin note_tags satırları tetikleyiciyle silinir
+    public static final String SQL_DELETE_TAG = "DELETE FROM " + TABLE_TAGS + " WHERE " + COLUMN_ID + "=?";
+    // Sıralama sütunları ve arşiv durumu nottan kopyalanır; not yoksa veya zaten etiketliyse satır eklenmez.
+    // OR IGNORE kullanılmaz: dış ifadenin çakışma kuralı tetikleyicideki INSERT OR REPLACE'ı da geçersiz kılar
+    // ve değişiklik günlüğü yazılmaz; zaten etiketli not NOT EXISTS ile atlanır
+    public static final String SQL_INSERT_NOTE_TAG = "INSERT INTO " + TABLE_NOTE_TAGS + " (" + COLUMN_TAG_ID
+            + ", " + COLUMN_NOTE_ID + ", " + COLUMN_ARCHIVED + ", " + COLUMN_UPDATED_AT + ", " + COLUMN_TITLE_KEY
+            + ") SELECT ?1, " + COLUMN_ID + ", " + COLUMN_ARCHIVED + ", " + COLUMN_UPDATED_AT + ", " + COLUMN_TITLE_KEY
+            + " FROM " + TABLE_NOTES + " WHERE " + COLUMN_ID + " = ?2 AND NOT EXISTS (SELECT 1 FROM " + TABLE_NOTE_TAGS
+            + " WHERE " + COLUMN_TAG_ID + " = ?1 AND " + COLUMN_NOTE_ID + " = ?2)";
+    public static final String SQL_DELETE_NOTE_TAG = "DELETE FROM " + TABLE_NOTE_TAGS + " WHERE " + COLUMN_TAG_ID
+            + " = ? AND " + COLUMN_NOTE_ID + " = ?";
+    // Kopyalanan not kaynağın etiketlerini alır
+    public static final String SQL_COPY_NOTE_TAGS = "INSERT INTO " + TABLE_NOTE_TAGS + " (" + COLUMN_TAG_ID
+            + ", " + COLUMN_NOTE_ID + ", " + COLUMN_ARCHIVED + ", " + COLUMN_UPDATED_AT + ", " + COLUMN_TITLE_KEY
+            + ") SELECT nt." + COLUMN_TAG_ID + ", n." + COLUMN_ID + ", n." + COLUMN_ARCHIVED + ", n."
+            + COLUMN_UPDATED_AT + ", n." + COLUMN_TITLE_KEY + " FROM " + TABLE_NOTE_TAGS + " nt, " + TABLE_NOTES
+            + " n WHERE nt." + COLUMN_NOTE_ID + " = ? AND n." + COLUMN_ID + " = ?";
+
+    private NoteSchema() {
+    }
+
+    // Boş veritabanında güncel şemayı kuran ifadeler
+    public static List<String> createStatements() {
+        List<String> statements = new ArrayList<>();
+        statements.add("CREATE TABLE " + TABLE_NOTES + " ("
+                + COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + COLUMN_TITLE + " TEXT, "
+                + COLUMN_CONTENT + " TEXT, "
+                + COLUMN_CREATED_AT + " INTEGER NOT NULL DEFAULT 0, "
+                + COLUMN_UPDATED_AT + " INTEGER NOT NULL DEFAULT 0, "
+                + COLUMN_ARCHIVED + " INTEGER NOT NULL DEFAULT 0, "
+                + COLUMN_TAIL_CHUNKS + " INTEGER NOT NULL DEFAULT 0, "
+                + COLUMN_PREVIEW + " TEXT, "
+                + COLUMN_WORD_COUNT + " INTEGER NOT NULL DEFAULT 0, "
+                + COLUMN_TITLE_KEY + " TEXT NOT NULL DEFAULT '', "
+                + COLUMN_SYNC_ID + " TEXT, "
+                + COLUMN_VERSION + " INTEGER NOT NULL DEFAULT 1"
+                + ")");
+        statements.add("CREATE UNIQUE INDEX idx_notes_sync_id ON " + TABLE_NOTES + " (" + COLUMN_SYNC_ID + ")");
+        statements.add(listIndexSql());
+        statements.add(titleIndexSql());
+        // Parça tablosu; not silinince parçaları da tetikleyiciyle silinir (toplu silme dahil)
+        statements.add("CREATE TABLE " + TABLE_NOTE_CHUNKS + " ("
+                + COLUMN_ID + " INTEGER PRIMARY KEY, "
+                + COLUMN_NOTE_ID + " INTEGER NOT NULL, "
+                + COLUMN_SEQ + " INTEGER NOT NULL, "
+                + COLUMN_LENGTH + " INTEGER NOT NULL, "
+                + COLUMN_HASH + " INTEGER NOT NULL, "
+                + COLUMN_CODEC + " INTEGER NOT NULL DEFAULT " + BodyCodec.PLAIN + ", "
+                + COLUMN_BODY + " TEXT NOT NULL)");
+        statements.add("CREATE INDEX idx_note_chunks_note_seq ON " + TABLE_NOTE_CHUNKS + " ("
+                + COLUMN_NOTE_ID + ", " + COLUMN_SEQ + ", " + COLUMN_LENGTH + ", " + COLUMN_HASH + ")");
+        statements.add("CREATE TRIGGER note_chunks_ad AFTER DELETE ON " + TABLE_NOTES + " BEGIN DELETE FROM "
+                + TABLE_NOTE_CHUNKS + " WHERE " + COLUMN_NOTE_ID + " = old." + COLUMN_ID + "; END");
+        statements.addAll(searchIndexStatements());
+        statements.addAll(changeLogStatements());
+        statements.addAll(previewStatements());
+        statements.addAll(revisionStatements());
+        statements.addAll(gramStatements());
+        statements.addAll(tagStatements());
+        return statements;
+    }
+
+    // Liste (arşiv filtresi + tarih sırası) ve keyset sayfalama bu indeksten okunur. _id tarihten hemen sonra
+    // geldiğinden "archived = ? ORDER BY updated_at DESC, _id DESC" sıralama yapılmadan elde edilir;
+    // özet sütunlarının hepsini taşıdığından (kapsayan indeks) satırın kendisi okunmaz
+    private static String listIndexSql() {
+        return "CREATE INDEX idx_notes_list ON " + TABLE_NOTES + " (" + COLUMN_ARCHIVED + ", " + COLUMN_UPDATED_AT
+                + ", " + COLUMN_ID + ", " + COLUMN_TITLE + ", " + COLUMN_PREVIEW + ", " + COLUMN_WORD_COUNT + ", "
+                + COLUMN_TITLE_KEY + ")";
+    }
+
+    // Başlık sırası (archived = ? ORDER BY title_key, _id) aynı şekilde sıralamasız ve kapsayan indeksten
+    private static String titleIndexSql() {
+        return "CREATE INDEX idx_notes_title ON " + TABLE_NOTES + " (" + COLUMN_ARCHIVED + ", " + COLUMN_TITLE_KEY
+                + ", " + COLUMN_ID + ", " + COLUMN_TITLE + ", " + COLUMN_PREVIEW + ", " + COLUMN_UPDATED_AT + ", "
+                + COLUMN_WORD_COUNT + ")";
+    }
+
+    // Geçmiş tablosu; not silinince geçmişi de silinir. Liste ve geri getirme (not, _id) indeksinden okunur
+    private static List<String> revisionStatements() {
+        return Arrays.asList(
+                "CREATE TABLE " + TABLE_NOTE_REVISIONS + " ("
+                        + COLUMN_ID + " INTEGER PRIMARY KEY, "
+                        + COLUMN_NOTE_ID + " INTEGER NOT NULL, "
+                        + COLUMN_CREATED_AT + " INTEGER NOT NULL, "
+                        + COLUMN_KIND + " INTEGER NOT NULL, "
+                        + COLUMN_CODEC + " INTEGER NOT NULL DEFAULT " + BodyCodec.PLAIN + ", "
+                        + COLUMN_LENGTH + " INTEGER NOT NULL, "
+                        + COLUMN_TITLE + " TEXT, "
+                        + COLUMN_BODY + " BLOB NOT NULL, "
+                        + COLUMN_HASH + " INTEGER)",
+                "CREATE INDEX idx_note_revisions_note ON " + TABLE_NOTE_REVISIONS + " (" + COLUMN_NOTE_ID + ", "
+                        + COLUMN_ID + ", " + COLUMN_KIND + ")",
+                "CREATE TRIGGER note_revisions_ad AFTER DELETE ON " + TABLE_NOTES + " BEGIN DELETE FROM "
+                        + TABLE_NOTE_REVISIONS + " WHERE " + COLUMN_NOTE_ID + " = old." + COLUMN_ID + "; END");
+    }
+
+    // Üçlü indeksi tabloları. Bloklar (üçlü, blok) birincil anahtarından üçlü sırasıyla okunur; notun kümesi
+    // silinirken eski üçlüleri gerektiğinden silme tetikleyiciyle değil NoteGrams ile yapılır
+    private static List<String> gramStatements() {
+        return Arrays.asList(
+                "CREATE TABLE " + TABLE_NOTE_GRAMS + " ("
+                        + COLUMN_GRAM + " INTEGER NOT NULL, "
+                        + COLUMN_BLOCK + " INTEGER NOT NULL, "
+                        + COLUMN_COUNT + " INTEGER NOT NULL, "
+                        + COLUMN_IDS + " BLOB NOT NULL, "
+                        + "PRIMARY KEY (" + COLUMN_GRAM + ", " + COLUMN_BLOCK + "))",
+                "CREATE TABLE " + TABLE_NOTE_GRAM_SETS + " ("
+                        + COLUMN_NOTE_ID + " INTEGER PRIMARY KEY, "
+                        + COLUMN_GRAMS + " BLOB NOT NULL)");
+    }
+
+    // Etiket tabloları, indeksleri ve sayıları/kopya sütunları tutan tetikleyiciler. note_tags'ın birincil
+    // anahtarı (tag_id, note_id) ek etiketlerin tek tek kontrolüne, görünüm indeksleri etiketli liste sırasına
+    // (NoteQuery.page), note_id indeksi notun etiketlerine ve tetikleyicilere hizmet eder
+    private static List<String> tagStatements() {
+        return Arrays.asList(
+                "CREATE TABLE " + TABLE_TAGS + " ("
+                        + COLUMN_ID + " INTEGER PRIMARY KEY, "
+                        + COLUMN_NAME + " TEXT NOT NULL UNIQUE, "
+                        + COLUMN_NOTE_COUNT + " INTEGER NOT NULL DEFAULT 0, "
+                        + COLUMN_ARCHIVED_COUNT + " INTEGER NOT NULL DEFAULT 0)",
+                "CREATE TABLE " + TABLE_NOTE_TAGS + " ("
+                        + COLUMN_TAG_ID + " INTEGER NOT NULL, "
+                        + COLUMN_NOTE_ID + " INTEGER NOT NULL, "
+                        + COLUMN_ARCHIVED + " INTEGER NOT NULL, "
+                        + COLUMN_UPDATED_AT + " INTEGER NOT NULL, "
+                        + COLUMN_TITLE_KEY + " TEXT NOT NULL, "
+                        + "PRIMARY KEY (" + COLUMN_TAG_ID + ", " + COLUMN_NOTE_ID + ")) WITHOUT ROWID",
+                "CREATE INDEX idx_note_tags_date ON " + TABLE_NOTE_TAGS + " (" + COLUMN_TAG_ID + ", " + COLUMN_ARCHIVED
+                        + ", " + COLUMN_UPDATED_AT + ", " + COLUMN_NOTE_ID + ")",
+                "CREATE INDEX idx_note_tags_title ON " + TABLE_NOTE_TAGS + " (" + COLUMN_TAG_ID + ", " + COLUMN_ARCHIVED
+                        + ", " + COLUMN_TITLE_KEY + ", " + COLUMN_NOTE_ID + ")",
+                "CREATE INDEX idx_note_tags_note ON " + TABLE_NOTE_TAGS + " (" + COLUMN_NOTE_ID + ")",
+                // Etiketleme not listesinde görünen bir değişikliktir; etiketli görünümler değişiklik günlüğünden
+                // yenilenir (bkz. tagChangeLogSql)
+                "CREATE TRIGGER note_tags_ai AFTER INSERT ON " + TABLE_NOTE_TAGS + " BEGIN UPDATE " + TABLE_TAGS
+                        + " SET " + COLUMN_NOTE_COUNT + " = " + COLUMN_NOTE_COUNT + " + (new." + COLUMN_ARCHIVED
+                        + " = 0), " + COLUMN_ARCHIVED_COUNT + " = " + COLUMN_ARCHIVED_COUNT + " + (new."
+                        + COLUMN_ARCHIVED + " <> 0) WHERE " + COLUMN_ID + " = new." + COLUMN_TAG_ID + "; "
+                        + tagChangeLogSql("new." + COLUMN_NOTE_ID) + " END",
+                "CREATE TRIGGER note_tags_ad AFTER DELETE ON " + TABLE_NOTE_TAGS + " BEGIN UPDATE " + TABLE_TAGS
+                        + " SET " + COLUMN_NOTE_COUNT + " = " + COLUMN_NOTE_COUNT + " - (old." + COLUMN_ARCHIVED
+                        + " = 0), " + COLUMN_ARCHIVED_COUNT + " = " + COLUMN_ARCHIVED_COUNT + " - (old."
+                        + COLUMN_ARCHIVED + " <> 0) WHERE " + COLUMN_ID + " = old." + COLUMN_TAG_ID + "; "
+                        + tagChangeLogSql("old." + COLUMN_NOTE_ID) + " END",
+                "CREATE TRIGGER note_tags_au AFTER UPDATE OF " + COLUMN_ARCHIVED + " ON " + TABLE_NOTE_TAGS
+                        + " WHEN old." + COLUMN_ARCHIVED + " <> new." + COLUMN_ARCHIVED + " BEGIN UPDATE " + TABLE_TAGS
+                        + " SET " + COLUMN_NOTE_COUNT + " = " + COLUMN_NOTE_COUNT + " + (new." + COLUMN_ARCHIVED
+                        + " = 0) - (old." + COLUMN_ARCHIVED + " = 0), " + COLUMN_ARCHIVED_COUNT + " = "
+                        + COLUMN_ARCHIVED_COUNT + " + (new." + COLUMN_ARCHIVED + " <> 0) - (old." + COLUMN_ARCHIVED
+                        + " <> 0) WHERE " + COLUMN_ID + " = new." + COLUMN_TAG_ID + "; END",
+                // Notun sıralama sütunları ve arşiv durumu etiket satırlarına kopyalanır
+                "CREATE TRIGGER note_tags_notes_au AFTER UPDATE OF " + COLUMN_ARCHIVED + ", " + COLUMN_UPDATED_AT
+                        + ", " + COLUMN_TITLE_KEY + " ON " + TABLE_NOTES + " BEGIN UPDATE " + TABLE_NOTE_TAGS + " SET "
+                        + COLUMN_ARCHIVED + " = new." + COLUMN_ARCHIVED + ", " + COLUMN_UPDATED_AT + " = new."
+                        + COLUMN_UPDATED_AT + ", " + COLUMN_TITLE_KEY + " = new." + COLUMN_TITLE_KEY + " WHERE "
+                        + COLUMN_NOTE_ID + " = new." + COLUMN_ID + "; END",
+                "CREATE TRIGGER note_tags_notes_ad AFTER DELETE ON " + TABLE_NOTES + " BEGIN DELETE FROM "
+                        + TABLE_NOTE_TAGS + " WHERE " + COLUMN_NOTE_ID + " = old." + COLUMN_ID + "; END",
+                "CREATE TRIGGER note_tags_tags_ad AFTER DELETE ON " + TABLE_TAGS + " BEGIN DELETE FROM "
+                        + TABLE_NOTE_TAGS + " WHERE " + COLUMN_TAG_ID + " = old." + COLUMN_ID + "; END");
+    }
+
+    // Etiket değişikliğinin günlük satırı: yeni nesil (liste yenilensin) ama senkronizasyon işareti korunur;
+    // etiketler sunucuya gitmez, değişmemiş not yeniden gönderilmemeli. Satırı olmayan not günlük başladığından
+    // beri değişmemiştir (ilk senkronizasyon hepsini gönderir), gönderilmiş sayılır. Not silinirken (satırı artık
+    // yok) silme kaydının üzerine yazılmaz
+    private static String tagChangeLogSql(String noteId) {
+        return "INSERT OR REPLACE INTO " + TABLE_NOTE_CHANGES + " (" + COLUMN_NOTE_ID + ", " + COLUMN_GENERATION + ", "
+                + COLUMN_DELETED + ", " + COLUMN_SYNCED + ") SELECT " + COLUMN_ID + ", " + nextGenerationSql() + ", 0, "
+                + "IFNULL((SELECT " + COLUMN_SYNCED + " FROM " + TABLE_NOTE_CHANGES + " WHERE " + COLUMN_NOTE_ID + " = "
+                + noteId + "), 1) FROM " + TABLE_NOTES + " WHERE " + COLUMN_ID + " = " + noteId + ";";
+    }
+
+    // Önizlemeyi içerikle senkron tutan tetikleyiciler. Sadece içerik değişince çalışır; gövdenin sadece
+    // sonraki parçalarına dokunan kayıtlar (SQL_UPDATE_NOTE_TAIL) önizlemeyi yeniden hesaplatmaz
+    private static List<String> previewStatements() {
+        String update = "UPDATE " + TABLE_NOTES + " SET " + COLUMN_PREVIEW + " = " + previewSql("new." + COLUMN_CONTENT)
+                + " WHERE " + COLUMN_ID + " = new." + COLUMN_ID + ";";
+        return Arrays.asList(
+                "CREATE TRIGGER notes_preview_ai AFTER INSERT ON " + TABLE_NOTES + " BEGIN " + update + " END",
+                "CREATE TRIGGER notes_preview_au AFTER UPDATE OF " + COLUMN_CONTENT + " ON " + TABLE_NOTES
+                        + " BEGIN " + update + " END");
+    }
+
+    // NoteText.preview'un SQL karşılığı
+    private static String previewSql(String content) {
+        return "trim(substr(replace(replace(replace(IFNULL(" + content + ", ''), char(13), ''), char(10), ' '), "
+                + "char(9), ' '), 1, " + PREVIEW_LENGTH + "))";
+    }
+
+    // FTS tablosu ve notes ile senkron tutan tetikleyiciler. Tetikleyiciler notes.content'i, yani gövdenin
+    // sadece ilk parçasını görür; parçalı notların satırı kayıtta tam metinle yeniden yazılır
+    // (SQL_UPDATE_SEARCH_CONTENT)
+    private static List<String> searchIndexStatements() {
+        String insertFts = "INSERT INTO " + TABLE_NOTES_FTS + "(docid, " + COLUMN_TITLE + ", " + COLUMN_CONTENT + ") "
+                + "VALUES (new." + COLUMN_ID + ", " + foldSql("new." + COLUMN_TITLE) + ", "
+                + foldSql("new." + COLUMN_CONTENT) + ");";
+        String deleteFts = "DELETE FROM " + TABLE_NOTES_FTS + " WHERE docid = old." + COLUMN_ID + ";";
+        return Arrays.asList(
+                "CREATE VIRTUAL TABLE " + TABLE_NOTES_FTS + " USING fts4("
+                        + COLUMN_TITLE + ", " + COLUMN_CONTENT + ", tokenize=unicode61, prefix=\"3\")",
+                "CREATE TRIGGER notes_fts_ai AFTER INSERT ON " + TABLE_NOTES + " BEGIN " + insertFts + " END",
+                "CREATE TRIGGER notes_fts_ad AFTER DELETE ON " + TABLE_NOTES + " BEGIN " + deleteFts + " END",
+                // Sadece metin değiştiğinde indeks güncellenir
+                "CREATE TRIGGER notes_fts_au AFTER UPDATE OF " + COLUMN_TITLE + ", " + COLUMN_CONTENT
+                        + " ON " + TABLE_NOTES + " BEGIN " + deleteFts + " " + insertFts + " END");
+    }
+
+    // Değişiklik günlüğü ve onu tutan tetikleyiciler. Yeni nesil, nesil indeksinin son girdisinden hesaplanır;
+    // REPLACE notun önceki satırını siler, böylece her not en son değişikliğiyle bir kez bulunur.
+    // Mevcut notlar için satır gerekmez: günlük başlamadan önceki durum nesil 0 sayılır.
+    private static List<String> changeLogStatements() {
+        String logNew = "INSERT OR REPLACE INTO " + TABLE_NOTE_CHANGES + " (" + COLUMN_NOTE_ID + ", "
+                + COLUMN_GENERATION + ", " + COLUMN_DELETED + ") VALUES (new." + COLUMN_ID + ", " + nextGenerationSql()
+                + ", 0);";
+        return Arrays.asList(
+                "CREATE TABLE " + TABLE_NOTE_CHANGES + " ("
+                        + COLUMN_NOTE_ID + " INTEGER PRIMARY KEY, "
+                        + COLUMN_GENERATION + " INTEGER NOT NULL, "
+                        + COLUMN_DELETED + " INTEGER NOT NULL DEFAULT 0, "
+                        + COLUMN_SYNCED + " INTEGER NOT NULL DEFAULT 0, "
+                        + COLUMN_SYNC_ID + " TEXT, "
+                        + COLUMN_VERSION + " INTEGER, "
+                        + COLUMN_CHANGED_AT + " INTEGER)",
+                "CREATE UNIQUE INDEX idx_note_changes_generation ON " + TABLE_NOTE_CHANGES
+                        + " (" + COLUMN_GENERATION + ")",
+                "CREATE INDEX idx_note_changes_sync_id ON " + TABLE_NOTE_CHANGES + " (" + COLUMN_SYNC_ID + ")",
+                "CREATE TRIGGER note_changes_ai AFTER INSERT ON " + TABLE_NOTES + " BEGIN " + logNew + " END",
+                changeLogUpdateTriggerSql(),
+                changeLogDeleteTriggerSql());
+    }
+
+    // Silinen notun satırı silme kaydı olarak kimliğini, bir artmış sürümünü ve silinme zamanını (epoch ms) taşır
+    private static String changeLogDeleteTriggerSql() {
+        return "CREATE TRIGGER note_changes_ad AFTER DELETE ON " + TABLE_NOTES + " BEGIN INSERT OR REPLACE INTO "
+                + TABLE_NOTE_CHANGES + " (" + COLUMN_NOTE_ID + ", " + COLUMN_GENERATION + ", " + COLUMN_DELETED + ", "
+                + COLUMN_SYNC_ID + ", " + COLUMN_VERSION + ", " + COLUMN_CHANGED_AT + ") VALUES (old." + COLUMN_ID
+                + ", " + nextGenerationSql() + ", 1, old." + COLUMN_SYNC_ID + ", old." + COLUMN_VERSION
+                + " + 1, CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER)); END";
+    }
+
+    // Sadece listede görünen veya notun içeriğini belirleyen sütunlar izlenir; tetikleyicilerin kendi
+    // hesapladığı sütunlar (önizleme) değişikliği ikinci kez yazdırmaz
+    private static String changeLogUpdateTriggerSql() {
+        return "CREATE TRIGGER note_changes_au AFTER UPDATE OF " + COLUMN_TITLE + ", " + COLUMN_CONTENT + ", "
+                + COLUMN_TAIL_CHUNKS + ", " + COLUMN_UPDATED_AT + ", " + COLUMN_ARCHIVED + ", " + COLUMN_WORD_COUNT
+                + " ON " + TABLE_NOTES + " BEGIN INSERT OR REPLACE INTO " + TABLE_NOTE_CHANGES + " (" + COLUMN_NOTE_ID
+                + ", " + COLUMN_GENERATION + ", " + COLUMN_DELETED + ") VALUES (new." + COLUMN_ID + ", "
+                + nextGenerationSql() + ", 0); END";
+    }
+
+    private static String nextGenerationSql() {
+        return "(SELECT IFNULL(MAX(" + COLUMN_GENERATION + "), 0) + 1 FROM " + TABLE_NOTE_CHANGES + ")";
+    }
+
+    // Arama sonuçlarının içeriği; arşivlenmiş notlar aramada görünmez
+    public static String selectNotesByIdsSql(long[] ids) {
+        return "SELECT " + NOTE_COLUMNS + " FROM " + TABLE_NOTES + " WHERE " + COLUMN_ID
+                + " IN (" + idList(ids) + ") AND " + COLUMN_ARCHIVED + " = 0";
+    }
+
+    // Değişen notların liste özetleri (sütunlar liste sayfasıyla aynı), sadece verilen görünümdekiler
+    public static String selectSummariesByIdsSql(long[] ids, boolean archived) {
+        return "SELECT " + SUMMARY_COLUMNS + " FROM " + TABLE_NOTES + " WHERE " + COLUMN_ID
+                + " IN (" + idList(ids) + ") AND " + COLUMN_ARCHIVED + " = " + (archived ? 1 : 0);
+    }
+
+    // Etiket süzgeciyle (bkz. tagFilterSql)
+    public static String selectSummariesByIdsSql(long[] ids, boolean archived, long[] tagIds) {
+        return selectSummariesByIdsSql(ids, archived) + tagFilterSql(COLUMN_ID, tagIds);
+    }
+
+    // FTS araması, sadece verilen etiketlerin hepsini taşıyan notlar
+    public static String searchSql(long[] tagIds) {
+        return SQL_SEARCH + tagFilterSql("docid", tagIds);
+    }
+
+    // Görünümdeki (arşiv ya da notlar) ve verilen etiketlerin hepsini taşıyan notların id'leri; ilk etiketin
+    // indeks aralığı taranır, diğerleri birincil anahtardan kontrol edilir. Parametre: arşiv (0/1)
+    public static String selectTaggedNoteIdsSql(long[] tagIds) {
+        return "SELECT t." + COLUMN_NOTE_ID + " FROM " + TABLE_NOTE_TAGS + " t WHERE t." + COLUMN_TAG_ID + " = "
+                + tagIds[0] + " AND t." + COLUMN_ARCHIVED + " = ?"
+                + tagFilterSql("t." + COLUMN_NOTE_ID, Arrays.copyOfRange(tagIds, 1, tagIds.length));
+    }
+
+    // noteId ifadesindeki notun verilen etiketlerin hepsini taşıması; her etiket note_tags birincil anahtarında
+    // tek bir arama. Etiket yoksa boş. İfadeler AND ile başlar
+    static String tagFilterSql(String noteId, long[] tagIds) {
+        StringBuilder sql = new StringBuilder();
+        for (long tagId : tagIds) {
+            sql.append(" AND EXISTS (SELECT 1 FROM ").append(TABLE_NOTE_TAGS).append(" WHERE ").append(COLUMN_TAG_ID)
+                    .append(" = ").append(tagId).append(" AND ").append(COLUMN_NOTE_ID).append(" = ").append(noteId)
+                    .append(')');
+        }
+        return sql.toString();
+    }
+
+    private static String idList(long[] ids) {
+        StringBuilder in = new StringBuilder();
+        for (long id : ids) {
+            if (in.length() > 0) {
+                in.append(',');
+            }
+            in.append(id);
+        }
+        return in.toString();
+    }
+
+    // SearchText.fold ile aynı Türkçe i katlaması (tokenizer ı'yı i'ye çevirmez)
+    private static String foldSql(String expression) {
+        return "replace(replace(" + expression + ", 'ı', 'i'), 'İ', 'i')";
+    }
+
+    // foldSql'in Java karşılığı; FTS'e Java'dan yazılan metin tetikleyicilerinkiyle aynı katlanır
+    public static String foldForIndex(String text) {
+        return text.replace('ı', 'i').replace('İ', 'i');
+    }
+}
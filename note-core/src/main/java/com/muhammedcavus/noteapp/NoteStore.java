@@ -0,0 +1,56 @@
+package com.muhammedcavus.noteapp;
+
+import java.util.List;
+
+// Not deposu. Android'de DBHelper (SQLiteOpenHelper), JVM'de JdbcNoteStore uygular; ikisi de
+// NoteSchema'daki şemayı ve sorguları kullanır. Uygulamalar thread güvenli olmak zorunda değildir,
+// çağıran (NoteRepository veya benchmark) erişimi sıralar.
+public interface NoteStore {
+
+    // Notu kaydeder (id -1 ise ekler). Dönen not gövdenin sadece ilk parçasını taşır; güncellenecek not yoksa null
+    NoteModel saveNote(long id, String title, String content, long now);
+
+    int deleteNote(long id);
+
+    // Hızlı yakalama günlüğünden gelen notları tek transaction'da ekler; daha önce eklenmiş (aynı kimlikli)
+    // olanlar atlanır. Eklenen not sayısı döner
+    int saveCaptures(List<CaptureJournal.Entry> entries);
+
+    // Tek not: ilk parça ve kalan parça sayısı; bulunamazsa null
+    NoteModel loadNote(long id);
+
+    // Liste sayfası: içerik yerine önizleme taşıyan özetler
+    List<NoteModel> loadNotePage(NoteQuery query);
+
+    // Arşivlenmemiş notlardaki FTS eşleşmeleri, BM25 puanına göre azalan sırada en fazla limit id; tagIds boş
+    // değilse sadece bu etiketlerin hepsini taşıyan notlar
+    long[] searchNoteIds(String matchExpression, long[] tagIds, int limit);
+
+    // Verilen id'lerin notları (arşivlenmişler hariç); sıra belirsiz
+    List<NoteModel> loadNotesByIds(long[] ids);
+
+    // Değişiklik günlüğünün son nesli; günlük boşsa 0
+    long changeGeneration();
+
+    // afterGeneration'dan sonraki en fazla limit değişiklik; archived görünümündeki (ve tagIds boş değilse bu
+    // etiketlerin hepsini taşıyan) notların özetleriyle
+    NoteChanges loadChanges(long afterGeneration, boolean archived, long[] tagIds, int limit);
+
+    // Tüm etiketler ada göre, not sayılarıyla
+    List<NoteTag> loadTags();
+
+    // Notun etiketleri ada göre
+    List<NoteTag> loadNoteTags(long noteId);
+
+    // Notları name etiketiyle etiketler (etiket yoksa oluşturulur); etiketin id'si döner
+    long tagNotes(String name, long[] noteIds);
+
+    // Etiketi notlardan kaldırır; etiketten çıkan not sayısı döner
+    int untagNotes(long tagId, long[] noteIds);
+
+    // Etiketi yeniden adlandırır; bu adda başka etiket varsa false
+    boolean renameTag(long tagId, String name);
+
+    // Etiketi siler (notlar silinmez, sadece etiketten çıkar); etiket yoksa 0
+    int deleteTag(long tagId);
+}
@@ -0,0 +1,42 @@
+package com.muhammedcavus.noteapp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Etiket (klasör) ve görünüm başına not sayıları. Sayılar tetikleyicilerle tutulan sütunlardan okunur
+// (bkz. NoteSchema.tagStatements); okunurken not sayılmaz
+public final class NoteTag {
+
+    public final long id;
+    public final String name;
+    // Arşivlenmemiş ve arşivlenmiş not sayısı
+    public final int noteCount;
+    public final int archivedCount;
+
+    public NoteTag(long id, String name, int noteCount, int archivedCount) {
+        this.id = id;
+        this.name = name;
+        this.noteCount = noteCount;
+        this.archivedCount = archivedCount;
+    }
+
+    public int count(boolean archived) {
+        return archived ? archivedCount : noteCount;
+    }
+
+    // Etiket süzgecinin id'leri; görünümde en az notu olan etiket önce gelir, çünkü sayfa sorgusu ilk etiketin
+    // indeks aralığını tarar ve diğerlerini not başına kontrol eder (bkz. NoteQuery.page)
+    public static long[] filterIds(List<NoteTag> tags, boolean archived) {
+        List<NoteTag> sorted = new ArrayList<>(tags);
+        Collections.sort(sorted, (a, b) -> {
+            int byCount = Integer.compare(a.count(archived), b.count(archived));
+            return byCount != 0 ? byCount : Long.compare(a.id, b.id);
+        });
+        long[] ids = new long[sorted.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = sorted.get(i).id;
+        }
+        return ids;
+    }
+}
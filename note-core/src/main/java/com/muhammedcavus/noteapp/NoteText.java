@@ -0,0 +1,67 @@
+package com.muhammedcavus.noteapp;
+
+// Liste satırlarının metin özetleri. Önizleme veritabanında tetikleyiciyle hesaplanır
+// (NoteSchema.previewSql); buradaki preview aynı kuralı Java'da uygular (arama sonuçları, testler).
+// Kelime sayısı parçalı gövdelerde de tutarlı olsun diye Java'da, kayıt sırasında hesaplanır.
+public final class NoteText {
+
+    private NoteText() {
+    }
+
+    // \r silinir, \n ve \t boşluk olur; ilk PREVIEW_LENGTH karakter (kod noktası) alınıp baştaki ve
+    // sondaki boşluklar kırpılır. SQLite'ın substr ve trim davranışıyla birebir aynı
+    public static String preview(String content) {
+        if (content == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(Math.min(content.length(), NoteSchema.PREVIEW_LENGTH + 1));
+        int codePoints = 0;
+        for (int i = 0; i < content.length() && codePoints < NoteSchema.PREVIEW_LENGTH; ) {
+            int c = content.codePointAt(i);
+            i += Character.charCount(c);
+            if (c == '\r') {
+                continue;
+            }
+            sb.appendCodePoint(c == '\n' || c == '\t' ? ' ' : c);
+            codePoints++;
+        }
+        int start = 0;
+        int end = sb.length();
+        while (start < end && sb.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && sb.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return sb.substring(start, end);
+    }
+
+    public static int wordCount(CharSequence text) {
+        WordCounter counter = new WordCounter();
+        counter.add(text);
+        return counter.count();
+    }
+
+    // Metni parça parça sayar (ör. note_chunks satırları); parça sınırına denk gelen kelime bir kez sayılır
+    public static final class WordCounter {
+        private int count;
+        private boolean inWord;
+
+        public void add(CharSequence text) {
+            if (text == null) {
+                return;
+            }
+            for (int i = 0; i < text.length(); i++) {
+                boolean space = Character.isWhitespace(text.charAt(i)) || Character.isSpaceChar(text.charAt(i));
+                if (!space && !inWord) {
+                    count++;
+                }
+                inWord = !space;
+            }
+        }
+
+        public int count() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.muhammedcavus.noteapp;
+
+import java.util.Arrays;
+
+// FTS eşleşmelerini BM25 ile puanlayıp en alakalı ilk limit tanesini seçer. Eşleşmeler sadece
+// id + matchinfo olarak okunur; içerik sadece seçilen notlar için ayrıca istenir.
+public final class SearchRanking {
+
+    // Başlıkta eşleşme içerikte eşleşmeden daha değerli
+    private static final double[] COLUMN_WEIGHTS = {2.0, 1.0};
+
+    private long[] ids = new long[64];
+    private double[] scores = new double[64];
+    private int size;
+
+    public void add(long id, byte[] matchinfo) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            scores = Arrays.copyOf(scores, size * 2);
+        }
+        ids[size] = id;
+        scores[size] = Bm25.score(Bm25.decode(matchinfo), COLUMN_WEIGHTS);
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Puana göre azalan sırada en fazla limit id
+    public long[] top(int limit) {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+        long[] top = new long[Math.min(limit, size)];
+        for (int i = 0; i < top.length; i++) {
+            top[i] = ids[order[i]];
+        }
+        return top;
+    }
+}
@@ -0,0 +1,186 @@
+package com.muhammedcavus.noteapp;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+// Arama metni yardımcıları: Türkçe uyumlu katlama, FTS sorgusu üretimi ve vurgulu özet (snippet)
+public final class SearchText {
+
+    // Özet içinde eşleşen kelimeyi işaretleyen karakterler; adaptör bunları kalın yazıya çevirir
+    public static final char HIGHLIGHT_START = '\u0002';
+    public static final char HIGHLIGHT_END = '\u0003';
+
+    private static final String ELLIPSIS = "…";
+
+    private SearchText() {
+    }
+
+    // Karakter bazında katlama (uzunluk korunur): küçük harf, ı/İ -> i, aksanlar kaldırılır (ş -> s, ü -> u ...)
+    public static char foldChar(char c) {
+        if (c == 'ı' || c == 'İ' || c == 'I') {
+            return 'i';
+        }
+        char lower = Character.toLowerCase(c);
+        if (lower < 0x80) {
+            return lower;
+        }
+        String decomposed = Normalizer.normalize(String.valueOf(lower), Normalizer.Form.NFD);
+        return decomposed.isEmpty() ? lower : decomposed.charAt(0);
+    }
+
+    public static String fold(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = foldChar(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    public static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c);
+    }
+
+    // Sorguyu katlanmış kelimelere ayırır; harf/rakam dışındaki her şey ayırıcıdır
+    public static List<String> terms(String query) {
+        List<String> terms = new ArrayList<>();
+        String folded = fold(query);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean word = i < folded.length() && isWordChar(folded.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                terms.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    // Her kelime önek sorgusu olur, kelimeler örtük AND ile birleşir: "kırm not" -> "kirm* not*"
+    public static String matchExpression(List<String> terms) {
+        StringBuilder sb = new StringBuilder();
+        for (String term : terms) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(term).append('*');
+        }
+        return sb.toString();
+    }
+
+    // Yeni sorgu bir öncekini sadece daraltıyorsa (her eski terim uzatılmış, yeni terimler eklenmiş)
+    // sonuçları öncekinin alt kümesidir ve veritabanına gitmeden süzülebilir
+    public static boolean refines(List<String> previous, List<String> current) {
+        if (previous == null || previous.isEmpty() || current.size() < previous.size()) {
+            return false;
+        }
+        for (int i = 0; i < previous.size(); i++) {
+            if (!current.get(i).startsWith(previous.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FTS ile aynı anlam: her terim, metinlerden birindeki bir kelimenin öneki olmalı
+    public static boolean matchesAll(List<String> terms, String... texts) {
+        String[] folded = new String[texts.length];
+        for (int i = 0; i < texts.length; i++) {
+            folded[i] = texts[i] == null ? "" : fold(texts[i]);
+        }
+        for (String term : terms) {
+            boolean found = false;
+            for (int i = 0; i < folded.length && !found; i++) {
+                found = containsWordPrefix(folded[i], term);
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsWordPrefix(String folded, String term) {
+        int from = 0;
+        while (true) {
+            int index = folded.indexOf(term, from);
+            if (index < 0) {
+                return false;
+            }
+            if (index == 0 || !isWordChar(folded.charAt(index - 1))) {
+                return true;
+            }
+            from = index + 1;
+        }
+    }
+
+    // Kelimenin başında sorgu terimlerinden biri varsa eşleşen uzunluk, yoksa 0
+    private static int matchLength(String folded, int wordStart, int wordEnd, List<String> terms) {
+        int best = 0;
+        for (String term : terms) {
+            if (term.length() <= wordEnd - wordStart && term.length() > best
+                    && folded.regionMatches(wordStart, term, 0, term.length())) {
+                best = term.length();
+            }
+        }
+        return best;
+    }
+
+    // İlk eşleşmenin çevresinden en fazla maxLength karakterlik, eşleşmeleri işaretlenmiş özet
+    public static String snippet(String text, List<String> terms, int maxLength) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String folded = fold(text);
+
+        int firstMatch = -1;
+        for (int i = 0; i < folded.length() && firstMatch < 0; i++) {
+            if (isWordChar(folded.charAt(i)) && (i == 0 || !isWordChar(folded.charAt(i - 1)))) {
+                int end = i;
+                while (end < folded.length() && isWordChar(folded.charAt(end))) {
+                    end++;
+                }
+                if (matchLength(folded, i, end, terms) > 0) {
+                    firstMatch = i;
+                }
+            }
+        }
+
+        int start = firstMatch < 0 ? 0 : Math.max(0, firstMatch - maxLength / 4);
+        // Kelime ortasından başlamayalım
+        while (start > 0 && isWordChar(folded.charAt(start - 1)) && start < firstMatch) {
+            start++;
+        }
+        int end = Math.min(text.length(), start + maxLength);
+
+        StringBuilder sb = new StringBuilder(maxLength + 8);
+        if (start > 0) {
+            sb.append(ELLIPSIS);
+        }
+        int i = start;
+        while (i < end) {
+            char c = text.charAt(i);
+            if (isWordChar(folded.charAt(i)) && (i == 0 || !isWordChar(folded.charAt(i - 1)))) {
+                int wordEnd = i;
+                while (wordEnd < folded.length() && isWordChar(folded.charAt(wordEnd))) {
+                    wordEnd++;
+                }
+                int length = matchLength(folded, i, wordEnd, terms);
+                if (length > 0) {
+                    int highlightEnd = Math.min(end, i + length);
+                    sb.append(HIGHLIGHT_START).append(text, i, highlightEnd).append(HIGHLIGHT_END);
+                    i = highlightEnd;
+                    continue;
+                }
+            }
+            sb.append(c == '\n' || c == '\r' ? ' ' : c);
+            i++;
+        }
+        if (end < text.length()) {
+            sb.append(ELLIPSIS);
+        }
+        return sb.toString();
+    }
+}
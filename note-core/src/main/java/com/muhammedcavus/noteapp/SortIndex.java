@@ -0,0 +1,119 @@
+package com.muhammedcavus.noteapp;
+
+import java.util.AbstractList;
+import java.util.List;
+
+// Yüklenmiş not özetleri üzerinde bellek içi sıralama indeksi: sıralama değerleri ilkel dizilerde tutulur,
+// her sıra için bir permütasyon bir kez hesaplanır. Sıra değiştirmek sadece permütasyon seçmektir;
+// veritabanına gidilmez, NoteModel'ler kopyalanmaz. Sıralar NoteQuery.comparator ile aynıdır.
+public final class SortIndex {
+
+    private final NoteModel[] notes;
+    private final long[] ids;
+    private final long[] updatedAt;
+    // Başlık anahtarları (TitleKeys); onaltılık metin olduğundan String sırası BINARY sırasıyla aynı
+    private final String[] titleKeys;
+    // SortOrder.ordinal() konumunda o sıranın permütasyonu; ilk istendiğinde hesaplanır
+    private final int[][] orders = new int[NoteQuery.SortOrder.values().length][];
+
+    private interface IndexComparator {
+        int compare(int a, int b);
+    }
+
+    // notes verilen sıradaysa (given) o sıranın permütasyonu sıralamadan kurulur
+    public SortIndex(List<NoteModel> notes, NoteQuery.SortOrder given) {
+        int count = notes.size();
+        this.notes = notes.toArray(new NoteModel[count]);
+        ids = new long[count];
+        updatedAt = new long[count];
+        titleKeys = new String[count];
+        for (int i = 0; i < count; i++) {
+            NoteModel note = this.notes[i];
+            ids[i] = note.getId();
+            updatedAt[i] = note.getUpdatedAt();
+            titleKeys[i] = note.getTitleKey() != null ? note.getTitleKey() : "";
+        }
+        if (given != null) {
+            int[] identity = new int[count];
+            for (int i = 0; i < count; i++) {
+                identity[i] = i;
+            }
+            orders[given.ordinal()] = identity;
+        }
+    }
+
+    public int size() {
+        return notes.length;
+    }
+
+    // Notların verilen sıradaki görünümü (salt okunur, indeksle birlikte yaşar)
+    public List<NoteModel> view(NoteQuery.SortOrder sortOrder) {
+        final int[] order = order(sortOrder);
+        return new AbstractList<NoteModel>() {
+            @Override
+            public NoteModel get(int index) {
+                return notes[order[index]];
+            }
+
+            @Override
+            public int size() {
+                return order.length;
+            }
+        };
+    }
+
+    int[] order(NoteQuery.SortOrder sortOrder) {
+        int[] order = orders[sortOrder.ordinal()];
+        if (order == null) {
+            order = sort(comparator(sortOrder));
+            orders[sortOrder.ordinal()] = order;
+        }
+        return order;
+    }
+
+    private IndexComparator comparator(NoteQuery.SortOrder sortOrder) {
+        switch (sortOrder) {
+            case DATE:
+                return (a, b) -> {
+                    int byDate = Long.compare(updatedAt[b], updatedAt[a]);
+                    return byDate != 0 ? byDate : Long.compare(ids[b], ids[a]);
+                };
+            case TITLE:
+                return (a, b) -> {
+                    int byTitle = titleKeys[a].compareTo(titleKeys[b]);
+                    return byTitle != 0 ? byTitle : Long.compare(ids[a], ids[b]);
+                };
+            default:
+                return (a, b) -> Long.compare(ids[a], ids[b]);
+        }
+    }
+
+    // int dizisi üzerinde birleştirmeli sıralama (Integer kutulaması ve Comparator nesnesi başına ayırma yok)
+    private int[] sort(IndexComparator comparator) {
+        int count = notes.length;
+        int[] order = new int[count];
+        int[] buffer = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        for (int width = 1; width < count; width *= 2) {
+            for (int from = 0; from < count; from += 2 * width) {
+                int middle = Math.min(from + width, count);
+                int to = Math.min(from + 2 * width, count);
+                int left = from;
+                int right = middle;
+                for (int k = from; k < to; k++) {
+                    if (left < middle && (right >= to || comparator.compare(order[left], order[right]) <= 0)) {
+                        buffer[k] = order[left++];
+                    } else {
+                        buffer[k] = order[right++];
+                    }
+                }
+            }
+            int[] swap = order;
+            order = buffer;
+            buffer = swap;
+        }
+        return order;
+    }
+}
@@ -0,0 +1,18 @@
+package com.muhammedcavus.noteapp;
+
+import java.util.List;
+
+// Sunucuyla alınıp verilen kayıt grubu. Çekmede cursor sunucunun bu gruptan sonraki konumudur;
+// complete false ise sunucuda daha fazla değişiklik vardır.
+public final class SyncBatch {
+
+    public final long cursor;
+    public final boolean complete;
+    public final List<SyncRecord> records;
+
+    public SyncBatch(long cursor, boolean complete, List<SyncRecord> records) {
+        this.cursor = cursor;
+        this.complete = complete;
+        this.records = records;
+    }
+}
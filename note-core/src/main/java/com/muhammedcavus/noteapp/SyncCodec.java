@@ -0,0 +1,104 @@
+package com.muhammedcavus.noteapp;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// SyncBatch'in ikili biçimi, gzip ile sıkıştırılmış: sürüm, cursor, complete, kayıt sayısı, sonra her kayıt için
+// syncId, sürüm, tarihler, bayraklar (silindi, arşivde), başlık ve gövde. Metinler uzunluk + UTF-8 olarak yazılır
+// (null için -1); not metni JSON kaçışı olmadan aynen taşınır, gzip tekrar eden metni küçültür.
+public final class SyncCodec {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int FLAG_DELETED = 1;
+    private static final int FLAG_ARCHIVED = 2;
+    // Bozuk veride dev bir uzunluk bellek ayırmaya yol açmasın
+    private static final int MAX_TEXT_BYTES = 64 * 1024 * 1024;
+
+    private SyncCodec() {
+    }
+
+    public static byte[] encode(SyncBatch batch) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(batch.cursor);
+            out.writeBoolean(batch.complete);
+            out.writeInt(batch.records.size());
+            for (SyncRecord record : batch.records) {
+                writeText(out, record.syncId);
+                out.writeLong(record.version);
+                out.writeLong(record.createdAt);
+                out.writeLong(record.updatedAt);
+                out.writeByte((record.deleted ? FLAG_DELETED : 0) | (record.archived ? FLAG_ARCHIVED : 0));
+                writeText(out, record.title);
+                writeText(out, record.content);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    public static SyncBatch decode(byte[] data) throws IOException {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(data)))) {
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Desteklenmeyen senkronizasyon biçimi: " + version);
+            }
+            long cursor = in.readLong();
+            boolean complete = in.readBoolean();
+            int count = in.readInt();
+            if (count < 0) {
+                throw new IOException("Bozuk kayıt sayısı: " + count);
+            }
+            List<SyncRecord> records = new ArrayList<>(Math.min(count, 1024));
+            for (int i = 0; i < count; i++) {
+                String syncId = readText(in);
+                if (syncId == null) {
+                    throw new IOException("Kayıt " + i + ": kimlik eksik");
+                }
+                long recordVersion = in.readLong();
+                long createdAt = in.readLong();
+                long updatedAt = in.readLong();
+                int flags = in.readUnsignedByte();
+                String title = readText(in);
+                String content = readText(in);
+                records.add(new SyncRecord(syncId, recordVersion, createdAt, updatedAt,
+                        (flags & FLAG_DELETED) != 0, (flags & FLAG_ARCHIVED) != 0, title, content, -1));
+            }
+            return new SyncBatch(cursor, complete, records);
+        } catch (EOFException e) {
+            throw new IOException("Senkronizasyon verisi eksik", e);
+        }
+    }
+
+    private static void writeText(DataOutputStream out, String text) throws IOException {
+        if (text == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readText(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0 || length > MAX_TEXT_BYTES) {
+            throw new IOException("Bozuk metin uzunluğu: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,251 @@
+package com.muhammedcavus.noteapp;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Değişiklik günlüğüne dayalı artımlı senkronizasyon. Önce gönderim: son gönderilen nesilden sonra bu cihazda
+// değişen notlar (silme kayıtlarıyla) gruplar halinde gönderilir; sunucu reddettiklerinin kendi halini döndürür.
+// Sonra çekme: sunucunun son konumundan sonraki değişiklikler alınır. İki yönde de kayıt yerel haliyle
+// SyncRecord.compare ile karşılaştırılır (son yazan kazanır); yerel hal daha yeniyse korunur, sonraki
+// gönderimde sunucuya gider. İş değişen not sayısıyla orantılıdır; her grup sonrası konumlar kaydedilir,
+// yarıda kalan senkronizasyon kaldığı yerden sürer. İlk senkronizasyonda (gönderilen nesil < 0) bütün
+// notlar bir kez gönderilir.
+public final class SyncEngine {
+
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    public interface Work<T> {
+        T run(SyncStore store);
+    }
+
+    // Depoya erişim. Her iş kısa bir adımdır (bir grubu okumak ya da uygulamak); uygulamada yazma thread'inde
+    // çalışır, ağ beklenirken depo kilitli kalmaz
+    public interface Access {
+        <T> T run(Work<T> work);
+    }
+
+    public static final class State {
+        // Sunucuya gönderilmiş son yerel nesil; -1 ise hiç senkronize edilmedi
+        public final long pushedGeneration;
+        // Sunucudan alınmış son konum
+        public final long pullCursor;
+
+        public State(long pushedGeneration, long pullCursor) {
+            this.pushedGeneration = pushedGeneration;
+            this.pullCursor = pullCursor;
+        }
+    }
+
+    public interface Checkpoint {
+        void save(State state);
+    }
+
+    public static final class Result {
+        public final int pushed;
+        public final int pulled;
+        // Yerelde yazılan ya da silinen not sayısı ve id'leri
+        public final long[] changedIds;
+        // Yerel halin ya da sunucunun halinin kaybettiği kayıtlar
+        public final int conflicts;
+        public final State state;
+
+        Result(int pushed, int pulled, long[] changedIds, int conflicts, State state) {
+            this.pushed = pushed;
+            this.pulled = pulled;
+            this.changedIds = changedIds;
+            this.conflicts = conflicts;
+            this.state = state;
+        }
+    }
+
+    private final Access access;
+    private final SyncTransport transport;
+    private final int batchSize;
+
+    private long pushedGeneration;
+    private long pullCursor;
+    private int pushed;
+    private int pulled;
+    private int conflicts;
+    private long[] changedIds = new long[16];
+    private int changedCount;
+
+    public SyncEngine(Access access, SyncTransport transport, int batchSize) {
+        this.access = access;
+        this.transport = transport;
+        this.batchSize = batchSize;
+    }
+
+    // JVM'de (testler) depoya doğrudan erişim
+    public static Access direct(final SyncStore store) {
+        return new Access() {
+            @Override
+            public <T> T run(Work<T> work) {
+                return work.run(store);
+            }
+        };
+    }
+
+    // Tek seferlik: aynı motor aynı anda iki kez çalıştırılmaz
+    public synchronized Result sync(State state, Checkpoint checkpoint) throws IOException {
+        pushedGeneration = state.pushedGeneration;
+        pullCursor = state.pullCursor;
+        pushed = 0;
+        pulled = 0;
+        conflicts = 0;
+        changedCount = 0;
+        if (pushedGeneration < 0) {
+            pushAll(checkpoint);
+        }
+        pushChanges(checkpoint);
+        pull(checkpoint);
+        return new Result(pushed, pulled, Arrays.copyOf(changedIds, changedCount), conflicts, currentState());
+    }
+
+    private void pushAll(Checkpoint checkpoint) throws IOException {
+        // Nesil notlar okunmadan alınır: arada değişen not bir kez daha gönderilir, kaybolmaz
+        long generation = access.run(SyncStore::changeGeneration);
+        long afterId = 0;
+        while (true) {
+            final long from = afterId;
+            SyncBatch batch = access.run(store -> {
+                long[] ids = store.loadSyncNoteIds(from, batchSize);
+                long last = ids.length > 0 ? ids[ids.length - 1] : from;
+                return new SyncBatch(last, ids.length < batchSize, loadRecords(store, ids));
+            });
+            if (!batch.records.isEmpty()) {
+                send(batch.records, generation);
+            }
+            afterId = batch.cursor;
+            if (batch.complete) {
+                break;
+            }
+        }
+        pushedGeneration = generation;
+        checkpoint.save(currentState());
+    }
+
+    private void pushChanges(Checkpoint checkpoint) throws IOException {
+        while (true) {
+            final long after = pushedGeneration;
+            SyncBatch batch = access.run(store -> {
+                NoteChanges changes = store.loadUnsyncedChanges(after, batchSize);
+                return new SyncBatch(changes.generation, changes.complete, loadRecords(store, changes.ids));
+            });
+            if (!batch.records.isEmpty()) {
+                send(batch.records, batch.cursor);
+            }
+            if (batch.cursor != pushedGeneration) {
+                pushedGeneration = batch.cursor;
+                checkpoint.save(currentState());
+            }
+            if (batch.complete) {
+                break;
+            }
+        }
+    }
+
+    // generation kayıtlar okunurken günlüğün ulaştığı nesil; gönderim sürerken yeniden değişen notlar
+    // gönderildi diye işaretlenmez
+    private void send(List<SyncRecord> records, long generation) throws IOException {
+        SyncBatch winners = SyncCodec.decode(transport.push(SyncCodec.encode(new SyncBatch(0, true, records))));
+        pushed += records.size();
+        final long[] ids = new long[records.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = records.get(i).localId;
+        }
+        access.run(store -> {
+            store.markPushed(ids, generation);
+            return null;
+        });
+        // Reddedilen her kayıt bir çakışmadır; sunucunun hali yerelde uygulanır
+        conflicts += winners.records.size();
+        apply(winners.records, false);
+    }
+
+    private void pull(Checkpoint checkpoint) throws IOException {
+        while (true) {
+            SyncBatch batch = SyncCodec.decode(transport.pull(pullCursor, batchSize));
+            pulled += batch.records.size();
+            apply(batch.records, true);
+            pullCursor = batch.cursor;
+            checkpoint.save(currentState());
+            if (batch.complete || batch.records.isEmpty()) {
+                break;
+            }
+        }
+    }
+
+    private static List<SyncRecord> loadRecords(SyncStore store, long[] ids) {
+        List<SyncRecord> records = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            SyncRecord record = store.loadSyncRecord(id);
+            if (record != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private void apply(final List<SyncRecord> records, boolean countConflicts) {
+        if (records.isEmpty()) {
+            return;
+        }
+        long[] applied = access.run(store -> {
+            final long[][] ids = new long[1][];
+            store.runInTransaction(() -> ids[0] = applyRecords(store, records));
+            return ids[0];
+        });
+        for (long id : applied) {
+            if (id > 0) {
+                addChanged(id);
+            } else if (id < 0 && countConflicts) {
+                conflicts++;
+            }
+        }
+    }
+
+    // Kayıtları yerel hale uygular. Dönen dizide her kayıt için yazılan not id'si; yerel hal daha yeniyse -1,
+    // iki hal aynıysa (kendi gönderdiğimiz kayıt geri geldi) ya da hiç bilinmeyen not silindiyse 0
+    static long[] applyRecords(SyncStore store, List<SyncRecord> records) {
+        long[] result = new long[records.size()];
+        for (int i = 0; i < records.size(); i++) {
+            SyncRecord remote = records.get(i);
+            SyncRecord local = store.findSyncRecord(remote.syncId);
+            int order = local == null ? 1 : SyncRecord.compare(remote, local);
+            if (order <= 0) {
+                result[i] = order < 0 ? -1 : 0;
+                continue;
+            }
+            if (remote.deleted) {
+                if (local == null) {
+                    continue;
+                }
+                if (!local.deleted) {
+                    store.deleteNote(local.localId);
+                }
+                store.markSynced(local.localId, remote);
+                result[i] = local.localId;
+            } else {
+                long id = local != null && !local.deleted ? local.localId : -1;
+                NoteModel saved = store.saveNote(id, remote.title, remote.content, remote.updatedAt);
+                store.markSynced(saved.getId(), remote);
+                result[i] = saved.getId();
+            }
+        }
+        return result;
+    }
+
+    private void addChanged(long id) {
+        if (changedCount == changedIds.length) {
+            changedIds = Arrays.copyOf(changedIds, changedCount * 2);
+        }
+        changedIds[changedCount++] = id;
+    }
+
+    private State currentState() {
+        return new State(pushedGeneration, pullCursor);
+    }
+}
@@ -0,0 +1,66 @@
+package com.muhammedcavus.noteapp;
+
+// Senkronizasyonda bir notun tam hali ya da silme kaydı (tombstone). Cihazlar notu syncId ile tanır;
+// yerel _id sadece bu cihazda anlamlıdır ve gönderilmez.
+public final class SyncRecord {
+
+    public final String syncId;
+    // Her yerel değişiklikte bir artar; son yazanın belirlenmesinde tarihten sonra bakılır
+    public final long version;
+    public final long createdAt;
+    // Son değişiklik ya da silinme zamanı (epoch milisaniye)
+    public final long updatedAt;
+    public final boolean deleted;
+    public final boolean archived;
+    // Silme kaydında null
+    public final String title;
+    public final String content;
+    // Bu cihazdaki not id'si; sunucudan gelen kayıtta -1
+    public final long localId;
+
+    public SyncRecord(String syncId, long version, long createdAt, long updatedAt, boolean deleted, boolean archived,
+                      String title, String content, long localId) {
+        this.syncId = syncId;
+        this.version = version;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.deleted = deleted;
+        this.archived = archived;
+        this.title = title;
+        this.content = content;
+        this.localId = localId;
+    }
+
+    public static SyncRecord tombstone(String syncId, long version, long deletedAt, long localId) {
+        return new SyncRecord(syncId, version, 0, deletedAt, true, false, null, null, localId);
+    }
+
+    // Aynı notun iki hali arasında kazanan: son değişiklik, sonra sürüm, sonra silme; eşitlikte içerik.
+    // Her cihaz ve sunucu aynı sonuca varır (sıralama toplamdır). 0 ise iki hal aynıdır.
+    public static int compare(SyncRecord a, SyncRecord b) {
+        int order = Long.compare(a.updatedAt, b.updatedAt);
+        if (order == 0) {
+            order = Long.compare(a.version, b.version);
+        }
+        if (order == 0) {
+            order = Boolean.compare(a.deleted, b.deleted);
+        }
+        if (order == 0) {
+            order = Boolean.compare(a.archived, b.archived);
+        }
+        if (order == 0) {
+            order = compareText(a.title, b.title);
+        }
+        if (order == 0) {
+            order = compareText(a.content, b.content);
+        }
+        return order;
+    }
+
+    private static int compareText(String a, String b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        return Integer.signum(a.compareTo(b));
+    }
+}
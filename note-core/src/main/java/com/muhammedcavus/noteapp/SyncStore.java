@@ -0,0 +1,36 @@
+package com.muhammedcavus.noteapp;
+
+// Senkronizasyonun yerel depodan istedikleri (bkz. SyncEngine). DBHelper ve JdbcNoteStore NoteStore ile
+// birlikte uygular; değişiklikler NoteSchema.TABLE_NOTE_CHANGES günlüğünden okunur.
+public interface SyncStore {
+
+    // Değişiklik günlüğünün son nesli; günlük boşsa 0
+    long changeGeneration();
+
+    // afterGeneration'dan sonraki, sunucudan gelmemiş en fazla limit değişikliğin not id'leri (notes boş).
+    // Sınır aşılmadıysa complete true ve generation günlüğün son nesli olur
+    NoteChanges loadUnsyncedChanges(long afterGeneration, int limit);
+
+    // afterId'den sonraki en fazla limit not id'si, _id sırasıyla (ilk tam gönderim)
+    long[] loadSyncNoteIds(long afterId, int limit);
+
+    // Notun gövdesiyle tam hali ya da silme kaydı; kimliği olmayan eski silinmiş not veya yoksa null
+    SyncRecord loadSyncRecord(long noteId);
+
+    // syncId'li yerel not, yoksa silme kaydı; ikisi de yoksa null
+    SyncRecord findSyncRecord(String syncId);
+
+    NoteModel saveNote(long id, String title, String content, long now);
+
+    int deleteNote(long id);
+
+    // Uygulanan kaydın kimliğini, sürümünü ve tarihlerini nota (ya da silme kaydına) yazar; değişiklik
+    // günlüğünde gönderilmeyecek diye işaretlenir
+    void markSynced(long noteId, SyncRecord record);
+
+    // Sunucuya gönderilen notların günlük satırları gönderildi diye işaretlenir; nesli maxGeneration'dan büyük
+    // olanlar (gönderim sürerken yeniden değişenler) işaretlenmez, sonraki gönderimde gider
+    void markPushed(long[] noteIds, long maxGeneration);
+
+    void runInTransaction(Runnable work);
+}
@@ -0,0 +1,15 @@
+package com.muhammedcavus.noteapp;
+
+import java.io.IOException;
+
+// Senkronizasyon uç noktası. Gövdeler SyncCodec biçimindedir; taşıma (HTTP, dosya, test sunucusu) uygulamaya aittir.
+// Sunucu her syncId için SyncRecord.compare'e göre kazanan hali tutar ve her kabul ettiği değişikliğe artan
+// bir konum verir.
+public interface SyncTransport {
+
+    // Kayıtları gönderir. Yanıttaki grup, sunucudaki hali daha yeni olduğu için reddedilen kayıtların sunucu halidir
+    byte[] push(byte[] batch) throws IOException;
+
+    // cursor konumundan sonraki en fazla limit değişiklik
+    byte[] pull(long cursor, int limit) throws IOException;
+}
@@ -0,0 +1,46 @@
+package com.muhammedcavus.noteapp;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Locale;
+
+// Başlık sıralama anahtarı: yerel ayarın Collator'ından (ör. Türkçede c < ç < d, ı < i) üretilen
+// karşılaştırma anahtarının onaltılık metni. Onaltılık metnin BINARY sırası anahtar baytlarının sırasıdır;
+// böylece SQLite indeksi Collator sırasını verir ve keyset parametreleri metin olarak bağlanabilir.
+// Anahtar yerel ayara bağlıdır: ayar değişince kayıtlı anahtarlar yeniden üretilmelidir.
+public final class TitleKeys {
+
+    // Sıralamayı bu kadar karakter belirler; indeks girdileri uzun başlıklarda büyümez
+    static final int MAX_TITLE_CHARS = 64;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private TitleKeys() {
+    }
+
+    // Collator thread güvenli değildir; her yazıcı kendi örneğini kullanmalı
+    public static Collator collator(Locale locale) {
+        Collator collator = Collator.getInstance(locale);
+        collator.setStrength(Collator.TERTIARY);
+        return collator;
+    }
+
+    // Başlıksız notların anahtarı boş metindir; başlıklı notlardan önce gelir
+    public static String key(Collator collator, String title) {
+        if (title == null || title.isEmpty()) {
+            return "";
+        }
+        String prefix = title.length() > MAX_TITLE_CHARS
+                ? title.substring(0, title.offsetByCodePoints(0, Math.min(MAX_TITLE_CHARS,
+                title.codePointCount(0, title.length()))))
+                : title;
+        CollationKey key = collator.getCollationKey(prefix);
+        byte[] bytes = key.toByteArray();
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(hex);
+    }
+}
@@ -0,0 +1,35 @@
+package com.muhammedcavus.noteapp;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BodyCodecTest {
+
+    @Test
+    public void roundTrip_preservesTurkishTextAndEmoji() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            sb.append("Toplantı notları ").append(i).append(": şirket, çiçek, ığdır, İstanbul 😀\n");
+        }
+        String text = sb.toString();
+        byte[] compressed = BodyCodec.compress(text);
+        assertNotNull(compressed);
+        assertTrue(compressed.length < text.length());
+        assertEquals(text, BodyCodec.decompress(BodyCodec.DEFLATE_V1, compressed));
+    }
+
+    @Test
+    public void textWithoutGain_isLeftPlain() {
+        assertNull(BodyCodec.compress(""));
+        assertNull(BodyCodec.compress("q"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void truncatedData_isRejected() {
+        byte[] compressed = BodyCodec.compress("bir iki üç dört beş altı yedi sekiz dokuz on bir iki üç dört beş");
+        byte[] truncated = new byte[compressed.length / 2];
+        System.arraycopy(compressed, 0, truncated, 0, truncated.length);
+        BodyCodec.decompress(BodyCodec.DEFLATE_V1, truncated);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.muhammedcavus.noteapp;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CaptureJournalTest {
+
+    @Rule
+    public final TempNoteStore temp = new TempNoteStore("capture");
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("capture", ".journal");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+        new File(file.getPath() + ".tmp").delete();
+    }
+
+    @Test
+    public void discardKeepsEntriesAppendedDuringDrain() throws IOException {
+        try (CaptureJournal journal = CaptureJournal.open(file)) {
+            journal.append("bir", "süt al", 1);
+            journal.append("iki", "ekmek 😀", 2);
+            journal.append("üç", "", 3);
+            CaptureJournal.Batch batch = journal.read(2);
+            assertEquals(2, batch.entries.size());
+            journal.append("dört", "çay", 4);
+            journal.discard(batch.end);
+        }
+        try (CaptureJournal journal = CaptureJournal.open(file)) {
+            List<CaptureJournal.Entry> entries = journal.read(10).entries;
+            assertEquals(2, entries.size());
+            assertEquals("üç", entries.get(0).title);
+            assertEquals("dört", entries.get(1).title);
+            assertEquals("çay", entries.get(1).content);
+            assertEquals(4, entries.get(1).createdAt);
+            journal.discard(journal.read(10).end);
+            assertTrue(journal.isEmpty());
+        }
+        assertEquals(0, file.length());
+    }
+
+    @Test
+    public void tornTailIsDroppedOnOpen() throws IOException {
+        String firstId;
+        try (CaptureJournal journal = CaptureJournal.open(file)) {
+            firstId = journal.append("tam", "yazıldı", 1).id;
+            journal.append("yarım", "kesilecek", 2);
+        }
+        // İkinci kaydın son baytları diske ulaşmadan çökülmüş gibi
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 3);
+        }
+        try (CaptureJournal journal = CaptureJournal.open(file)) {
+            List<CaptureJournal.Entry> entries = journal.read(10).entries;
+            assertEquals(1, entries.size());
+            assertEquals(firstId, entries.get(0).id);
+            journal.append("sonra", "eklenen", 3);
+            assertEquals(2, journal.read(10).entries.size());
+        }
+    }
+
+    @Test
+    public void replayedDrainDoesNotDuplicateOrResurrectNotes() throws IOException {
+        JdbcNoteStore store = temp.open();
+        try (CaptureJournal journal = CaptureJournal.open(file)) {
+            journal.append("alışveriş", "süt ekmek", 10);
+            journal.append("fikir", "hızlı not", 11);
+            List<CaptureJournal.Entry> entries = journal.read(10).entries;
+            assertEquals(2, store.saveCaptures(entries));
+            // Günlük atılmadan çökülüp aynı kayıtlar tekrar aktarılıyor
+            assertEquals(0, store.saveCaptures(entries));
+            long[] ids = store.fuzzySearchNoteIds("alışveriş", 10);
+            assertEquals(1, ids.length);
+            assertEquals("süt ekmek", store.loadNote(ids[0]).getContent());
+
+            store.deleteNote(ids[0]);
+            assertEquals(0, store.saveCaptures(entries));
+            assertEquals(1, journal.drainTo(store, 1));
+            assertEquals(1, journal.drainTo(store, 10));
+            assertTrue(journal.isEmpty());
+            assertEquals(0, store.fuzzySearchNoteIds("alışveriş", 10).length);
+        }
+    }
+}
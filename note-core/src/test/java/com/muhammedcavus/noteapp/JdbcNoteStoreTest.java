@@ -0,0 +1,239 @@
+package com.muhammedcavus.noteapp;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class JdbcNoteStoreTest {
+
+    @Rule
+    public final TempNoteStore temp = new TempNoteStore("notes");
+
+    private JdbcNoteStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        store = temp.open();
+    }
+
+    @Test
+    public void saveAndLoadRoundTrip() {
+        NoteModel saved = store.saveNote(-1, "Alışveriş", "süt, ekmek", 1000);
+        NoteModel loaded = store.loadNote(saved.getId());
+        assertEquals("Alışveriş", loaded.getTitle());
+        assertEquals("süt, ekmek", loaded.getContent());
+        assertEquals(1000, loaded.getUpdatedAt());
+        assertEquals(0, loaded.getTailChunks());
+
+        store.saveNote(saved.getId(), "Alışveriş", "süt, ekmek, peynir", 2000);
+        assertEquals("süt, ekmek, peynir", store.loadNote(saved.getId()).getContent());
+        assertEquals(1, store.deleteNote(saved.getId()));
+        assertNull(store.loadNote(saved.getId()));
+    }
+
+    @Test
+    public void largeBodyIsStoredAsChunks() {
+        StringBuilder body = new StringBuilder();
+        while (body.length() < NoteChunks.CHUNK_SIZE * 3) {
+            body.append("Satır ").append(body.length()).append('\n');
+        }
+        NoteModel saved = store.saveNote(-1, "Büyük", body.toString(), 1000);
+        assertTrue(saved.getTailChunks() > 0);
+        NoteModel loaded = store.loadNote(saved.getId());
+        String tail = store.loadTail(saved.getId(), NoteChunks.HEAD_SEQ, Integer.MAX_VALUE);
+        assertEquals(body.toString(), loaded.getContent() + tail);
+
+        body.insert(NoteChunks.CHUNK_SIZE * 2, "eklenen");
+        store.saveNote(saved.getId(), "Büyük", body.toString(), 2000);
+        loaded = store.loadNote(saved.getId());
+        assertEquals(body.toString(),
+                loaded.getContent() + store.loadTail(saved.getId(), NoteChunks.HEAD_SEQ, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void searchRanksTitleMatchesFirst() {
+        long inContent = store.saveNote(-1, "Toplantı", "bütçe ve planlama", 1000).getId();
+        long inTitle = store.saveNote(-1, "Bütçe", "yıllık rakamlar", 1000).getId();
+        store.saveNote(-1, "Tatil", "deniz", 1000);
+
+        long[] ids = store.searchNoteIds(SearchText.matchExpression(SearchText.terms("bütçe")), new long[0], 10);
+        assertArrayEquals(new long[]{inTitle, inContent}, ids);
+        assertEquals(2, store.loadNotesByIds(ids).size());
+    }
+
+    @Test
+    public void searchSeesTextBeyondFirstChunk() {
+        StringBuilder body = new StringBuilder();
+        while (body.length() < NoteChunks.CHUNK_SIZE * 3) {
+            body.append("sıradan bir satır\n");
+        }
+        long id = store.saveNote(-1, "Uzun", body + "sonda zürafa", 1000).getId();
+        assertArrayEquals(new long[]{id}, search("zurafa"));
+
+        // Sadece kuyruk değişti: tetikleyici çalışmaz, satır yine tam metinle yazılır
+        store.saveNote(id, "Uzun", body + "sonda ıhlamur", 2000);
+        assertEquals(0, search("zurafa").length);
+        assertArrayEquals(new long[]{id}, search("ihlamur"));
+        // Başlık değişince tetikleyici satırı baştan yazar; kuyruk kaybolmamalı
+        store.saveNote(id, "Çok uzun", body + "sonda ıhlamur", 3000);
+        assertArrayEquals(new long[]{id}, search("ihlamur"));
+        // Kuyruk silinince eski metin indekste kalmamalı
+        store.saveNote(id, "Çok uzun", "kısa", 4000);
+        assertEquals(0, search("ihlamur").length);
+        assertArrayEquals(new long[]{id}, search("kisa"));
+    }
+
+    private long[] search(String query) {
+        return store.searchNoteIds(SearchText.matchExpression(SearchText.terms(query)), new long[0], 10);
+    }
+
+    @Test
+    public void archivedNotesDoNotTakeSearchSlots() {
+        // Arşivlenenler daha yeni ve başlıkta eşleşiyor: elenmeseler sınırdaki yerleri onlar alırdı
+        long kept = store.saveNote(-1, "Tatil", "bütçe planı", 1000).getId();
+        long[] archived = new long[3];
+        for (int i = 0; i < archived.length; i++) {
+            archived[i] = store.saveNote(-1, "Bütçe " + i, "bütçe", 2000).getId();
+        }
+        store.setArchived(archived, true);
+
+        String match = SearchText.matchExpression(SearchText.terms("bütçe"));
+        assertArrayEquals(new long[]{kept}, store.searchNoteIds(match, new long[0], 2));
+        long tag = store.tagNotes("para", new long[]{kept, archived[0]});
+        assertArrayEquals(new long[]{kept}, store.searchNoteIds(match, new long[]{tag}, 1));
+        assertArrayEquals(new long[]{kept}, store.fuzzySearchNoteIds("butce", 2));
+    }
+
+    @Test
+    public void keysetPagesCoverAllNotesOnce() {
+        store.runInTransaction(() -> {
+            for (int i = 0; i < 25; i++) {
+                // Eşit zaman damgaları id ile ayrılmalı
+                store.saveNote(-1, "Not " + (i % 7), "içerik " + i, 1000 + i / 5);
+            }
+        });
+        for (NoteQuery.SortOrder order : NoteQuery.SortOrder.values()) {
+            Set<Long> seen = new HashSet<>();
+            NoteQuery.PageKey after = null;
+            while (true) {
+                List<NoteModel> page = store.loadNotePage(NoteQuery.page(order, false, after, 10));
+                if (page.isEmpty()) {
+                    break;
+                }
+                for (NoteModel note : page) {
+                    assertTrue(seen.add(note.getId()));
+                }
+                after = NoteQuery.PageKey.after(order, page.get(page.size() - 1));
+            }
+            assertEquals(order.name(), 25, seen.size());
+        }
+        assertTrue(store.loadNotePage(NoteQuery.page(NoteQuery.SortOrder.DATE, true, null, 10)).isEmpty());
+    }
+
+    @Test
+    public void changeLogTracksInsertUpdateAndDelete() {
+        assertEquals(0, store.changeGeneration());
+        long first = store.saveNote(-1, "Bir", "a", 1000).getId();
+        long second = store.saveNote(-1, "İki", "b", 1000).getId();
+        long generation = store.changeGeneration();
+        assertTrue(store.loadChanges(generation, false, new long[0], 10).ids.length == 0);
+
+        store.saveNote(first, "Bir", "a, güncel", 2000);
+        store.deleteNote(second);
+        NoteChanges changes = store.loadChanges(generation, false, new long[0], 10);
+        assertTrue(changes.complete);
+        assertTrue(changes.generation > generation);
+        assertArrayEquals(new long[]{first, second}, changes.ids);
+        // Silinen not id listesinde olup özetlerde bulunmaz
+        assertEquals(1, changes.notes.size());
+        assertEquals(first, changes.notes.get(0).getId());
+        assertEquals(2000, changes.notes.get(0).getUpdatedAt());
+
+        assertFalse(store.loadChanges(0, false, new long[0], 1).complete);
+        assertTrue(store.loadChanges(0, true, new long[0], 10).notes.isEmpty());
+    }
+
+    @Test
+    public void comparatorMatchesPageOrder() {
+        String[] titles = {"Zeytin", "armut", "Çilek", null, "elma", "Elma", "\uD83C\uDF4E elma", "\uFB01g"};
+        store.runInTransaction(() -> {
+            for (int i = 0; i < titles.length * 2; i++) {
+                store.saveNote(-1, titles[i % titles.length], "", 1000 + i / 3);
+            }
+        });
+        for (NoteQuery.SortOrder order : NoteQuery.SortOrder.values()) {
+            List<NoteModel> page = store.loadNotePage(NoteQuery.page(order, false, null, 100));
+            List<NoteModel> sorted = new ArrayList<>(page);
+            Collections.shuffle(sorted, new Random(order.ordinal()));
+            Collections.sort(sorted, NoteQuery.comparator(order));
+            for (int i = 0; i < page.size(); i++) {
+                assertEquals(order.name() + " " + i, page.get(i).getId(), sorted.get(i).getId());
+            }
+        }
+    }
+
+    @Test
+    public void titleOrderFollowsLocaleAcrossPages() {
+        store.setTitleLocale(new Locale("tr", "TR"));
+        List<String> expected = Arrays.asList(null, "çay", "çay", "Dağ", "ılık", "İnek", "Ördek", "şeker", "zil");
+        List<String> titles = new ArrayList<>(expected);
+        Collections.shuffle(titles, new Random(7));
+        store.runInTransaction(() -> {
+            for (String title : titles) {
+                store.saveNote(-1, title, "", 1000);
+            }
+        });
+        // Başlığı değişen notun anahtarı da yenilenir
+        long renamed = store.saveNote(-1, "aaa", "", 1000).getId();
+        store.saveNote(renamed, "zz", "", 2000);
+
+        List<String> shown = new ArrayList<>();
+        NoteQuery.PageKey after = null;
+        List<NoteModel> page;
+        do {
+            page = store.loadNotePage(NoteQuery.page(NoteQuery.SortOrder.TITLE, false, after, 2));
+            for (NoteModel note : page) {
+                shown.add(note.getTitle());
+            }
+            if (!page.isEmpty()) {
+                after = NoteQuery.PageKey.after(NoteQuery.SortOrder.TITLE, page.get(page.size() - 1));
+            }
+        } while (!page.isEmpty());
+        List<String> all = new ArrayList<>(expected);
+        all.add("zz");
+        assertEquals(all, shown);
+    }
+
+    @Test
+    public void previewTriggerMatchesJavaPreview() {
+        String[] bodies = {"", "  tek satır  ", "Başlık\r\n\tgirintili\nsatır", "\uD83D\uDCDD" + repeat("ş", 200)};
+        for (String body : bodies) {
+            long id = store.saveNote(-1, "Not", body, 1000).getId();
+            store.saveNote(id, "Not", body + "\nek", 2000);
+            NoteModel summary = store.loadChanges(0, false, new long[0], 100).notes.stream()
+                    .filter(note -> note.getId() == id).findFirst().get();
+            assertEquals(NoteText.preview(body + "\nek"), summary.getPreview());
+            assertEquals(NoteText.wordCount(body + "\nek"), summary.getWordCount());
+        }
+    }
+
+    private static String repeat(String text, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(text);
+        }
+        return sb.toString();
+    }
+}
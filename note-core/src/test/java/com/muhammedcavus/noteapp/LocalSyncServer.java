@@ -0,0 +1,64 @@
+package com.muhammedcavus.noteapp;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Testler için bellek içi sunucu: her syncId için kazanan hali tutar, kabul ettiği her değişikliğe artan bir
+// konum verir (notun eski konumu silinir). Gerçek uç noktanın uyması gereken davranışın asgarisi budur.
+final class LocalSyncServer implements SyncTransport {
+
+    private final Map<String, SyncRecord> records = new HashMap<>();
+    private final Map<String, Long> positions = new HashMap<>();
+    private final TreeMap<Long, String> log = new TreeMap<>();
+    private long position;
+    int pushCalls;
+    int pullCalls;
+
+    @Override
+    public synchronized byte[] push(byte[] batch) throws IOException {
+        pushCalls++;
+        List<SyncRecord> rejected = new ArrayList<>();
+        for (SyncRecord record : SyncCodec.decode(batch).records) {
+            SyncRecord current = records.get(record.syncId);
+            int order = current == null ? 1 : SyncRecord.compare(record, current);
+            if (order > 0) {
+                records.put(record.syncId, record);
+                Long old = positions.put(record.syncId, ++position);
+                if (old != null) {
+                    log.remove(old);
+                }
+                log.put(position, record.syncId);
+            } else if (order < 0) {
+                rejected.add(current);
+            }
+        }
+        return SyncCodec.encode(new SyncBatch(position, true, rejected));
+    }
+
+    @Override
+    public synchronized byte[] pull(long cursor, int limit) throws IOException {
+        pullCalls++;
+        List<SyncRecord> changed = new ArrayList<>();
+        long last = cursor;
+        for (Map.Entry<Long, String> entry : log.tailMap(cursor, false).entrySet()) {
+            if (changed.size() == limit) {
+                return SyncCodec.encode(new SyncBatch(last, false, changed));
+            }
+            changed.add(records.get(entry.getValue()));
+            last = entry.getKey();
+        }
+        return SyncCodec.encode(new SyncBatch(Math.max(last, position), true, changed));
+    }
+
+    synchronized SyncRecord get(String syncId) {
+        return records.get(syncId);
+    }
+
+    synchronized int size() {
+        return records.size();
+    }
+}
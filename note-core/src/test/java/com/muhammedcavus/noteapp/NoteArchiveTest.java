@@ -0,0 +1,105 @@
+package com.muhammedcavus.noteapp;
+
+import org.junit.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.*;
+
+public class NoteArchiveTest {
+
+    private static final NoteArchive.Entry[] ENTRIES = {
+            new NoteArchive.Entry("Alışveriş", "süt\nekmek\t\"tam\" \\ buğday", 1000, 2000, false),
+            new NoteArchive.Entry("İş / Toplantı: 3.çeyrek", "---\nbaşta ayraç\n---\n\u0001", 3000, 3000, true),
+            new NoteArchive.Entry("", "", 0, 0, false),
+            new NoteArchive.Entry("emoji 😀", "ğüşıöç ĞÜŞİÖÇ 中文", 5, 6, false)
+    };
+
+    @Test
+    public void jsonLinesRoundTrip() throws IOException {
+        assertRoundTrip(NoteArchive.Format.JSON_LINES);
+    }
+
+    @Test
+    public void markdownZipRoundTrip() throws IOException {
+        assertRoundTrip(NoteArchive.Format.MARKDOWN_ZIP);
+    }
+
+    @Test
+    public void plainMarkdownFilesUseFileNameAsTitle() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("klasor/Yapılacaklar.md"));
+            zip.write("- süt al\n".getBytes("UTF-8"));
+            zip.putNextEntry(new ZipEntry("resim.png"));
+            zip.write(new byte[]{1, 2, 3});
+        }
+        List<NoteArchive.Entry> entries = readAll(bytes.toByteArray());
+        assertEquals(1, entries.size());
+        assertEquals("Yapılacaklar", entries.get(0).title);
+        assertEquals("- süt al\n", entries.get(0).content);
+    }
+
+    @Test
+    public void malformedLineReportsLineNumber() {
+        byte[] data = "{\"title\":\"a\"}\n\n{\"title\": oops}\n".getBytes();
+        try {
+            readAll(data);
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Satır 3"));
+        }
+    }
+
+    @Test
+    public void unknownJsonFieldsAreSkipped() throws IOException {
+        List<NoteArchive.Entry> entries = readAll(
+                "{\"id\":7,\"title\":\"a\",\"tags\":null,\"content\":\"b\",\"updated_at\":5}\n".getBytes());
+        assertEquals("a", entries.get(0).title);
+        assertEquals("b", entries.get(0).content);
+        assertEquals(5, entries.get(0).updatedAt);
+    }
+
+    @Test
+    public void slugFoldsTurkishLetters() {
+        assertEquals("is-toplanti-3-ceyrek", NoteArchive.slug("İş / Toplantı: 3.çeyrek"));
+        assertEquals("not", NoteArchive.slug("!!!"));
+    }
+
+    private static void assertRoundTrip(NoteArchive.Format format) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (NoteArchive.Sink sink = NoteArchive.openSink(format, bytes)) {
+            for (NoteArchive.Entry entry : ENTRIES) {
+                sink.write(entry);
+            }
+        }
+        List<NoteArchive.Entry> read = readAll(bytes.toByteArray());
+        assertEquals(ENTRIES.length, read.size());
+        for (int i = 0; i < ENTRIES.length; i++) {
+            assertEquals(ENTRIES[i].title, read.get(i).title);
+            assertEquals(ENTRIES[i].content, read.get(i).content);
+            assertEquals(ENTRIES[i].createdAt, read.get(i).createdAt);
+            assertEquals(ENTRIES[i].updatedAt, read.get(i).updatedAt);
+            assertEquals(ENTRIES[i].archived, read.get(i).archived);
+        }
+    }
+
+    private static List<NoteArchive.Entry> readAll(byte[] data) throws IOException {
+        List<NoteArchive.Entry> entries = new ArrayList<>();
+        try (NoteArchive.Source source = NoteArchive.openSource(
+                new BufferedInputStream(new ByteArrayInputStream(data)))) {
+            NoteArchive.Entry entry;
+            while ((entry = source.next()) != null) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,159 @@
+package com.muhammedcavus.noteapp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class NoteChunksTest {
+
+    // Veritabanındaki hali taklit eder: baş parça + sıra numarasına göre kuyruk parçaları
+    private static final class Stored {
+        String head;
+        final TreeMap<Long, String> tail = new TreeMap<>();
+        int lastWrites;
+
+        NoteChunks.Plan save(String text) {
+            List<NoteChunks.Info> infos = new ArrayList<>();
+            for (Map.Entry<Long, String> entry : tail.entrySet()) {
+                String body = entry.getValue();
+                infos.add(new NoteChunks.Info(entry.getKey(), body.length(), NoteChunks.hash(body, 0, body.length())));
+            }
+            NoteChunks.Plan plan = NoteChunks.plan(head, infos, text);
+            lastWrites = 0;
+            if (plan.head != null) {
+                head = plan.head;
+                lastWrites++;
+            }
+            for (long seq : plan.deletes) {
+                assertNotNull(tail.remove(seq));
+            }
+            for (NoteChunks.Chunk chunk : plan.inserts) {
+                assertNull(tail.put(chunk.seq, chunk.body));
+                lastWrites++;
+            }
+            assertEquals(tail.size(), plan.tailChunks);
+            return plan;
+        }
+
+        String text() {
+            StringBuilder sb = new StringBuilder(head);
+            for (String body : tail.values()) {
+                sb.append(body);
+            }
+            return sb.toString();
+        }
+    }
+
+    private static String text(int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + (i * 7 + i / 13) % 26));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void newNote_isSplitIntoBoundedChunks() {
+        Stored stored = new Stored();
+        String body = text(NoteChunks.CHUNK_SIZE * 5 + 123);
+        stored.save(body);
+        assertEquals(body, stored.text());
+        assertTrue(stored.tail.size() >= 5);
+        assertTrue(stored.head.length() <= NoteChunks.CHUNK_SIZE);
+        for (String chunk : stored.tail.values()) {
+            assertTrue(chunk.length() <= NoteChunks.CHUNK_SIZE);
+        }
+    }
+
+    @Test
+    public void smallNote_hasNoTail() {
+        Stored stored = new Stored();
+        stored.save("kısa not");
+        assertEquals("kısa not", stored.head);
+        assertTrue(stored.tail.isEmpty());
+
+        stored.save("");
+        assertEquals("", stored.text());
+    }
+
+    @Test
+    public void unchangedText_writesNothing() {
+        Stored stored = new Stored();
+        String body = text(NoteChunks.CHUNK_SIZE * 3);
+        stored.save(body);
+        assertFalse(stored.save(body).isBodyChanged());
+    }
+
+    @Test
+    public void editInTheMiddle_rewritesOnlyThatChunk() {
+        Stored stored = new Stored();
+        String body = text(NoteChunks.CHUNK_SIZE * 10);
+        stored.save(body);
+
+        int at = NoteChunks.CHUNK_SIZE * 5 + 100;
+        String edited = body.substring(0, at) + "YENİ" + body.substring(at + 1);
+        NoteChunks.Plan plan = stored.save(edited);
+        assertEquals(edited, stored.text());
+        assertNull(plan.head);
+        assertEquals(1, plan.deletes.size());
+        assertEquals(1, stored.lastWrites);
+    }
+
+    @Test
+    public void typingAtTheEnd_rewritesOnlyTheLastChunk() {
+        Stored stored = new Stored();
+        String body = text(NoteChunks.CHUNK_SIZE * 4);
+        stored.save(body);
+        for (int i = 0; i < 50; i++) {
+            body = body + " kelime" + i;
+            stored.save(body);
+            // Son parça dolunca ikiye bölünür, aksi halde sadece o yazılır
+            assertTrue(stored.lastWrites <= 2);
+            assertTrue(stored.tail.size() <= 5);
+        }
+        assertEquals(body, stored.text());
+    }
+
+    @Test
+    public void repeatedInsertsAtTheSameSpot_renumberWhenGapIsExhausted() {
+        Stored stored = new Stored();
+        String body = text(NoteChunks.CHUNK_SIZE * 3);
+        stored.save(body);
+        int at = NoteChunks.CHUNK_SIZE * 2;
+        for (int i = 0; i < 40; i++) {
+            body = body.substring(0, at) + text(NoteChunks.CHUNK_SIZE) + body.substring(at);
+            stored.save(body);
+            assertEquals(body, stored.text());
+        }
+    }
+
+    @Test
+    public void deletingTheBeginning_keepsTheHeadInPlace() {
+        Stored stored = new Stored();
+        String body = text(NoteChunks.CHUNK_SIZE * 4);
+        stored.save(body);
+        String edited = body.substring(NoteChunks.CHUNK_SIZE * 2);
+        NoteChunks.Plan plan = stored.save(edited);
+        assertNotNull(plan.head);
+        assertEquals(edited, stored.text());
+    }
+
+    @Test
+    public void surrogatePairsAreNotSplit() {
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < NoteChunks.CHUNK_SIZE * 3) {
+            sb.append("😀");
+        }
+        Stored stored = new Stored();
+        stored.save(sb.toString());
+        assertEquals(sb.toString(), stored.text());
+        for (String chunk : stored.tail.values()) {
+            assertFalse(Character.isLowSurrogate(chunk.charAt(0)));
+        }
+    }
+}
\ No newline at end of file
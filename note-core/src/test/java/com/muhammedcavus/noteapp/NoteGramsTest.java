@@ -0,0 +1,88 @@
+package com.muhammedcavus.noteapp;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class NoteGramsTest {
+
+    @Rule
+    public final TempNoteStore temp = new TempNoteStore("grams");
+
+    private JdbcNoteStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        store = temp.open();
+    }
+
+    @Test
+    public void gramsAreFoldedAndPadded() {
+        long[] grams = NoteGrams.grams("Şifre!");
+        assertArrayEquals(NoteGrams.grams("sifre"), grams);
+        // "  s", " si", "sif", "ifr", "fre", "re "
+        assertEquals(6, grams.length);
+        assertTrue(Arrays.binarySearch(grams, NoteGrams.gram(' ', ' ', 's')) >= 0);
+        assertTrue(Arrays.binarySearch(grams, NoteGrams.gram('r', 'e', ' ')) >= 0);
+        assertEquals(0, NoteGrams.grams(" ... ").length);
+    }
+
+    @Test
+    public void sortedEncodingRoundTrip() {
+        long[] values = {3, 4, 1000, 1L << 40, (1L << 47) + 5};
+        byte[] encoded = NoteGrams.encodeSorted(values, 0, values.length);
+        assertArrayEquals(values, NoteGrams.decodeSorted(encoded));
+        assertEquals(0, NoteGrams.decodeSorted(new byte[0]).length);
+    }
+
+    @Test
+    public void findsNotesDespiteTyposAndMissingDiacritics() {
+        long password = store.saveNote(-1, "Wi-Fi şifresi", "modem arkasındaki etikette", 1000).getId();
+        long shopping = store.saveNote(-1, "Alışveriş", "süt, ekmek, peynir", 1000).getId();
+        store.saveNote(-1, "Toplantı", "salı günü saat üçte", 1000);
+
+        assertArrayEquals(new long[]{password}, store.fuzzySearchNoteIds("sifresi", 10));
+        assertArrayEquals(new long[]{password}, store.fuzzySearchNoteIds("şifrsei", 10));
+        assertArrayEquals(new long[]{shopping}, store.fuzzySearchNoteIds("peynr ekmek", 10));
+        assertEquals(0, store.fuzzySearchNoteIds("bilgisayar", 10).length);
+    }
+
+    @Test
+    public void indexFollowsSavesAndDeletes() {
+        long id = store.saveNote(-1, "Plan", "haftalık koşu programı", 1000).getId();
+        assertArrayEquals(new long[]{id}, store.fuzzySearchNoteIds("kosu", 10));
+
+        store.saveNote(id, "Plan", "haftalık yüzme programı", 2000);
+        assertEquals(0, store.fuzzySearchNoteIds("kosu", 10).length);
+        assertArrayEquals(new long[]{id}, store.fuzzySearchNoteIds("yuzme", 10));
+
+        store.deleteNote(id);
+        assertEquals(0, store.fuzzySearchNoteIds("yuzme", 10).length);
+        assertNull(store.loadGramSet(id));
+        assertEquals(0, store.loadGramPostings(NoteGrams.gram(' ', ' ', 'y')).size());
+    }
+
+    @Test
+    public void postingsSpanBlocksAndCloserMatchesRankFirst() {
+        int count = (1 << NoteGrams.BLOCK_BITS) * 2 + 10;
+        store.runInTransaction(() -> {
+            for (int i = 0; i < count; i++) {
+                store.saveNote(-1, "Not " + i, i % 500 == 0 ? "kelebek" : "sıradan metin", 1000);
+            }
+        });
+        long exact = store.saveNote(-1, "Böcek", "kelebek", 2000).getId();
+        long typo = store.saveNote(-1, "Böcek", "kelebke", 2000).getId();
+        assertTrue(store.loadGramPostings(NoteGrams.gram('m', 'e', 't')).size() >= 3);
+
+        long[] found = store.fuzzySearchNoteIds("kelebek", 100);
+        // Tam eşleşmeler (sonra eklenen önce), en sonda yazım hatalı
+        assertEquals(count / 500 + 3, found.length);
+        assertEquals(exact, found[0]);
+        assertEquals(typo, found[found.length - 1]);
+    }
+}
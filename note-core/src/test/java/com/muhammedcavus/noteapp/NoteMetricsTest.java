@@ -0,0 +1,61 @@
+package com.muhammedcavus.noteapp;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NoteMetricsTest {
+
+    @After
+    public void tearDown() {
+        NoteMetrics.setEnabled(false);
+        NoteMetrics.reset();
+    }
+
+    @Test
+    public void bucketsCoverValuesInOrder() {
+        long previousUpper = -1;
+        for (int i = 0; i < 200; i++) {
+            long upper = NoteMetrics.upperBound(i);
+            // Kovalar boşluksuz ardışık: alt sınır bir önceki kovanın üst sınırının hemen sonrası
+            assertEquals(i, NoteMetrics.bucket(previousUpper + 1));
+            assertEquals(i, NoteMetrics.bucket(upper));
+            previousUpper = upper;
+        }
+        assertTrue(NoteMetrics.bucket(Long.MAX_VALUE) < 256);
+    }
+
+    @Test
+    public void percentilesAreWithinBucketPrecision() {
+        NoteMetrics.Timer timer = NoteMetrics.timer("test.percentiles");
+        for (long micros = 1; micros <= 1000; micros++) {
+            timer.record(micros * 1000, 1);
+        }
+        assertEquals(1000, timer.count());
+        assertWithin(500_000, timer.percentileNanos(0.50));
+        assertWithin(950_000, timer.percentileNanos(0.95));
+        assertWithin(990_000, timer.percentileNanos(0.99));
+        assertEquals(1_000_000, timer.percentileNanos(1.0));
+    }
+
+    @Test
+    public void disabledModeRecordsNothing() {
+        NoteMetrics.Timer timer = NoteMetrics.timer("test.disabled");
+        long start = NoteMetrics.start();
+        assertEquals(0, start);
+        assertEquals(0, timer.stop(start, 10));
+        assertEquals(0, timer.count());
+
+        NoteMetrics.setEnabled(true);
+        timer.stop(NoteMetrics.start(), 10);
+        assertEquals(1, timer.count());
+        assertTrue(NoteMetrics.dump().contains("test.disabled"));
+    }
+
+    // Kova üst sınırı gerçek değerin üstünde ve en fazla %25 uzağında olmalı
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual + " < " + expected, actual >= expected);
+        assertTrue(actual + " > " + expected, actual <= expected * 5 / 4);
+    }
+}
@@ -0,0 +1,87 @@
+package com.muhammedcavus.noteapp;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class NoteRevisionsTest {
+
+    private static final long MINUTE = 60 * 1000L;
+    private static final long DAY = 24 * 60 * MINUTE;
+
+    @Test
+    public void deltaRoundTripsRandomEdits() {
+        Random random = new Random(11);
+        String alphabet = "abc şğı\n📝";
+        String text = "";
+        for (int i = 0; i < 500; i++) {
+            int from = boundary(text, random.nextInt(text.length() + 1));
+            int to = boundary(text, Math.min(text.length(), from + random.nextInt(8)));
+            StringBuilder inserted = new StringBuilder();
+            for (int j = random.nextInt(6); j > 0; j--) {
+                int k = random.nextInt(alphabet.length() - 1);
+                inserted.append(Character.isHighSurrogate(alphabet.charAt(k)) ? "📝" : String.valueOf(alphabet.charAt(k)));
+            }
+            String next = text.substring(0, from) + inserted + text.substring(to);
+            assertEquals(next, NoteRevisions.apply(text, NoteRevisions.delta(text, next)));
+            text = next;
+        }
+    }
+
+    // Editör vekil çiftinin ortasından düzenlemez
+    private static int boundary(String text, int index) {
+        return index > 0 && index < text.length() && Character.isLowSurrogate(text.charAt(index)) ? index - 1 : index;
+    }
+
+    @Test
+    public void deltaSizeFollowsTheEditNotTheNote() {
+        StringBuilder big = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            big.append((char) ('a' + i % 26));
+        }
+        String before = big.toString();
+        String after = before.substring(0, 50_000) + "yeni cümle" + before.substring(50_000);
+        assertTrue(NoteRevisions.delta(before, after).length < 32);
+        assertEquals(after, NoteRevisions.apply(before, NoteRevisions.delta(before, after)));
+        // Emoji aynı emojiyle komşuyken de çift bölünmez
+        assertEquals("📝📝x", NoteRevisions.apply("📝x", NoteRevisions.delta("📝x", "📝📝x")));
+    }
+
+    @Test
+    public void hashTellsApartSameLengthBases() {
+        String stored = "süt, ekmek, peynir";
+        String edited = "süt, ekmek, yoğurt";
+        assertEquals(stored.length(), edited.length());
+        assertNotEquals(NoteRevisions.hash(stored), NoteRevisions.hash(edited));
+        assertEquals(NoteRevisions.hash(stored), NoteRevisions.hash(new String(stored.toCharArray())));
+        // Yanlış tabana eklenen fark hatasız uygulanır ama başka bir metin verir
+        byte[] delta = NoteRevisions.delta(edited, edited + " al");
+        assertEquals(stored + " al", NoteRevisions.apply(stored, delta));
+    }
+
+    @Test
+    public void retentionThinsOlderRevisions() {
+        long now = 100 * DAY;
+        long[] createdAt = {
+                now - 40 * DAY, now - 40 * DAY + MINUTE,         // aynı hafta: biri kalır
+                now - 3 * DAY, now - 3 * DAY + MINUTE,           // aynı gün: biri kalır
+                now - 5 * 60 * MINUTE, now - 5 * 60 * MINUTE + MINUTE, // aynı 10 dakika: biri kalır
+                now - 30 * MINUTE, now - 20 * MINUTE, now - MINUTE // son bir saat: hepsi
+        };
+        boolean[] keep = NoteRevisions.retain(createdAt, now, NoteRevisions.DEFAULT_POLICY);
+        boolean[] expected = {false, true, false, true, false, true, true, true, true};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals("sürüm " + i, expected[i], keep[i]);
+        }
+        assertTrue(NoteRevisions.needsCompaction(createdAt, now, NoteRevisions.DEFAULT_POLICY));
+
+        // Sayı sınırı en yenileri tutar; en yeni sürüm her zaman kalır
+        NoteRevisions.Policy small = new NoteRevisions.Policy(DAY, 2);
+        boolean[] capped = NoteRevisions.retain(new long[]{now - 3, now - 2, now - 1}, now, small);
+        assertFalse(capped[0]);
+        assertTrue(capped[1] && capped[2]);
+        assertTrue(NoteRevisions.retain(new long[]{0}, now, small)[0]);
+    }
+}
@@ -0,0 +1,164 @@
+package com.muhammedcavus.noteapp;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class NoteTagsTest {
+
+    @Rule
+    public final TempNoteStore temp = new TempNoteStore("tags");
+
+    private JdbcNoteStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        store = temp.open();
+    }
+
+    @Test
+    public void countsFollowTaggingArchivingAndDeletion() {
+        long a = store.saveNote(-1, "bir", "x", 1).getId();
+        long b = store.saveNote(-1, "iki", "y", 2).getId();
+        long c = store.saveNote(-1, "üç", "z", 3).getId();
+        long work = store.tagNotes("iş", new long[]{a, b, c});
+        assertEquals(work, store.tagNotes("iş", new long[]{a}));
+        assertCounts("iş", 3, 0);
+
+        store.setArchived(new long[]{b}, true);
+        assertCounts("iş", 2, 1);
+        store.deleteNote(c);
+        assertCounts("iş", 1, 1);
+        assertEquals(1, store.untagNotes(work, new long[]{a, c}));
+        assertCounts("iş", 0, 1);
+
+        long home = store.tagNotes("ev", new long[]{b});
+        assertFalse(store.renameTag(home, "iş"));
+        assertTrue(store.renameTag(home, "aile"));
+        assertEquals("aile", store.loadNoteTags(b).get(0).name);
+        assertEquals(1, store.deleteTag(work));
+        assertEquals(1, store.loadNoteTags(b).size());
+        assertEquals(1, store.loadTags().size());
+    }
+
+    @Test
+    public void taggedPagesMatchAllTagsInEveryOrder() {
+        List<Long> ids = new ArrayList<>();
+        store.runInTransaction(() -> {
+            for (int i = 0; i < 40; i++) {
+                // Eşit zaman damgaları id ile ayrılmalı
+                ids.add(store.saveNote(-1, "Not " + (i % 7), "içerik " + i, 1000 + i / 4).getId());
+            }
+        });
+        List<Long> even = new ArrayList<>();
+        List<Long> third = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (i % 2 == 0) {
+                even.add(ids.get(i));
+            }
+            if (i % 3 == 0) {
+                third.add(ids.get(i));
+            }
+        }
+        long evenTag = store.tagNotes("çift", toArray(even));
+        long thirdTag = store.tagNotes("üçlü", toArray(third));
+        long[] both = NoteTag.filterIds(store.loadTags(), false);
+        assertArrayEquals(new long[]{thirdTag, evenTag}, both);
+
+        for (NoteQuery.SortOrder order : NoteQuery.SortOrder.values()) {
+            List<NoteModel> all = store.loadNotePage(NoteQuery.page(order, false, null, 100));
+            List<Long> expected = new ArrayList<>();
+            for (NoteModel note : all) {
+                if (even.contains(note.getId()) && third.contains(note.getId())) {
+                    expected.add(note.getId());
+                }
+            }
+            List<Long> paged = new ArrayList<>();
+            NoteQuery.PageKey after = null;
+            while (true) {
+                List<NoteModel> page = store.loadNotePage(NoteQuery.page(order, false, both, after, 3));
+                if (page.isEmpty()) {
+                    break;
+                }
+                for (NoteModel note : page) {
+                    paged.add(note.getId());
+                }
+                after = NoteQuery.PageKey.after(order, page.get(page.size() - 1));
+            }
+            assertEquals(order.name(), expected, paged);
+        }
+        assertTrue(store.loadNotePage(NoteQuery.page(NoteQuery.SortOrder.DATE, true, both, null, 10)).isEmpty());
+    }
+
+    @Test
+    public void tagFilterAppliesToChangesAndSearch() {
+        long a = store.saveNote(-1, "market", "süt al", 1).getId();
+        long b = store.saveNote(-1, "market", "ekmek al", 2).getId();
+        long tag = store.tagNotes("alışveriş", new long[]{a});
+        long[] filter = {tag};
+        assertArrayEquals(new long[]{a}, store.searchNoteIds("market*", filter, 10));
+        assertEquals(2, store.searchNoteIds("market*", new long[0], 10).length);
+
+        long generation = store.changeGeneration();
+        store.tagNotes("alışveriş", new long[]{b});
+        NoteChanges changes = store.loadChanges(generation, false, filter, 10);
+        assertArrayEquals(new long[]{b}, changes.ids);
+        assertEquals(1, changes.notes.size());
+
+        // Etiketten çıkan not değişiklik olarak gelir ama özeti yoktur: süzgeçli listeden kaldırılır
+        generation = changes.generation;
+        store.untagNotes(tag, new long[]{a});
+        changes = store.loadChanges(generation, false, filter, 10);
+        assertArrayEquals(new long[]{a}, changes.ids);
+        assertTrue(changes.notes.isEmpty());
+    }
+
+    @Test
+    public void fuzzySearchRanksOnlyTaggedNotes() {
+        List<Long> untagged = new ArrayList<>();
+        store.runInTransaction(() -> {
+            for (int i = 0; i < 30; i++) {
+                untagged.add(store.saveNote(-1, "kelebek " + i, "bahçede", 1000 + i).getId());
+            }
+        });
+        long exact = store.saveNote(-1, "Böcek", "kelebek", 1).getId();
+        long typo = store.saveNote(-1, "Böcek", "kelebke", 2).getId();
+        long archived = store.saveNote(-1, "Böcek", "kelebek", 3).getId();
+        long tag = store.tagNotes("doğa", new long[]{exact, typo, archived, untagged.get(0)});
+        long other = store.tagNotes("bahar", new long[]{typo});
+        store.setArchived(new long[]{archived}, true);
+
+        // Etiketsiz eşleşmeler (hepsi daha yeni) limiti doldurmamalı
+        assertEquals(3, store.fuzzySearchNoteIds("kelebek", new long[]{tag}, 3).length);
+        assertArrayEquals(new long[]{exact, untagged.get(0)},
+                store.fuzzySearchNoteIds("kelebek", new long[]{tag}, 2));
+        assertArrayEquals(new long[]{typo}, store.fuzzySearchNoteIds("kelebek", new long[]{tag, other}, 10));
+        assertEquals(0, store.fuzzySearchNoteIds("bahcede", new long[]{other}, 10).length);
+        assertEquals(10, store.fuzzySearchNoteIds("kelebek", new long[0], 10).length);
+    }
+
+    private void assertCounts(String name, int notes, int archived) {
+        for (NoteTag tag : store.loadTags()) {
+            if (tag.name.equals(name)) {
+                assertEquals(notes, tag.noteCount);
+                assertEquals(archived, tag.archivedCount);
+                return;
+            }
+        }
+        fail(name);
+    }
+
+    private static long[] toArray(List<Long> values) {
+        long[] array = new long[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+}
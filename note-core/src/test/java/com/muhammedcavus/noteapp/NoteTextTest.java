@@ -0,0 +1,36 @@
+package com.muhammedcavus.noteapp;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NoteTextTest {
+
+    @Test
+    public void previewNormalizesLineBreaksAndTrims() {
+        assertEquals("Alışveriş  süt ekmek", NoteText.preview("  Alışveriş\r\n\tsüt\nekmek\n"));
+        assertEquals("", NoteText.preview(null));
+    }
+
+    @Test
+    public void previewCountsCodePoints() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < NoteSchema.PREVIEW_LENGTH + 10; i++) {
+            text.append("📝");
+        }
+        String preview = NoteText.preview(text.toString());
+        assertEquals(NoteSchema.PREVIEW_LENGTH, preview.codePointCount(0, preview.length()));
+    }
+
+    @Test
+    public void wordCounterJoinsWordsSplitAcrossPieces() {
+        assertEquals(0, NoteText.wordCount("  \n\t"));
+        assertEquals(3, NoteText.wordCount("bir iki\nüç"));
+
+        NoteText.WordCounter counter = new NoteText.WordCounter();
+        counter.add("kelimeler par");
+        counter.add("çalara bölündü ");
+        counter.add(" son");
+        assertEquals(4, counter.count());
+    }
+}
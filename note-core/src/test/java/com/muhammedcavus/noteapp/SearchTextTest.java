@@ -0,0 +1,76 @@
+package com.muhammedcavus.noteapp;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SearchTextTest {
+
+    @Test
+    public void fold_handlesTurkishLetters() {
+        assertEquals("kirmizi", SearchText.fold("KIRMIZI"));
+        assertEquals("kirmizi", SearchText.fold("kırmızı"));
+        assertEquals("istanbul", SearchText.fold("İstanbul"));
+        assertEquals("sifre cogu ogle", SearchText.fold("Şifre çoğu öğle"));
+    }
+
+    @Test
+    public void terms_splitOnNonWordCharacters() {
+        assertEquals(Arrays.asList("alisveris", "listesi"), SearchText.terms("  Alışveriş-listesi! "));
+        assertTrue(SearchText.terms("\"*()").isEmpty());
+    }
+
+    @Test
+    public void matchExpression_usesPrefixQueries() {
+        assertEquals("kirm* not*", SearchText.matchExpression(SearchText.terms("kırm not")));
+    }
+
+    @Test
+    public void snippet_highlightsPrefixMatchesInOriginalText() {
+        List<String> terms = SearchText.terms("şifr");
+        String snippet = SearchText.snippet("Wi-Fi ŞİFRESİ: 1234", terms, 100);
+        assertEquals("Wi-Fi " + SearchText.HIGHLIGHT_START + "ŞİFR" + SearchText.HIGHLIGHT_END + "ESİ: 1234", snippet);
+    }
+
+    @Test
+    public void snippet_startsNearFirstMatch() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            text.append("kelime ");
+        }
+        text.append("hedef son");
+        String snippet = SearchText.snippet(text.toString(), SearchText.terms("hedef"), 40);
+        assertTrue(snippet.startsWith("…"));
+        assertTrue(snippet.contains(SearchText.HIGHLIGHT_START + "hedef" + SearchText.HIGHLIGHT_END));
+    }
+
+    @Test
+    public void bm25_prefersRowsWithMoreHits() {
+        // p=1, c=1, n=10, a=[10], l=[10], x=[hitsRow, hitsAll, docsWithHits]
+        int[] oneHit = {1, 1, 10, 10, 10, 1, 5, 3};
+        int[] threeHits = {1, 1, 10, 10, 10, 3, 5, 3};
+        double[] weights = {1.0};
+        assertTrue(Bm25.score(threeHits, weights) > Bm25.score(oneHit, weights));
+        assertTrue(Bm25.score(oneHit, weights) > 0);
+    }
+
+    @Test
+    public void refines_onlyWhenQueryNarrows() {
+        assertTrue(SearchText.refines(SearchText.terms("kır"), SearchText.terms("kırm")));
+        assertTrue(SearchText.refines(SearchText.terms("kırm"), SearchText.terms("kırm not")));
+        assertFalse(SearchText.refines(SearchText.terms("kırm"), SearchText.terms("kır")));
+        assertFalse(SearchText.refines(SearchText.terms("kırm not"), SearchText.terms("not")));
+        assertFalse(SearchText.refines(null, SearchText.terms("not")));
+    }
+
+    @Test
+    public void matchesAll_requiresEveryTermAsWordPrefix() {
+        List<String> terms = SearchText.terms("sifre ev");
+        assertTrue(SearchText.matchesAll(terms, "Ev interneti", "Wi-Fi şifresi"));
+        assertFalse(SearchText.matchesAll(terms, "Ev interneti", "parola"));
+        assertFalse(SearchText.matchesAll(SearchText.terms("fre"), "şifre"));
+    }
+}
@@ -0,0 +1,51 @@
+package com.muhammedcavus.noteapp;
+
+import org.junit.Test;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SortIndexTest {
+
+    @Test
+    public void everyOrderMatchesTheQueryComparator() {
+        Collator collator = TitleKeys.collator(new Locale("tr", "TR"));
+        String[] titles = {"Zeytin", "armut", "Çilek", null, "elma", "Elma", "ılık", "İnek"};
+        Random random = new Random(3);
+        List<NoteModel> notes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String title = titles[random.nextInt(titles.length)];
+            NoteModel note = new NoteModel(i + 1, title, null, 1000 + random.nextInt(50));
+            note.setTitleKey(TitleKeys.key(collator, title));
+            notes.add(note);
+        }
+        Collections.shuffle(notes, random);
+
+        SortIndex index = new SortIndex(notes, null);
+        for (NoteQuery.SortOrder order : NoteQuery.SortOrder.values()) {
+            List<NoteModel> expected = new ArrayList<>(notes);
+            Collections.sort(expected, NoteQuery.comparator(order));
+            assertEquals(order.name(), expected, new ArrayList<>(index.view(order)));
+            // Permütasyon bir kez hesaplanır, sonraki geçişler onu kullanır
+            assertSame(index.order(order), index.order(order));
+        }
+    }
+
+    @Test
+    public void givenOrderIsTakenAsIs() {
+        List<NoteModel> notes = new ArrayList<>();
+        for (int i = 5; i > 0; i--) {
+            notes.add(new NoteModel(i, "Not " + i, null, i * 10));
+        }
+        SortIndex index = new SortIndex(notes, NoteQuery.SortOrder.DATE);
+        assertEquals(notes, index.view(NoteQuery.SortOrder.DATE));
+        assertEquals(1, index.view(NoteQuery.SortOrder.NONE).get(0).getId());
+        assertEquals(0, new SortIndex(new ArrayList<NoteModel>(), null).view(NoteQuery.SortOrder.TITLE).size());
+    }
+}
@@ -0,0 +1,183 @@
+package com.muhammedcavus.noteapp;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SyncEngineTest {
+
+    @Rule
+    public final TempNoteStore temp = new TempNoteStore("sync");
+
+    private LocalSyncServer server;
+
+    @Before
+    public void setUp() {
+        server = new LocalSyncServer();
+    }
+
+    // Bir cihaz: depo ve kaydedilmiş konumlar
+    private final class Device {
+        final JdbcNoteStore store;
+        SyncEngine.State state = new SyncEngine.State(-1, 0);
+
+        Device() throws IOException {
+            store = temp.open();
+        }
+
+        SyncEngine.Result sync() throws IOException {
+            SyncEngine.Result result = new SyncEngine(SyncEngine.direct(store), server, 3).sync(state, saved -> state = saved);
+            assertEquals(state.pushedGeneration, result.state.pushedGeneration);
+            return result;
+        }
+
+        // Başlığa göre notlar (başlık -> içerik)
+        Map<String, String> notes() {
+            Map<String, String> notes = new HashMap<>();
+            for (long id : store.loadSyncNoteIds(0, 1000)) {
+                SyncRecord record = store.loadSyncRecord(id);
+                notes.put(record.title, record.content);
+            }
+            return notes;
+        }
+
+        long idOf(String title) {
+            for (long id : store.loadSyncNoteIds(0, 1000)) {
+                if (title.equals(store.loadNote(id).getTitle())) {
+                    return id;
+                }
+            }
+            throw new AssertionError(title);
+        }
+    }
+
+    @Test
+    public void codecRoundTrip() throws IOException {
+        StringBuilder big = new StringBuilder();
+        while (big.length() < 100_000) {
+            big.append("Satır ğüşıöç 😀 ").append(big.length()).append('\n');
+        }
+        List<SyncRecord> records = Arrays.asList(
+                new SyncRecord("a1", 3, 100, 200, false, true, "Başlık", big.toString(), 7),
+                SyncRecord.tombstone("b2", 5, 300, 9),
+                new SyncRecord("c3", 1, 0, 0, false, false, null, "", -1));
+        SyncBatch decoded = SyncCodec.decode(SyncCodec.encode(new SyncBatch(42, false, records)));
+        assertEquals(42, decoded.cursor);
+        assertFalse(decoded.complete);
+        assertEquals(3, decoded.records.size());
+        for (int i = 0; i < records.size(); i++) {
+            SyncRecord expected = records.get(i);
+            SyncRecord actual = decoded.records.get(i);
+            assertEquals(expected.syncId, actual.syncId);
+            assertEquals(0, SyncRecord.compare(expected, actual));
+            assertEquals(expected.createdAt, actual.createdAt);
+            assertEquals(-1, actual.localId);
+        }
+        try {
+            SyncCodec.decode(Arrays.copyOf(SyncCodec.encode(new SyncBatch(1, true, records)), 40));
+            fail("Eksik veri okunmamalı");
+        } catch (IOException expected) {
+            // beklenen
+        }
+    }
+
+    @Test
+    public void twoDevicesConvergeAndIdleSyncMovesNothing() throws IOException {
+        Device a = new Device();
+        Device b = new Device();
+        StringBuilder large = new StringBuilder();
+        while (large.length() < NoteChunks.CHUNK_SIZE * 3) {
+            large.append("Uzun satır ").append(large.length()).append('\n');
+        }
+        for (int i = 0; i < 7; i++) {
+            a.store.saveNote(-1, "Not " + i, "içerik " + i, 1000 + i);
+        }
+        a.store.saveNote(-1, "Büyük", large.toString(), 2000);
+
+        SyncEngine.Result first = a.sync();
+        assertEquals(8, first.pushed);
+        assertEquals(8, server.size());
+        b.sync();
+        assertEquals(a.notes(), b.notes());
+        assertEquals(large.toString(), b.notes().get("Büyük"));
+
+        // Değişiklik yoksa gönderilecek ya da uygulanacak bir şey yok
+        a.sync();
+        SyncEngine.Result idle = a.sync();
+        assertEquals(0, idle.pushed);
+        assertEquals(0, idle.pulled);
+        assertEquals(0, idle.changedIds.length);
+
+        // Sadece değişen not gider
+        a.store.saveNote(a.idOf("Not 3"), "Not 3", "yeni içerik", 5000);
+        SyncEngine.Result incremental = a.sync();
+        assertEquals(1, incremental.pushed);
+        SyncEngine.Result received = b.sync();
+        assertEquals(0, received.pushed);
+        assertArrayEquals(new long[]{b.idOf("Not 3")}, received.changedIds);
+        assertEquals("yeni içerik", b.notes().get("Not 3"));
+    }
+
+    @Test
+    public void tagEditsDoNotPushUnchangedNotes() throws IOException {
+        Device a = new Device();
+        long kept = a.store.saveNote(-1, "Gönderildi", "aynı", 1000).getId();
+        a.sync();
+
+        // Gönderilmiş not etiketlenince liste yenilenir ama sunucuya tekrar gitmez
+        long generation = a.store.changeGeneration();
+        long tag = a.store.tagNotes("iş", new long[]{kept});
+        assertTrue(a.store.changeGeneration() > generation);
+        assertEquals(0, a.sync().pushed);
+        a.store.untagNotes(tag, new long[]{kept});
+        assertEquals(0, a.sync().pushed);
+
+        // Gönderilmemiş değişiklik etiketlenince de gönderilmeyi bekler
+        a.store.saveNote(kept, "Gönderildi", "değişti", 2000);
+        a.store.tagNotes("iş", new long[]{kept});
+        assertEquals(1, a.sync().pushed);
+        assertEquals(0, a.sync().pushed);
+    }
+
+    @Test
+    public void lastWriterWinsAndDeletesPropagate() throws IOException {
+        Device a = new Device();
+        Device b = new Device();
+        a.store.saveNote(-1, "Ortak", "ilk", 1000);
+        a.store.saveNote(-1, "Silinecek", "geçici", 1000);
+        a.sync();
+        b.sync();
+
+        // İki cihaz aynı notu değiştirir; sonra yazan (b) kazanır, a'nın gönderimi reddedilir
+        b.store.saveNote(b.idOf("Ortak"), "Ortak", "b'nin hali", 3000);
+        a.store.saveNote(a.idOf("Ortak"), "Ortak", "a'nın hali", 2000);
+        b.sync();
+        SyncEngine.Result conflicted = a.sync();
+        assertEquals(1, conflicted.conflicts);
+        assertEquals("b'nin hali", a.notes().get("Ortak"));
+        assertEquals("b'nin hali", b.notes().get("Ortak"));
+
+        // Silme kaydı diğer cihaza gider; silinen not geri gelmez
+        b.store.deleteNote(b.idOf("Silinecek"));
+        b.sync();
+        a.sync();
+        assertFalse(a.notes().containsKey("Silinecek"));
+        assertTrue(server.get(b.store.loadSyncRecord(b.idOf("Ortak")).syncId) != null);
+        SyncEngine.Result again = b.sync();
+        assertEquals(0, again.changedIds.length);
+        assertFalse(b.notes().containsKey("Silinecek"));
+
+        // Yeni cihaz sadece yaşayan notları alır
+        Device c = new Device();
+        c.sync();
+        assertEquals(a.notes(), c.notes());
+    }
+}
@@ -0,0 +1,43 @@
+package com.muhammedcavus.noteapp;
+
+import org.junit.rules.ExternalResource;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Testler için geçici dosyalarda açılan depolar; test bitince kapatılır, veritabanı dosyası WAL ve
+// paylaşılan bellek dosyalarıyla birlikte silinir
+final class TempNoteStore extends ExternalResource {
+
+    private final String prefix;
+    private final List<File> files = new ArrayList<>();
+    private final List<JdbcNoteStore> stores = new ArrayList<>();
+
+    TempNoteStore(String prefix) {
+        this.prefix = prefix;
+    }
+
+    // Yeni, boş bir depo
+    JdbcNoteStore open() throws IOException {
+        File file = File.createTempFile(prefix, ".db");
+        file.delete();
+        files.add(file);
+        JdbcNoteStore store = JdbcNoteStore.open(file.getPath());
+        stores.add(store);
+        return store;
+    }
+
+    @Override
+    protected void after() {
+        for (JdbcNoteStore store : stores) {
+            store.close();
+        }
+        for (File file : files) {
+            for (String suffix : new String[]{"", "-wal", "-shm"}) {
+                new File(file.getPath() + suffix).delete();
+            }
+        }
+    }
+}
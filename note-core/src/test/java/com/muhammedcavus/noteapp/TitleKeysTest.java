@@ -0,0 +1,44 @@
+package com.muhammedcavus.noteapp;
+
+import org.junit.Test;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TitleKeysTest {
+
+    private static final Locale TURKISH = new Locale("tr", "TR");
+
+    @Test
+    public void keysSortLikeTheCollator() {
+        List<String> expected = Arrays.asList("cam", "Çanta", "çay", "dağ", "gemi", "ğ", "ılık", "Işık", "ilk",
+                "İnek", "otel", "Ördek", "sabun", "şeker", "uçak", "üzüm", "zil");
+        Collator collator = TitleKeys.collator(TURKISH);
+        List<String> titles = new ArrayList<>(expected);
+        Collections.shuffle(titles, new Random(1));
+        // Anahtarlar SQLite'ın BINARY karşılaştırması gibi düz String sırasıyla karşılaştırılır
+        Collections.sort(titles, (a, b) -> TitleKeys.key(collator, a).compareTo(TitleKeys.key(collator, b)));
+        assertEquals(expected, titles);
+    }
+
+    @Test
+    public void emptyTitleSortsFirstAndLongTitlesAreTruncated() {
+        Collator collator = TitleKeys.collator(TURKISH);
+        assertEquals("", TitleKeys.key(collator, null));
+        assertEquals("", TitleKeys.key(collator, ""));
+        assertTrue(TitleKeys.key(collator, "a").compareTo("") > 0);
+
+        StringBuilder prefix = new StringBuilder();
+        for (int i = 0; i < TitleKeys.MAX_TITLE_CHARS; i++) {
+            prefix.append("📝");
+        }
+        assertEquals(TitleKeys.key(collator, prefix.toString()), TitleKeys.key(collator, prefix + " fark"));
+    }
+}
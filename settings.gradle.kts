@@ -21,4 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "NoteApp"
 include(":app")
+include(":note-core")
  
\ No newline at end of file